@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+
+/**
+ * Benchmark for method invocations on JDK dynamic proxies and CGLIB proxies,
+ * comparing regular and frozen proxy configurations.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ProxyInvocationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"jdk", "cglib"})
+		public String proxyType;
+
+		@Param({"false", "true"})
+		public boolean frozen;
+
+		@Param({"none", "interceptors", "dynamicMatcher"})
+		public String advice;
+
+		public Service proxy;
+
+		@Setup
+		public void setup() {
+			ProxyFactory pf = new ProxyFactory(new ServiceImpl());
+			pf.setProxyTargetClass("cglib".equals(this.proxyType));
+			switch (this.advice) {
+				case "interceptors":
+					pf.addAdvice(new PassThroughInterceptor());
+					pf.addAdvice(new PassThroughInterceptor());
+					pf.addAdvice(new PassThroughInterceptor());
+					break;
+				case "dynamicMatcher":
+					pf.addAdvice(new PassThroughInterceptor());
+					pf.addAdvisor(new DefaultPointcutAdvisor(new DynamicMethodMatcherPointcut() {
+						@Override
+						public boolean matches(Method method, Class<?> targetClass, Object... args) {
+							return true;
+						}
+					}, new PassThroughInterceptor()));
+					break;
+			}
+			pf.setFrozen(this.frozen);
+			this.proxy = (Service) pf.getProxy();
+		}
+	}
+
+	@Benchmark
+	public int invokeWithArgument(BenchmarkState state) {
+		return state.proxy.compute(42);
+	}
+
+	@Benchmark
+	public String invokeWithoutArgument(BenchmarkState state) {
+		return state.proxy.getName();
+	}
+
+
+	public interface Service {
+
+		int compute(int input);
+
+		String getName();
+	}
+
+
+	public static class ServiceImpl implements Service {
+
+		@Override
+		public int compute(int input) {
+			return input * 2;
+		}
+
+		@Override
+		public String getName() {
+			return "service";
+		}
+	}
+
+
+	private static class PassThroughInterceptor implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			return invocation.proceed();
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ import java.io.ObjectInputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -29,7 +30,13 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.BindingAnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactAnnotationTypePattern;
 import org.aspectj.weaver.patterns.NamePattern;
+import org.aspectj.weaver.patterns.OrPointcut;
 import org.aspectj.weaver.reflect.ReflectionWorld.ReflectionWorldException;
 import org.aspectj.weaver.reflect.ShadowMatchImpl;
 import org.aspectj.weaver.tools.ContextBasedMatcher;
@@ -50,6 +57,7 @@ import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.aop.framework.autoproxy.ProxyCreationContext;
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AbstractExpressionPointcut;
+import org.springframework.aop.support.AnnotationConstrainedMethodMatcher;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
@@ -83,7 +91,7 @@ import org.springframework.util.StringUtils;
  */
 @SuppressWarnings("serial")
 public class AspectJExpressionPointcut extends AbstractExpressionPointcut
-		implements ClassFilter, IntroductionAwareMethodMatcher, BeanFactoryAware {
+		implements ClassFilter, IntroductionAwareMethodMatcher, AnnotationConstrainedMethodMatcher, BeanFactoryAware {
 
 	private static final Set<PointcutPrimitive> SUPPORTED_PRIMITIVES = new HashSet<>();
 
@@ -119,6 +127,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient Set<String> requiredAnnotationTypeNames;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -196,6 +207,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
 			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.requiredAnnotationTypeNames = determineRequiredAnnotationTypeNames(this.pointcutExpression);
 		}
 		return this.pointcutExpression;
 	}
@@ -260,6 +272,51 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Determine the annotation types required on matching methods, derived from
+	 * the {@code @annotation} designators in the given pointcut expression.
+	 */
+	@Nullable
+	private static Set<String> determineRequiredAnnotationTypeNames(PointcutExpression pointcutExpression) {
+		if (pointcutExpression instanceof PointcutExpressionImpl) {
+			return determineRequiredAnnotationTypeNames(
+					((PointcutExpressionImpl) pointcutExpression).getUnderlyingPointcut());
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Set<String> determineRequiredAnnotationTypeNames(org.aspectj.weaver.patterns.Pointcut pointcut) {
+		if (pointcut instanceof AnnotationPointcut) {
+			ExactAnnotationTypePattern typePattern = ((AnnotationPointcut) pointcut).getAnnotationTypePattern();
+			if (typePattern.getClass() == ExactAnnotationTypePattern.class ||
+					typePattern.getClass() == BindingAnnotationTypePattern.class) {
+				return Collections.singleton(typePattern.getAnnotationType().getName());
+			}
+		}
+		else if (pointcut instanceof AndPointcut) {
+			// Either side's constraint applies to the entire conjunction
+			Set<String> left = determineRequiredAnnotationTypeNames(((AndPointcut) pointcut).getLeft());
+			Set<String> right = determineRequiredAnnotationTypeNames(((AndPointcut) pointcut).getRight());
+			if (left == null || (right != null && right.size() < left.size())) {
+				return right;
+			}
+			return left;
+		}
+		else if (pointcut instanceof OrPointcut) {
+			// Only constrained if both sides are constrained
+			Set<String> left = determineRequiredAnnotationTypeNames(((OrPointcut) pointcut).getLeft());
+			Set<String> right = determineRequiredAnnotationTypeNames(((OrPointcut) pointcut).getRight());
+			if (left != null && right != null) {
+				Set<String> combined = new HashSet<>(left);
+				combined.addAll(right);
+				return combined;
+			}
+		}
+		return null;
+	}
+
+
 	/**
 	 * Return the underlying AspectJ pointcut expression.
 	 */
@@ -289,6 +346,13 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		return false;
 	}
 
+	@Override
+	@Nullable
+	public Set<String> getRequiredAnnotationTypeNames() {
+		obtainPointcutExpression();
+		return this.requiredAnnotationTypeNames;
+	}
+
 	@Override
 	public boolean matches(Method method, Class<?> targetClass, boolean hasIntroductions) {
 		obtainPointcutExpression();
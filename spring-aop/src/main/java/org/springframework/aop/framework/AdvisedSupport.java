@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,6 +83,9 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** Cache with Method as key and advisor chain List as value. */
 	private transient Map<MethodCacheKey, List<Object>> methodCache;
 
+	/** Cache with Method as key and prepared interceptor chain as value, for frozen configurations. */
+	private transient Map<Method, PreparedInterceptorChain> preparedChainCache;
+
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
 	 * of registration, to create JDK proxy with specified order of interfaces.
@@ -101,6 +104,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	public AdvisedSupport() {
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.preparedChainCache = new ConcurrentHashMap<>(32);
 	}
 
 	/**
@@ -474,11 +478,30 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 		return cached;
 	}
 
+	/**
+	 * Determine a prepared interceptor chain for the given method, for use by
+	 * AOP proxies when this configuration is {@link #isFrozen() frozen}.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @return the prepared chain, derived from
+	 * {@link #getInterceptorsAndDynamicInterceptionAdvice}
+	 * @since 5.3.9
+	 */
+	PreparedInterceptorChain getPreparedInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		PreparedInterceptorChain cached = this.preparedChainCache.get(method);
+		if (cached == null) {
+			cached = new PreparedInterceptorChain(method, getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			this.preparedChainCache.put(method, cached);
+		}
+		return cached;
+	}
+
 	/**
 	 * Invoked when advice has changed.
 	 */
 	protected void adviceChanged() {
 		this.methodCache.clear();
+		this.preparedChainCache.clear();
 	}
 
 	/**
@@ -537,6 +560,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 
 		// Initialize transient fields.
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.preparedChainCache = new ConcurrentHashMap<>(32);
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -666,23 +666,7 @@ class CglibAopProxy implements AopProxy, Serializable {
 				// Get as late as possible to minimize the time we "own" the target, in case it comes from a pool...
 				target = targetSource.getTarget();
 				Class<?> targetClass = (target != null ? target.getClass() : null);
-				// 基于advisor，生成一个拦截器的调用链路
-				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
-				Object retVal;
-				// Check whether we only have one InvokerInterceptor: that is,
-				// no real advice, but just reflective invocation of the target.
-				if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
-					// We can skip creating a MethodInvocation: just invoke the target directly.
-					// Note that the final invoker must be an InvokerInterceptor, so we know
-					// it does nothing but a reflective operation on the target, and no hot
-					// swapping or fancy proxying.
-					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-					retVal = methodProxy.invoke(target, argsToUse);
-				}
-				else {
-					// We need to create a method invocation...
-					retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy).proceed();
-				}
+				Object retVal = invoke(proxy, target, targetClass, method, args, methodProxy);
 				retVal = processReturnType(proxy, target, method, retVal);
 				return retVal;
 			}
@@ -697,6 +681,43 @@ class CglibAopProxy implements AopProxy, Serializable {
 			}
 		}
 
+		/**
+		 * Invoke the given method through its interceptor chain: the chain prepared
+		 * for the method in case of a frozen configuration, or the chain determined
+		 * for the current invocation otherwise.
+		 */
+		@Nullable
+		private Object invoke(Object proxy, @Nullable Object target, @Nullable Class<?> targetClass,
+				Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+
+			PreparedInterceptorChain preparedChain = null;
+			List<Object> chain;
+			if (this.advised.isFrozen()) {
+				// Frozen configuration: use the chain prepared for this method.
+				preparedChain = this.advised.getPreparedInterceptorChain(method, targetClass);
+				chain = preparedChain.getInterceptorsAndDynamicMethodMatchers();
+			}
+			else {
+				// 基于advisor，生成一个拦截器的调用链路
+				chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
+			// Check whether we only have one InvokerInterceptor: that is,
+			// no real advice, but just reflective invocation of the target.
+			if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
+				// We can skip creating a MethodInvocation: just invoke the target directly.
+				// Note that the final invoker must be an InvokerInterceptor, so we know
+				// it does nothing but a reflective operation on the target, and no hot
+				// swapping or fancy proxying.
+				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+				return methodProxy.invoke(target, argsToUse);
+			}
+			// We need to create a method invocation...
+			CglibMethodInvocation invocation = (preparedChain != null ?
+					new CglibMethodInvocation(proxy, target, method, args, targetClass, preparedChain, methodProxy) :
+					new CglibMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy));
+			return invocation.proceed();
+		}
+
 		@Override
 		public boolean equals(@Nullable Object other) {
 			return (this == other ||
@@ -727,12 +748,22 @@ class CglibAopProxy implements AopProxy, Serializable {
 				List<Object> interceptorsAndDynamicMethodMatchers, MethodProxy methodProxy) {
 
 			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.methodProxy = (isMethodProxyApplicable(method) ? methodProxy : null);
+		}
+
+		public CglibMethodInvocation(Object proxy, @Nullable Object target, Method method,
+				Object[] arguments, @Nullable Class<?> targetClass,
+				PreparedInterceptorChain preparedChain, MethodProxy methodProxy) {
+
+			super(proxy, target, method, arguments, targetClass, preparedChain);
+			this.methodProxy = (isMethodProxyApplicable(method) ? methodProxy : null);
+		}
 
+		private static boolean isMethodProxyApplicable(Method method) {
 			// Only use method proxy for public methods not derived from java.lang.Object
-			this.methodProxy = (Modifier.isPublic(method.getModifiers()) &&
+			return (Modifier.isPublic(method.getModifiers()) &&
 					method.getDeclaringClass() != Object.class && !AopUtils.isEqualsMethod(method) &&
-					!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method) ?
-					methodProxy : null);
+					!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method));
 		}
 
 		@Override
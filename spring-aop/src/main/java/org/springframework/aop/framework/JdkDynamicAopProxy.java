@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -199,6 +199,20 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			target = targetSource.getTarget();
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
+			if (this.advised.isFrozen()) {
+				// Frozen configuration: use the chain prepared for this method,
+				// avoiding a chain lookup and dynamic matcher checks per invocation.
+				PreparedInterceptorChain chain = this.advised.getPreparedInterceptorChain(method, targetClass);
+				if (chain.isEmpty()) {
+					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+					retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				}
+				else {
+					retVal = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain).proceed();
+				}
+				return processReturnType(proxy, target, method, retVal);
+			}
+
 			// Get the interception chain for this method.
 			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
 
@@ -219,21 +233,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				retVal = invocation.proceed();
 			}
 
-			// Massage return value if necessary.
-			Class<?> returnType = method.getReturnType();
-			if (retVal != null && retVal == target &&
-					returnType != Object.class && returnType.isInstance(proxy) &&
-					!RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
-				// Special case: it returned "this" and the return type of the method
-				// is type-compatible. Note that we can't help if the target sets
-				// a reference to itself in another returned object.
-				retVal = proxy;
-			}
-			else if (retVal == null && returnType != Void.TYPE && returnType.isPrimitive()) {
-				throw new AopInvocationException(
-						"Null return value from advice does not match primitive return type for: " + method);
-			}
-			return retVal;
+			return processReturnType(proxy, target, method, retVal);
 		}
 		finally {
 			if (target != null && !targetSource.isStatic()) {
@@ -247,6 +247,30 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 	}
 
+	/**
+	 * Massage the return value if necessary.
+	 */
+	@Nullable
+	private static Object processReturnType(
+			Object proxy, @Nullable Object target, Method method, @Nullable Object returnValue) {
+
+		Object retVal = returnValue;
+		Class<?> returnType = method.getReturnType();
+		if (retVal != null && retVal == target &&
+				returnType != Object.class && returnType.isInstance(proxy) &&
+				!RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+			// Special case: it returned "this" and the return type of the method
+			// is type-compatible. Note that we can't help if the target sets
+			// a reference to itself in another returned object.
+			retVal = proxy;
+		}
+		else if (retVal == null && returnType != Void.TYPE && returnType.isPrimitive()) {
+			throw new AopInvocationException(
+					"Null return value from advice does not match primitive return type for: " + method);
+		}
+		return retVal;
+	}
+
 
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+
+/**
+ * Interceptor chain for a specific method, pre-resolved once for a frozen
+ * proxy configuration. Avoids the per-invocation chain lookup as well as
+ * per-invocation method resolution, and exposes purely static chains as an
+ * array for index-based traversal in {@link ReflectiveMethodInvocation}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see AdvisedSupport#getPreparedInterceptorChain
+ */
+final class PreparedInterceptorChain {
+
+	private final List<Object> interceptorsAndDynamicMethodMatchers;
+
+	@Nullable
+	private final MethodInterceptor[] interceptors;
+
+	private final Method bridgedMethod;
+
+
+	PreparedInterceptorChain(Method method, List<Object> interceptorsAndDynamicMethodMatchers) {
+		this.interceptorsAndDynamicMethodMatchers = interceptorsAndDynamicMethodMatchers;
+		this.interceptors = toStaticInterceptors(interceptorsAndDynamicMethodMatchers);
+		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+	}
+
+	@Nullable
+	private static MethodInterceptor[] toStaticInterceptors(List<Object> interceptorsAndDynamicMethodMatchers) {
+		MethodInterceptor[] interceptors = new MethodInterceptor[interceptorsAndDynamicMethodMatchers.size()];
+		for (int i = 0; i < interceptors.length; i++) {
+			Object interceptor = interceptorsAndDynamicMethodMatchers.get(i);
+			if (!(interceptor instanceof MethodInterceptor)) {
+				// Dynamic method matcher -> needs to be evaluated per invocation
+				return null;
+			}
+			interceptors[i] = (MethodInterceptor) interceptor;
+		}
+		return interceptors;
+	}
+
+
+	/**
+	 * Return whether the chain is empty, i.e. the target can be invoked directly.
+	 */
+	boolean isEmpty() {
+		return this.interceptorsAndDynamicMethodMatchers.isEmpty();
+	}
+
+	/**
+	 * Return the original chain, possibly including {@link InterceptorAndDynamicMethodMatcher}s.
+	 */
+	List<Object> getInterceptorsAndDynamicMethodMatchers() {
+		return this.interceptorsAndDynamicMethodMatchers;
+	}
+
+	/**
+	 * Return the chain as an array of interceptors if it consists of
+	 * statically matched interceptors only, or {@code null} otherwise.
+	 */
+	@Nullable
+	MethodInterceptor[] getInterceptors() {
+		return this.interceptors;
+	}
+
+	/**
+	 * Return the method to invoke, with bridge methods resolved.
+	 */
+	Method getBridgedMethod() {
+		return this.bridgedMethod;
+	}
+
+}
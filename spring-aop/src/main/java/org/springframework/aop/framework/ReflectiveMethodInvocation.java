@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,6 +85,12 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 	 */
 	protected final List<?> interceptorsAndDynamicMethodMatchers;
 
+	/**
+	 * Array of statically matched interceptors from a prepared chain, if available.
+	 */
+	@Nullable
+	private final MethodInterceptor[] preparedInterceptors;
+
 	/**
 	 * Index from 0 of the current interceptor we're invoking.
 	 * -1 until we invoke: then the current interceptor.
@@ -116,6 +122,31 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
 		this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
 		this.interceptorsAndDynamicMethodMatchers = interceptorsAndDynamicMethodMatchers;
+		this.preparedInterceptors = null;
+	}
+
+	/**
+	 * Construct a new ReflectiveMethodInvocation for the given prepared chain,
+	 * traversing an array of statically matched interceptors if possible.
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param method the method to invoke
+	 * @param arguments the arguments to invoke the method with
+	 * @param targetClass the target class, for MethodMatcher invocations
+	 * @param preparedChain the interceptor chain prepared for the given method
+	 * @since 5.3.9
+	 */
+	ReflectiveMethodInvocation(
+			Object proxy, @Nullable Object target, Method method, @Nullable Object[] arguments,
+			@Nullable Class<?> targetClass, PreparedInterceptorChain preparedChain) {
+
+		this.proxy = proxy;
+		this.target = target;
+		this.targetClass = targetClass;
+		this.method = preparedChain.getBridgedMethod();
+		this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
+		this.interceptorsAndDynamicMethodMatchers = preparedChain.getInterceptorsAndDynamicMethodMatchers();
+		this.preparedInterceptors = preparedChain.getInterceptors();
 	}
 
 
@@ -159,6 +190,15 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 	@Override
 	@Nullable
 	public Object proceed() throws Throwable {
+		MethodInterceptor[] interceptors = this.preparedInterceptors;
+		if (interceptors != null) {
+			// Prepared chain with statically matched interceptors only.
+			if (this.currentInterceptorIndex == interceptors.length - 1) {
+				return invokeJoinpoint();
+			}
+			return interceptors[++this.currentInterceptorIndex].invoke(this);
+		}
+
 		// We start with an index of -1 and increment early.
 		if (this.currentInterceptorIndex == this.interceptorsAndDynamicMethodMatchers.size() - 1) {
 			return invokeJoinpoint();
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.util.Set;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.lang.Nullable;
+
+/**
+ * Extension of the {@link MethodMatcher} interface for matchers which
+ * can only ever match methods declaring specific annotations, e.g. an
+ * AspectJ expression with an {@code @annotation} designator.
+ *
+ * <p>Allows {@link AopUtils#canApply(org.springframework.aop.Pointcut, Class, boolean)}
+ * to reject a target class upfront if none of its methods declares any of the
+ * required annotations, based on an index shared across all pointcuts, instead
+ * of evaluating the matcher against every single method of the target class.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ */
+public interface AnnotationConstrainedMethodMatcher extends MethodMatcher {
+
+	/**
+	 * Return the fully-qualified names of the annotation types of which
+	 * at least one needs to be directly declared on a method in order for
+	 * this matcher to match it (either on the given method or on the most
+	 * specific method in the target class hierarchy).
+	 * @return the set of annotation type names, or {@code null} if this
+	 * matcher is not constrained to annotated methods
+	 */
+	@Nullable
+	Set<String> getRequiredAnnotationTypeNames();
+
+}
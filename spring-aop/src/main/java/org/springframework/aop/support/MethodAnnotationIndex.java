@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Index of the annotation types declared on the methods of a target class,
+ * shared across all {@link AnnotationConstrainedMethodMatcher} checks in
+ * {@link AopUtils#canApply(org.springframework.aop.Pointcut, Class, boolean)}.
+ *
+ * <p>Covers the same methods that {@code canApply} iterates over, i.e. all
+ * methods declared in the target class hierarchy and its interfaces.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ */
+abstract class MethodAnnotationIndex {
+
+	private static final Map<Class<?>, Set<String>> annotationTypeNamesCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	/**
+	 * Determine whether the given method matcher could possibly match
+	 * any method of the given target class.
+	 * @param methodMatcher the method matcher to check
+	 * @param targetClass the target class
+	 * @return {@code false} if the matcher is constrained to annotations which
+	 * are not declared on any method of the target class, {@code true} otherwise
+	 */
+	static boolean couldMatch(MethodMatcher methodMatcher, Class<?> targetClass) {
+		if (!(methodMatcher instanceof AnnotationConstrainedMethodMatcher)) {
+			return true;
+		}
+		Set<String> requiredTypeNames =
+				((AnnotationConstrainedMethodMatcher) methodMatcher).getRequiredAnnotationTypeNames();
+		if (requiredTypeNames == null) {
+			return true;
+		}
+		Set<String> declaredTypeNames = getDeclaredAnnotationTypeNames(targetClass);
+		for (String requiredTypeName : requiredTypeNames) {
+			if (declaredTypeNames.contains(requiredTypeName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Set<String> getDeclaredAnnotationTypeNames(Class<?> targetClass) {
+		Set<String> typeNames = annotationTypeNamesCache.get(targetClass);
+		if (typeNames == null) {
+			typeNames = introspectDeclaredAnnotationTypeNames(targetClass);
+			annotationTypeNamesCache.put(targetClass, typeNames);
+		}
+		return typeNames;
+	}
+
+	private static Set<String> introspectDeclaredAnnotationTypeNames(Class<?> targetClass) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		if (!Proxy.isProxyClass(targetClass)) {
+			classes.add(targetClass);
+		}
+		classes.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+
+		Set<String> typeNames = new HashSet<>();
+		for (Class<?> clazz : classes) {
+			for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
+				for (Annotation annotation : method.getDeclaredAnnotations()) {
+					typeNames.add(annotation.annotationType().getName());
+				}
+			}
+		}
+		return (typeNames.isEmpty() ? Collections.emptySet() : typeNames);
+	}
+
+}
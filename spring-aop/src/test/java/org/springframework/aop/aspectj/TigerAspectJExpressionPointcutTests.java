@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +28,7 @@ import test.annotation.EmptySpringAnnotation;
 import test.annotation.transaction.Tx;
 
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.testfixture.beans.TestBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -247,6 +249,46 @@ public class TigerAspectJExpressionPointcutTests {
 				ProcessesSpringAnnotatedParameters.class)).isFalse();
 	}
 
+	@Test
+	public void testRequiredAnnotationTypeNames() {
+		String tx = Tx.class.getName();
+		String empty = EmptySpringAnnotation.class.getName();
+		assertThat(getRequiredAnnotationTypeNames("@annotation(" + tx + ")")).containsExactly(tx);
+		assertThat(getRequiredAnnotationTypeNames("execution(* *(..)) && @annotation(" + tx + ")")).containsExactly(tx);
+		assertThat(getRequiredAnnotationTypeNames("@annotation(" + tx + ") || @annotation(" + empty + ")"))
+				.containsExactlyInAnyOrder(tx, empty);
+		assertThat(getRequiredAnnotationTypeNames("@annotation(" + tx + ") || execution(* *(..))")).isNull();
+		assertThat(getRequiredAnnotationTypeNames("!@annotation(" + tx + ")")).isNull();
+		assertThat(getRequiredAnnotationTypeNames("@within(" + tx + ")")).isNull();
+		assertThat(getRequiredAnnotationTypeNames(AspectJExpressionPointcutTests.MATCH_ALL_METHODS)).isNull();
+
+		AspectJExpressionPointcut binding = new AspectJExpressionPointcut(
+				TigerAspectJExpressionPointcutTests.class, new String[] {"tx"}, new Class<?>[] {Tx.class});
+		binding.setExpression("@annotation(tx)");
+		assertThat(binding.getRequiredAnnotationTypeNames()).containsExactly(tx);
+	}
+
+	@Test
+	public void testCanApplyWithRequiredAnnotation() {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@annotation(test.annotation.transaction.Tx)");
+
+		assertThat(AopUtils.canApply(ajexp, BeanA.class)).isTrue();
+		assertThat(AopUtils.canApply(ajexp, TestBean.class)).isFalse();
+		assertThat(AopUtils.canApply(ajexp, HasTransactionalAnnotation.class)).isFalse();
+		assertThat(AopUtils.canApply(ajexp, BeanB.class)).isFalse();
+
+		ProxyFactory factory = new ProxyFactory(new BeanA());
+		factory.setProxyTargetClass(false);
+		assertThat(AopUtils.canApply(ajexp, factory.getProxy().getClass())).isTrue();
+	}
+
+	private Set<String> getRequiredAnnotationTypeNames(String expression) {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression(expression);
+		return ajexp.getRequiredAnnotationTypeNames();
+	}
+
 
 	public static class HasGeneric {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 
 package org.springframework.aop.framework;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntSupplier;
 
 import javax.accessibility.Accessible;
 import javax.swing.JFrame;
@@ -29,10 +31,13 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.aop.Advisor;
+import org.springframework.aop.AopInvocationException;
 import org.springframework.aop.interceptor.DebugInterceptor;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultIntroductionAdvisor;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
 import org.springframework.aop.testfixture.advice.CountingBeforeAdvice;
 import org.springframework.aop.testfixture.interceptor.NopInterceptor;
 import org.springframework.aop.testfixture.interceptor.TimestampIntroductionInterceptor;
@@ -370,6 +375,76 @@ public class ProxyFactoryTests {
 		assertThat(proxy.getName()).isEqualTo("tb");
 	}
 
+	@Test
+	public void testFrozenInterfaceProxyWithStaticChain() {
+		TestBean target = new TestBean("tb", 1);
+		ProxyFactory pf = new ProxyFactory(target);
+		NopInterceptor nop1 = new NopInterceptor();
+		NopInterceptor nop2 = new NopInterceptor();
+		pf.addAdvice(nop1);
+		pf.addAdvice(nop2);
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		proxy.setAge(5);
+		assertThat(proxy.getAge()).isEqualTo(5);
+		assertThat(nop1.getCount()).isEqualTo(2);
+		assertThat(nop2.getCount()).isEqualTo(2);
+		assertThat(proxy.getSpouse()).isNull();
+		assertThat(nop1.getCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void testFrozenInterfaceProxyWithDynamicMatcher() {
+		TestBean target = new TestBean("tb", 1);
+		ProxyFactory pf = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		NopInterceptor dynamicNop = new NopInterceptor();
+		pf.addAdvice(nop);
+		pf.addAdvisor(new DefaultPointcutAdvisor(new DynamicMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass, Object... args) {
+				return (args.length == 1 && Integer.valueOf(42).equals(args[0]));
+			}
+		}, dynamicNop));
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		proxy.setAge(5);
+		assertThat(dynamicNop.getCount()).isEqualTo(0);
+		proxy.setAge(42);
+		assertThat(dynamicNop.getCount()).isEqualTo(1);
+		assertThat(proxy.getAge()).isEqualTo(42);
+		assertThat(nop.getCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void testFrozenInterfaceProxyWithoutMatchingAdvice() {
+		TestBean target = new TestBean("tb", 1);
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvisor(new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass) {
+				return method.getName().equals("getName");
+			}
+		}, new NopInterceptor()));
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		assertThat(proxy.getAge()).isEqualTo(1);
+		assertThat(proxy.getName()).isEqualTo("tb");
+		assertThat(proxy.returnsThis()).isSameAs(target);
+	}
+
+	@Test
+	public void testFrozenInterfaceProxyWithNullForPrimitive() {
+		ProxyFactory pf = new ProxyFactory(IntSupplier.class, (MethodInterceptor) invocation -> null);
+		pf.setFrozen(true);
+		IntSupplier proxy = (IntSupplier) pf.getProxy();
+
+		assertThatExceptionOfType(AopInvocationException.class).isThrownBy(proxy::getAsInt);
+	}
+
 
 	@Order(2)
 	public static class A implements Runnable {
@@ -18,23 +18,27 @@ package org.springframework.beans.factory;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 
 import static org.springframework.core.testfixture.io.ResourceTestUtils.qualifiedResource;
 
 /**
- * Benchmark for creating prototype beans in a concurrent fashion.
+ * Benchmark for creating prototype beans and lazy singleton beans in a concurrent fashion.
  * This benchmark requires to customize the number of worker threads {@code -t <int>} on the
  * CLI when running this particular benchmark to leverage concurrency.
  *
@@ -61,12 +65,49 @@ public class ConcurrentBeanFactoryBenchmark {
 
 	}
 
+	@State(Scope.Benchmark)
+	public static class SingletonState {
+
+		private static final int SINGLETON_COUNT = 10000;
+
+		@Param({"false", "true"})
+		public boolean concurrentSingletonCreation;
+
+		public DefaultListableBeanFactory factory;
+
+		public String[] beanNames;
+
+		public final AtomicInteger counter = new AtomicInteger();
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			this.factory = new DefaultListableBeanFactory();
+			this.factory.setConcurrentSingletonCreation(this.concurrentSingletonCreation);
+			this.beanNames = new String[SINGLETON_COUNT];
+			for (int i = 0; i < SINGLETON_COUNT; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(ConcurrentBean.class);
+				bd.getPropertyValues().add("date", new Date());
+				this.beanNames[i] = "singleton" + i;
+				this.factory.registerBeanDefinition(this.beanNames[i], bd);
+			}
+		}
+
+		public String nextBeanName() {
+			return this.beanNames[(this.counter.getAndIncrement() & Integer.MAX_VALUE) % SINGLETON_COUNT];
+		}
+	}
+
 	@Benchmark
 	public void concurrentBeanCreation(BenchmarkState state, Blackhole bh) {
 		bh.consume(state.factory.getBean("bean1"));
 		bh.consume(state.factory.getBean("bean2"));
 	}
 
+	@Benchmark
+	public void concurrentSingletonCreation(SingletonState state, Blackhole bh) {
+		bh.consume(state.factory.getBean(state.nextBeanName()));
+	}
+
 
 	public static class ConcurrentBean {
 
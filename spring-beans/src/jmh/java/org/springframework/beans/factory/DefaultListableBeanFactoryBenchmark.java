@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.openjdk.jmh.annotations.State;
 
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BytecodeInstantiationStrategy;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.testfixture.beans.LifecycleBean;
@@ -46,12 +47,18 @@ public class DefaultListableBeanFactoryBenchmark {
 	@State(Scope.Benchmark)
 	public static class PrototypeCreationState extends Shared {
 
-		@Param({"simple", "dependencyCheck", "constructor", "constructorArgument", "properties", "resolvedProperties"})
+		@Param({"simple", "dependencyCheck", "constructor", "factoryMethod", "constructorArgument", "properties", "resolvedProperties"})
 		public String mode;
 
+		@Param({"reflective", "generated"})
+		public String instantiation;
+
 		@Setup
 		public void setup() {
 			this.beanFactory = new DefaultListableBeanFactory();
+			if ("generated".equals(this.instantiation)) {
+				this.beanFactory.setInstantiationStrategy(new BytecodeInstantiationStrategy());
+			}
 			RootBeanDefinition rbd = new RootBeanDefinition(TestBean.class);
 
 			switch (this.mode) {
@@ -66,6 +73,10 @@ public class DefaultListableBeanFactoryBenchmark {
 					rbd.getConstructorArgumentValues().addGenericArgumentValue("juergen");
 					rbd.getConstructorArgumentValues().addGenericArgumentValue("99");
 					break;
+				case "factoryMethod":
+					rbd = new RootBeanDefinition(TestBeanFactory.class);
+					rbd.setFactoryMethodName("createTestBean");
+					break;
 				case "constructorArgument":
 					rbd.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("spouse"));
 					this.beanFactory.registerBeanDefinition("test", rbd);
@@ -139,4 +150,11 @@ public class DefaultListableBeanFactoryBenchmark {
 	static class B {
 	}
 
+	public static class TestBeanFactory {
+
+		public static TestBean createTestBean() {
+			return new TestBean();
+		}
+	}
+
 }
@@ -42,6 +42,7 @@ import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -76,6 +77,17 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/**
+	 * Maximum number of parsed property paths to cache: least recently used
+	 * paths get evicted, so that arbitrary binding paths (e.g. from request
+	 * parameters) cannot displace the commonly used ones for good.
+	 */
+	private static final int PROPERTY_PATH_CACHE_LIMIT = 256;
+
+	/** Cache of parsed property paths, shared across all accessors. */
+	private static final ConcurrentLruCache<String, ParsedPropertyPath> parsedPropertyPathCache =
+			new ConcurrentLruCache<>(PROPERTY_PATH_CACHE_LIMIT, ParsedPropertyPath::new);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
 	@Nullable
@@ -803,7 +815,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		if (pa == this) {
 			return nestedPath;
 		}
-		return nestedPath.substring(PropertyAccessorUtils.getLastNestedPropertySeparatorIndex(nestedPath) + 1);
+		return getParsedPropertyPath(nestedPath).finalPath;
 	}
 
 	/**
@@ -812,13 +824,11 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 * @return a property accessor for the target bean
 	 */
 	protected AbstractNestablePropertyAccessor getPropertyAccessorForPropertyPath(String propertyPath) {
-		int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(propertyPath);
+		ParsedPropertyPath parsedPath = getParsedPropertyPath(propertyPath);
 		// Handle nested properties recursively.
-		if (pos > -1) {
-			String nestedProperty = propertyPath.substring(0, pos);
-			String nestedPath = propertyPath.substring(pos + 1);
-			AbstractNestablePropertyAccessor nestedPa = getNestedPropertyAccessor(nestedProperty);
-			return nestedPa.getPropertyAccessorForPropertyPath(nestedPath);
+		if (parsedPath.nestedProperty != null && parsedPath.nestedPath != null) {
+			AbstractNestablePropertyAccessor nestedPa = getNestedPropertyAccessor(parsedPath.nestedProperty);
+			return nestedPa.getPropertyAccessorForPropertyPath(parsedPath.nestedPath);
 		}
 		else {
 			return this;
@@ -925,11 +935,31 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	}
 
 	/**
-	 * Parse the given property name into the corresponding property name tokens.
+	 * Obtain the property name tokens for the given property name,
+	 * parsed once and cached for subsequent use.
 	 * @param propertyName the property name to parse
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		return getParsedPropertyPath(propertyName).getTokens();
+	}
+
+	/**
+	 * Obtain the parsed representation of the given property path,
+	 * from the shared cache if possible.
+	 * @param propertyPath the property path, which may be nested
+	 * @return the parsed property path
+	 */
+	private static ParsedPropertyPath getParsedPropertyPath(String propertyPath) {
+		return parsedPropertyPathCache.get(propertyPath);
+	}
+
+	/**
+	 * Parse the given property name into the corresponding property name tokens.
+	 * @param propertyName the property name to parse
+	 * @return representation of the parsed property tokens
+	 */
+	private static PropertyTokenHolder parsePropertyNameTokens(String propertyName) {
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
@@ -962,7 +992,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		return tokens;
 	}
 
-	private int getPropertyNameKeyEnd(String propertyName, int startIndex) {
+	private static int getPropertyNameKeyEnd(String propertyName, int startIndex) {
 		int unclosedPrefixes = 0;
 		int length = propertyName.length();
 		for (int i = startIndex; i < length; i++) {
@@ -1057,6 +1087,57 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	}
 
 
+	/**
+	 * Parsed representation of a property path: the nested property separation
+	 * as well as the property name tokens, shared across accessors.
+	 * <p>The contained {@link PropertyTokenHolder} is shared as well, analogous
+	 * to the resolved tokens cached in a {@link PropertyValue}.
+	 */
+	private static final class ParsedPropertyPath {
+
+		/** The first nested property in the path, or {@code null} if not nested. */
+		@Nullable
+		final String nestedProperty;
+
+		/** The remaining path after the first nested property, or {@code null} if not nested. */
+		@Nullable
+		final String nestedPath;
+
+		/** The last component of the path: the property on the target bean. */
+		final String finalPath;
+
+		private final String propertyPath;
+
+		@Nullable
+		private volatile PropertyTokenHolder tokens;
+
+		ParsedPropertyPath(String propertyPath) {
+			this.propertyPath = propertyPath;
+			int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(propertyPath);
+			if (pos > -1) {
+				this.nestedProperty = propertyPath.substring(0, pos);
+				this.nestedPath = propertyPath.substring(pos + 1);
+				this.finalPath = propertyPath.substring(
+						PropertyAccessorUtils.getLastNestedPropertySeparatorIndex(propertyPath) + 1);
+			}
+			else {
+				this.nestedProperty = null;
+				this.nestedPath = null;
+				this.finalPath = propertyPath;
+			}
+		}
+
+		PropertyTokenHolder getTokens() {
+			PropertyTokenHolder tokens = this.tokens;
+			if (tokens == null) {
+				tokens = parsePropertyNameTokens(this.propertyPath);
+				this.tokens = tokens;
+			}
+			return tokens;
+		}
+	}
+
+
 	/**
 	 * Holder class used to store property tokens.
 	 */
@@ -17,14 +17,17 @@
 package org.springframework.beans;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.function.Function;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
@@ -62,6 +65,20 @@ import org.springframework.util.ReflectionUtils;
  */
 public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements BeanWrapper {
 
+	/**
+	 * System property that instructs Spring to use generated bytecode accessors
+	 * instead of reflection for invoking bean property methods by default:
+	 * {@code "spring.beans.generated-accessors"}.
+	 * <p>The default is "false". Can be overridden per BeanWrapper through
+	 * {@link #setUseGeneratedAccessors}.
+	 * @since 5.3.9
+	 */
+	public static final String GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generated-accessors";
+
+	private static final boolean defaultUseGeneratedAccessors =
+			SpringProperties.getFlag(GENERATED_ACCESSORS_PROPERTY_NAME);
+
+
 	/**
 	 * Cached introspections results for this object, to prevent encountering
 	 * the cost of JavaBeans introspection every time.
@@ -75,6 +92,8 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Nullable
 	private AccessControlContext acc;
 
+	private boolean useGeneratedAccessors = defaultUseGeneratedAccessors;
+
 
 	/**
 	 * Create a new empty BeanWrapperImpl. Wrapped instance needs to be set afterwards.
@@ -132,6 +151,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
 		super(object, nestedPath, parent);
 		setSecurityContext(parent.acc);
+		setUseGeneratedAccessors(parent.useGeneratedAccessors);
 	}
 
 
@@ -193,6 +213,27 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		return this.acc;
 	}
 
+	/**
+	 * Set whether to invoke public property methods on public classes through
+	 * generated bytecode accessors instead of reflection. Non-public methods
+	 * and invocations under a SecurityManager always go through reflection.
+	 * <p>Default is "false", unless the {@code "spring.beans.generated-accessors"}
+	 * system property is set. Nested BeanWrappers inherit this setting.
+	 * @since 5.3.9
+	 * @see #GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	public void setUseGeneratedAccessors(boolean useGeneratedAccessors) {
+		this.useGeneratedAccessors = useGeneratedAccessors;
+	}
+
+	/**
+	 * Return whether to invoke property methods through generated bytecode accessors.
+	 * @since 5.3.9
+	 */
+	public boolean isUseGeneratedAccessors() {
+		return this.useGeneratedAccessors;
+	}
+
 
 	/**
 	 * Convert the given value for the specified property to the latter's type.
@@ -304,6 +345,22 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				Function<Object, Object> reader =
+						(useGeneratedAccessors ? GeneratedPropertyAccessors.getReader(readMethod) : null);
+				if (reader != null) {
+					try {
+						return reader.apply(getWrappedInstance());
+					}
+					catch (LinkageError err) {
+						if (!GeneratedPropertyAccessors.discardOnLinkageError(readMethod, reader, err)) {
+							throw new InvocationTargetException(err);
+						}
+						// Linkage failure of the generated reader itself -> reflective invocation below
+					}
+					catch (Throwable ex) {
+						throw new InvocationTargetException(ex);
+					}
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +385,23 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				GeneratedPropertyAccessors.Writer writer =
+						(useGeneratedAccessors ? GeneratedPropertyAccessors.getWriter(writeMethod) : null);
+				if (writer != null && writer.isApplicable(value)) {
+					try {
+						writer.write(getWrappedInstance(), value);
+						return;
+					}
+					catch (LinkageError err) {
+						if (!GeneratedPropertyAccessors.discardOnLinkageError(writeMethod, writer, err)) {
+							throw new InvocationTargetException(err);
+						}
+						// Linkage failure of the generated writer itself -> reflective invocation below
+					}
+					catch (Throwable ex) {
+						throw new InvocationTargetException(ex);
+					}
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Generates and caches bytecode accessors for bean property read and write
+ * methods, as an alternative to reflective invocation in {@link BeanWrapperImpl}.
+ *
+ * <p>A reader is a generated {@link Function} which receives the target bean
+ * and returns the property value; a {@link Writer} wraps a generated
+ * {@link BiConsumer} which receives the target bean and the new value. Any
+ * exception thrown by the property method propagates as-is. Accessors are
+ * only generated for public methods on public classes with public parameter
+ * types, and are linked and verified upfront; for any other method, {@code null}
+ * is returned, indicating reflective invocation.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see BeanWrapperImpl#setUseGeneratedAccessors
+ */
+final class GeneratedPropertyAccessors {
+
+	private static final String ACCESSOR_CLASS_SUFFIX = "$$PropertyAccessor$$";
+
+	private static final Object NO_ACCESSOR = new Object();
+
+	private static final Log logger = LogFactory.getLog(GeneratedPropertyAccessors.class);
+
+	private static final Map<Method, Object> readerCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<Method, Object> writerCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<ClassLoader, AccessorClassLoader> classLoaderCache =
+			new ConcurrentReferenceHashMap<>(16);
+
+	private static final AtomicInteger accessorCount = new AtomicInteger();
+
+
+	private GeneratedPropertyAccessors() {
+	}
+
+
+	/**
+	 * Obtain a generated reader for the given property read method.
+	 * @param readMethod the read method (a public no-arg instance method)
+	 * @return the reader, or {@code null} if not applicable
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static Function<Object, Object> getReader(Method readMethod) {
+		Object reader = readerCache.get(readMethod);
+		if (reader == null) {
+			reader = (readMethod.getParameterCount() == 0 ? generateAccessor(readMethod, false) : NO_ACCESSOR);
+			readerCache.put(readMethod, reader);
+		}
+		return (reader != NO_ACCESSOR ? (Function<Object, Object>) reader : null);
+	}
+
+	/**
+	 * Obtain a generated writer for the given property write method.
+	 * @param writeMethod the write method (a public single-arg instance method)
+	 * @return the writer, or {@code null} if not applicable
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static Writer getWriter(Method writeMethod) {
+		Object writer = writerCache.get(writeMethod);
+		if (writer == null) {
+			if (writeMethod.getParameterCount() == 1) {
+				Object accessor = generateAccessor(writeMethod, true);
+				writer = (accessor != NO_ACCESSOR ? new Writer((BiConsumer<Object, Object>) accessor,
+						writeMethod.getParameterTypes()[0]) : NO_ACCESSOR);
+			}
+			else {
+				writer = NO_ACCESSOR;
+			}
+			writerCache.put(writeMethod, writer);
+		}
+		return (writer != NO_ACCESSOR ? (Writer) writer : null);
+	}
+
+	/**
+	 * Check whether the given error, thrown when invoking the given reader or
+	 * writer, is a linkage failure of the generated accessor itself rather than
+	 * an error thrown by the property method. If so, the accessor is discarded,
+	 * with the caller expected to fall back to reflective invocation.
+	 * @param method the read or write method
+	 * @param accessor the reader or writer for the method
+	 * @param err the error thrown by the accessor
+	 * @return {@code true} if the accessor has been discarded
+	 */
+	static boolean discardOnLinkageError(Method method, Object accessor, LinkageError err) {
+		Object accessorToCheck = (accessor instanceof Writer ? ((Writer) accessor).accessor : accessor);
+		StackTraceElement[] stackTrace = err.getStackTrace();
+		if (stackTrace.length > 0 && !stackTrace[0].getClassName().equals(accessorToCheck.getClass().getName())) {
+			return false;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Discarding property accessor for " + method + " after linkage failure", err);
+		}
+		(accessor instanceof Writer ? writerCache : readerCache).put(method, NO_ACCESSOR);
+		return true;
+	}
+
+
+	private static Object generateAccessor(Method method, boolean write) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ||
+				!isPublic(declaringClass) || (write && !isPublic(method.getParameterTypes()[0]))) {
+			return NO_ACCESSOR;
+		}
+		try {
+			String className = declaringClass.getName();
+			if (className.startsWith("java.")) {
+				className = GeneratedPropertyAccessors.class.getName();
+			}
+			className = className + ACCESSOR_CLASS_SUFFIX + accessorCount.incrementAndGet();
+			byte[] bytes = (write ? generateWriterClass(className.replace('.', '/'), method) :
+					generateReaderClass(className.replace('.', '/'), method));
+			ClassLoader parent = declaringClass.getClassLoader();
+			if (parent == null) {
+				parent = GeneratedPropertyAccessors.class.getClassLoader();
+			}
+			Class<?> accessorClass = classLoaderCache.computeIfAbsent(parent, AccessorClassLoader::new)
+					.defineClass(className, bytes);
+			verifyAccessorClass(accessorClass, method);
+			return accessorClass.getDeclaredConstructor().newInstance();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate property accessor for " + method, ex);
+			}
+			return NO_ACCESSOR;
+		}
+	}
+
+	/**
+	 * Link and verify the given accessor class upfront, making sure that its
+	 * references resolve to the very same accessible classes and members: Any
+	 * linkage problem surfaces here, leading to reflective invocation, rather
+	 * than when invoking the property method.
+	 */
+	private static void verifyAccessorClass(Class<?> accessorClass, Method method)
+			throws ReflectiveOperationException {
+
+		ClassLoader classLoader = accessorClass.getClassLoader();
+		Class.forName(accessorClass.getName(), true, classLoader);
+		MethodHandles.publicLookup().unreflect(method);
+		List<Class<?>> referencedTypes = new ArrayList<>(Arrays.asList(method.getParameterTypes()));
+		referencedTypes.add(method.getDeclaringClass());
+		referencedTypes.add(method.getReturnType());
+		for (Class<?> type : referencedTypes) {
+			if (!type.isPrimitive() && Class.forName(type.getName(), false, classLoader) != type) {
+				throw new IllegalStateException("Type [" + type.getName() + "] resolves to a different class " +
+						"from the accessor ClassLoader");
+			}
+		}
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		Class<?> typeToCheck = type;
+		while (typeToCheck.isArray()) {
+			typeToCheck = typeToCheck.getComponentType();
+		}
+		// A public nested class is accessible at the bytecode level, independent of its enclosing class
+		return (typeToCheck.isPrimitive() || Modifier.isPublic(typeToCheck.getModifiers()));
+	}
+
+	private static byte[] generateReaderClass(String internalName, Method readMethod) {
+		ClassWriter cw = startClass(internalName, Function.class);
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "apply",
+				"(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		invokeOnTarget(mv, readMethod, null);
+		Class<?> returnType = readMethod.getReturnType();
+		if (returnType == void.class) {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		else if (returnType.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(returnType);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+					"(" + Type.getDescriptor(returnType) + ")" + Type.getDescriptor(wrapperType), false);
+		}
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static byte[] generateWriterClass(String internalName, Method writeMethod) {
+		ClassWriter cw = startClass(internalName, BiConsumer.class);
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "accept",
+				"(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+		mv.visitCode();
+		invokeOnTarget(mv, writeMethod, writeMethod.getParameterTypes()[0]);
+		Class<?> returnType = writeMethod.getReturnType();
+		if (returnType == long.class || returnType == double.class) {
+			mv.visitInsn(Opcodes.POP2);
+		}
+		else if (returnType != void.class) {
+			mv.visitInsn(Opcodes.POP);
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static ClassWriter startClass(String internalName, Class<?> interfaceType) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, internalName,
+				null, "java/lang/Object", new String[] {Type.getInternalName(interfaceType)});
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		return cw;
+	}
+
+	/**
+	 * Invoke the given method on the target in local variable 1,
+	 * passing the value in local variable 2 if a parameter type is given.
+	 */
+	private static void invokeOnTarget(MethodVisitor mv, Method method, @Nullable Class<?> parameterType) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+		if (parameterType != null) {
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+			if (parameterType.isPrimitive()) {
+				String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(parameterType));
+				mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperType);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperType, parameterType.getName() + "Value",
+						"()" + Type.getDescriptor(parameterType), false);
+			}
+			else if (parameterType != Object.class) {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+			}
+		}
+		boolean isInterface = declaringClass.isInterface();
+		mv.visitMethodInsn((isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL), owner,
+				method.getName(), Type.getMethodDescriptor(method), isInterface);
+	}
+
+
+	/**
+	 * A generated writer along with the parameter type of its write method,
+	 * for checking values upfront instead of failing within the writer.
+	 */
+	static final class Writer {
+
+		private final BiConsumer<Object, Object> accessor;
+
+		private final Class<?> parameterType;
+
+		Writer(BiConsumer<Object, Object> accessor, Class<?> parameterType) {
+			this.accessor = accessor;
+			this.parameterType = parameterType;
+		}
+
+		/**
+		 * Determine whether the given value can be passed to the write method as-is.
+		 */
+		boolean isApplicable(@Nullable Object value) {
+			return ClassUtils.isAssignableValue(this.parameterType, value);
+		}
+
+		/**
+		 * Invoke the write method on the given target with the given value.
+		 */
+		void write(Object target, @Nullable Object value) {
+			this.accessor.accept(target, value);
+		}
+	}
+
+
+	/**
+	 * ClassLoader for generated accessor classes, delegating to the
+	 * ClassLoader of the accessed classes.
+	 */
+	private static final class AccessorClassLoader extends ClassLoader {
+
+		AccessorClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
@@ -1125,6 +1125,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 			this.beanPostProcessors.addAll(otherAbstractFactory.beanPostProcessors);
 			this.scopes.putAll(otherAbstractFactory.scopes);
 			this.securityContextProvider = otherAbstractFactory.securityContextProvider;
+			setConcurrentSingletonCreation(otherAbstractFactory.isConcurrentSingletonCreation());
 		}
 		else {
 			setTypeConverter(otherFactory.getTypeConverter());
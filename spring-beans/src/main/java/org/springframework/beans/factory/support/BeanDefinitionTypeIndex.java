@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Index of bean definition names by the types that their bean instances are
+ * going to be assignable to, allowing {@link DefaultListableBeanFactory} to
+ * narrow down by-type lookups to candidate bean definitions.
+ *
+ * <p>Bean definitions are classified lazily, at most once per registration or
+ * invalidation: a definition with a statically known bean class gets indexed
+ * under that class and all of its superclasses and interfaces, whereas a
+ * definition with a dynamically determined type (e.g. a factory method or a
+ * {@code FactoryBean}) remains a candidate for every type. Definitions which
+ * cannot be classified yet (e.g. with an unresolvable parent definition)
+ * remain candidates for every type until a later classification attempt.
+ * Candidate names are kept in bean definition registration order.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see DefaultListableBeanFactory#getBeanNamesForType(Class, boolean, boolean)
+ */
+final class BeanDefinitionTypeIndex {
+
+	private static final Map<Class<?>, Boolean> typePredictingPostProcessorCache =
+			new ConcurrentReferenceHashMap<>(16);
+
+
+	/** Registration positions: bean name to position, for preserving registration order. */
+	private final Map<String, Long> positions = new HashMap<>(256);
+
+	/** Names of bean definitions which have not been classified yet, by position. */
+	private final NavigableMap<Long, String> unclassifiedNames = new TreeMap<>();
+
+	/** Names of bean definitions with a type that cannot be determined statically, by position. */
+	private final NavigableMap<Long, String> unindexedNames = new TreeMap<>();
+
+	/** Statically determined bean types: bean name to bean class. */
+	private final Map<String, Class<?>> indexedTypes = new HashMap<>(256);
+
+	/** Names of bean definitions by type (any superclass or interface of the bean class), by position. */
+	private final Map<Class<?>, NavigableMap<Long, String>> namesByType = new HashMap<>(256);
+
+	/** Post-processors which predict bean types on their own, as last applied. */
+	private List<SmartInstantiationAwareBeanPostProcessor> typePredictingPostProcessors = Collections.emptyList();
+
+	private long nextPosition = 0;
+
+	private volatile long invalidationCount = 0;
+
+
+	/**
+	 * Register a bean definition name, keeping its original registration
+	 * position in case of a re-registration.
+	 */
+	public synchronized void register(String beanName) {
+		this.positions.computeIfAbsent(beanName, name -> this.nextPosition++);
+		invalidate(beanName);
+	}
+
+	/**
+	 * Remove the given bean definition name from this index.
+	 */
+	public synchronized void remove(String beanName) {
+		invalidate(beanName);
+		Long position = this.positions.remove(beanName);
+		if (position != null) {
+			this.unclassifiedNames.remove(position);
+		}
+	}
+
+	/**
+	 * Invalidate the classification of the given bean definition,
+	 * e.g. after a change of its merged bean definition.
+	 */
+	public synchronized void invalidate(String beanName) {
+		this.invalidationCount++;
+		Long position = this.positions.get(beanName);
+		if (position == null) {
+			return;
+		}
+		this.unclassifiedNames.put(position, beanName);
+		this.unindexedNames.remove(position);
+		Class<?> beanType = this.indexedTypes.remove(beanName);
+		if (beanType != null) {
+			for (Class<?> type : getAssignableTypes(beanType)) {
+				NavigableMap<Long, String> names = this.namesByType.get(type);
+				if (names != null) {
+					names.remove(position);
+					if (names.isEmpty()) {
+						this.namesByType.remove(type);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidate the classification of all bean definitions.
+	 */
+	public synchronized void invalidateAll() {
+		this.invalidationCount++;
+		this.positions.forEach((beanName, position) -> this.unclassifiedNames.put(position, beanName));
+		this.unindexedNames.clear();
+		this.indexedTypes.clear();
+		this.namesByType.clear();
+	}
+
+	/**
+	 * Apply the given type-predicting post-processors, invalidating all
+	 * classifications in case of a change since the last call.
+	 * @param postProcessors the post-processors which predict bean types
+	 * on their own, as determined by {@link #isTypePredicting}
+	 */
+	public synchronized void applyTypePredictingPostProcessors(
+			List<SmartInstantiationAwareBeanPostProcessor> postProcessors) {
+
+		if (!this.typePredictingPostProcessors.equals(postProcessors)) {
+			this.typePredictingPostProcessors = postProcessors;
+			invalidateAll();
+		}
+	}
+
+	/**
+	 * Return the names of bean definitions which have not been classified yet,
+	 * in registration order.
+	 */
+	public synchronized List<String> getUnclassifiedNames() {
+		return (this.unclassifiedNames.isEmpty() ? Collections.emptyList() :
+				new ArrayList<>(this.unclassifiedNames.values()));
+	}
+
+	/**
+	 * Return a stamp to pass into {@link #classify}, to be obtained
+	 * before inspecting the bean definition to classify.
+	 */
+	public long getInvalidationStamp() {
+		return this.invalidationCount;
+	}
+
+	/**
+	 * Classify the given bean definition, unless any bean definition
+	 * has been invalidated or removed in the meantime.
+	 * @param beanName the name of the bean definition
+	 * @param beanType the statically determined bean class,
+	 * or {@code null} if the bean type can only be determined dynamically
+	 * @param invalidationStamp the stamp obtained before inspecting the bean definition
+	 * @see #getInvalidationStamp()
+	 */
+	public synchronized void classify(String beanName, @Nullable Class<?> beanType, long invalidationStamp) {
+		Long position = this.positions.get(beanName);
+		if (invalidationStamp != this.invalidationCount || position == null ||
+				this.unclassifiedNames.remove(position) == null) {
+			return;
+		}
+		if (beanType != null) {
+			this.indexedTypes.put(beanName, beanType);
+			for (Class<?> type : getAssignableTypes(beanType)) {
+				this.namesByType.computeIfAbsent(type, key -> new TreeMap<>()).put(position, beanName);
+			}
+		}
+		else {
+			this.unindexedNames.put(position, beanName);
+		}
+	}
+
+	/**
+	 * Return the names of all bean definitions which may match the given type,
+	 * in registration order.
+	 * @param type the raw type to match
+	 * @return a list of candidate bean definition names
+	 */
+	public synchronized List<String> getCandidateNames(Class<?> type) {
+		NavigableMap<Long, String> indexedNames = this.namesByType.getOrDefault(type, Collections.emptyNavigableMap());
+		List<String> candidateNames = new ArrayList<>(
+				indexedNames.size() + this.unindexedNames.size() + this.unclassifiedNames.size());
+		// Merge the (disjoint) sorted sources in registration order
+		Iterator<Map.Entry<Long, String>> it1 = indexedNames.entrySet().iterator();
+		Iterator<Map.Entry<Long, String>> it2 = this.unindexedNames.entrySet().iterator();
+		Iterator<Map.Entry<Long, String>> it3 = this.unclassifiedNames.entrySet().iterator();
+		Map.Entry<Long, String> e1 = next(it1);
+		Map.Entry<Long, String> e2 = next(it2);
+		Map.Entry<Long, String> e3 = next(it3);
+		while (e1 != null || e2 != null || e3 != null) {
+			if (e1 != null && (e2 == null || e1.getKey() < e2.getKey()) && (e3 == null || e1.getKey() < e3.getKey())) {
+				candidateNames.add(e1.getValue());
+				e1 = next(it1);
+			}
+			else if (e2 != null && (e3 == null || e2.getKey() < e3.getKey())) {
+				candidateNames.add(e2.getValue());
+				e2 = next(it2);
+			}
+			else {
+				candidateNames.add(e3.getValue());
+				e3 = next(it3);
+			}
+		}
+		return candidateNames;
+	}
+
+	@Nullable
+	private static Map.Entry<Long, String> next(Iterator<Map.Entry<Long, String>> it) {
+		return (it.hasNext() ? it.next() : null);
+	}
+
+	private static Set<Class<?>> getAssignableTypes(Class<?> beanType) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		Class<?> current = beanType;
+		while (current != null) {
+			types.add(current);
+			addInterfaces(current, types);
+			current = current.getSuperclass();
+		}
+		return types;
+	}
+
+	private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+		for (Class<?> ifc : type.getInterfaces()) {
+			if (types.add(ifc)) {
+				addInterfaces(ifc, types);
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given post-processor may predict a bean type
+	 * or expose an early bean reference differing from the bean class,
+	 * in which case it needs to be consulted for each bean to classify.
+	 * @param postProcessor the post-processor to check
+	 */
+	static boolean isTypePredicting(SmartInstantiationAwareBeanPostProcessor postProcessor) {
+		return typePredictingPostProcessorCache.computeIfAbsent(postProcessor.getClass(), clazz ->
+				isOverridden(clazz, "predictBeanType", Class.class, String.class) ||
+				isOverridden(clazz, "getEarlyBeanReference", Object.class, String.class));
+	}
+
+	private static boolean isOverridden(Class<?> clazz, String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(clazz, methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() != SmartInstantiationAwareBeanPostProcessor.class);
+	}
+
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Instantiation strategy which invokes constructors and factory methods through
+ * generated bytecode instead of reflection, for bean definitions which are not
+ * singletons: e.g. prototype beans or request-scoped beans which get created
+ * over and over again. Singletons are created reflectively, avoiding the cost
+ * of generating a class for a single invocation.
+ *
+ * <p>A small instantiator class gets generated and cached per constructor or
+ * factory method, shared across all bean definitions using it. Generation is
+ * only applied to public constructors and factory methods on public classes
+ * with public parameter types; any other constructors and factory methods,
+ * as well as invocations with arguments not matching the declared parameter
+ * types exactly, fall back to regular reflective invocation. An instantiator
+ * class is linked and verified when generated, so a linkage problem leads to
+ * reflective invocation as well, whereas any error thrown from the constructor
+ * or factory method itself is propagated just like with reflective invocation.
+ *
+ * <p>Extends {@link CglibSubclassingInstantiationStrategy}, with its support
+ * for <em>Method Injection</em> remaining unaffected.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class BytecodeInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	private static final String INSTANTIATOR_CLASS_SUFFIX = "$$Instantiator$$";
+
+	private static final String APPLY_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final Object NO_INSTANTIATOR = new Object();
+
+	private static final Log logger = LogFactory.getLog(BytecodeInstantiationStrategy.class);
+
+	private static final Map<Executable, Object> instantiatorCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<ClassLoader, InstantiatorClassLoader> classLoaderCache =
+			new ConcurrentReferenceHashMap<>(16);
+
+	private static final AtomicInteger instantiatorCount = new AtomicInteger();
+
+
+	@Override
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		BiFunction<Object, Object[], Object> instantiator = getInstantiator(bd, ctor, args);
+		if (instantiator == null) {
+			return super.instantiateClass(bd, ctor, args);
+		}
+		try {
+			return instantiator.apply(null, args);
+		}
+		catch (Throwable ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
+		}
+	}
+
+	@Override
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean,
+			Method factoryMethod, Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		BiFunction<Object, Object[], Object> instantiator = getInstantiator(bd, factoryMethod, args);
+		if (instantiator == null || (factoryBean == null) != Modifier.isStatic(factoryMethod.getModifiers()) ||
+				(factoryBean != null && !factoryMethod.getDeclaringClass().isInstance(factoryBean))) {
+			return super.invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
+		}
+		try {
+			return instantiator.apply(factoryBean, args);
+		}
+		catch (Throwable ex) {
+			throw new InvocationTargetException(ex);
+		}
+	}
+
+	/**
+	 * Obtain a generated instantiator for the given constructor or factory method,
+	 * if applicable to the given bean definition and arguments.
+	 * @param bd the bean definition
+	 * @param executable the constructor or factory method
+	 * @param args the arguments to apply
+	 * @return the instantiator, or {@code null} for reflective invocation
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private BiFunction<Object, Object[], Object> getInstantiator(
+			RootBeanDefinition bd, Executable executable, Object[] args) {
+
+		if (bd.isSingleton() || !isApplicable(executable, args)) {
+			return null;
+		}
+		Object instantiator = instantiatorCache.get(executable);
+		if (instantiator == null) {
+			instantiator = generateInstantiator(executable);
+			instantiatorCache.put(executable, instantiator);
+		}
+		return (instantiator != NO_INSTANTIATOR ? (BiFunction<Object, Object[], Object>) instantiator : null);
+	}
+
+	private static boolean isApplicable(Executable executable, Object[] args) {
+		Class<?>[] parameterTypes = executable.getParameterTypes();
+		if (parameterTypes.length != args.length) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null ? parameterTypes[i].isPrimitive() :
+					!ClassUtils.isAssignableValue(parameterTypes[i], args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Object generateInstantiator(Executable executable) {
+		Class<?> declaringClass = executable.getDeclaringClass();
+		if (!Modifier.isPublic(executable.getModifiers()) || !isPublic(declaringClass) ||
+				(executable instanceof Constructor && Modifier.isAbstract(declaringClass.getModifiers())) ||
+				KotlinDetector.isKotlinType(declaringClass)) {
+			return NO_INSTANTIATOR;
+		}
+		for (Class<?> parameterType : executable.getParameterTypes()) {
+			if (!isPublic(parameterType)) {
+				return NO_INSTANTIATOR;
+			}
+		}
+		try {
+			String className = declaringClass.getName();
+			if (className.startsWith("java.")) {
+				className = BytecodeInstantiationStrategy.class.getName();
+			}
+			className = className + INSTANTIATOR_CLASS_SUFFIX + instantiatorCount.incrementAndGet();
+			byte[] bytes = generateInstantiatorClass(className.replace('.', '/'), executable);
+			ClassLoader parent = declaringClass.getClassLoader();
+			if (parent == null) {
+				parent = BytecodeInstantiationStrategy.class.getClassLoader();
+			}
+			Class<?> instantiatorClass = classLoaderCache.computeIfAbsent(parent, InstantiatorClassLoader::new)
+					.defineClass(className, bytes);
+			verifyInstantiatorClass(instantiatorClass, executable);
+			return instantiatorClass.getDeclaredConstructor().newInstance();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate instantiator for " + executable, ex);
+			}
+			return NO_INSTANTIATOR;
+		}
+	}
+
+	/**
+	 * Link and verify the given instantiator class upfront, making sure that its
+	 * references resolve to the very same accessible classes and members: Any
+	 * linkage problem surfaces here, leading to reflective invocation, rather
+	 * than when invoking the constructor or factory method (i.e. user code).
+	 */
+	private static void verifyInstantiatorClass(Class<?> instantiatorClass, Executable executable)
+			throws ReflectiveOperationException {
+
+		ClassLoader classLoader = instantiatorClass.getClassLoader();
+		Class.forName(instantiatorClass.getName(), true, classLoader);
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		List<Class<?>> referencedTypes = new ArrayList<>(Arrays.asList(executable.getParameterTypes()));
+		referencedTypes.add(executable.getDeclaringClass());
+		if (executable instanceof Constructor) {
+			lookup.unreflectConstructor((Constructor<?>) executable);
+		}
+		else {
+			lookup.unreflect((Method) executable);
+			referencedTypes.add(((Method) executable).getReturnType());
+		}
+		for (Class<?> type : referencedTypes) {
+			if (!type.isPrimitive() && Class.forName(type.getName(), false, classLoader) != type) {
+				throw new IllegalStateException("Type [" + type.getName() + "] resolves to a different class " +
+						"from the instantiator ClassLoader");
+			}
+		}
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		Class<?> typeToCheck = type;
+		while (typeToCheck.isArray()) {
+			typeToCheck = typeToCheck.getComponentType();
+		}
+		// A public nested class is accessible at the bytecode level, independent of its enclosing class
+		return (typeToCheck.isPrimitive() || Modifier.isPublic(typeToCheck.getModifiers()));
+	}
+
+	/**
+	 * Generate a {@link BiFunction} implementation which receives the target
+	 * instance (or {@code null}) and the argument array, invoking the given
+	 * constructor or method directly.
+	 */
+	private static byte[] generateInstantiatorClass(String internalName, Executable executable) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, internalName,
+				null, "java/lang/Object", new String[] {Type.getInternalName(BiFunction.class)});
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "apply", APPLY_DESCRIPTOR, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, "[Ljava/lang/Object;");
+		mv.visitVarInsn(Opcodes.ASTORE, 3);
+		Class<?> declaringClass = executable.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		if (executable instanceof Constructor) {
+			mv.visitTypeInsn(Opcodes.NEW, owner);
+			mv.visitInsn(Opcodes.DUP);
+			loadArguments(mv, executable.getParameterTypes());
+			mv.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, "<init>",
+					Type.getConstructorDescriptor((Constructor<?>) executable), false);
+		}
+		else {
+			Method method = (Method) executable;
+			boolean isInterface = declaringClass.isInterface();
+			if (Modifier.isStatic(method.getModifiers())) {
+				loadArguments(mv, method.getParameterTypes());
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, method.getName(),
+						Type.getMethodDescriptor(method), isInterface);
+			}
+			else {
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+				loadArguments(mv, method.getParameterTypes());
+				mv.visitMethodInsn((isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL), owner,
+						method.getName(), Type.getMethodDescriptor(method), isInterface);
+			}
+			Class<?> returnType = method.getReturnType();
+			if (returnType == void.class) {
+				mv.visitInsn(Opcodes.ACONST_NULL);
+			}
+			else if (returnType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(returnType);
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+						"(" + Type.getDescriptor(returnType) + ")" + Type.getDescriptor(wrapperType), false);
+			}
+		}
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void loadArguments(MethodVisitor mv, Class<?>[] parameterTypes) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Class<?> parameterType = parameterTypes[i];
+			mv.visitVarInsn(Opcodes.ALOAD, 3);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(Opcodes.AALOAD);
+			if (parameterType.isPrimitive()) {
+				String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(parameterType));
+				mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperType);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperType, parameterType.getName() + "Value",
+						"()" + Type.getDescriptor(parameterType), false);
+			}
+			else if (parameterType != Object.class) {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+			}
+		}
+	}
+
+
+	/**
+	 * ClassLoader for generated instantiator classes, delegating to the
+	 * ClassLoader of the instantiated classes.
+	 */
+	private static final class InstantiatorClassLoader extends ClassLoader {
+
+		InstantiatorClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
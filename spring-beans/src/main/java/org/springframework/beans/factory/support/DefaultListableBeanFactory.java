@@ -16,6 +16,7 @@
 
 package org.springframework.beans.factory.support;
 
+import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
@@ -24,28 +25,39 @@ import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import javax.inject.Provider;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -68,8 +80,11 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.MergedAnnotation;
@@ -172,6 +187,17 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Index of bean definition names by bean type, for narrowing down by-type lookups. */
+	private final BeanDefinitionTypeIndex beanDefinitionTypeIndex = new BeanDefinitionTypeIndex();
+
+	/** Type-predicting post-processors as last applied to the bean definition type index. */
+	@Nullable
+	private volatile List<SmartInstantiationAwareBeanPostProcessor> typePredictingPostProcessors;
+
+	/** The post-processor cache that the type-predicting post-processors have been determined from. */
+	@Nullable
+	private volatile BeanPostProcessorCache typePredictingPostProcessorSource;
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -185,6 +211,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans. */
 	private volatile boolean configurationFrozen;
 
+	/** Optional Executor for parallel pre-instantiation of singletons. */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -316,6 +346,45 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Specify an Executor for pre-instantiating non-lazy singletons in parallel,
+	 * switching on {@link #setConcurrentSingletonCreation concurrent singleton creation}.
+	 * <p>Singletons connected through bean references in their bean definitions,
+	 * through dependencies registered for them already, or through autowire
+	 * candidates for their constructor or factory method arguments and for their
+	 * properties autowired by type or by name get instantiated on the same thread,
+	 * in registration order, with independent groups of singletons being instantiated
+	 * concurrently. Singletons declaring explicit dependencies (e.g. through
+	 * {@code @DependsOn}), along with the singletons referencing them, are
+	 * instantiated in registration order on the calling thread instead.
+	 * <p>Note that annotation-driven field and method injection (e.g. through
+	 * {@code @Autowired} fields) is only detectable on creation of a singleton:
+	 * Singletons connected that way may get instantiated on different threads,
+	 * with circular references between them resolved within one of the threads.
+	 * A group of singletons failing with a circular reference nevertheless gets
+	 * instantiated again on the calling thread, after all parallel groups.
+	 * <p>Default is none, pre-instantiating all singletons on the calling thread.
+	 * Specify a bounded Executor here: task submissions rejected by it are
+	 * processed on the calling thread.
+	 * @since 5.3.9
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+		if (preInstantiationExecutor != null) {
+			setConcurrentSingletonCreation(true);
+		}
+	}
+
+	/**
+	 * Return the Executor for parallel pre-instantiation of singletons, if any.
+	 * @since 5.3.9
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -325,6 +394,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well
@@ -557,8 +627,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions which may match the given type.
+		for (String beanName : getCandidateBeanDefinitionNames(type)) {
 			// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
 				try {
@@ -639,6 +709,115 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Determine the names of all bean definitions to check against the given type,
+	 * narrowed down through the bean definition type index where possible.
+	 * @param type the type to match
+	 * @return the candidate bean definition names, in registration order
+	 */
+	private List<String> getCandidateBeanDefinitionNames(ResolvableType type) {
+		Class<?> rawType = type.resolve();
+		if (rawType == null || rawType == Object.class) {
+			return this.beanDefinitionNames;
+		}
+		List<SmartInstantiationAwareBeanPostProcessor> typePredictingPostProcessors = getTypePredictingPostProcessors();
+		for (String beanName : this.beanDefinitionTypeIndex.getUnclassifiedNames()) {
+			long invalidationStamp = this.beanDefinitionTypeIndex.getInvalidationStamp();
+			try {
+				RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+				this.beanDefinitionTypeIndex.classify(beanName,
+						determineIndexableBeanType(beanName, mbd, typePredictingPostProcessors), invalidationStamp);
+			}
+			catch (BeansException ex) {
+				// Leave bean definition unclassified, to be checked individually.
+			}
+		}
+		return this.beanDefinitionTypeIndex.getCandidateNames(rawType);
+	}
+
+	/**
+	 * Determine the post-processors which predict bean types on their own,
+	 * re-applying them to the bean definition type index after a change.
+	 */
+	private List<SmartInstantiationAwareBeanPostProcessor> getTypePredictingPostProcessors() {
+		BeanPostProcessorCache bpCache = getBeanPostProcessorCache();
+		List<SmartInstantiationAwareBeanPostProcessor> postProcessors = this.typePredictingPostProcessors;
+		if (postProcessors == null || bpCache != this.typePredictingPostProcessorSource) {
+			postProcessors = new ArrayList<>();
+			for (SmartInstantiationAwareBeanPostProcessor bp : bpCache.smartInstantiationAware) {
+				if (BeanDefinitionTypeIndex.isTypePredicting(bp)) {
+					postProcessors.add(bp);
+				}
+			}
+			this.beanDefinitionTypeIndex.applyTypePredictingPostProcessors(postProcessors);
+			this.typePredictingPostProcessors = postProcessors;
+			this.typePredictingPostProcessorSource = bpCache;
+		}
+		return postProcessors;
+	}
+
+	/**
+	 * Determine the statically known type of the given bean for the purposes
+	 * of the bean definition type index, resolving its bean class if necessary.
+	 * @param beanName the name of the bean
+	 * @param mbd the merged bean definition for the bean
+	 * @param typePredictingPostProcessors the post-processors to consult
+	 * for a differing bean type
+	 * @return the bean class, or {@code null} if the bean type can only
+	 * be determined dynamically (and the bean needs to be checked individually)
+	 */
+	@Nullable
+	private Class<?> determineIndexableBeanType(String beanName, RootBeanDefinition mbd,
+			List<SmartInstantiationAwareBeanPostProcessor> typePredictingPostProcessors) {
+
+		if (mbd.isAbstract() || mbd.getFactoryMethodName() != null ||
+				mbd.getDecoratedDefinition() != null || mbd.hasMethodOverrides()) {
+			return null;
+		}
+		if (!mbd.hasBeanClass()) {
+			// Only resolve the bean class where a by-type check would do so as well,
+			// not loading it through the bean ClassLoader in case of a temporary ClassLoader.
+			if (mbd.getBeanClassName() == null || getTempClassLoader() != null ||
+					(mbd.isLazyInit() && !isAllowEagerClassLoading())) {
+				return null;
+			}
+			try {
+				resolveBeanClass(mbd, beanName);
+			}
+			catch (CannotLoadBeanClassException ex) {
+				// Not resolvable: to be checked individually, like without an index.
+				return null;
+			}
+			if (!mbd.hasBeanClass()) {
+				// Dynamically evaluated bean class name
+				return null;
+			}
+		}
+		Class<?> beanClass = mbd.getBeanClass();
+		Class<?> targetType = mbd.getTargetType();
+		if (FactoryBean.class.isAssignableFrom(beanClass) || (targetType != null && targetType != beanClass)) {
+			return null;
+		}
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance != null && beanInstance.getClass() != beanClass && !(beanInstance instanceof NullBean)) {
+			return null;
+		}
+		if (!typePredictingPostProcessors.isEmpty() && !mbd.isSynthetic()) {
+			// Predictions may change with every instance of a non-singleton bean, and
+			// early references may be exposed for a singleton currently in creation.
+			if (!mbd.isSingleton() || isSingletonCurrentlyInCreation(beanName)) {
+				return null;
+			}
+			for (SmartInstantiationAwareBeanPostProcessor bp : typePredictingPostProcessors) {
+				Class<?> predicted = bp.predictBeanType(beanClass, beanName);
+				if (predicted != null && predicted != beanClass) {
+					return null;
+				}
+			}
+		}
+		return beanClass;
+	}
+
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
@@ -877,12 +1056,14 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected void clearMergedBeanDefinition(String beanName) {
 		super.clearMergedBeanDefinition(beanName);
 		this.mergedBeanDefinitionHolders.remove(beanName);
+		this.beanDefinitionTypeIndex.invalidate(beanName);
 	}
 
 	@Override
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
 		this.mergedBeanDefinitionHolders.clear();
+		this.beanDefinitionTypeIndex.invalidateAll();
 		clearByTypeCache();
 	}
 
@@ -918,35 +1099,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 当前bean不是抽象、懒加载且是单例的
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 当前bean是一个factoryBean(FactoryBean在一级缓存中,存储的还是FactoryBean本身的对象,只是会基于传入的name是否携带前缀,判断是否调用其getObject()方法返回封装的对象)
-				if (isFactoryBean(beanName)) {
-					// 加前缀获取factoryBean本身的实例,存储到一级缓存中
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						// 如果当前factoryBean是SmartFactoryBean类型并且需要更早的初始化，在该处时直接获取FactoryBean的getObject()方法封装的对象并缓存到factoryBeanObjectCache中
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					// 正常的bean
-					getBean(beanName);
+		Executor executor = this.preInstantiationExecutor;
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				// 当前bean不是抽象、懒加载且是单例的
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -973,6 +1135,316 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Instantiate the given non-lazy singleton, including the object exposed
+	 * by an eagerly initializing {@link SmartFactoryBean}.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		// 当前bean是一个factoryBean(FactoryBean在一级缓存中,存储的还是FactoryBean本身的对象,只是会基于传入的name是否携带前缀,判断是否调用其getObject()方法返回封装的对象)
+		if (isFactoryBean(beanName)) {
+			// 加前缀获取factoryBean本身的实例,存储到一级缓存中
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			if (bean instanceof FactoryBean) {
+				FactoryBean<?> factory = (FactoryBean<?>) bean;
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged(
+							(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				}
+				else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				// 如果当前factoryBean是SmartFactoryBean类型并且需要更早的初始化，在该处时直接获取FactoryBean的getObject()方法封装的对象并缓存到factoryBeanObjectCache中
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+		}
+		else {
+			// 正常的bean
+			getBean(beanName);
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given non-lazy singletons on the given Executor,
+	 * grouping singletons that reference each other in their bean definitions,
+	 * through their registered dependencies or through their autowire candidates.
+	 * Groups containing a singleton with explicit dependencies are instantiated
+	 * on the calling thread, in registration order, as are groups failing with
+	 * a circular reference on their parallel thread.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the Executor to submit independent groups of singletons to
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		// Union-find over the non-lazy singletons: bean name to parent bean name.
+		Map<String, String> groupParents = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				groupParents.put(beanName, beanName);
+			}
+		}
+		Set<String> sequentialBeanNames = new LinkedHashSet<>();
+		for (String beanName : groupParents.keySet()) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!ObjectUtils.isEmpty(bd.getDependsOn())) {
+				sequentialBeanNames.add(beanName);
+			}
+			Set<String> referencedBeanNames = new LinkedHashSet<>();
+			collectReferencedBeanNames(bd, referencedBeanNames);
+			referencedBeanNames.addAll(Arrays.asList(getDependenciesForBean(beanName)));
+			collectAutowireCandidateNames(beanName, bd, referencedBeanNames);
+			for (String referencedBeanName : referencedBeanNames) {
+				String canonicalName = canonicalName(BeanFactoryUtils.transformedBeanName(referencedBeanName));
+				if (groupParents.containsKey(canonicalName)) {
+					String root = findGroupRoot(groupParents, beanName);
+					String otherRoot = findGroupRoot(groupParents, canonicalName);
+					if (!root.equals(otherRoot)) {
+						groupParents.put(otherRoot, root);
+					}
+				}
+			}
+		}
+
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : groupParents.keySet()) {
+			groups.computeIfAbsent(findGroupRoot(groupParents, beanName), root -> new ArrayList<>()).add(beanName);
+		}
+		Set<String> sequentialRoots = new HashSet<>();
+		for (String beanName : sequentialBeanNames) {
+			sequentialRoots.add(findGroupRoot(groupParents, beanName));
+		}
+
+		List<CompletableFuture<List<String>>> futures = new ArrayList<>(groups.size());
+		try {
+			for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+				if (!sequentialRoots.contains(group.getKey())) {
+					List<String> groupBeanNames = group.getValue();
+					try {
+						futures.add(CompletableFuture.supplyAsync(
+								() -> preInstantiateSingletonGroup(groupBeanNames), executor));
+					}
+					catch (RejectedExecutionException ex) {
+						groupBeanNames.forEach(this::preInstantiateSingleton);
+					}
+				}
+			}
+			for (String beanName : groupParents.keySet()) {
+				if (sequentialRoots.contains(findGroupRoot(groupParents, beanName))) {
+					preInstantiateSingleton(beanName);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			// Still wait for the parallel tasks, without masking the original failure.
+			try {
+				awaitPreInstantiation(futures);
+			}
+			catch (Throwable taskEx) {
+				ex.addSuppressed(taskEx);
+			}
+			throw ex;
+		}
+		for (String beanName : awaitPreInstantiation(futures)) {
+			preInstantiateSingleton(beanName);
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given group of singletons on a parallel thread.
+	 * @param groupBeanNames the names of the singletons in the group
+	 * @return an empty list if done, or the given names if the group failed with
+	 * a circular reference, to be instantiated again on the calling thread
+	 */
+	private List<String> preInstantiateSingletonGroup(List<String> groupBeanNames) {
+		try {
+			groupBeanNames.forEach(this::preInstantiateSingleton);
+			return Collections.emptyList();
+		}
+		catch (BeanCreationException ex) {
+			if (!ex.contains(BeanCurrentlyInCreationException.class)) {
+				throw ex;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Deferring pre-instantiation of singletons " + groupBeanNames +
+						" to the calling thread after circular reference on parallel thread: " + ex);
+			}
+			return groupBeanNames;
+		}
+	}
+
+	private static String findGroupRoot(Map<String, String> groupParents, String beanName) {
+		String root = beanName;
+		String parent = groupParents.get(root);
+		while (!root.equals(parent)) {
+			root = parent;
+			parent = groupParents.get(root);
+		}
+		groupParents.put(beanName, root);
+		return root;
+	}
+
+	/**
+	 * Wait for the given pre-instantiation tasks to complete, rethrowing
+	 * the first failure (if any) once all of them are done.
+	 * @return the names of the singletons deferred to the calling thread
+	 */
+	private List<String> awaitPreInstantiation(List<CompletableFuture<List<String>>> futures) {
+		List<String> deferredBeanNames = new ArrayList<>();
+		Throwable failure = null;
+		for (CompletableFuture<List<String>> future : futures) {
+			try {
+				deferredBeanNames.addAll(future.join());
+			}
+			catch (CompletionException ex) {
+				if (failure == null) {
+					failure = (ex.getCause() != null ? ex.getCause() : ex);
+				}
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new FatalBeanException("Parallel pre-instantiation of singletons failed", failure);
+		}
+		return deferredBeanNames;
+	}
+
+	/**
+	 * Collect the names of the autowire candidates for the given bean definition,
+	 * as far as determinable upfront: for its constructor or factory method
+	 * arguments and for its properties autowired by type or by name.
+	 */
+	private void collectAutowireCandidateNames(String beanName, RootBeanDefinition bd, Set<String> candidateNames) {
+		Class<?> beanClass;
+		try {
+			beanClass = resolveBeanClass(bd, beanName);
+		}
+		catch (CannotLoadBeanClassException ex) {
+			// To be reported on creation of the bean
+			return;
+		}
+		Method factoryMethod = bd.getResolvedFactoryMethod();
+		if (factoryMethod != null) {
+			for (int i = 0; i < factoryMethod.getParameterCount(); i++) {
+				collectAutowireCandidateNames(ResolvableType.forMethodParameter(factoryMethod, i), candidateNames);
+			}
+		}
+		if (beanClass == null || bd.getFactoryMethodName() != null) {
+			return;
+		}
+		int autowireMode = bd.getResolvedAutowireMode();
+		if (bd.getInstanceSupplier() == null) {
+			Constructor<?>[] ctors = determineConstructorsFromBeanPostProcessors(beanClass, beanName);
+			if (ctors == null && autowireMode == AUTOWIRE_CONSTRUCTOR) {
+				ctors = beanClass.getConstructors();
+			}
+			if (ctors != null) {
+				for (Constructor<?> ctor : ctors) {
+					for (int i = 0; i < ctor.getParameterCount(); i++) {
+						collectAutowireCandidateNames(ResolvableType.forConstructorParameter(ctor, i), candidateNames);
+					}
+				}
+			}
+		}
+		if (autowireMode == AUTOWIRE_BY_NAME || autowireMode == AUTOWIRE_BY_TYPE) {
+			for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(beanClass)) {
+				Method writeMethod = pd.getWriteMethod();
+				if (writeMethod != null && !BeanUtils.isSimpleProperty(pd.getPropertyType()) &&
+						!bd.getPropertyValues().contains(pd.getName())) {
+					if (autowireMode == AUTOWIRE_BY_NAME) {
+						candidateNames.add(pd.getName());
+					}
+					else {
+						collectAutowireCandidateNames(ResolvableType.forMethodParameter(writeMethod, 0), candidateNames);
+					}
+				}
+			}
+		}
+	}
+
+	private void collectAutowireCandidateNames(ResolvableType type, Set<String> candidateNames) {
+		ResolvableType elementType = type;
+		if (type.isArray()) {
+			elementType = type.getComponentType();
+		}
+		else if (Collection.class.isAssignableFrom(type.toClass())) {
+			elementType = type.asCollection().getGeneric();
+		}
+		else if (Map.class.isAssignableFrom(type.toClass())) {
+			elementType = type.asMap().getGeneric(1);
+		}
+		else if (Optional.class == type.toClass()) {
+			elementType = type.getGeneric();
+		}
+		Class<?> elementClass = elementType.resolve();
+		// Lazy resolution through ObjectFactory/ObjectProvider not considered as dependency
+		if (elementClass != null && elementClass != Object.class && !BeanUtils.isSimpleProperty(elementClass) &&
+				!ObjectFactory.class.isAssignableFrom(elementClass)) {
+			candidateNames.addAll(Arrays.asList(getBeanNamesForType(elementClass, false, false)));
+		}
+	}
+
+	/**
+	 * Collect the names of all beans referenced in the given bean definition,
+	 * through bean property values, constructor arguments or inner beans.
+	 */
+	private void collectReferencedBeanNames(BeanDefinition bd, Set<String> referencedBeanNames) {
+		if (bd.getFactoryBeanName() != null) {
+			referencedBeanNames.add(bd.getFactoryBeanName());
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectReferencedBeanNames(pv.getValue(), referencedBeanNames);
+			}
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+				collectReferencedBeanNames(valueHolder.getValue(), referencedBeanNames);
+			}
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+				collectReferencedBeanNames(valueHolder.getValue(), referencedBeanNames);
+			}
+		}
+	}
+
+	private void collectReferencedBeanNames(@Nullable Object value, Set<String> referencedBeanNames) {
+		if (value instanceof RuntimeBeanReference) {
+			referencedBeanNames.add(((RuntimeBeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferencedBeanNames(((BeanDefinitionHolder) value).getBeanDefinition(), referencedBeanNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectReferencedBeanNames((BeanDefinition) value, referencedBeanNames);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferencedBeanNames(element, referencedBeanNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferencedBeanNames(entry.getKey(), referencedBeanNames);
+				collectReferencedBeanNames(entry.getValue(), referencedBeanNames);
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectReferencedBeanNames(element, referencedBeanNames);
+			}
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -1048,6 +1520,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 					updatedDefinitions.add(beanName);
 					// beanDefinition name缓存到beanDefinitionNames集合中
 					this.beanDefinitionNames = updatedDefinitions;
+					this.beanDefinitionTypeIndex.register(beanName);
 					// 如果当前beanName在手动注册的manualSingletonNames集合中，则移除
 					removeManualSingletonName(beanName);
 				}
@@ -1056,6 +1529,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				// Still in startup registration phase
 				this.beanDefinitionMap.put(beanName, beanDefinition);
 				this.beanDefinitionNames.add(beanName);
+				this.beanDefinitionTypeIndex.register(beanName);
 				removeManualSingletonName(beanName);
 			}
 			this.frozenBeanDefinitionNames = null;
@@ -1098,6 +1572,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		this.frozenBeanDefinitionNames = null;
 
 		resetBeanDefinition(beanName);
+		this.beanDefinitionTypeIndex.remove(beanName);
 	}
 
 	/**
@@ -1162,6 +1637,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		// Re-classify against the actual singleton instance (e.g. a proxy)
+		this.beanDefinitionTypeIndex.invalidate(beanName);
+	}
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		super.registerSingleton(beanName, singletonObject);
@@ -25,6 +25,9 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +35,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -73,6 +77,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Maximum number of suppressed exceptions to preserve. */
 	private static final int SUPPRESSED_EXCEPTIONS_LIMIT = 100;
 
+	/** Interval in milliseconds between deadlock checks while waiting for a singleton creation lock. */
+	private static final long CREATION_LOCK_CHECK_INTERVAL = 50;
+
 
 	/** Cache of singleton objects: bean name to bean instance. */
 	private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(256);
@@ -99,7 +106,27 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private Set<Exception> suppressedExceptions;
 
 	/** Flag that indicates whether we're currently within destroySingletons. */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
+
+	/** Whether to create singletons under per-bean locks instead of the full singleton lock. */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/** Per-bean creation locks for concurrent singleton creation: bean name to lock. */
+	private final Map<String, ReentrantLock> singletonCreationLocks = new ConcurrentHashMap<>(16);
+
+	/** Threads currently creating a singleton: bean name to creating thread. */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for a singleton creation lock: thread to bean name. */
+	private final Map<Thread, String> threadsAwaitingSingletonCreation = new ConcurrentHashMap<>(16);
+
+	/** Suppressed Exceptions of the current thread, in case of concurrent singleton creation. */
+	private final ThreadLocal<Set<Exception>> concurrentSuppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions in concurrent singleton creation");
+
+	/** Creation state of the current thread, in case of concurrent singleton creation. */
+	private final ThreadLocal<SingletonCreationState> concurrentCreationState =
+			new NamedThreadLocal<>("Singleton creation state in concurrent singleton creation");
 
 	/** Disposable bean instances: bean name to disposable instance. */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -114,6 +141,38 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Set whether singleton beans may be created concurrently, guarded by a lock
+	 * per bean name instead of the full singleton lock of this registry.
+	 * <p>Default is "false": singleton creation is serialized across all threads,
+	 * with one thread creating one singleton (including its dependencies) at a time.
+	 * Switch this to "true" for lazily initialized singletons being requested from
+	 * many threads, or for a parallel pre-instantiation of independent singletons.
+	 * The registry still guarantees a single instance per bean name. Early singleton
+	 * references are only exposed within the creating thread: In case of a circular
+	 * wait between creating threads, one of them backs off, releasing its creation
+	 * locks, and retries once the other thread has created the beans in question,
+	 * resolving the circular reference within that thread as in sequential creation.
+	 * <p><b>NOTE:</b> Custom code synchronizing on the {@link #getSingletonMutex()
+	 * singleton mutex} does not exclude concurrent singleton creation in this mode.
+	 * The singleton mutex is only held for individual registry updates then, not
+	 * for the creation of singleton objects (including FactoryBean-exposed objects).
+	 * @since 5.3.9
+	 */
+	public void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singleton beans may be created concurrently.
+	 * @since 5.3.9
+	 * @see #setConcurrentSingletonCreation
+	 */
+	public boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		Assert.notNull(beanName, "Bean name must not be null");
@@ -183,24 +242,37 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		// Quick check for existing instance without full singleton lock
 		// 一级缓存中是否存在
 		Object singletonObject = this.singletonObjects.get(beanName);
-		if (singletonObject== null && isSingletonCurrentlyInCreation(beanName)) {
-			// 二级缓存中是否存在
-			singletonObject = this.earlySingletonObjects.get(beanName);
-			if (singletonObject == null && allowEarlyReference) {
-				synchronized (this.singletonObjects) {
-					// Consistent creation of early reference within full singleton lock
-					singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject== null && isSingletonCurrentlyInCreation(beanName) &&
+				!isSingletonCurrentlyInCreationByOtherThread(beanName)) {
+			singletonObject = getEarlySingletonObject(beanName, allowEarlyReference);
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Return the early reference for a singleton currently in creation, if any.
+	 * @param beanName the name of the bean to look for
+	 * @param allowEarlyReference whether early references should be created or not
+	 * @return the early singleton object, or {@code null} if none found
+	 */
+	@Nullable
+	private Object getEarlySingletonObject(String beanName, boolean allowEarlyReference) {
+		// 二级缓存中是否存在
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null && allowEarlyReference) {
+			synchronized (this.singletonObjects) {
+				// Consistent creation of early reference within full singleton lock
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					singletonObject = this.earlySingletonObjects.get(beanName);
 					if (singletonObject == null) {
-						singletonObject = this.earlySingletonObjects.get(beanName);
-						if (singletonObject == null) {
-							// 发生循环依赖，将三级缓存中的对象进行处理后移到二级缓存中
-							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-							if (singletonFactory != null) {
-								// 发生循环依赖时,该步会将三级缓存中的ObjectFactory对象调用getObject()方法后,放到二级缓存中
-								singletonObject = singletonFactory.getObject();
-								this.earlySingletonObjects.put(beanName, singletonObject);
-								this.singletonFactories.remove(beanName);
-							}
+						// 发生循环依赖，将三级缓存中的对象进行处理后移到二级缓存中
+						ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+						if (singletonFactory != null) {
+							// 发生循环依赖时,该步会将三级缓存中的ObjectFactory对象调用getObject()方法后,放到二级缓存中
+							singletonObject = singletonFactory.getObject();
+							this.earlySingletonObjects.put(beanName, singletonObject);
+							this.singletonFactories.remove(beanName);
 						}
 					}
 				}
@@ -209,6 +281,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return singletonObject;
 	}
 
+	/**
+	 * Determine whether the specified singleton is currently being created by
+	 * another thread, in case of concurrent singleton creation. Early references
+	 * are only exposed to the creating thread, with other threads waiting for the
+	 * fully initialized singleton instead (unless stuck in a circular wait).
+	 * @param beanName the name of the bean
+	 */
+	private boolean isSingletonCurrentlyInCreationByOtherThread(String beanName) {
+		if (!this.concurrentSingletonCreation) {
+			return false;
+		}
+		Thread creatingThread = this.singletonCreationThreads.get(beanName);
+		return (creatingThread != null && creatingThread != Thread.currentThread());
+	}
+
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
@@ -219,6 +306,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			// 一级缓存中尝试获取bean实例
 			Object singletonObject = this.singletonObjects.get(beanName);
@@ -275,6 +365,337 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent
+	 * singleton creation: holding a lock for the given bean name only, with
+	 * the full singleton lock just held for individual registry updates.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton
+	 * with, if necessary
+	 * @return the registered singleton object
+	 * @see #setConcurrentSingletonCreation
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		return retryAfterBackOff(() -> doGetSingletonConcurrently(beanName, singletonFactory));
+	}
+
+	private Object doGetSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		ReentrantLock creationLock = acquireSingletonCreationLock(beanName);
+		try {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				if (this.singletonsCurrentlyInDestruction) {
+					throw new BeanCreationNotAllowedException(beanName,
+							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				}
+				beforeSingletonCreation(beanName);
+				Thread previousThread = this.singletonCreationThreads.put(beanName, Thread.currentThread());
+				boolean newSingleton = false;
+				Set<Exception> suppressedExceptions = this.concurrentSuppressedExceptions.get();
+				boolean recordSuppressedExceptions = (suppressedExceptions == null);
+				if (recordSuppressedExceptions) {
+					suppressedExceptions = new LinkedHashSet<>();
+					this.concurrentSuppressedExceptions.set(suppressedExceptions);
+				}
+				try {
+					singletonObject = singletonFactory.getObject();
+					newSingleton = true;
+				}
+				catch (IllegalStateException ex) {
+					// Has the singleton object implicitly appeared in the meantime ->
+					// if yes, proceed with it since the exception indicates that state.
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject == null) {
+						throw ex;
+					}
+				}
+				catch (BeanCreationException ex) {
+					if (recordSuppressedExceptions) {
+						for (Exception suppressedException : suppressedExceptions) {
+							ex.addRelatedCause(suppressedException);
+						}
+					}
+					throw ex;
+				}
+				finally {
+					if (recordSuppressedExceptions) {
+						this.concurrentSuppressedExceptions.remove();
+					}
+					if (previousThread == null) {
+						this.singletonCreationThreads.remove(beanName);
+					}
+					afterSingletonCreation(beanName);
+				}
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+			}
+			return singletonObject;
+		}
+		finally {
+			releaseSingletonCreationLock(beanName, creationLock);
+		}
+	}
+
+	/**
+	 * Execute the given action under the lock for the specified singleton: its
+	 * creation lock in case of concurrent singleton creation, registering the
+	 * current thread as creating thread for the purposes of deadlock detection,
+	 * or the full singleton lock otherwise.
+	 * <p>To be used for work on a singleton that may call back into the factory
+	 * for other beans, e.g. obtaining the object from a singleton FactoryBean.
+	 * @param beanName the name of the bean
+	 * @param action the action to execute
+	 * @param waitForLock whether to wait for another thread currently holding the
+	 * creation lock (only applicable in case of concurrent singleton creation)
+	 * @return the result of the action, or {@code null} if the creation lock
+	 * is held by another thread and {@code waitForLock} is {@code false}
+	 * @since 5.3.9
+	 * @see #setConcurrentSingletonCreation
+	 */
+	@Nullable
+	protected <T> T executeWithSingletonLock(String beanName, Supplier<T> action, boolean waitForLock) {
+		if (!this.concurrentSingletonCreation) {
+			synchronized (this.singletonObjects) {
+				return action.get();
+			}
+		}
+		return retryAfterBackOff(() -> doExecuteWithSingletonLock(beanName, action, waitForLock));
+	}
+
+	@Nullable
+	private <T> T doExecuteWithSingletonLock(String beanName, Supplier<T> action, boolean waitForLock) {
+		ReentrantLock creationLock;
+		if (waitForLock) {
+			creationLock = acquireSingletonCreationLock(beanName);
+		}
+		else {
+			creationLock = tryAcquireSingletonCreationLock(beanName);
+			if (creationLock == null) {
+				return null;
+			}
+		}
+		Thread previousThread = this.singletonCreationThreads.put(beanName, Thread.currentThread());
+		try {
+			return action.get();
+		}
+		finally {
+			if (previousThread == null) {
+				this.singletonCreationThreads.remove(beanName);
+			}
+			releaseSingletonCreationLock(beanName, creationLock);
+		}
+	}
+
+	/**
+	 * Run the given creation step in case of concurrent singleton creation.
+	 * <p>At the outermost level, i.e. with no creation lock held by the current
+	 * thread yet, a step that failed because the current thread had to
+	 * {@link #acquireSingletonCreationLock back off} from a circular wait is
+	 * retried from scratch, once the thread that it backed off for has finished
+	 * the creation of the awaited singleton. Nested steps propagate the back-off
+	 * exception, releasing their creation locks on the way out, with their
+	 * partially created singletons discarded like for any creation failure.
+	 * @param step the creation step to run
+	 * @return the result of the creation step
+	 */
+	private <T> T retryAfterBackOff(Supplier<T> step) {
+		SingletonCreationState state = this.concurrentCreationState.get();
+		if (state != null) {
+			return step.get();
+		}
+		state = new SingletonCreationState();
+		this.concurrentCreationState.set(state);
+		try {
+			while (true) {
+				try {
+					return step.get();
+				}
+				catch (RuntimeException ex) {
+					String awaitedBeanName = state.backedOffFor;
+					if (awaitedBeanName == null) {
+						throw ex;
+					}
+					state.backedOffFor = null;
+					if (logger.isDebugEnabled()) {
+						logger.debug("Retrying singleton creation after backing off for bean '" +
+								awaitedBeanName + "' in creation in another thread");
+					}
+					// Holding no creation locks anymore: wait for the other thread to finish.
+					releaseSingletonCreationLock(awaitedBeanName, acquireSingletonCreationLock(awaitedBeanName));
+				}
+			}
+		}
+		finally {
+			this.concurrentCreationState.remove();
+		}
+	}
+
+	/**
+	 * Acquire the current creation lock for the given singleton, waiting for
+	 * another thread to finish its creation of that singleton if necessary.
+	 * @param beanName the name of the bean
+	 * @return the acquired lock
+	 * @throws BeanCurrentlyInCreationException if the current thread needs to
+	 * back off since waiting for the lock would lead to a deadlock between
+	 * creating threads (to be retried through {@link #retryAfterBackOff})
+	 */
+	private ReentrantLock acquireSingletonCreationLock(String beanName) {
+		while (true) {
+			ReentrantLock creationLock =
+					this.singletonCreationLocks.computeIfAbsent(beanName, name -> new ReentrantLock());
+			if (!creationLock.tryLock() && !awaitSingletonCreationLock(beanName, creationLock)) {
+				SingletonCreationState state = this.concurrentCreationState.get();
+				if (state != null) {
+					state.backedOffFor = beanName;
+				}
+				throw new BeanCurrentlyInCreationException(beanName,
+						"Requested bean is currently in creation in another thread which in turn waits " +
+						"for a bean in creation in the current thread: backing off for the other thread");
+			}
+			if (this.singletonCreationLocks.get(beanName) == creationLock) {
+				return creationLock;
+			}
+			// Lock discarded by its previous holder in the meantime -> retry with the current lock.
+			creationLock.unlock();
+		}
+	}
+
+	/**
+	 * Acquire the current creation lock for the given singleton if available.
+	 * @param beanName the name of the bean
+	 * @return the acquired lock, or {@code null} if held by another thread
+	 */
+	@Nullable
+	private ReentrantLock tryAcquireSingletonCreationLock(String beanName) {
+		ReentrantLock creationLock =
+				this.singletonCreationLocks.computeIfAbsent(beanName, name -> new ReentrantLock());
+		if (!creationLock.tryLock()) {
+			return null;
+		}
+		if (this.singletonCreationLocks.get(beanName) != creationLock) {
+			creationLock.unlock();
+			return null;
+		}
+		return creationLock;
+	}
+
+	/**
+	 * Release the given creation lock, discarding it from the registry when
+	 * released by its outermost holder: Threads still waiting for the lock
+	 * re-check the registry and retry with a new lock if necessary.
+	 * @param beanName the name of the bean
+	 * @param creationLock the creation lock held by the current thread
+	 */
+	private void releaseSingletonCreationLock(String beanName, ReentrantLock creationLock) {
+		if (creationLock.getHoldCount() == 1) {
+			this.singletonCreationLocks.remove(beanName, creationLock);
+		}
+		creationLock.unlock();
+	}
+
+	/**
+	 * Wait for the given creation lock, held by another thread creating the
+	 * given singleton, as long as this does not lead to a deadlock.
+	 * @param beanName the name of the bean
+	 * @param creationLock the creation lock for the bean
+	 * @return {@code true} if the lock has been acquired, or {@code false}
+	 * if the current thread needs to back off from a circular wait instead
+	 */
+	private boolean awaitSingletonCreationLock(String beanName, ReentrantLock creationLock) {
+		Thread currentThread = Thread.currentThread();
+		this.threadsAwaitingSingletonCreation.put(currentThread, beanName);
+		try {
+			while (!creationLock.tryLock(CREATION_LOCK_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+				if (isBackOffRequired(currentThread, beanName)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (InterruptedException ex) {
+			currentThread.interrupt();
+			throw new BeanCreationException(beanName,
+					"Interrupted while waiting for singleton creation in another thread", ex);
+		}
+		finally {
+			this.threadsAwaitingSingletonCreation.remove(currentThread);
+		}
+	}
+
+	/**
+	 * Check whether the given thread, waiting for the creation of the given
+	 * singleton, is part of a circular wait (following the chain of creating
+	 * threads which in turn wait for singletons in creation by other threads)
+	 * and is the thread in that cycle which has to back off.
+	 * <p>Every thread in the cycle comes to the same conclusion, so exactly
+	 * one of them backs off: preferably a thread that waits for a singleton
+	 * with an early reference, since the thread creating that singleton is
+	 * then able to resolve the circular reference within its own thread when
+	 * taking over the creation of the singletons that the other thread held.
+	 * @param currentThread the waiting thread
+	 * @param beanName the name of the bean that the thread waits for
+	 */
+	private boolean isBackOffRequired(Thread currentThread, String beanName) {
+		Map<Thread, String> waitingThreads = new LinkedHashMap<>();
+		Thread waitingThread = currentThread;
+		String awaitedBeanName = beanName;
+		int maxChainLength = this.threadsAwaitingSingletonCreation.size();
+		for (int i = 0; i <= maxChainLength; i++) {
+			waitingThreads.put(waitingThread, awaitedBeanName);
+			Thread creatingThread = this.singletonCreationThreads.get(awaitedBeanName);
+			if (creatingThread == null || (creatingThread != currentThread &&
+					waitingThreads.containsKey(creatingThread))) {
+				// Not waiting for a thread in creation, or for a cycle that the current
+				// thread is not part of -> to be resolved by the threads in that cycle.
+				return false;
+			}
+			if (creatingThread == currentThread) {
+				return (selectThreadToBackOff(waitingThreads) == currentThread);
+			}
+			awaitedBeanName = this.threadsAwaitingSingletonCreation.get(creatingThread);
+			if (awaitedBeanName == null) {
+				// Creating thread not waiting for a creation lock -> will make progress.
+				return false;
+			}
+			waitingThread = creatingThread;
+		}
+		return false;
+	}
+
+	/**
+	 * Select the thread to back off from the given circular wait.
+	 * @param waitingThreads the threads in the cycle, each with the name
+	 * of the bean that it waits for
+	 * @see #isBackOffRequired
+	 */
+	private Thread selectThreadToBackOff(Map<Thread, String> waitingThreads) {
+		Thread selectedThread = null;
+		boolean selectedWithEarlyReference = false;
+		synchronized (this.singletonObjects) {
+			for (Map.Entry<Thread, String> entry : waitingThreads.entrySet()) {
+				Thread thread = entry.getKey();
+				String awaitedBeanName = entry.getValue();
+				boolean withEarlyReference = (this.earlySingletonObjects.containsKey(awaitedBeanName) ||
+						this.singletonFactories.containsKey(awaitedBeanName));
+				if (selectedThread == null || (withEarlyReference && !selectedWithEarlyReference) ||
+						(withEarlyReference == selectedWithEarlyReference && thread.getId() > selectedThread.getId())) {
+					selectedThread = thread;
+					selectedWithEarlyReference = withEarlyReference;
+				}
+			}
+		}
+		return selectedThread;
+	}
+
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -285,6 +706,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
+		Set<Exception> concurrentSuppressedExceptions = this.concurrentSuppressedExceptions.get();
+		if (concurrentSuppressedExceptions != null) {
+			if (concurrentSuppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+				concurrentSuppressedExceptions.add(ex);
+			}
+			return;
+		}
 		synchronized (this.singletonObjects) {
 			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
 				this.suppressedExceptions.add(ex);
@@ -638,10 +1066,25 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>Note that an extended singleton creation phase should rather go through
+	 * {@link #executeWithSingletonLock}, taking the per-bean creation lock in case
+	 * of {@link #setConcurrentSingletonCreation concurrent singleton creation}.
+	 * The singleton mutex itself is then just suitable for short registry updates.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Singleton creation state of a thread in concurrent singleton creation.
+	 */
+	private static class SingletonCreationState {
+
+		/** Name of the bean that the thread backed off for, if any. */
+		@Nullable
+		String backedOffFor;
+	}
+
 }
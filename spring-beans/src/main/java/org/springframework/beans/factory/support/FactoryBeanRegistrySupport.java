@@ -30,6 +30,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.FactoryBeanNotInitializedException;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * Support base class for singleton registries which need to handle
@@ -96,44 +97,12 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	// 获取FactoryBean对应的bean实例，并进行相关的缓存
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				Object object = this.factoryBeanObjectCache.get(beanName);
-				if (object == null) {
-
-					object = doGetObjectFromFactoryBean(factory, beanName);
-					// Only post-process and store if not put there already during getObject() call above
-					// (e.g. because of circular reference processing triggered by custom getBean calls)
-					// 不太理解为什么要重新get一次
-					Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
-					if (alreadyThere != null) {
-						object = alreadyThere;
-					}
-					else {
-						if (shouldPostProcess) {
-							beforeSingletonCreation(beanName);
-							if (isSingletonCurrentlyInCreation(beanName)) {
-								// Temporarily return non-post-processed object, not storing it yet..
-								return object;
-							}
-							try {
-								// FactoryBean封装的对象,会进行BeanPostProcessor后置处理器的after()方法的处理（初始化的后置处理）
-								object = postProcessObjectFromFactoryBean(object, beanName);
-							}
-							catch (Throwable ex) {
-								throw new BeanCreationException(beanName,
-										"Post-processing of FactoryBean's singleton object failed", ex);
-							}
-							finally {
-								afterSingletonCreation(beanName);
-							}
-						}
-						if (containsSingleton(beanName)) {
-							this.factoryBeanObjectCache.put(beanName, object);
-						}
-					}
-				}
-				return object;
-			}
+			// Under the creation lock for the FactoryBean in case of concurrent singleton creation,
+			// under the full singleton lock otherwise.
+			Object object = executeWithSingletonLock(beanName,
+					() -> getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess), true);
+			Assert.state(object != null, "No object from FactoryBean");
+			return object;
 		}
 		else {
 			Object object = doGetObjectFromFactoryBean(factory, beanName);
@@ -149,6 +118,55 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 		}
 	}
 
+	/**
+	 * Obtain the object to expose from the given singleton FactoryBean,
+	 * caching it in the FactoryBean object cache.
+	 * <p>To be called under the singleton lock for the FactoryBean.
+	 * @param factory the FactoryBean instance
+	 * @param beanName the name of the bean
+	 * @param shouldPostProcess whether the bean is subject to post-processing
+	 * @return the object obtained from the FactoryBean
+	 * @see #executeWithSingletonLock
+	 */
+	private Object getSingletonObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
+		Object object = this.factoryBeanObjectCache.get(beanName);
+		if (object == null) {
+
+			object = doGetObjectFromFactoryBean(factory, beanName);
+			// Only post-process and store if not put there already during getObject() call above
+			// (e.g. because of circular reference processing triggered by custom getBean calls)
+			// 不太理解为什么要重新get一次
+			Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
+			if (alreadyThere != null) {
+				object = alreadyThere;
+			}
+			else {
+				if (shouldPostProcess) {
+					beforeSingletonCreation(beanName);
+					if (isSingletonCurrentlyInCreation(beanName)) {
+						// Temporarily return non-post-processed object, not storing it yet..
+						return object;
+					}
+					try {
+						// FactoryBean封装的对象,会进行BeanPostProcessor后置处理器的after()方法的处理（初始化的后置处理）
+						object = postProcessObjectFromFactoryBean(object, beanName);
+					}
+					catch (Throwable ex) {
+						throw new BeanCreationException(beanName,
+								"Post-processing of FactoryBean's singleton object failed", ex);
+					}
+					finally {
+						afterSingletonCreation(beanName);
+					}
+				}
+				if (containsSingleton(beanName)) {
+					this.factoryBeanObjectCache.put(beanName, object);
+				}
+			}
+		}
+		return object;
+	}
+
 	/**
 	 * Obtain an object to expose from the given FactoryBean.
 	 * @param factory the FactoryBean instance
@@ -86,7 +86,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 				}
 			}
 			// 通过 BeanUtils 直接使用构造器对象实例化 Bean 对象
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(bd, constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -117,13 +117,29 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					return null;
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(bd, ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
 		}
 	}
 
+	/**
+	 * Invoke the given constructor with the given arguments.
+	 * <p>The default implementation delegates to
+	 * {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * Subclasses may override this, e.g. for a specific invocation mechanism.
+	 * @param bd the bean definition
+	 * @param ctor the constructor to invoke
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the constructor invocation failed
+	 * @since 5.3.9
+	 */
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
 	/**
 	 * Subclasses can override this method, which is implemented to throw
 	 * UnsupportedOperationException, if they can instantiate an object with
@@ -156,7 +172,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
 				// 创建 Bean 对象(反射)
-				Object result = factoryMethod.invoke(factoryBean, args);
+				Object result = invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
 				if (result == null) {
 					result = new NullBean();
 				}
@@ -191,4 +207,25 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Invoke the given factory method with the given arguments.
+	 * <p>The default implementation invokes the given method reflectively.
+	 * Subclasses may override this, e.g. for a specific invocation mechanism.
+	 * @param bd the bean definition
+	 * @param factoryBean the factory bean instance to call the factory method on,
+	 * or {@code null} in case of a static factory method
+	 * @param factoryMethod the factory method to invoke (already made accessible)
+	 * @param args the factory method arguments to apply
+	 * @return the factory method's return value
+	 * @throws IllegalAccessException if the factory method is not accessible
+	 * @throws InvocationTargetException if the factory method threw an exception
+	 * @since 5.3.9
+	 */
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean,
+			Method factoryMethod, Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
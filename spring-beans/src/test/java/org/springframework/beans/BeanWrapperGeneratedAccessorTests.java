@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * {@link BeanWrapperImpl} tests with generated property accessors,
+ * re-running all {@link BeanWrapperTests} against generated accessors.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class BeanWrapperGeneratedAccessorTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+		accessor.setUseGeneratedAccessors(true);
+		return accessor;
+	}
+
+
+	@Test
+	void generatedAccessorsForPublicProperties() {
+		AccessedBean target = new AccessedBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("age", "42");
+		assertThat(target.age).isEqualTo(42);
+		assertThat(target.accessor).contains("$$PropertyAccessor$$");
+
+		target.accessor = null;
+		assertThat(accessor.getPropertyValue("age")).isEqualTo(42);
+		assertThat(target.accessor).contains("$$PropertyAccessor$$");
+	}
+
+	@Test
+	void generatedAccessorsForNestedProperties() {
+		AccessedBean target = new AccessedBean();
+		target.setNested(new AccessedBean());
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("nested.age", 7);
+		assertThat(target.nested.age).isEqualTo(7);
+		assertThat(target.nested.accessor).contains("$$PropertyAccessor$$");
+	}
+
+	@Test
+	void reflectiveAccessWhenDisabled() {
+		AccessedBean target = new AccessedBean();
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+		accessor.setPropertyValue("age", 42);
+		assertThat(target.age).isEqualTo(42);
+		assertThat(target.accessor).doesNotContain("$$PropertyAccessor$$");
+	}
+
+	@Test
+	void reflectiveAccessForNonPublicClass() {
+		NonPublicBean target = new NonPublicBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("name", "juergen");
+		assertThat(target.name).isEqualTo("juergen");
+		assertThat(target.accessor).doesNotContain("$$PropertyAccessor$$");
+	}
+
+	@Test
+	void exceptionFromGeneratedAccessor() {
+		BeanWrapperImpl accessor = createAccessor(new AccessedBean());
+		assertThatExceptionOfType(MethodInvocationException.class)
+				.isThrownBy(() -> accessor.setPropertyValue("age", -1))
+				.withCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void linkageErrorFromPropertyMethod() {
+		AccessedBean target = new AccessedBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		assertThatExceptionOfType(MethodInvocationException.class)
+				.isThrownBy(() -> accessor.setPropertyValue("age", 999))
+				.withCauseInstanceOf(NoSuchMethodError.class);
+		assertThat(target.invocationCount).isEqualTo(1);
+		assertThat(target.accessor).contains("$$PropertyAccessor$$");
+	}
+
+	@Test
+	void linkageErrorFromGeneratedAccessor() throws Exception {
+		Method writeMethod = AccessedBean.class.getMethod("setNested", AccessedBean.class);
+		GeneratedPropertyAccessors.Writer writer = GeneratedPropertyAccessors.getWriter(writeMethod);
+		assertThat(writer).isNotNull();
+		Method readMethod = AccessedBean.class.getMethod("getNested");
+		Function<Object, Object> reader = GeneratedPropertyAccessors.getReader(readMethod);
+		assertThat(reader).isNotNull();
+
+		NoSuchMethodError errorFromMethod = new NoSuchMethodError();
+		assertThat(GeneratedPropertyAccessors.discardOnLinkageError(readMethod, reader, errorFromMethod)).isFalse();
+		assertThat(GeneratedPropertyAccessors.getReader(readMethod)).isSameAs(reader);
+
+		IllegalAccessError errorFromReader = new IllegalAccessError();
+		errorFromReader.setStackTrace(new StackTraceElement[] {
+				new StackTraceElement(reader.getClass().getName(), "apply", null, -1)});
+		assertThat(GeneratedPropertyAccessors.discardOnLinkageError(readMethod, reader, errorFromReader)).isTrue();
+		assertThat(GeneratedPropertyAccessors.getReader(readMethod)).isNull();
+		assertThat(GeneratedPropertyAccessors.getWriter(writeMethod)).isSameAs(writer);
+
+		AccessedBean target = new AccessedBean();
+		target.setNested(new AccessedBean());
+		assertThat(createAccessor(target).getPropertyValue("nested")).isSameAs(target.nested);
+	}
+
+
+	private static String callerClassName() {
+		return new Throwable().getStackTrace()[2].getClassName();
+	}
+
+
+	public static class AccessedBean {
+
+		String accessor;
+
+		int age;
+
+		AccessedBean nested;
+
+		int invocationCount;
+
+		public int getAge() {
+			this.accessor = callerClassName();
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.accessor = callerClassName();
+			this.invocationCount++;
+			if (age < 0) {
+				throw new IllegalArgumentException("Negative age");
+			}
+			if (age == 999) {
+				throw new NoSuchMethodError("Linkage failure in property method");
+			}
+			this.age = age;
+		}
+
+		public AccessedBean getNested() {
+			return this.nested;
+		}
+
+		public void setNested(AccessedBean nested) {
+			this.nested = nested;
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		String accessor;
+
+		String name;
+
+		public void setName(String name) {
+			this.accessor = callerClassName();
+			this.name = name;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.beans.factory;
 import java.io.Closeable;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
 import java.security.AccessControlContext;
 import java.security.AccessController;
@@ -37,6 +38,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -46,6 +51,7 @@ import javax.security.auth.Subject;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.PropertyEditorRegistrar;
@@ -63,6 +69,7 @@ import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.PropertiesFactoryBean;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.TypedStringValue;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.AbstractBeanFactory;
@@ -74,6 +81,8 @@ import org.springframework.beans.factory.support.ManagedList;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.ConstructorDependenciesBean;
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
+import org.springframework.beans.testfixture.beans.AgeHolder;
+import org.springframework.beans.testfixture.beans.DependenciesBean;
 import org.springframework.beans.testfixture.beans.DependenciesBean;
 import org.springframework.beans.testfixture.beans.DerivedTestBean;
 import org.springframework.beans.testfixture.beans.ITestBean;
@@ -105,6 +114,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.beans.factory.support.DefaultSingletonBeanRegistryTests.await;
 
 /**
  * Tests properties population and autowire behavior.
@@ -2671,6 +2681,236 @@ class DefaultListableBeanFactoryTests {
 		assertThat(holder.getNonPublicEnum()).isEqualTo(NonPublicEnum.VALUE_1);
 	}
 
+	@Test
+	void beanNamesForTypeWithIncrementalRegistration() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(DerivedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(AgeHolder.class)).containsExactly("tb1", "factory", "tb2");
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+
+		lbf.registerBeanDefinition("tb3", new RootBeanDefinition(TestBean.class));
+		lbf.removeBeanDefinition("tb1");
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(DerivedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(AgeHolder.class)).containsExactly("factory", "nested", "tb2", "tb3");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).isEmpty();
+	}
+
+	@Test
+	void beanNamesForTypeWithReplacedSingletonInstance() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(DerivedTestBean.class));
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return (!"tb2".equals(beanName) ? bean : Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] {ITestBean.class, Runnable.class}, (proxy, method, args) -> null));
+			}
+		});
+		assertThat(lbf.getBeanNamesForType(Runnable.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2");
+
+		lbf.preInstantiateSingletons();
+		assertThat(lbf.getBeanNamesForType(Runnable.class)).containsExactly("tb2");
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("tb1", "tb2");
+	}
+
+	@Test
+	void beanNamesForTypeWithBeanClassNames() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class.getName()));
+		lbf.registerBeanDefinition("missing", new RootBeanDefinition("org.example.MissingBean"));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(DerivedTestBean.class.getName()));
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class, true, false)).containsExactly("tb2");
+		assertThat(lbf.getBeanNamesForType(ITestBean.class, true, false)).containsExactly("tb1", "tb2");
+		assertThat((Map<?, ?>) new DirectFieldAccessor(lbf).getPropertyValue(
+				"beanDefinitionTypeIndex.unclassifiedNames")).isEmpty();
+		assertThat(((Map<?, ?>) new DirectFieldAccessor(lbf).getPropertyValue(
+				"beanDefinitionTypeIndex.unindexedNames")).values().toArray()).containsExactly("missing");
+	}
+
+	@Test
+	void beanNamesForTypeWithTypePredictingPostProcessor() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).isEmpty();
+
+		lbf.addBeanPostProcessor(new SmartInstantiationAwareBeanPostProcessor() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				return ("tb2".equals(beanName) ? DerivedTestBean.class : null);
+			}
+		});
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb1", "tb2");
+		assertThat(((Map<?, ?>) new DirectFieldAccessor(lbf).getPropertyValue(
+				"beanDefinitionTypeIndex.unindexedNames")).values().toArray()).containsExactly("tb2");
+	}
+
+	@Test
+	void parallelPreInstantiation() {
+		Map<String, Thread> creatingThreads = new ConcurrentHashMap<>();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class, () -> {
+			creatingThreads.put("tb1", Thread.currentThread());
+			await(barrier);
+			return new TestBean("tb1");
+		}));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class, () -> {
+			creatingThreads.put("tb2", Thread.currentThread());
+			await(barrier);
+			return new TestBean("tb2");
+		}));
+		RootBeanDefinition bd3 = new RootBeanDefinition(TestBean.class, () -> {
+			creatingThreads.put("tb3", Thread.currentThread());
+			return new TestBean("tb3");
+		});
+		bd3.getPropertyValues().add("spouse", new RuntimeBeanReference("tb1"));
+		lbf.registerBeanDefinition("tb3", bd3);
+		RootBeanDefinition bd4 = new RootBeanDefinition(TestBean.class, () -> {
+			creatingThreads.put("tb4", Thread.currentThread());
+			return new TestBean("tb4");
+		});
+		bd4.setDependsOn("tb2");
+		lbf.registerBeanDefinition("tb4", bd4);
+		RootBeanDefinition lazyBd = new RootBeanDefinition(TestBean.class);
+		lazyBd.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazyBd);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			assertThat(lbf.isConcurrentSingletonCreation()).isTrue();
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(lbf.containsSingleton("tb1")).isTrue();
+		assertThat(lbf.containsSingleton("tb2")).isTrue();
+		assertThat(lbf.containsSingleton("lazy")).isFalse();
+		assertThat(lbf.getBean("tb3", TestBean.class).getSpouse()).isSameAs(lbf.getBean("tb1"));
+		assertThat(creatingThreads.get("tb1")).isNotSameAs(Thread.currentThread());
+		assertThat(creatingThreads.get("tb3")).isSameAs(creatingThreads.get("tb1"));
+		assertThat(creatingThreads.get("tb4")).isSameAs(Thread.currentThread());
+	}
+
+	@Test
+	void parallelPreInstantiationWithAutowireCandidates() {
+		Map<String, Thread> creatingThreads = new ConcurrentHashMap<>();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class, () -> {
+			creatingThreads.put("tb1", Thread.currentThread());
+			await(barrier);
+			return new TestBean("tb1");
+		}));
+		lbf.registerBeanDefinition("other", new RootBeanDefinition(Object.class, () -> {
+			creatingThreads.put("other", Thread.currentThread());
+			await(barrier);
+			return new Object();
+		}));
+		RootBeanDefinition ctorBd = new RootBeanDefinition(ConstructorDependency.class);
+		ctorBd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("ctor", ctorBd);
+		RootBeanDefinition byTypeBd = new RootBeanDefinition(DependenciesBean.class);
+		byTypeBd.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		lbf.registerBeanDefinition("byType", byTypeBd);
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				creatingThreads.putIfAbsent(beanName, Thread.currentThread());
+				return bean;
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(lbf.getBean("ctor", ConstructorDependency.class).spouse).isSameAs(lbf.getBean("tb1"));
+		assertThat(lbf.getBean("byType", DependenciesBean.class).getSpouse()).isSameAs(lbf.getBean("tb1"));
+		assertThat(creatingThreads.get("tb1")).isNotSameAs(Thread.currentThread());
+		assertThat(creatingThreads.get("ctor")).isSameAs(creatingThreads.get("tb1"));
+		assertThat(creatingThreads.get("byType")).isSameAs(creatingThreads.get("tb1"));
+	}
+
+	@Test
+	void parallelPreInstantiationWithCircularReferenceOnParallelThread() {
+		Thread callingThread = Thread.currentThread();
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class, () -> {
+			if (Thread.currentThread() != callingThread) {
+				throw new BeanCurrentlyInCreationException("tb1");
+			}
+			return new TestBean("tb1");
+		}));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(lbf.containsSingleton("tb1")).isTrue();
+		assertThat(lbf.containsSingleton("tb2")).isTrue();
+	}
+
+	@Test
+	void parallelPreInstantiationWithFailure() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class, () -> {
+			throw new IllegalStateException("expected");
+		}));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(lbf::preInstantiateSingletons)
+					.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(lbf.containsSingleton("tb1")).isTrue();
+	}
+
+	@Test
+	void parallelPreInstantiationWithFailureOnCallingThread() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class, () -> {
+			throw new IllegalStateException("parallel");
+		}));
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class, () -> {
+			throw new IllegalStateException("sequential");
+		});
+		bd2.setDependsOn("tb3");
+		lbf.registerBeanDefinition("tb2", bd2);
+		lbf.registerBeanDefinition("tb3", new RootBeanDefinition(TestBean.class));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(lbf::preInstantiateSingletons)
+					.satisfies(ex -> {
+						assertThat(ex.getBeanName()).isEqualTo("tb2");
+						assertThat(ex.getSuppressed()).hasSize(1);
+						assertThat(ex.getSuppressed()[0]).isInstanceOfSatisfying(BeanCreationException.class,
+								suppressed -> assertThat(suppressed.getBeanName()).isEqualTo("tb1"));
+					});
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
 
 	@SuppressWarnings("deprecation")
 	private int registerBeanDefinitions(Properties p) {
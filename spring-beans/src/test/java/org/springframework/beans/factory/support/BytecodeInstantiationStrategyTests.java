@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BytecodeInstantiationStrategy}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class BytecodeInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.beanFactory.setInstantiationStrategy(new BytecodeInstantiationStrategy());
+	}
+
+
+	@Test
+	void prototypeWithDefaultConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(InstantiatedBean.class));
+
+		InstantiatedBean bean = this.beanFactory.getBean("bean", InstantiatedBean.class);
+		assertThat(bean.instantiator).contains("$$Instantiator$$");
+		assertThat(this.beanFactory.getBean("bean")).isNotSameAs(bean);
+	}
+
+	@Test
+	void prototypeWithConstructorArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(InstantiatedBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(2, new RuntimeBeanReference("spouse"));
+		registerPrototype("bean", bd);
+		this.beanFactory.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+
+		InstantiatedBean bean = this.beanFactory.getBean("bean", InstantiatedBean.class);
+		assertThat(bean.instantiator).contains("$$Instantiator$$");
+		assertThat(bean.name).isEqualTo("juergen");
+		assertThat(bean.age).isEqualTo(42);
+		assertThat(bean.spouse).isSameAs(this.beanFactory.getBean("spouse"));
+	}
+
+	@Test
+	void prototypeWithStaticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(InstantiatedBean.class);
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		registerPrototype("bean", bd);
+
+		InstantiatedBean bean = this.beanFactory.getBean("bean", InstantiatedBean.class);
+		assertThat(bean.instantiator).contains("$$Instantiator$$");
+		assertThat(bean.name).isEqualTo("juergen");
+	}
+
+	@Test
+	void prototypeWithInstanceFactoryMethod() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(InstantiatedBeanFactory.class));
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "7");
+		registerPrototype("bean", bd);
+
+		InstantiatedBean bean = this.beanFactory.getBean("bean", InstantiatedBean.class);
+		assertThat(bean.age).isEqualTo(7);
+		assertThat(this.beanFactory.getBean(InstantiatedBeanFactory.class).instantiator)
+				.contains("$$Instantiator$$");
+	}
+
+	@Test
+	void prototypeWithNullFromFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(InstantiatedBean.class);
+		bd.setFactoryMethodName("createNull");
+		registerPrototype("bean", bd);
+
+		assertThat(this.beanFactory.getBean("bean")).isInstanceOf(NullBean.class);
+	}
+
+	@Test
+	void prototypeWithFailingConstructor() {
+		RootBeanDefinition bd = new RootBeanDefinition(InstantiatedBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, true);
+		registerPrototype("bean", bd);
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(() -> this.beanFactory.getBean("bean"))
+				.withRootCauseInstanceOf(IllegalStateException.class)
+				.withMessageContaining("Constructor threw exception");
+	}
+
+	@Test
+	void prototypeWithLinkageErrorFromConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(LinkageErrorBean.class));
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(() -> this.beanFactory.getBean("bean"))
+				.withRootCauseInstanceOf(NoClassDefFoundError.class);
+		assertThat(LinkageErrorBean.invocationCount).hasValue(1);
+	}
+
+	@Test
+	void prototypeWithNonPublicConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(NonPublicBean.class));
+
+		assertThat(this.beanFactory.getBean("bean", NonPublicBean.class).instantiator)
+				.doesNotContain("$$Instantiator$$");
+	}
+
+	@Test
+	void singletonIsInstantiatedReflectively() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(InstantiatedBean.class));
+
+		assertThat(this.beanFactory.getBean("bean", InstantiatedBean.class).instantiator)
+				.doesNotContain("$$Instantiator$$");
+	}
+
+
+	private void registerPrototype(String beanName, RootBeanDefinition bd) {
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+	private static String callerClassName() {
+		return new Throwable().getStackTrace()[2].getClassName();
+	}
+
+
+	public static class InstantiatedBean {
+
+		String instantiator = callerClassName();
+
+		String name;
+
+		int age;
+
+		TestBean spouse;
+
+		public InstantiatedBean() {
+		}
+
+		public InstantiatedBean(String name, int age, TestBean spouse) {
+			this.name = name;
+			this.age = age;
+			this.spouse = spouse;
+		}
+
+		public InstantiatedBean(boolean fail) {
+			throw new IllegalStateException("Constructor failure");
+		}
+
+		public static InstantiatedBean create(String name) {
+			InstantiatedBean bean = new InstantiatedBean();
+			bean.instantiator = callerClassName();
+			bean.name = name;
+			return bean;
+		}
+
+		public static InstantiatedBean createNull() {
+			return null;
+		}
+	}
+
+
+	public static class InstantiatedBeanFactory {
+
+		String instantiator;
+
+		public InstantiatedBean create(int age) {
+			this.instantiator = callerClassName();
+			InstantiatedBean bean = new InstantiatedBean();
+			bean.age = age;
+			return bean;
+		}
+	}
+
+
+	public static class LinkageErrorBean {
+
+		static final AtomicInteger invocationCount = new AtomicInteger();
+
+		public LinkageErrorBean() {
+			invocationCount.incrementAndGet();
+			throw new NoClassDefFoundError("org/example/Missing");
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		final String instantiator = callerClassName();
+	}
+
+}
@@ -16,10 +16,26 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.testfixture.beans.DerivedTestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 
@@ -101,4 +117,219 @@ public class DefaultSingletonBeanRegistryTests {
 		assertThat(beanRegistry.isDependent("c", "c")).isTrue();
 	}
 
+
+	@Test
+	public void testConcurrentSingletonCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		AtomicInteger creationCount = new AtomicInteger();
+		CountDownLatch startLatch = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					return beanRegistry.getSingleton("tb", () -> {
+						creationCount.incrementAndGet();
+						return new TestBean();
+					});
+				}));
+			}
+			startLatch.countDown();
+			Object singleton = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<Object> future : futures) {
+				assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(singleton);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(creationCount.get()).isEqualTo(1);
+		assertThat(beanRegistry.getSingletonNames()).containsExactly("tb");
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationWithCircularReferenceAcrossThreads() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch creationLatch = new CountDownLatch(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class, () -> {
+			await(creationLatch);
+			return new TestBean("tb1");
+		});
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("tb2"));
+		beanFactory.registerBeanDefinition("tb1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class, () -> {
+			await(creationLatch);
+			return new TestBean("tb2");
+		});
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("tb1"));
+		beanFactory.registerBeanDefinition("tb2", bd2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<TestBean> tb1 = executor.submit(() -> beanFactory.getBean("tb1", TestBean.class));
+			Future<TestBean> tb2 = executor.submit(() -> beanFactory.getBean("tb2", TestBean.class));
+			assertThat(tb1.get(10, TimeUnit.SECONDS).getSpouse()).isSameAs(tb2.get(10, TimeUnit.SECONDS));
+			assertThat(tb2.get(10, TimeUnit.SECONDS).getSpouse()).isSameAs(tb1.get(10, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(beanFactory.getBean("tb1")).isSameAs(beanFactory.getBean("tb2", TestBean.class).getSpouse());
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationWithFieldAndConstructorCycleAcrossThreads() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch creationLatch = new CountDownLatch(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class, () -> {
+			await(creationLatch);
+			return new TestBean("tb1");
+		});
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("tb2"));
+		beanFactory.registerBeanDefinition("tb1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("tb1"));
+		beanFactory.registerBeanDefinition("tb2", bd2);
+		Map<String, Thread> creatingThreads = new ConcurrentHashMap<>();
+		beanFactory.addBeanPostProcessor(new InstantiationAwareBeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+				if (beanName.equals("tb2")) {
+					await(creationLatch);
+				}
+				return null;
+			}
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				creatingThreads.put(beanName, Thread.currentThread());
+				return bean;
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<TestBean> tb1 = executor.submit(() -> beanFactory.getBean("tb1", TestBean.class));
+			Future<TestBean> tb2 = executor.submit(() -> beanFactory.getBean("tb2", TestBean.class));
+			assertThat(tb1.get(10, TimeUnit.SECONDS).getSpouse()).isSameAs(tb2.get(10, TimeUnit.SECONDS));
+			assertThat(tb2.get(10, TimeUnit.SECONDS).getSpouse()).isSameAs(tb1.get(10, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		TestBean tb1 = beanFactory.getBean("tb1", TestBean.class);
+		assertThat(tb1.getSpouse()).isSameAs(beanFactory.getBean("tb2"));
+		assertThat(tb1.getSpouse().getSpouse()).isSameAs(tb1);
+		// Circular reference resolved within a single thread, without early references across threads
+		assertThat(creatingThreads.get("tb1")).isSameAs(creatingThreads.get("tb2"));
+		assertThat((Map<?, ?>) new DirectFieldAccessor(beanFactory).getPropertyValue("singletonCreationLocks")).isEmpty();
+	}
+
+
+	@Test
+	public void testConcurrentSingletonCreationDiscardsCreationLocks() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CountDownLatch startLatch = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				String beanName = "tb" + (i % 4);
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					return beanRegistry.getSingleton(beanName, TestBean::new);
+				}));
+			}
+			startLatch.countDown();
+			for (Future<Object> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(beanRegistry.getSingletonCount()).isEqualTo(4);
+		assertThat((Map<?, ?>) new DirectFieldAccessor(beanRegistry).getPropertyValue("singletonCreationLocks")).isEmpty();
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationWithFactoryBean() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setConcurrentSingletonCreation(true);
+		AtomicInteger creationCount = new AtomicInteger();
+		FactoryBean<TestBean> factoryBean = new FactoryBean<TestBean>() {
+			@Override
+			public TestBean getObject() {
+				assertThat(Thread.holdsLock(beanFactory.getSingletonMutex())).isFalse();
+				creationCount.incrementAndGet();
+				TestBean tb = new TestBean("fb");
+				tb.setSpouse(beanFactory.getBean("tb", TestBean.class));
+				return tb;
+			}
+			@Override
+			public Class<?> getObjectType() {
+				return TestBean.class;
+			}
+		};
+		RootBeanDefinition fbd = new RootBeanDefinition(FactoryBean.class, () -> factoryBean);
+		fbd.setSynthetic(true);
+		beanFactory.registerBeanDefinition("fb", fbd);
+		beanFactory.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		CountDownLatch startLatch = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					return beanFactory.getBean("fb");
+				}));
+			}
+			startLatch.countDown();
+			Object object = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<Object> future : futures) {
+				assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(object);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(creationCount.get()).isEqualTo(1);
+		assertThat((Map<?, ?>) new DirectFieldAccessor(beanFactory).getPropertyValue("singletonCreationLocks")).isEmpty();
+	}
+
+
+	/**
+	 * Await the given barrier for at most 10 seconds, for use in instance suppliers.
+	 */
+	public static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Count down the given latch and await it for at most 10 seconds,
+	 * for use in instance suppliers which may get invoked repeatedly.
+	 */
+	public static void await(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,16 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
@@ -29,6 +36,11 @@ import org.springframework.util.Assert;
  * Spring {@link org.springframework.cache.Cache} adapter implementation
  * on top of a Caffeine {@link com.github.benmanes.caffeine.cache.Cache} instance.
  *
+ * <p>Can also be built on top of a Caffeine {@link AsyncCache}, providing
+ * non-blocking {@link #retrieve(Object) retrieval} of cached values as well
+ * as asynchronous {@link #retrieve(Object, Supplier) loading} with concurrent
+ * retrievals for the same key sharing a single in-flight loading operation.
+ *
  * <p>Requires Caffeine 2.1 or higher.
  *
  * @author Ben Manes
@@ -43,6 +55,9 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 
 	private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
 
+	@Nullable
+	private final AsyncCache<Object, Object> asyncCache;
+
 
 	/**
 	 * Create a {@link CaffeineCache} instance with the specified name and the
@@ -70,6 +85,25 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		Assert.notNull(cache, "Cache must not be null");
 		this.name = name;
 		this.cache = cache;
+		this.asyncCache = null;
+	}
+
+	/**
+	 * Create a {@link CaffeineCache} instance with the specified name and the
+	 * given internal {@link AsyncCache} to use.
+	 * @param name the name of the cache
+	 * @param cache the backing Caffeine AsyncCache instance
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @since 5.3.9
+	 */
+	public CaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(cache, "Cache must not be null");
+		this.name = name;
+		this.cache = cache.synchronous();
+		this.asyncCache = cache;
 	}
 
 
@@ -78,11 +112,27 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return this.name;
 	}
 
+	/**
+	 * Return the internal Caffeine Cache
+	 * (possibly the synchronous view of an {@link AsyncCache}).
+	 */
 	@Override
 	public final com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
 		return this.cache;
 	}
 
+	/**
+	 * Return the internal Caffeine AsyncCache.
+	 * @throws IllegalStateException if no AsyncCache is available
+	 * @since 5.3.9
+	 * @see #CaffeineCache(String, AsyncCache, boolean)
+	 */
+	public final AsyncCache<Object, Object> getAsyncCache() {
+		Assert.state(this.asyncCache != null,
+				"No Caffeine AsyncCache available: set CaffeineCacheManager.setAsyncCacheMode(true)");
+		return this.asyncCache;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	@Nullable
@@ -90,6 +140,43 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return (T) fromStoreValue(this.cache.get(key, new LoadFunction(valueLoader)));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = (this.cache instanceof LoadingCache ?
+				((LoadingCache<Object, Object>) this.cache).getAll((Collection<Object>) keys) :
+				this.cache.getAllPresent(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Object key : keys) {
+			Object storeValue = storeValues.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key);
+		}
+		CompletableFuture<Object> result = (this.asyncCache instanceof AsyncLoadingCache ?
+				((AsyncLoadingCache<Object, Object>) this.asyncCache).get(key) : this.asyncCache.getIfPresent(key));
+		return (result != null ? result.thenApply(this::toValueWrapper) : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key, valueLoader);
+		}
+		return this.asyncCache.get(key, (k, executor) -> valueLoader.get().thenApply(this::toStoreValue))
+				.thenApply(storeValue -> (T) fromStoreValue(storeValue));
+	}
+
 	@Override
 	@Nullable
 	protected Object lookup(Object key) {
@@ -104,6 +191,13 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable final Object value) {
@@ -117,6 +211,11 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.invalidate(key);
 	}
 
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.cache.invalidateAll(keys);
+	}
+
 	@Override
 	public boolean evictIfPresent(Object key) {
 		return (this.cache.asMap().remove(key) != null);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package org.springframework.cache.jcache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.cache.Cache;
@@ -90,11 +95,31 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		}
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = this.cache.getAll(toKeySet(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Object key : keys) {
+			Object storeValue = storeValues.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -107,6 +132,11 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		this.cache.remove(key);
 	}
 
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.cache.removeAll(toKeySet(keys));
+	}
+
 	@Override
 	public boolean evictIfPresent(Object key) {
 		return this.cache.remove(key);
@@ -124,6 +154,11 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		return notEmpty;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static Set<Object> toKeySet(Collection<?> keys) {
+		return (keys instanceof Set ? (Set<Object>) keys : new LinkedHashSet<>(keys));
+	}
+
 
 	private class ValueLoaderEntryProcessor<T> implements EntryProcessor<Object, Object, T> {
 
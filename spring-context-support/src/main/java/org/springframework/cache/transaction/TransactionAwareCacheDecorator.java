@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.cache.Cache;
@@ -31,6 +35,7 @@ import org.springframework.util.Assert;
  * put/evict/clear operation only in the after-commit phase of a successful
  * transaction. If no transaction is active, {@link #put}, {@link #evict} and
  * {@link #clear} operations will be performed immediately, as usual.
+ * The same applies to the bulk variants {@link #putAll} and {@link #evictAll}.
  *
  * <p><b>Note:</b> Use of immediate operations such as {@link #putIfAbsent} and
  * {@link #evictIfPresent} cannot be deferred to the after-commit phase of a
@@ -91,6 +96,11 @@ public class TransactionAwareCacheDecorator implements Cache {
 		return this.targetCache.get(key, valueLoader);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		return this.targetCache.getAll(keys);
+	}
+
 	@Override
 	public void put(final Object key, @Nullable final Object value) {
 		if (TransactionSynchronizationManager.isSynchronizationActive()) {
@@ -106,6 +116,22 @@ public class TransactionAwareCacheDecorator implements Cache {
 		}
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Map<?, ?> entriesToPut = new LinkedHashMap<>(entries);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					TransactionAwareCacheDecorator.this.targetCache.putAll(entriesToPut);
+				}
+			});
+		}
+		else {
+			this.targetCache.putAll(entries);
+		}
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -127,6 +153,22 @@ public class TransactionAwareCacheDecorator implements Cache {
 		}
 	}
 
+	@Override
+	public void evictAll(Collection<?> keys) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Collection<?> keysToEvict = new ArrayList<>(keys);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					TransactionAwareCacheDecorator.this.targetCache.evictAll(keysToEvict);
+				}
+			});
+		}
+		else {
+			this.targetCache.evictAll(keys);
+		}
+	}
+
 	@Override
 	public boolean evictIfPresent(Object key) {
 		return this.targetCache.evictIfPresent(key);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
@@ -211,4 +214,33 @@ public class CaffeineCacheManagerTests {
 		assertThat(cm.getCache("c2") == cache2).isTrue();
 	}
 
+	@Test
+	public void asyncCacheMode() throws Exception {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertThat(cache1.retrieve("key", () -> CompletableFuture.completedFuture("value")).get()).isEqualTo("value");
+
+		cm.setAsyncCacheMode(true);
+		Cache cache1x = cm.getCache("c1");
+		assertThat(cache1x != cache1).isTrue();
+		assertThat(((CaffeineCache) cache1x).getAsyncCache()).isNotNull();
+		assertThat(cache1x.retrieve("key")).isNull();
+		assertThat(cache1x.retrieve("key", () -> CompletableFuture.completedFuture("value")).get()).isEqualTo("value");
+		assertThat(cache1x.retrieve("key").get().get()).isEqualTo("value");
+		assertThat(cache1x.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void customAsyncCacheRegistration() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		AsyncCache<Object, Object> nc = Caffeine.newBuilder().buildAsync();
+		cm.registerCustomCache("c2", nc);
+
+		Cache cache2 = cm.getCache("c2");
+		assertThat(((CaffeineCache) cache2).getAsyncCache()).isSameAs(nc);
+
+		cm.setAsyncCacheMode(true);
+		assertThat(cm.getCache("c2") == cache2).isTrue();
+	}
+
 }
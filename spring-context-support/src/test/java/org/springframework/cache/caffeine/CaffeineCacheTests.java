@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -111,4 +114,48 @@ class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<CaffeineCache>
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	void testAsyncCacheRetrieve() throws Exception {
+		CaffeineCache asyncCache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+
+		Object key = new Object();
+		assertThat(asyncCache.retrieve(key)).isNull();
+
+		asyncCache.put(key, "value");
+		assertThat(asyncCache.retrieve(key).get().get()).isEqualTo("value");
+		assertThat(asyncCache.getAsyncCache().getIfPresent(key).get()).isEqualTo("value");
+	}
+
+	@Test
+	void testAsyncCacheRetrieveSharesInFlightLoad() throws Exception {
+		CaffeineCache asyncCache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<Object> load = new CompletableFuture<>();
+
+		Object key = new Object();
+		CompletableFuture<Object> first = asyncCache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return load;
+		});
+		CompletableFuture<Object> second = asyncCache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+
+		load.complete(null);
+		assertThat(first.get()).isNull();
+		assertThat(second.get()).isNull();
+		assertThat(counter.get()).isEqualTo(1);
+		ValueWrapper valueWrapper = asyncCache.get(key);
+		assertThat(valueWrapper).isNotNull();
+		assertThat(valueWrapper.get()).isNull();
+	}
+
+	@Test
+	void testAsyncCacheNotAvailable() {
+		assertThatIllegalStateException().isThrownBy(() -> this.cache.getAsyncCache());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
@@ -87,6 +90,20 @@ public class TransactionAwareCacheDecoratorTests {
 		assertThat(target.get(key, String.class)).isEqualTo("123");
 	}
 
+	@Test
+	public void putAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Object key = new Object();
+
+		txTemplate.executeWithoutResult(s -> {
+			cache.putAll(Collections.singletonMap(key, "123"));
+			assertThat(target.get(key)).isNull();
+		});
+
+		assertThat(target.get(key, String.class)).isEqualTo("123");
+	}
+
 	@Test
 	public void putIfAbsentNonTransactional() {
 		Cache target = new ConcurrentMapCache("testCache");
@@ -117,6 +134,25 @@ public class TransactionAwareCacheDecoratorTests {
 		assertThat(target.get(key, String.class)).isEqualTo("123");
 	}
 
+	@Test
+	public void evictAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Object key1 = new Object();
+		Object key2 = new Object();
+		cache.put(key1, "123");
+		cache.put(key2, "456");
+
+		txTemplate.executeWithoutResult(s -> {
+			cache.evictAll(Arrays.asList(key1, key2));
+			assertThat(target.get(key1, String.class)).isEqualTo("123");
+			assertThat(target.get(key2, String.class)).isEqualTo("456");
+		});
+
+		assertThat(target.get(key1)).isNull();
+		assertThat(target.get(key2)).isNull();
+	}
+
 	@Test
 	public void evictNonTransactional() {
 		Cache target = new ConcurrentMapCache("testCache");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +105,80 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys,
+	 * fetching all of them in a single operation if possible.
+	 * <p>Keys without a mapping are not contained in the returned map;
+	 * otherwise, the cached value (which may be {@code null} itself) will
+	 * be returned in a {@link ValueWrapper}, just like with {@link #get(Object)}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Cache providers with a remote store are encouraged to override this
+	 * with a bulk lookup, avoiding a round trip per key.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each cached key to a {@link ValueWrapper} for its
+	 * value, in the iteration order of the given keys
+	 * @since 5.3.9
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				result.put(key, valueWrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Look up the value to which this cache maps the specified key, without
+	 * blocking the caller if the lookup needs to be performed asynchronously.
+	 * <p>The default implementation delegates to {@link #get(Object)} and
+	 * returns a completed future for an existing mapping. Cache providers with
+	 * non-blocking access to their store are encouraged to override this.
+	 * @param key the key whose associated value is to be returned
+	 * @return {@code null} if the cache is known to contain no mapping for this
+	 * key, or otherwise a future which completes with a {@link ValueWrapper}
+	 * for the cached value (which may be {@code null} itself) or with
+	 * {@code null} if it turns out that there is no such mapping
+	 * @since 5.3.9
+	 * @see #retrieve(Object, Supplier)
+	 */
+	@Nullable
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		ValueWrapper valueWrapper = get(key);
+		return (valueWrapper != null ? CompletableFuture.completedFuture(valueWrapper) : null);
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from the future returned by {@code valueLoader} if necessary,
+	 * without blocking the caller.
+	 * <p>If possible, implementations should ensure that concurrent retrievals
+	 * for the same key share a single in-flight loading operation, with the
+	 * {@code valueLoader} only being called once and all callers receiving
+	 * the result of its future.
+	 * <p>The default implementation delegates to {@link #get(Object)} and
+	 * {@link #put(Object, Object)} without any such coordination.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the loader providing a future for the value to cache
+	 * @return a future for the value to which this cache maps the specified key
+	 * @since 5.3.9
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper valueWrapper = get(key);
+		if (valueWrapper != null) {
+			return CompletableFuture.completedFuture((T) valueWrapper.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +193,39 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate the specified value with the specified key in this cache,
+	 * without blocking the caller if the store needs to be accessed remotely.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * and returns a completed future.
+	 * @param key the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return a future which completes once the value has been stored
+	 * @since 5.3.9
+	 * @see #put(Object, Object)
+	 */
+	default CompletableFuture<Void> putAsync(Object key, @Nullable Object value) {
+		put(key, value);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Associate the specified values with their keys in this cache,
+	 * storing all of them in a single operation if possible.
+	 * <p>Like with {@link #put(Object, Object)}, actual registration may be
+	 * performed in an asynchronous or deferred fashion.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Cache providers with a remote store are encouraged to
+	 * override this with a bulk operation, avoiding a round trip per entry.
+	 * @param entries the keys and their values (which may be {@code null})
+	 * to be stored in this cache
+	 * @since 5.3.9
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
@@ -161,6 +273,21 @@ public interface Cache {
 	 */
 	void evict(Object key);
 
+	/**
+	 * Evict the mappings for the specified keys from this cache if present,
+	 * removing all of them in a single operation if possible.
+	 * <p>Like with {@link #evict(Object)}, actual eviction may be performed
+	 * in an asynchronous or deferred fashion.
+	 * <p>The default implementation delegates to {@link #evict(Object)}
+	 * for each key.
+	 * @param keys the keys whose mappings are to be removed from the cache
+	 * @since 5.3.9
+	 * @see #evict(Object)
+	 */
+	default void evictAll(Collection<?> keys) {
+		keys.forEach(this::evict);
+	}
+
 	/**
 	 * Evict the mapping for this key from this cache if it is present,
 	 * expecting the key to be immediately invisible for subsequent lookups.
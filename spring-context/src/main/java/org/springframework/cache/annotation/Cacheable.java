@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,32 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Serve a lookup for a collection of keys partly from the cache, invoking
+	 * the underlying method for the keys without a cache entry only.
+	 * <p>The method is expected to declare a single {@link java.util.Collection}
+	 * parameter holding the keys and to return a {@link java.util.Map} from each
+	 * key to its value. Every element of the collection is used as a cache key
+	 * as-is, matching the default key of a corresponding single-key method.
+	 * Cached entries are fetched via {@link org.springframework.cache.Cache#getAll}
+	 * and the method is invoked with a collection of the remaining keys, with
+	 * the entries in its result being stored via
+	 * {@link org.springframework.cache.Cache#putAll}. The returned map combines
+	 * both, following the iteration order of the given keys; keys which are
+	 * neither cached nor contained in the method result are omitted.
+	 * <p>This leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #key()}, {@link #unless()} and {@link #sync()} are not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * Invoking the method with a different collection of keys relies on the
+	 * interceptor exposing modifiable arguments, as is the case with Spring AOP
+	 * proxies. Otherwise, the method is invoked with all keys, still combining
+	 * its result with the cached entries.
+	 * @since 5.3.9
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
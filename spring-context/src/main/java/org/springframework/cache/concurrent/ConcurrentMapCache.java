@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,15 @@
 
 package org.springframework.cache.concurrent;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
 import org.springframework.core.serializer.support.SerializationDelegate;
@@ -38,6 +44,10 @@ import org.springframework.util.Assert;
  * them with a predefined internal object. This behavior can be changed through the
  * {@link #ConcurrentMapCache(String, ConcurrentMap, boolean)} constructor.
  *
+ * <p>Supports non-blocking {@link #retrieve(Object, Supplier) retrieval} of
+ * asynchronously loaded values, with concurrent retrievals for the same key
+ * sharing a single in-flight loading operation.
+ *
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -53,6 +63,8 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	@Nullable
 	private final SerializationDelegate serialization;
 
+	private final ConcurrentMap<Object, CompletableFuture<?>> pendingLoads = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new ConcurrentMapCache with the specified name.
@@ -149,11 +161,99 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		}));
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Object storeValue = this.store.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		Object storeValue = this.store.get(key);
+		return (storeValue != null ? CompletableFuture.completedFuture(toValueWrapper(storeValue)) : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		Object storeValue = this.store.get(key);
+		if (storeValue != null) {
+			return CompletableFuture.completedFuture((T) fromStoreValue(storeValue));
+		}
+
+		CompletableFuture<T> pendingLoad = new CompletableFuture<>();
+		CompletableFuture<T> existingLoad = (CompletableFuture<T>) this.pendingLoads.putIfAbsent(key, pendingLoad);
+		if (existingLoad != null) {
+			return dependentFuture(existingLoad);
+		}
+
+		// Re-check: a previous load may have completed in the meantime
+		storeValue = this.store.get(key);
+		if (storeValue != null) {
+			this.pendingLoads.remove(key, pendingLoad);
+			pendingLoad.complete((T) fromStoreValue(storeValue));
+			return dependentFuture(pendingLoad);
+		}
+
+		CompletableFuture<T> load;
+		try {
+			load = valueLoader.get();
+		}
+		catch (RuntimeException | Error ex) {
+			this.pendingLoads.remove(key, pendingLoad);
+			pendingLoad.completeExceptionally(ex);
+			throw ex;
+		}
+		load.whenComplete((value, ex) -> {
+			Throwable failure = ex;
+			if (failure == null) {
+				try {
+					this.store.put(key, toStoreValue(value));
+				}
+				catch (Throwable putEx) {
+					failure = putEx;
+				}
+			}
+			this.pendingLoads.remove(key, pendingLoad);
+			if (failure != null) {
+				pendingLoad.completeExceptionally(failure);
+			}
+			else {
+				pendingLoad.complete(value);
+			}
+		});
+		return dependentFuture(pendingLoad);
+	}
+
+	/**
+	 * Expose the given pending load to a specific caller, through a dependent
+	 * future which the caller may complete or cancel without affecting the
+	 * pending load itself or any other caller waiting for it.
+	 */
+	private static <T> CompletableFuture<T> dependentFuture(CompletableFuture<T> pendingLoad) {
+		return pendingLoad.thenApply(Function.identity());
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.store.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		// Convert all values upfront, not storing any of them in case of a failure
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.store.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -166,6 +266,13 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		this.store.remove(key);
 	}
 
+	@Override
+	public void evictAll(Collection<?> keys) {
+		for (Object key : keys) {
+			this.store.remove(key);
+		}
+	}
+
 	@Override
 	public boolean evictIfPresent(Object key) {
 		return (this.store.remove(key) != null);
@@ -21,14 +21,21 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -41,8 +48,12 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +80,18 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} or, with Reactor on the classpath,
+ * a reactive type such as {@code Mono} or {@code Flux} are cached asynchronously:
+ * the cache is consulted through {@link Cache#retrieve(Object)} and populated once
+ * the returned value has been produced, with {@code Flux} elements being cached as
+ * a {@code List}. For {@code sync=true} operations, concurrent invocations for the
+ * same key share the in-flight computation through
+ * {@link Cache#retrieve(Object, java.util.function.Supplier)}.
+ *
+ * <p>For {@code batch=true} operations, a collection of keys is served through
+ * {@link Cache#getAll} first, with the underlying method only being invoked for
+ * the keys without a cache entry and its result being stored via {@link Cache#putAll}.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +106,15 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+	/**
+	 * Marker for a return value not handled by the {@link ReactiveCachingHandler}.
+	 */
+	private static final Object NOT_HANDLED = new Object();
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -100,6 +132,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	@Nullable
+	private final transient ReactiveCachingHandler reactiveCachingHandler =
+			(reactorPresent ? new ReactiveCachingHandler() : null);
+
 	private boolean initialized = false;
 
 
@@ -378,6 +414,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+					return handleSynchronizedRetrieve(invoker, key, cache);
+				}
+				if (this.reactiveCachingHandler != null) {
+					Object returnValue = this.reactiveCachingHandler.executeSynchronized(invoker, method, key, cache);
+					if (returnValue != NOT_HANDLED) {
+						return returnValue;
+					}
+				}
 				try {
 					return wrapCacheValue(method, handleSynchronizedGet(invoker, key, cache));
 				}
@@ -394,12 +439,35 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 
+		// Special handling of batch lookups for a collection of keys
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBatch(invoker, method, context, contexts.args, contexts.batchKeysIndex);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
 				CacheOperationExpressionEvaluator.NO_RESULT);
 
 		// Check if we have a cached item matching the conditions
-		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+		Object cacheHit = findCachedItem(contexts.get(CacheableOperation.class), invoker, method, contexts);
+		if (cacheHit == null || cacheHit instanceof Cache.ValueWrapper) {
+			return evaluate((Cache.ValueWrapper) cacheHit, invoker, method, contexts);
+		}
+
+		// Asynchronous lookup, evaluated once the cached item is available
+		return cacheHit;
+	}
+
+	@Nullable
+	private Object evaluate(@Nullable Cache.ValueWrapper cacheHit, CacheOperationInvoker invoker,
+			Method method, CacheOperationContexts contexts) {
 
 		// Collect puts from any @Cacheable miss, if no cached item is found
 		List<CachePutRequest> cachePutRequests = new ArrayList<>();
@@ -422,12 +490,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
+		// Asynchronous result: decorated for deferred processing once the actual value is available
+		Object asyncResult = decorateAsyncResult(cacheValue, cachePutRequests, contexts);
+		if (asyncResult != null) {
+			return asyncResult;
+		}
+
 		// Collect any explicit @CachePuts
 		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
 
 		// Process any collected put requests, either from @CachePut or a @Cacheable miss
 		for (CachePutRequest cachePutRequest : cachePutRequests) {
-			cachePutRequest.apply(cacheValue);
+			cachePutRequest.performCachePut(cacheValue);
 		}
 
 		// Process any late evictions
@@ -436,6 +510,82 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Decorate the given asynchronous result for processing the given put requests
+	 * from a {@code @Cacheable} miss, any explicit {@code @CachePut} operations and
+	 * any late evictions once the actual value is available: evaluating conditions
+	 * and keys against that value, and skipped if the result completes exceptionally.
+	 * @param result the result of the method invocation or the cache hit
+	 * @param cachePutRequests the put requests from a {@code @Cacheable} miss
+	 * @param contexts the cache operation contexts of the invocation
+	 * @return the decorated result, or {@code null} if the result is not asynchronous
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Object decorateAsyncResult(@Nullable Object result, List<CachePutRequest> cachePutRequests,
+			CacheOperationContexts contexts) {
+
+		if (result instanceof CompletableFuture) {
+			return ((CompletableFuture<Object>) result).thenCompose(value ->
+					completeAsyncResult(value, cachePutRequests, contexts).thenApply(done -> value));
+		}
+		if (this.reactiveCachingHandler != null) {
+			Object returnValue = this.reactiveCachingHandler.decorateResult(result,
+					value -> completeAsyncResult(value, cachePutRequests, contexts));
+			if (returnValue != NOT_HANDLED) {
+				return returnValue;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Process the put requests and late evictions for the actual value
+	 * of an asynchronous result.
+	 * @see #decorateAsyncResult
+	 */
+	private CompletableFuture<Void> completeAsyncResult(@Nullable Object value,
+			List<CachePutRequest> cachePutRequests, CacheOperationContexts contexts) {
+
+		List<CachePutRequest> allPutRequests = new ArrayList<>(cachePutRequests);
+		collectPutRequests(contexts.get(CachePutOperation.class), value, allPutRequests);
+		CompletableFuture<?>[] puts = new CompletableFuture<?>[allPutRequests.size()];
+		for (int i = 0; i < puts.length; i++) {
+			puts[i] = allPutRequests.get(i).performAsyncCachePut(value);
+		}
+		return CompletableFuture.allOf(puts).thenRun(() ->
+				processCacheEvicts(contexts.get(CacheEvictOperation.class), false, value));
+	}
+
+	/**
+	 * Variant of {@link #evaluate} for a late cache hit determination in an
+	 * asynchronous pipeline, exposing a failed invocation as a failed future.
+	 */
+	private CompletableFuture<?> evaluateAsync(@Nullable Cache.ValueWrapper cacheHit, CacheOperationInvoker invoker,
+			Method method, CacheOperationContexts contexts) {
+
+		try {
+			CompletableFuture<?> returnValue = (CompletableFuture<?>) evaluate(cacheHit, invoker, method, contexts);
+			return (returnValue != null ? returnValue : CompletableFuture.completedFuture(null));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<?> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex.getOriginal());
+			return failed;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<?> handleSynchronizedRetrieve(CacheOperationInvoker invoker, Object key, Cache cache) {
+		return cache.retrieve(key, () -> {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entry for key '" + key + "' in cache " + cache.getName());
+			}
+			CompletableFuture<Object> returnValue = (CompletableFuture<Object>) invokeOperation(invoker);
+			return (returnValue != null ? returnValue : CompletableFuture.completedFuture(null));
+		});
+	}
+
 	@Nullable
 	private Object handleSynchronizedGet(CacheOperationInvoker invoker, Object key, Cache cache) {
 		InvocationAwareResult invocationResult = new InvocationAwareResult();
@@ -452,6 +602,71 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return result;
 	}
 
+	/**
+	 * Serve the given collection of keys from the caches where possible,
+	 * invoking the underlying method with the remaining keys only.
+	 * @see org.springframework.cache.annotation.Cacheable#batch()
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context, Object[] args, int keysIndex) {
+
+		Collection<?> keys = (Collection<?>) args[keysIndex];
+		if (keys == null) {
+			return invokeOperation(invoker);
+		}
+
+		Map<Object, Cache.ValueWrapper> cacheHits = new LinkedHashMap<>(keys.size());
+		Collection<Object> missingKeys = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> cached = doGetAll(cache, missingKeys);
+			if (!cached.isEmpty()) {
+				cacheHits.putAll(cached);
+				missingKeys.removeIf(cached::containsKey);
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cache entries found for " + cacheHits.size() + " of " + keys.size() +
+					" keys in cache(s) " + context.getCacheNames());
+		}
+
+		Map<?, ?> loaded = null;
+		if (!missingKeys.isEmpty()) {
+			Collection<Object> keysToLoad =
+					CollectionFactory.createCollection(method.getParameterTypes()[keysIndex], missingKeys.size());
+			keysToLoad.addAll(missingKeys);
+			args[keysIndex] = keysToLoad;
+			try {
+				loaded = (Map<?, ?>) invokeOperation(invoker);
+			}
+			finally {
+				args[keysIndex] = keys;
+			}
+			if (!CollectionUtils.isEmpty(loaded)) {
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, loaded);
+				}
+			}
+		}
+
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			if (loaded != null && loaded.containsKey(key)) {
+				result.put(key, loaded.get(key));
+			}
+			else {
+				Cache.ValueWrapper cacheHit = cacheHits.get(key);
+				if (cacheHit != null) {
+					result.put(key, cacheHit.get());
+				}
+			}
+		}
+		return result;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -524,16 +739,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	/**
 	 * Find a cached item only for {@link CacheableOperation} that passes the condition.
 	 * @param contexts the cacheable operations
-	 * @return a {@link Cache.ValueWrapper} holding the cached item,
-	 * or {@code null} if none is found
+	 * @return a {@link Cache.ValueWrapper} holding the cached item, {@code null}
+	 * if none is found, or an asynchronous return value (such as a
+	 * {@link CompletableFuture}) which evaluates the operations once the
+	 * cached item has been retrieved
 	 */
 	@Nullable
-	private Cache.ValueWrapper findCachedItem(Collection<CacheOperationContext> contexts) {
+	private Object findCachedItem(Collection<CacheOperationContext> contexts,
+			CacheOperationInvoker invoker, Method method, CacheOperationContexts allContexts) {
+
 		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
 		for (CacheOperationContext context : contexts) {
 			if (isConditionPassing(context, result)) {
 				Object key = generateKey(context, result);
-				Cache.ValueWrapper cached = findInCaches(context, key);
+				Object cached = findInCaches(context, key, invoker, method, allContexts);
 				if (cached != null) {
 					return cached;
 				}
@@ -566,8 +785,28 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 	@Nullable
-	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
+	private Object findInCaches(CacheOperationContext context, Object key,
+			CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+
 		for (Cache cache : context.getCaches()) {
+			if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+				CompletableFuture<Cache.ValueWrapper> result = doRetrieve(cache, key);
+				if (result != null) {
+					return result.thenCompose(wrapper -> evaluateAsync(
+							(wrapper != null ? new SimpleValueWrapper(CompletableFuture.completedFuture(wrapper.get())) : null),
+							invoker, method, contexts));
+				}
+				continue;
+			}
+			if (this.reactiveCachingHandler != null) {
+				Object returnValue = this.reactiveCachingHandler.findInCaches(cache, key, invoker, method, contexts);
+				if (returnValue != NOT_HANDLED) {
+					if (returnValue != null) {
+						return returnValue;
+					}
+					continue;
+				}
+			}
 			Cache.ValueWrapper wrapper = doGet(cache, key);
 			if (wrapper != null) {
 				if (logger.isTraceEnabled()) {
@@ -607,6 +846,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final Object[] args;
+
+		private final int batchKeysIndex;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -615,6 +858,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.args = args;
+			this.batchKeysIndex = determineBatchKeysIndex(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -626,6 +871,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return (this.batchKeysIndex >= 0);
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -661,6 +910,56 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBatchKeysIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null || cacheOperationContexts.stream().noneMatch(
+					context -> ((CacheableOperation) context.getOperation()).isBatch())) {
+				return -1;
+			}
+			if (this.contexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(batch=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+			if (operation.isSync()) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with sync=true on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getUnless())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support unless attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support key attribute on '" + operation + "'");
+			}
+			Class<?> returnType = method.getReturnType();
+			if (!Map.class.isAssignableFrom(returnType) || !returnType.isAssignableFrom(LinkedHashMap.class)) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) requires a Map return type on '" + method + "'");
+			}
+			int keysIndex = -1;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					if (keysIndex >= 0) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) requires a single Collection parameter on '" + method + "'");
+					}
+					keysIndex = i;
+				}
+			}
+			if (keysIndex < 0) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) requires a Collection parameter on '" + method + "'");
+			}
+			return keysIndex;
+		}
 	}
 
 
@@ -831,13 +1130,24 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.key = key;
 		}
 
-		public void apply(@Nullable Object result) {
-			if (this.context.canPutToCache(result)) {
+		public void performCachePut(@Nullable Object value) {
+			if (this.context.canPutToCache(value)) {
 				for (Cache cache : this.context.getCaches()) {
-					doPut(cache, this.key, result);
+					doPut(cache, this.key, value);
 				}
 			}
 		}
+
+		public CompletableFuture<Void> performAsyncCachePut(@Nullable Object value) {
+			if (!this.context.canPutToCache(value)) {
+				return CompletableFuture.completedFuture(null);
+			}
+			List<CompletableFuture<Void>> puts = new ArrayList<>(1);
+			for (Cache cache : this.context.getCaches()) {
+				puts.add(doPutAsync(cache, this.key, value));
+			}
+			return CompletableFuture.allOf(puts.toArray(new CompletableFuture<?>[0]));
+		}
 	}
 
 
@@ -894,4 +1204,104 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	}
 
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime:
+	 * caches the elements of reactive return values once emitted,
+	 * with {@code Flux} elements being cached as a {@code List}.
+	 */
+	private class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		public Object executeSynchronized(CacheOperationInvoker invoker, Method method, Object key, Cache cache) {
+			ReactiveAdapter adapter = this.registry.getAdapter(method.getReturnType());
+			if (adapter == null) {
+				return NOT_HANDLED;
+			}
+			if (adapter.isMultiValue()) {
+				CompletableFuture<List<Object>> cachedList = cache.retrieve(key, () ->
+						Flux.<Object>from(adapter.toPublisher(invokeOperation(invoker))).collectList().toFuture());
+				return adapter.fromPublisher(Mono.fromFuture(cachedList).flatMapMany(Flux::fromIterable));
+			}
+			CompletableFuture<Object> cachedValue = cache.retrieve(key, () ->
+					Mono.<Object>from(adapter.toPublisher(invokeOperation(invoker))).toFuture());
+			return adapter.fromPublisher(Mono.fromFuture(cachedValue));
+		}
+
+		@Nullable
+		public Object findInCaches(Cache cache, Object key,
+				CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+
+			ReactiveAdapter adapter = this.registry.getAdapter(method.getReturnType());
+			if (adapter == null) {
+				return NOT_HANDLED;
+			}
+			CompletableFuture<Cache.ValueWrapper> cachedFuture = doRetrieve(cache, key);
+			if (cachedFuture == null) {
+				return null;
+			}
+			Mono<Optional<Cache.ValueWrapper>> lookup = Mono.fromFuture(cachedFuture.thenApply(Optional::ofNullable));
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(lookup.flatMapMany(cacheHit -> Flux.from(
+						evaluateToPublisher(adapter, cacheHit, invoker, method, contexts))));
+			}
+			return adapter.fromPublisher(lookup.flatMap(cacheHit -> Mono.from(
+					evaluateToPublisher(adapter, cacheHit, invoker, method, contexts))));
+		}
+
+		/**
+		 * Decorate the given reactive result for invoking the given completion
+		 * callback once all of its elements have been emitted successfully.
+		 * @see CacheAspectSupport#decorateAsyncResult
+		 */
+		@Nullable
+		public Object decorateResult(@Nullable Object result, Function<Object, CompletableFuture<Void>> completion) {
+			ReactiveAdapter adapter = (result != null ? this.registry.getAdapter(result.getClass()) : null);
+			if (adapter == null) {
+				return NOT_HANDLED;
+			}
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(Flux.defer(() -> {
+					List<Object> values = new ArrayList<>();
+					return Flux.<Object>from(adapter.toPublisher(result))
+							.doOnNext(values::add)
+							.concatWith(Mono.defer(() -> Mono.fromFuture(completion.apply(values)))
+									.then(Mono.empty()));
+				}));
+			}
+			return adapter.fromPublisher(Mono.<Object>from(adapter.toPublisher(result))
+					.map(Optional::of)
+					.defaultIfEmpty(Optional.empty())
+					.flatMap(value -> Mono.fromFuture(completion.apply(value.orElse(null)))
+							.then(Mono.justOrEmpty(value))));
+		}
+
+		private Publisher<Object> evaluateToPublisher(ReactiveAdapter adapter, Optional<Cache.ValueWrapper> cacheHit,
+				CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+
+			Cache.ValueWrapper cachedPublisher = cacheHit.map(wrapper -> toCachedPublisher(adapter, wrapper)).orElse(null);
+			try {
+				return adapter.toPublisher(evaluate(cachedPublisher, invoker, method, contexts));
+			}
+			catch (CacheOperationInvoker.ThrowableWrapper ex) {
+				return Mono.error(ex.getOriginal());
+			}
+		}
+
+		private Cache.ValueWrapper toCachedPublisher(ReactiveAdapter adapter, Cache.ValueWrapper wrapper) {
+			Object value = wrapper.get();
+			Publisher<?> publisher;
+			if (adapter.isMultiValue()) {
+				publisher = (value != null ? Flux.fromIterable((Iterable<?>) value) : Flux.empty());
+			}
+			else {
+				publisher = Mono.justOrEmpty(value);
+			}
+			return new SimpleValueWrapper(adapter.fromPublisher(publisher));
+		}
+	}
+
 }
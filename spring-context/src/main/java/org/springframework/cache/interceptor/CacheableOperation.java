@@ -33,6 +33,8 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final boolean batch;
+
 
 	/**
 	 * Create a new {@link CacheableOperation} instance from the given builder.
@@ -42,6 +44,7 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.batch = b.batch;
 	}
 
 
@@ -54,6 +57,10 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	public boolean isBatch() {
+		return this.batch;
+	}
+
 
 	/**
 	 * A builder that can be used to create a {@link CacheableOperation}.
@@ -66,6 +73,8 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private boolean batch;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -74,6 +83,10 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		public void setBatch(boolean batch) {
+			this.batch = batch;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -83,6 +96,9 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append('\'');
+			sb.append(" | batch='");
+			sb.append(this.batch);
+			sb.append('\'');
 			return sb;
 		}
 
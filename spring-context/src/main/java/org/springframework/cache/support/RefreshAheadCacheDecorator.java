@@ -0,0 +1,609 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache decorator which protects the underlying data source against cache
+ * stampedes: expiring entries are refreshed ahead of time in the background
+ * while the current value keeps being served, and concurrent loads for the
+ * same key are coalesced into a single invocation of the value loader.
+ *
+ * <p>Each value is stored in the target cache along with a refresh time and
+ * an expiration time, as computed from the configured {@link #setRefreshAfter
+ * refresh interval} and the time to live. Once the refresh time has passed, a
+ * loader-based retrieval through {@link #get(Object, Callable)} (as used by
+ * {@code @Cacheable(sync=true)}) or {@link #retrieve(Object, Supplier)} returns
+ * the stale value and submits a refresh to the given executor. Refresh times
+ * are randomly brought forward by up to the configured {@link #setJitterFactor
+ * jitter factor}, so that entries written at the same time do not all need to
+ * be reloaded at the same time. Expired entries are not exposed anymore; they
+ * are loaded again in the caller's thread, with concurrent callers waiting for
+ * the same load. Plain {@link #get(Object)} lookups never trigger a refresh.
+ *
+ * <p>Background refreshes are bounded by the executor as well as by the
+ * {@link #setRefreshConcurrencyLimit refresh concurrency limit}: refreshes
+ * which cannot be performed right away are skipped, with the stale value
+ * being served until a subsequent retrieval manages to refresh it. Callers
+ * which meanwhile wait for such a skipped refresh, since the entry expired
+ * in the meantime, load the value themselves instead.
+ * Note that refreshes run outside of the original caller's thread and
+ * therefore without any thread-bound context such as a transaction.
+ *
+ * <p>Decorators with the same {@link #setCoalescingGroup coalescing group}
+ * share in-flight loads for equal keys across their cache names, e.g. for
+ * different cache regions holding the same data. By default, each decorator
+ * only coalesces the loads for its own target cache.
+ *
+ * <p><b>Note:</b> This decorator stores its own holder objects in the target
+ * cache, which is therefore expected to accept serializable values of any
+ * type. {@code null} values are supported for any target cache.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see AbstractCacheManager#decorateCache
+ */
+public class RefreshAheadCacheDecorator implements Cache {
+
+	private static final Log logger = LogFactory.getLog(RefreshAheadCacheDecorator.class);
+
+	/** In-flight loads across all decorators, keyed by coalescing scope and cache key. */
+	private static final ConcurrentMap<LoadKey, Load> inFlightLoads = new ConcurrentHashMap<>(64);
+
+	/** Outcome of a load for a refresh which has been skipped, not providing a value. */
+	private static final Object REFRESH_SKIPPED = new Object();
+
+
+	private final Cache targetCache;
+
+	private final long timeToLive;
+
+	private final Executor refreshExecutor;
+
+	private long refreshAfter;
+
+	private double jitterFactor = 0.1;
+
+	private int refreshConcurrencyLimit = 16;
+
+	@Nullable
+	private String coalescingGroup;
+
+	private Clock clock = Clock.systemUTC();
+
+	private final AtomicInteger activeRefreshes = new AtomicInteger();
+
+
+	/**
+	 * Create a new RefreshAheadCacheDecorator for the given target Cache,
+	 * refreshing entries after three quarters of their time to live by default.
+	 * @param targetCache the target Cache to decorate
+	 * @param timeToLive the time after which an entry expires
+	 * @param refreshExecutor the executor to perform background refreshes with,
+	 * typically a thread pool with a bounded queue
+	 */
+	public RefreshAheadCacheDecorator(Cache targetCache, Duration timeToLive, Executor refreshExecutor) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "Time to live must be positive");
+		Assert.notNull(refreshExecutor, "Refresh Executor must not be null");
+		this.targetCache = targetCache;
+		this.timeToLive = timeToLive.toMillis();
+		this.refreshAfter = this.timeToLive * 3 / 4;
+		this.refreshExecutor = refreshExecutor;
+	}
+
+
+	/**
+	 * Specify the time after which an entry is due for a refresh.
+	 * <p>Default is three quarters of the time to live.
+	 * @see #setJitterFactor
+	 */
+	public void setRefreshAfter(Duration refreshAfter) {
+		long millis = refreshAfter.toMillis();
+		Assert.isTrue(millis > 0 && millis <= this.timeToLive, "Refresh interval must be within the time to live");
+		this.refreshAfter = millis;
+	}
+
+	/**
+	 * Specify the fraction of the refresh interval by which the refresh time
+	 * of each entry is randomly brought forward, spreading the refreshes of
+	 * entries which have been written at the same time.
+	 * <p>Default is 0.1, i.e. an entry is due for a refresh within the last
+	 * tenth of its refresh interval. Set this to 0 for exact refresh times.
+	 */
+	public void setJitterFactor(double jitterFactor) {
+		Assert.isTrue(jitterFactor >= 0 && jitterFactor < 1, "Jitter factor must be between 0 and 1");
+		this.jitterFactor = jitterFactor;
+	}
+
+	/**
+	 * Specify the maximum number of background refreshes that this decorator
+	 * performs at the same time. Further refreshes are skipped until a running
+	 * refresh has completed.
+	 * <p>Default is 16.
+	 */
+	public void setRefreshConcurrencyLimit(int refreshConcurrencyLimit) {
+		Assert.isTrue(refreshConcurrencyLimit > 0, "Refresh concurrency limit must be greater than 0");
+		this.refreshConcurrencyLimit = refreshConcurrencyLimit;
+	}
+
+	/**
+	 * Specify the group within which in-flight loads are shared for equal keys.
+	 * Decorators for different cache names may declare the same group in order
+	 * to coalesce their loads, with each of them storing the loaded value.
+	 * <p>Default is none, i.e. loads are only shared within this decorator.
+	 */
+	public void setCoalescingGroup(String coalescingGroup) {
+		Assert.hasText(coalescingGroup, "Coalescing group must not be empty");
+		this.coalescingGroup = coalescingGroup;
+	}
+
+	/**
+	 * Specify the clock to use for computing refresh and expiration times.
+	 * <p>Default is {@code Clock.systemUTC()}.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper storeWrapper = this.targetCache.get(key);
+		return (storeWrapper != null ? toLiveValueWrapper(storeWrapper.get()) : null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = resolveForRetrieval(key, this.targetCache.get(key), () -> {
+			try {
+				return CompletableFuture.completedFuture(valueLoader.call());
+			}
+			catch (Throwable ex) {
+				CompletableFuture<T> failed = new CompletableFuture<>();
+				failed.completeExceptionally(ex);
+				return failed;
+			}
+		});
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+
+		LoadKey loadKey = createLoadKey(key);
+		Load load = new Load(this);
+		Load existingLoad = inFlightLoads.putIfAbsent(loadKey, load);
+		if (existingLoad != null) {
+			Object value = awaitLoad(existingLoad, key, valueLoader);
+			// Refresh skipped -> try again, loading the value ourselves if expired
+			return (value != REFRESH_SKIPPED ? (T) value : get(key, valueLoader));
+		}
+		T value;
+		try {
+			value = valueLoader.call();
+		}
+		catch (Throwable ex) {
+			completeLoad(key, loadKey, load, null, ex);
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		completeLoad(key, loadKey, load, value, null);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		this.targetCache.getAll(keys).forEach((key, storeWrapper) -> {
+			ValueWrapper liveWrapper = toLiveValueWrapper(storeWrapper.get());
+			if (liveWrapper != null) {
+				result.put(key, liveWrapper);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		CompletableFuture<ValueWrapper> result = this.targetCache.retrieve(key);
+		return (result != null ? result.thenApply(storeWrapper ->
+				(storeWrapper != null ? toLiveValueWrapper(storeWrapper.get()) : null)) : null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		CompletableFuture<ValueWrapper> result = this.targetCache.retrieve(key);
+		if (result == null) {
+			return loadAsynchronously(key, valueLoader);
+		}
+		return result.thenCompose(storeWrapper -> {
+			ValueWrapper wrapper = resolveForRetrieval(key, storeWrapper, valueLoader);
+			return (wrapper != null ? CompletableFuture.completedFuture((T) wrapper.get()) :
+					loadAsynchronously(key, valueLoader));
+		});
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, createTimestampedValue(value));
+	}
+
+	@Override
+	public CompletableFuture<Void> putAsync(Object key, @Nullable Object value) {
+		return this.targetCache.putAsync(key, createTimestampedValue(value));
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, createTimestampedValue(value)));
+		this.targetCache.putAll(storeEntries);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, createTimestampedValue(value));
+		if (existing == null) {
+			return null;
+		}
+		ValueWrapper liveWrapper = toLiveValueWrapper(existing.get());
+		if (liveWrapper == null) {
+			// Replace expired entry
+			put(key, value);
+		}
+		return liveWrapper;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+	}
+
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.targetCache.evictAll(keys);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		return this.targetCache.evictIfPresent(key);
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		return this.targetCache.invalidate();
+	}
+
+
+	private LoadKey createLoadKey(Object key) {
+		return new LoadKey(this.coalescingGroup != null ? this.coalescingGroup : this, key);
+	}
+
+	private TimestampedValue createTimestampedValue(@Nullable Object value) {
+		long now = this.clock.millis();
+		long refreshAfter = this.refreshAfter;
+		if (this.jitterFactor > 0) {
+			refreshAfter -= (long) (refreshAfter * this.jitterFactor * ThreadLocalRandom.current().nextDouble());
+		}
+		return new TimestampedValue(value, now + refreshAfter, now + this.timeToLive);
+	}
+
+	/**
+	 * Expose the given store value unless it has expired.
+	 */
+	@Nullable
+	private ValueWrapper toLiveValueWrapper(@Nullable Object storeValue) {
+		if (storeValue instanceof TimestampedValue) {
+			TimestampedValue timestampedValue = (TimestampedValue) storeValue;
+			return (timestampedValue.isExpired(this.clock.millis()) ? null :
+					new SimpleValueWrapper(timestampedValue.value));
+		}
+		// Entry not written through this decorator
+		return new SimpleValueWrapper(storeValue);
+	}
+
+	/**
+	 * Expose the given store value unless it has expired,
+	 * scheduling a refresh with the given loader if due.
+	 * @return the value to return, or {@code null} if it needs to be loaded
+	 */
+	@Nullable
+	private ValueWrapper resolveForRetrieval(Object key, @Nullable ValueWrapper storeWrapper,
+			Supplier<? extends CompletableFuture<?>> valueLoader) {
+
+		if (storeWrapper == null) {
+			return null;
+		}
+		Object storeValue = storeWrapper.get();
+		if (!(storeValue instanceof TimestampedValue)) {
+			// Entry not written through this decorator
+			return storeWrapper;
+		}
+		TimestampedValue timestampedValue = (TimestampedValue) storeValue;
+		long now = this.clock.millis();
+		if (timestampedValue.isExpired(now)) {
+			return null;
+		}
+		if (timestampedValue.isRefreshDue(now)) {
+			scheduleRefresh(key, valueLoader);
+		}
+		return new SimpleValueWrapper(timestampedValue.value);
+	}
+
+	private void scheduleRefresh(Object key, Supplier<? extends CompletableFuture<?>> valueLoader) {
+
+		if (this.activeRefreshes.incrementAndGet() > this.refreshConcurrencyLimit) {
+			this.activeRefreshes.decrementAndGet();
+			return;
+		}
+		LoadKey loadKey = createLoadKey(key);
+		Load load = new Load(this);
+		if (inFlightLoads.putIfAbsent(loadKey, load) != null) {
+			// Already being loaded
+			this.activeRefreshes.decrementAndGet();
+			return;
+		}
+		try {
+			this.refreshExecutor.execute(() -> refresh(key, loadKey, load, valueLoader));
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Skipping refresh of key '" + key + "' in cache '" + getName() + "': " + ex);
+			}
+			// Callers waiting for this load need a live value: let them load it themselves
+			inFlightLoads.remove(loadKey, load);
+			load.future.complete(REFRESH_SKIPPED);
+			this.activeRefreshes.decrementAndGet();
+		}
+	}
+
+	private void refresh(Object key, LoadKey loadKey, Load load, Supplier<? extends CompletableFuture<?>> valueLoader) {
+		CompletableFuture<?> future;
+		try {
+			future = valueLoader.get();
+		}
+		catch (Throwable ex) {
+			CompletableFuture<?> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex);
+			future = failed;
+		}
+		future.whenComplete((value, ex) -> {
+			try {
+				completeLoad(key, loadKey, load, value, ex);
+			}
+			finally {
+				this.activeRefreshes.decrementAndGet();
+				if (ex != null && logger.isDebugEnabled()) {
+					logger.debug("Failed to refresh key '" + key + "' in cache '" + getName() + "'", ex);
+				}
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> loadAsynchronously(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		LoadKey loadKey = createLoadKey(key);
+		Load load = new Load(this);
+		Load existingLoad = inFlightLoads.putIfAbsent(loadKey, load);
+		if (existingLoad != null) {
+			return existingLoad.future.thenCompose(value -> {
+				if (value == REFRESH_SKIPPED) {
+					// Refresh skipped -> load the value ourselves
+					return loadAsynchronously(key, valueLoader);
+				}
+				if (existingLoad.origin != this) {
+					put(key, value);
+				}
+				return CompletableFuture.completedFuture((T) value);
+			});
+		}
+		CompletableFuture<T> future;
+		try {
+			future = valueLoader.get();
+		}
+		catch (RuntimeException | Error ex) {
+			completeLoad(key, loadKey, load, null, ex);
+			throw ex;
+		}
+		future.whenComplete((value, ex) -> completeLoad(key, loadKey, load, value, ex));
+		// Dependent future for the caller, not exposing the shared load to it
+		return (CompletableFuture<T>) load.future.thenApply(Function.identity());
+	}
+
+	@Nullable
+	private Object awaitLoad(Load load, Object key, Callable<?> valueLoader) {
+		Object value;
+		try {
+			value = load.future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		catch (ExecutionException ex) {
+			throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+		}
+		if (value != REFRESH_SKIPPED && load.origin != this) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	private void completeLoad(Object key, LoadKey loadKey, Load load, @Nullable Object value, @Nullable Throwable ex) {
+		try {
+			if (ex == null) {
+				put(key, value);
+				load.future.complete(value);
+			}
+			else {
+				load.future.completeExceptionally(ex);
+			}
+		}
+		catch (RuntimeException | Error putEx) {
+			load.future.completeExceptionally(putEx);
+			throw putEx;
+		}
+		finally {
+			inFlightLoads.remove(loadKey, load);
+		}
+	}
+
+
+	/**
+	 * Holder for a value in the target cache, along with its refresh and
+	 * expiration time.
+	 */
+	private static final class TimestampedValue implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Nullable
+		private final Object value;
+
+		private final long refreshTime;
+
+		private final long expirationTime;
+
+		TimestampedValue(@Nullable Object value, long refreshTime, long expirationTime) {
+			this.value = value;
+			this.refreshTime = refreshTime;
+			this.expirationTime = expirationTime;
+		}
+
+		boolean isRefreshDue(long now) {
+			return (now >= this.refreshTime);
+		}
+
+		boolean isExpired(long now) {
+			return (now >= this.expirationTime);
+		}
+	}
+
+
+	/**
+	 * Key for an in-flight load within a coalescing group or decorator.
+	 */
+	private static final class LoadKey {
+
+		private final Object scope;
+
+		private final Object key;
+
+		LoadKey(Object scope, Object key) {
+			this.scope = scope;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof LoadKey)) {
+				return false;
+			}
+			LoadKey otherKey = (LoadKey) other;
+			return (this.scope.equals(otherKey.scope) && ObjectUtils.nullSafeEquals(this.key, otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.scope.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.key);
+		}
+	}
+
+
+	/**
+	 * An in-flight load, as started by the given decorator.
+	 */
+	private static final class Load {
+
+		final RefreshAheadCacheDecorator origin;
+
+		final CompletableFuture<Object> future = new CompletableFuture<>();
+
+		Load(RefreshAheadCacheDecorator origin) {
+			this.origin = origin;
+		}
+	}
+
+}
@@ -0,0 +1,995 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanMetadataAttribute;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.parsing.FailFastProblemReporter;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.MethodOverride;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Snapshot of the fully processed bean definitions of an application context,
+ * to be captured at build time and restored on startup: avoiding the repeated
+ * parsing of {@link Configuration @Configuration} classes, {@link Import @Import}
+ * declarations and {@link ComponentScan @ComponentScan} directives as well as the
+ * evaluation of their {@link Conditional conditions}.
+ *
+ * <p>A snapshot is captured from a {@link GenericApplicationContext} once its
+ * {@code BeanFactoryPostProcessors} have been applied, and restored into a fresh
+ * {@code GenericApplicationContext} before its refresh:
+ *
+ * <pre class="code">
+ * // at build time
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * context.register(AppConfig.class);
+ * BeanDefinitionSnapshot.capture(context).save(new File("app.snapshot"));
+ * context.close();
+ *
+ * // at runtime
+ * GenericApplicationContext context = new GenericApplicationContext();
+ * BeanDefinitionSnapshot.load(new ClassPathResource("app.snapshot")).registerBeanDefinitions(context);
+ * context.refresh();</pre>
+ *
+ * <p>Restored configuration classes keep their configuration class markers, so
+ * {@link ConfigurationClassPostProcessor} skips them and just applies its runtime
+ * enhancement. The outcome of all conditions is implied by the captured set of
+ * bean definitions and therefore only valid for the same runtime setup: the
+ * effective profiles are recorded and verified on restore, whereas any other
+ * condition inputs (classpath, environment properties) are expected to be the
+ * same as at build time. Values resolved by regular {@code BeanFactoryPostProcessors}
+ * at build time (e.g. bean definition placeholders) are captured as resolved,
+ * whereas {@link PropertySource @PropertySource} declarations are recorded as
+ * declared and added to the environment again on restore, in their original order.
+ *
+ * <p>The snapshot covers bean definitions with declarative content: bean classes,
+ * factory methods, constructor arguments, property values with references, typed
+ * strings, inner beans and managed collections, qualifiers, lookup methods and
+ * simple attributes. Bean definitions with an instance supplier, with replaced
+ * methods or with any other kind of value cannot be captured. Specific behavior
+ * of custom bean definition subclasses is not retained either.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see GenericApplicationContext#refreshForBeanDefinitionProcessing()
+ * @see ConfigurationClassPostProcessor
+ */
+public final class BeanDefinitionSnapshot {
+
+	private static final int MAGIC = 0x53504244;
+
+	private static final int VERSION = 2;
+
+	private static final byte KIND_ROOT = 1;
+
+	private static final byte KIND_GENERIC = 2;
+
+	private static final byte TAG_NULL = 0;
+
+	private static final byte TAG_STRING = 1;
+
+	private static final byte TAG_BOOLEAN = 2;
+
+	private static final byte TAG_INT = 3;
+
+	private static final byte TAG_LONG = 4;
+
+	private static final byte TAG_CLASS = 5;
+
+	private static final byte TAG_TYPED_STRING = 6;
+
+	private static final byte TAG_BEAN_REFERENCE = 7;
+
+	private static final byte TAG_BEAN_NAME_REFERENCE = 8;
+
+	private static final byte TAG_BEAN_DEFINITION_HOLDER = 9;
+
+	private static final byte TAG_BEAN_DEFINITION = 10;
+
+	private static final byte TAG_LIST = 11;
+
+	private static final byte TAG_ARRAY = 12;
+
+	private static final byte TAG_SET = 13;
+
+	private static final byte TAG_MAP = 14;
+
+	private static final byte TAG_PROPERTIES = 15;
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshot.class);
+
+
+	private final Set<String> profiles;
+
+	private final List<BeanDefinitionHolder> beanDefinitions;
+
+	private final Map<String, String> importingClasses;
+
+	private final List<AnnotationAttributes> propertySources;
+
+
+	private BeanDefinitionSnapshot(Set<String> profiles, List<BeanDefinitionHolder> beanDefinitions,
+			Map<String, String> importingClasses, List<AnnotationAttributes> propertySources) {
+
+		this.profiles = profiles;
+		this.beanDefinitions = beanDefinitions;
+		this.importingClasses = importingClasses;
+		this.propertySources = propertySources;
+	}
+
+
+	/**
+	 * Return the effective profiles that this snapshot has been captured for.
+	 */
+	public Set<String> getProfiles() {
+		return Collections.unmodifiableSet(this.profiles);
+	}
+
+	/**
+	 * Return the names of all bean definitions in this snapshot,
+	 * in registration order.
+	 */
+	public List<String> getBeanDefinitionNames() {
+		List<String> names = new ArrayList<>(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			names.add(holder.getBeanName());
+		}
+		return names;
+	}
+
+	/**
+	 * Register the bean definitions in this snapshot with the given context,
+	 * along with the import metadata for {@link ImportAware} configuration classes
+	 * and the property sources declared through {@link PropertySource @PropertySource}.
+	 * @param context the context to register the bean definitions with
+	 * (not refreshed yet)
+	 * @throws IllegalStateException if the effective profiles of the given context
+	 * differ from the profiles that this snapshot has been captured for
+	 * @throws BeanDefinitionStoreException if a declared property source
+	 * cannot be loaded
+	 */
+	public void registerBeanDefinitions(GenericApplicationContext context) {
+		// Property sources first: they may contribute to the effective profiles
+		registerPropertySources(context);
+		Set<String> effectiveProfiles = getEffectiveProfiles(context.getEnvironment());
+		if (!effectiveProfiles.equals(this.profiles)) {
+			throw new IllegalStateException("Bean definition snapshot has been captured for profiles " +
+					this.profiles + " but effective profiles are " + effectiveProfiles);
+		}
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			// Register a copy, keeping this snapshot reusable
+			AbstractBeanDefinition bd = ((AbstractBeanDefinition) holder.getBeanDefinition()).cloneBeanDefinition();
+			context.registerBeanDefinition(holder.getBeanName(), bd);
+			for (String alias : holder.getAliases()) {
+				context.registerAlias(holder.getBeanName(), alias);
+			}
+		}
+		if (context.containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+			// Captured from an annotation config setup: restore the corresponding
+			// bean factory settings (e.g. the qualifier-aware autowire candidate resolver)
+			AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		}
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		if (!this.importingClasses.isEmpty() &&
+				!beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			beanFactory.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(this.importingClasses, beanFactory.getBeanClassLoader()));
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Registered " + this.beanDefinitions.size() + " bean definitions from snapshot");
+		}
+	}
+
+	/**
+	 * Add the recorded {@code @PropertySource} declarations to the environment
+	 * of the given context, just like configuration class parsing does.
+	 */
+	private void registerPropertySources(GenericApplicationContext context) {
+		if (this.propertySources.isEmpty()) {
+			return;
+		}
+		ConfigurationClassParser parser = new ConfigurationClassParser(new SimpleMetadataReaderFactory(context),
+				new FailFastProblemReporter(), context.getEnvironment(), context,
+				AnnotationBeanNameGenerator.INSTANCE, context);
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			try {
+				parser.processPropertySource(propertySource);
+			}
+			catch (IOException ex) {
+				throw new BeanDefinitionStoreException("Failed to restore @PropertySource " +
+						Arrays.toString(propertySource.getStringArray("value")) + " from snapshot", ex);
+			}
+		}
+	}
+
+	/**
+	 * Save this snapshot to the given file.
+	 * @param file the file to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void save(File file) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			writeTo(out);
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream, leaving the stream open.
+	 * @param out the stream to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		writeStrings(dos, this.profiles.toArray(new String[0]));
+		dos.writeInt(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			writeHolder(dos, holder);
+		}
+		dos.writeInt(this.importingClasses.size());
+		for (Map.Entry<String, String> entry : this.importingClasses.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeUTF(entry.getValue());
+		}
+		dos.writeInt(this.propertySources.size());
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			writePropertySource(dos, propertySource);
+		}
+		dos.flush();
+	}
+
+
+	/**
+	 * Capture a snapshot of the bean definitions in the given context,
+	 * applying its {@code BeanFactoryPostProcessors} first unless the
+	 * context has been refreshed already.
+	 * @param context the context to capture the bean definitions from
+	 * @return the snapshot
+	 * @throws IllegalStateException if any of the bean definitions cannot
+	 * be represented in a snapshot
+	 * @see GenericApplicationContext#refreshForBeanDefinitionProcessing()
+	 */
+	public static BeanDefinitionSnapshot capture(GenericApplicationContext context) {
+		if (!context.isActive()) {
+			context.refreshForBeanDefinitionProcessing();
+		}
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>();
+		Set<String> configurationClasses = new LinkedHashSet<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+			try {
+				checkBeanDefinition(bd);
+			}
+			catch (IllegalStateException ex) {
+				throw new IllegalStateException(
+						"Cannot capture bean definition '" + beanName + "' in snapshot: " + ex.getMessage());
+			}
+			beanDefinitions.add(new BeanDefinitionHolder(bd, beanName, beanFactory.getAliases(beanName)));
+			if (bd.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE) != null) {
+				String className = getBeanClassName((AbstractBeanDefinition) bd);
+				if (className != null) {
+					configurationClasses.add(className);
+				}
+			}
+		}
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		if (beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			ImportRegistry importRegistry = (ImportRegistry)
+					beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+			for (String className : configurationClasses) {
+				AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+				if (importingClass != null) {
+					importingClasses.put(className, importingClass.getClassName());
+				}
+			}
+		}
+		List<AnnotationAttributes> propertySources = Collections.emptyList();
+		Object configurationClassProcessor =
+				beanFactory.getSingleton(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME);
+		if (configurationClassProcessor instanceof ConfigurationClassPostProcessor) {
+			propertySources = new ArrayList<>(
+					((ConfigurationClassPostProcessor) configurationClassProcessor).getProcessedPropertySources());
+		}
+		return new BeanDefinitionSnapshot(getEffectiveProfiles(context.getEnvironment()),
+				beanDefinitions, importingClasses, propertySources);
+	}
+
+	/**
+	 * Load a snapshot from the given resource.
+	 * @param resource the resource to read from
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or an invalid snapshot format
+	 */
+	public static BeanDefinitionSnapshot load(Resource resource) throws IOException {
+		try (InputStream in = resource.getInputStream()) {
+			return readFrom(in);
+		}
+	}
+
+	/**
+	 * Read a snapshot from the given stream, leaving the stream open.
+	 * @param in the stream to read from
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or an invalid snapshot format
+	 */
+	public static BeanDefinitionSnapshot readFrom(InputStream in) throws IOException {
+		DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = dis.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version: " + version);
+		}
+		Set<String> profiles = new LinkedHashSet<>(Arrays.asList(readStrings(dis)));
+		int beanDefinitionCount = dis.readInt();
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>(beanDefinitionCount);
+		for (int i = 0; i < beanDefinitionCount; i++) {
+			beanDefinitions.add(readHolder(dis));
+		}
+		int importCount = dis.readInt();
+		Map<String, String> importingClasses = new LinkedHashMap<>(importCount);
+		for (int i = 0; i < importCount; i++) {
+			importingClasses.put(dis.readUTF(), dis.readUTF());
+		}
+		int propertySourceCount = dis.readInt();
+		List<AnnotationAttributes> propertySources = new ArrayList<>(propertySourceCount);
+		for (int i = 0; i < propertySourceCount; i++) {
+			propertySources.add(readPropertySource(dis));
+		}
+		return new BeanDefinitionSnapshot(profiles, beanDefinitions, importingClasses, propertySources);
+	}
+
+
+	private static Set<String> getEffectiveProfiles(Environment environment) {
+		String[] profiles = environment.getActiveProfiles();
+		if (profiles.length == 0) {
+			profiles = environment.getDefaultProfiles();
+		}
+		return new LinkedHashSet<>(Arrays.asList(profiles));
+	}
+
+	@Nullable
+	private static String getBeanClassName(AbstractBeanDefinition bd) {
+		// Capture the user class for an enhanced configuration class
+		return (bd.hasBeanClass() ? ClassUtils.getUserClass(bd.getBeanClass()).getName() : bd.getBeanClassName());
+	}
+
+
+	// Validation of bean definitions to capture
+
+	private static void checkBeanDefinition(@Nullable BeanDefinition bd) {
+		if (!(bd instanceof AbstractBeanDefinition)) {
+			throw new IllegalStateException("Unsupported bean definition type: " + ObjectUtils.nullSafeClassName(bd));
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+		if (abd.getInstanceSupplier() != null) {
+			throw new IllegalStateException("Instance supplier cannot be captured");
+		}
+		for (MethodOverride override : abd.getMethodOverrides().getOverrides()) {
+			if (!(override instanceof LookupOverride)) {
+				throw new IllegalStateException("Unsupported method override: " + override);
+			}
+		}
+		for (ConstructorArgumentValues.ValueHolder holder :
+				abd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+			checkValue(holder.getValue());
+		}
+		for (ConstructorArgumentValues.ValueHolder holder :
+				abd.getConstructorArgumentValues().getGenericArgumentValues()) {
+			checkValue(holder.getValue());
+		}
+		for (PropertyValue pv : abd.getPropertyValues().getPropertyValueList()) {
+			checkValue(pv.getValue());
+		}
+		for (AutowireCandidateQualifier qualifier : abd.getQualifiers()) {
+			for (String name : qualifier.attributeNames()) {
+				checkValue(qualifier.getAttribute(name));
+			}
+		}
+		if (abd instanceof RootBeanDefinition && ((RootBeanDefinition) abd).getDecoratedDefinition() != null) {
+			checkBeanDefinition(((RootBeanDefinition) abd).getDecoratedDefinition().getBeanDefinition());
+		}
+	}
+
+	private static void checkValue(@Nullable Object value) {
+		if (value instanceof BeanDefinitionHolder) {
+			checkBeanDefinition(((BeanDefinitionHolder) value).getBeanDefinition());
+		}
+		else if (value instanceof BeanDefinition) {
+			checkBeanDefinition((BeanDefinition) value);
+		}
+		else if (value instanceof ManagedList || value instanceof ManagedSet) {
+			for (Object element : (Iterable<?>) value) {
+				checkValue(element);
+			}
+		}
+		else if (value instanceof ManagedMap || value instanceof ManagedProperties) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				checkValue(entry.getKey());
+				checkValue(entry.getValue());
+			}
+		}
+		else if (!isSimpleValue(value)) {
+			throw new IllegalStateException("Unsupported value type: " + value.getClass().getName());
+		}
+	}
+
+	private static boolean isSimpleValue(@Nullable Object value) {
+		return (value == null || value instanceof String || value instanceof Boolean ||
+				value instanceof Integer || value instanceof Long || value instanceof Class ||
+				value instanceof TypedStringValue || value instanceof RuntimeBeanReference ||
+				value instanceof RuntimeBeanNameReference);
+	}
+
+
+	// Writing
+
+	private static void writeHolder(DataOutput out, BeanDefinitionHolder holder) throws IOException {
+		out.writeUTF(holder.getBeanName());
+		writeStrings(out, holder.getAliases());
+		writeBeanDefinition(out, (AbstractBeanDefinition) holder.getBeanDefinition());
+	}
+
+	private static void writeBeanDefinition(DataOutput out, AbstractBeanDefinition bd) throws IOException {
+		boolean root = (bd instanceof RootBeanDefinition);
+		out.writeByte(root ? KIND_ROOT : KIND_GENERIC);
+		if (!root) {
+			writeNullableString(out, bd.getParentName());
+		}
+		writeNullableString(out, getBeanClassName(bd));
+		writeNullableString(out, bd.getScope());
+		out.writeBoolean(bd.isAbstract());
+		Boolean lazyInit = bd.getLazyInit();
+		out.writeByte(lazyInit == null ? 0 : (lazyInit ? 2 : 1));
+		out.writeInt(bd.getAutowireMode());
+		out.writeInt(bd.getDependencyCheck());
+		writeStrings(out, bd.getDependsOn());
+		out.writeBoolean(bd.isAutowireCandidate());
+		out.writeBoolean(bd.isPrimary());
+		out.writeInt(bd.getQualifiers().size());
+		for (AutowireCandidateQualifier qualifier : bd.getQualifiers()) {
+			out.writeUTF(qualifier.getTypeName());
+			String[] names = qualifier.attributeNames();
+			out.writeInt(names.length);
+			for (String name : names) {
+				out.writeUTF(name);
+				writeValue(out, qualifier.getAttribute(name));
+			}
+		}
+		out.writeBoolean(bd.isNonPublicAccessAllowed());
+		out.writeBoolean(bd.isLenientConstructorResolution());
+		writeNullableString(out, bd.getFactoryBeanName());
+		writeNullableString(out, bd.getFactoryMethodName());
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		out.writeInt(cav.getIndexedArgumentValues().size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry :
+				cav.getIndexedArgumentValues().entrySet()) {
+			out.writeInt(entry.getKey());
+			writeValueHolder(out, entry.getValue());
+		}
+		out.writeInt(cav.getGenericArgumentValues().size());
+		for (ConstructorArgumentValues.ValueHolder holder : cav.getGenericArgumentValues()) {
+			writeValueHolder(out, holder);
+		}
+		List<PropertyValue> pvs = bd.getPropertyValues().getPropertyValueList();
+		out.writeInt(pvs.size());
+		for (PropertyValue pv : pvs) {
+			out.writeUTF(pv.getName());
+			writeValue(out, pv.getValue());
+		}
+		Set<MethodOverride> overrides = bd.getMethodOverrides().getOverrides();
+		out.writeInt(overrides.size());
+		for (MethodOverride override : overrides) {
+			out.writeUTF(override.getMethodName());
+			writeNullableString(out, ((LookupOverride) override).getBeanName());
+		}
+		writeNullableString(out, bd.getInitMethodName());
+		out.writeBoolean(bd.isEnforceInitMethod());
+		writeNullableString(out, bd.getDestroyMethodName());
+		out.writeBoolean(bd.isEnforceDestroyMethod());
+		out.writeBoolean(bd.isSynthetic());
+		out.writeInt(bd.getRole());
+		writeNullableString(out, bd.getDescription());
+		writeNullableString(out, bd.getResourceDescription());
+		List<String> attributeNames = new ArrayList<>();
+		for (String name : bd.attributeNames()) {
+			if (isSimpleValue(bd.getAttribute(name))) {
+				attributeNames.add(name);
+			}
+			else if (logger.isTraceEnabled()) {
+				logger.trace("Skipping bean definition attribute '" + name + "' with non-simple value");
+			}
+		}
+		out.writeInt(attributeNames.size());
+		for (String name : attributeNames) {
+			out.writeUTF(name);
+			writeValue(out, bd.getAttribute(name));
+		}
+		if (root) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			BeanDefinitionHolder decoratedDefinition = rbd.getDecoratedDefinition();
+			out.writeBoolean(decoratedDefinition != null);
+			if (decoratedDefinition != null) {
+				writeHolder(out, decoratedDefinition);
+			}
+			Class<?> targetType = rbd.getTargetType();
+			writeNullableString(out, targetType != null ? targetType.getName() : null);
+			out.writeBoolean(rbd.isFactoryMethodUnique());
+		}
+	}
+
+	private static void writeValueHolder(DataOutput out, ConstructorArgumentValues.ValueHolder holder)
+			throws IOException {
+
+		writeValue(out, holder.getValue());
+		writeNullableString(out, holder.getType());
+		writeNullableString(out, holder.getName());
+	}
+
+	private static void writeValue(DataOutput out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(TAG_NULL);
+		}
+		else if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(TAG_INT);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Class) {
+			out.writeByte(TAG_CLASS);
+			out.writeUTF(((Class<?>) value).getName());
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			out.writeByte(TAG_TYPED_STRING);
+			writeNullableString(out, typedValue.getValue());
+			writeNullableString(out, typedValue.getTargetTypeName());
+			writeNullableString(out, typedValue.getSpecifiedTypeName());
+			out.writeBoolean(typedValue.isDynamic());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			out.writeByte(TAG_BEAN_REFERENCE);
+			out.writeUTF(reference.getBeanName());
+			writeNullableString(out, reference.getBeanType() != null ? reference.getBeanType().getName() : null);
+			out.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			out.writeByte(TAG_BEAN_NAME_REFERENCE);
+			out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			out.writeByte(TAG_BEAN_DEFINITION_HOLDER);
+			writeHolder(out, (BeanDefinitionHolder) value);
+		}
+		else if (value instanceof AbstractBeanDefinition) {
+			out.writeByte(TAG_BEAN_DEFINITION);
+			writeBeanDefinition(out, (AbstractBeanDefinition) value);
+		}
+		else if (value instanceof ManagedArray) {
+			ManagedArray array = (ManagedArray) value;
+			out.writeByte(TAG_ARRAY);
+			out.writeUTF(array.getElementTypeName());
+			writeElements(out, array, array.isMergeEnabled());
+		}
+		else if (value instanceof ManagedList) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			out.writeByte(TAG_LIST);
+			writeNullableString(out, list.getElementTypeName());
+			writeElements(out, list, list.isMergeEnabled());
+		}
+		else if (value instanceof ManagedSet) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			out.writeByte(TAG_SET);
+			writeNullableString(out, set.getElementTypeName());
+			writeElements(out, set, set.isMergeEnabled());
+		}
+		else if (value instanceof ManagedMap) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			out.writeByte(TAG_MAP);
+			writeNullableString(out, map.getKeyTypeName());
+			writeNullableString(out, map.getValueTypeName());
+			writeEntries(out, map, map.isMergeEnabled());
+		}
+		else if (value instanceof ManagedProperties) {
+			ManagedProperties properties = (ManagedProperties) value;
+			out.writeByte(TAG_PROPERTIES);
+			writeEntries(out, properties, properties.isMergeEnabled());
+		}
+		else {
+			throw new IllegalStateException("Unsupported value type: " + value.getClass().getName());
+		}
+	}
+
+	private static void writeElements(DataOutput out, Collection<?> elements, boolean mergeEnabled)
+			throws IOException {
+
+		out.writeBoolean(mergeEnabled);
+		out.writeInt(elements.size());
+		for (Object element : elements) {
+			writeValue(out, element);
+		}
+	}
+
+	private static void writeEntries(DataOutput out, Map<?, ?> entries, boolean mergeEnabled) throws IOException {
+		out.writeBoolean(mergeEnabled);
+		out.writeInt(entries.size());
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			writeValue(out, entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static void writeStrings(DataOutput out, @Nullable String[] strings) throws IOException {
+		if (strings == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(strings.length);
+		for (String string : strings) {
+			out.writeUTF(string);
+		}
+	}
+
+	private static void writePropertySource(DataOutput out, AnnotationAttributes propertySource) throws IOException {
+		out.writeUTF(propertySource.getString("name"));
+		out.writeUTF(propertySource.getString("encoding"));
+		writeStrings(out, propertySource.getStringArray("value"));
+		out.writeBoolean(propertySource.getBoolean("ignoreResourceNotFound"));
+		out.writeUTF(propertySource.getClass("factory").getName());
+	}
+
+	private static void writeNullableString(DataOutput out, @Nullable String string) throws IOException {
+		out.writeBoolean(string != null);
+		if (string != null) {
+			out.writeUTF(string);
+		}
+	}
+
+
+	// Reading
+
+	private static BeanDefinitionHolder readHolder(DataInput in) throws IOException {
+		String beanName = in.readUTF();
+		String[] aliases = readStrings(in);
+		return new BeanDefinitionHolder(readBeanDefinition(in), beanName, aliases);
+	}
+
+	private static AbstractBeanDefinition readBeanDefinition(DataInput in) throws IOException {
+		byte kind = in.readByte();
+		AbstractBeanDefinition bd;
+		if (kind == KIND_ROOT) {
+			bd = new RootBeanDefinition();
+		}
+		else if (kind == KIND_GENERIC) {
+			GenericBeanDefinition gbd = new GenericBeanDefinition();
+			gbd.setParentName(readNullableString(in));
+			bd = gbd;
+		}
+		else {
+			throw new IOException("Invalid bean definition kind: " + kind);
+		}
+		bd.setBeanClassName(readNullableString(in));
+		bd.setScope(readNullableString(in));
+		bd.setAbstract(in.readBoolean());
+		byte lazyInit = in.readByte();
+		if (lazyInit != 0) {
+			bd.setLazyInit(lazyInit == 2);
+		}
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		bd.setDependsOn(readStrings(in));
+		bd.setAutowireCandidate(in.readBoolean());
+		bd.setPrimary(in.readBoolean());
+		int qualifierCount = in.readInt();
+		for (int i = 0; i < qualifierCount; i++) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(in.readUTF());
+			int attributeCount = in.readInt();
+			for (int j = 0; j < attributeCount; j++) {
+				String name = in.readUTF();
+				qualifier.addMetadataAttribute(new BeanMetadataAttribute(name, readValue(in)));
+			}
+			bd.addQualifier(qualifier);
+		}
+		bd.setNonPublicAccessAllowed(in.readBoolean());
+		bd.setLenientConstructorResolution(in.readBoolean());
+		bd.setFactoryBeanName(readNullableString(in));
+		bd.setFactoryMethodName(readNullableString(in));
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		int indexedCount = in.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = in.readInt();
+			cav.addIndexedArgumentValue(index, readValueHolder(in));
+		}
+		int genericCount = in.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cav.addGenericArgumentValue(readValueHolder(in));
+		}
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			String name = in.readUTF();
+			bd.getPropertyValues().addPropertyValue(name, readValue(in));
+		}
+		int overrideCount = in.readInt();
+		for (int i = 0; i < overrideCount; i++) {
+			String methodName = in.readUTF();
+			bd.getMethodOverrides().addOverride(new LookupOverride(methodName, readNullableString(in)));
+		}
+		bd.setInitMethodName(readNullableString(in));
+		bd.setEnforceInitMethod(in.readBoolean());
+		bd.setDestroyMethodName(readNullableString(in));
+		bd.setEnforceDestroyMethod(in.readBoolean());
+		bd.setSynthetic(in.readBoolean());
+		bd.setRole(in.readInt());
+		bd.setDescription(readNullableString(in));
+		bd.setResourceDescription(readNullableString(in));
+		int attributeCount = in.readInt();
+		for (int i = 0; i < attributeCount; i++) {
+			String name = in.readUTF();
+			bd.setAttribute(name, readValue(in));
+		}
+		if (kind == KIND_ROOT) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			if (in.readBoolean()) {
+				rbd.setDecoratedDefinition(readHolder(in));
+			}
+			String targetTypeName = readNullableString(in);
+			if (targetTypeName != null) {
+				rbd.setTargetType(resolveClassName(targetTypeName));
+			}
+			if (in.readBoolean() && rbd.getFactoryMethodName() != null) {
+				rbd.setUniqueFactoryMethodName(rbd.getFactoryMethodName());
+			}
+		}
+		return bd;
+	}
+
+	private static ConstructorArgumentValues.ValueHolder readValueHolder(DataInput in) throws IOException {
+		Object value = readValue(in);
+		return new ConstructorArgumentValues.ValueHolder(value, readNullableString(in), readNullableString(in));
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static Object readValue(DataInput in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_STRING:
+				return in.readUTF();
+			case TAG_BOOLEAN:
+				return in.readBoolean();
+			case TAG_INT:
+				return in.readInt();
+			case TAG_LONG:
+				return in.readLong();
+			case TAG_CLASS:
+				return resolveClassName(in.readUTF());
+			case TAG_TYPED_STRING:
+				TypedStringValue typedValue = new TypedStringValue(readNullableString(in));
+				typedValue.setTargetTypeName(readNullableString(in));
+				typedValue.setSpecifiedTypeName(readNullableString(in));
+				if (in.readBoolean()) {
+					typedValue.setDynamic();
+				}
+				return typedValue;
+			case TAG_BEAN_REFERENCE:
+				String beanName = in.readUTF();
+				String beanTypeName = readNullableString(in);
+				boolean toParent = in.readBoolean();
+				if (beanTypeName != null) {
+					return new RuntimeBeanReference(resolveClassName(beanTypeName), toParent);
+				}
+				return new RuntimeBeanReference(beanName, toParent);
+			case TAG_BEAN_NAME_REFERENCE:
+				return new RuntimeBeanNameReference(in.readUTF());
+			case TAG_BEAN_DEFINITION_HOLDER:
+				return readHolder(in);
+			case TAG_BEAN_DEFINITION:
+				return readBeanDefinition(in);
+			case TAG_LIST:
+				ManagedList<Object> list = new ManagedList<>();
+				list.setElementTypeName(readNullableString(in));
+				list.setMergeEnabled(in.readBoolean());
+				readElements(in, list);
+				return list;
+			case TAG_ARRAY:
+				String elementTypeName = in.readUTF();
+				ManagedArray array = new ManagedArray(elementTypeName, 0);
+				array.setMergeEnabled(in.readBoolean());
+				readElements(in, array);
+				return array;
+			case TAG_SET:
+				ManagedSet<Object> set = new ManagedSet<>();
+				set.setElementTypeName(readNullableString(in));
+				set.setMergeEnabled(in.readBoolean());
+				readElements(in, set);
+				return set;
+			case TAG_MAP:
+				ManagedMap<Object, Object> map = new ManagedMap<>();
+				map.setKeyTypeName(readNullableString(in));
+				map.setValueTypeName(readNullableString(in));
+				map.setMergeEnabled(in.readBoolean());
+				readEntries(in, map);
+				return map;
+			case TAG_PROPERTIES:
+				ManagedProperties properties = new ManagedProperties();
+				properties.setMergeEnabled(in.readBoolean());
+				readEntries(in, (Map<Object, Object>) (Map<?, ?>) properties);
+				return properties;
+			default:
+				throw new IOException("Invalid value tag: " + tag);
+		}
+	}
+
+	private static void readElements(DataInput in, Collection<Object> elements) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			elements.add(readValue(in));
+		}
+	}
+
+	private static void readEntries(DataInput in, Map<Object, Object> entries) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			Object key = readValue(in);
+			entries.put(key, readValue(in));
+		}
+	}
+
+	@Nullable
+	private static String[] readStrings(DataInput in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		String[] strings = new String[length];
+		for (int i = 0; i < length; i++) {
+			strings[i] = in.readUTF();
+		}
+		return strings;
+	}
+
+	private static AnnotationAttributes readPropertySource(DataInput in) throws IOException {
+		AnnotationAttributes propertySource = new AnnotationAttributes(PropertySource.class);
+		propertySource.put("name", in.readUTF());
+		propertySource.put("encoding", in.readUTF());
+		propertySource.put("value", readStrings(in));
+		propertySource.put("ignoreResourceNotFound", in.readBoolean());
+		propertySource.put("factory", resolveClassName(in.readUTF()));
+		return propertySource;
+	}
+
+	@Nullable
+	private static String readNullableString(DataInput in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static Class<?> resolveClassName(String className) throws IOException {
+		try {
+			return ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new IOException("Cannot resolve class [" + className + "] from bean definition snapshot", ex);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting
+	 * importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			try {
+				return AnnotationMetadata.introspect(ClassUtils.forName(importingClass, this.classLoader));
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Cannot load importing class [" + importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -112,6 +114,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private ForkJoinPool parallelScanningPool;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -302,6 +307,31 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Specify a {@link ForkJoinPool} to read the metadata of scanned class files in
+	 * parallel, fanning out the ASM parsing of each resolved {@link Resource}.
+	 * <p>Type filters and conditions are still applied on the calling thread, in
+	 * the order of the resolved resources, so the returned candidates are the same
+	 * as for sequential scanning. The configured {@link MetadataReaderFactory} needs
+	 * to be thread-safe, which the default {@link CachingMetadataReaderFactory} is.
+	 * <p>Default is none, reading each class file sequentially on the calling thread.
+	 * The given pool is not managed by this provider and will not be shut down.
+	 * @param parallelScanningPool the pool to use, or {@code null} for sequential scanning
+	 * @since 5.3.9
+	 */
+	public void setParallelScanningPool(@Nullable ForkJoinPool parallelScanningPool) {
+		this.parallelScanningPool = parallelScanningPool;
+	}
+
+	/**
+	 * Return the {@link ForkJoinPool} used for parallel classpath scanning, if any.
+	 * @since 5.3.9
+	 */
+	@Nullable
+	public ForkJoinPool getParallelScanningPool() {
+		return this.parallelScanningPool;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -419,15 +449,19 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+			MetadataReader[] metadataReaders = (this.parallelScanningPool != null && resources.length > 1 ?
+					readMetadataInParallel(resources, this.parallelScanningPool) : null);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				if (metadataReaders != null ? metadataReaders[i] != null : resource.isReadable()) {
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (metadataReaders != null ? metadataReaders[i] :
+								getMetadataReaderFactory().getMetadataReader(resource));
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setSource(resource);
@@ -467,6 +501,37 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Read the metadata for all readable resources on the given pool.
+	 * @param resources the resolved class file resources
+	 * @param pool the pool to submit the read tasks to
+	 * @return the MetadataReader for each resource, at the same index as the
+	 * resource itself, or {@code null} for a resource that is not readable
+	 */
+	private MetadataReader[] readMetadataInParallel(Resource[] resources, ForkJoinPool pool) {
+		MetadataReaderFactory readerFactory = getMetadataReaderFactory();
+		List<ForkJoinTask<MetadataReader>> tasks = new ArrayList<>(resources.length);
+		for (Resource resource : resources) {
+			tasks.add(pool.submit(() -> {
+				if (!resource.isReadable()) {
+					return null;
+				}
+				try {
+					return readerFactory.getMetadataReader(resource);
+				}
+				catch (Throwable ex) {
+					throw new BeanDefinitionStoreException(
+							"Failed to read candidate component class: " + resource, ex);
+				}
+			}));
+		}
+		MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+		for (int i = 0; i < metadataReaders.length; i++) {
+			metadataReaders[i] = tasks.get(i).join();
+		}
+		return metadataReaders;
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
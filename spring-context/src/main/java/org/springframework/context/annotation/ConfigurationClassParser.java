@@ -119,6 +119,8 @@ class ConfigurationClassParser {
 
 	private final List<String> propertySourceNames = new ArrayList<>();
 
+	private final List<AnnotationAttributes> processedPropertySources = new ArrayList<>();
+
 	private final ImportStack importStack = new ImportStack();
 
 	private final DeferredImportSelectorHandler deferredImportSelectorHandler = new DeferredImportSelectorHandler();
@@ -428,7 +430,8 @@ class ConfigurationClassParser {
 	 * @param propertySource metadata for the <code>@PropertySource</code> annotation found
 	 * @throws IOException if loading a property source failed
 	 */
-	private void processPropertySource(AnnotationAttributes propertySource) throws IOException {
+	void processPropertySource(AnnotationAttributes propertySource) throws IOException {
+		this.processedPropertySources.add(propertySource);
 		String name = propertySource.getString("name");
 		if (!StringUtils.hasLength(name)) {
 			name = null;
@@ -631,6 +634,15 @@ class ConfigurationClassParser {
 		return this.importStack;
 	}
 
+	/**
+	 * Return the attributes of all {@code @PropertySource} declarations
+	 * processed so far, in processing order.
+	 * @since 5.3.9
+	 */
+	List<AnnotationAttributes> getProcessedPropertySources() {
+		return this.processedPropertySources;
+	}
+
 
 	/**
 	 * Factory method to obtain a {@link SourceClass} from a {@link ConfigurationClass}.
@@ -55,6 +55,7 @@ import org.springframework.context.annotation.ConfigurationClassEnhancer.Enhance
 import org.springframework.core.NativeDetector;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -103,7 +104,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	public static final AnnotationBeanNameGenerator IMPORT_BEAN_NAME_GENERATOR =
 			FullyQualifiedAnnotationBeanNameGenerator.INSTANCE;
 
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 
@@ -142,6 +143,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
 
+	private final List<AnnotationAttributes> processedPropertySources = new ArrayList<>();
+
 
 	@Override
 	public int getOrder() {
@@ -228,6 +231,16 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.applicationStartup = applicationStartup;
 	}
 
+	/**
+	 * Return the attributes of all {@code @PropertySource} declarations
+	 * processed by this post-processor, in processing order.
+	 * @since 5.3.9
+	 * @see BeanDefinitionSnapshot
+	 */
+	List<AnnotationAttributes> getProcessedPropertySources() {
+		return this.processedPropertySources;
+	}
+
 	/**
 	 * Derive further bean definitions from the configuration classes in the registry.
 	 */
@@ -374,6 +387,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			}
 		}
 		while (!candidates.isEmpty());
+		this.processedPropertySources.addAll(parser.getProcessedPropertySources());
 
 		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
 		if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
@@ -381,9 +395,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 
 		if (this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
+			CachingMetadataReaderFactory cachingFactory = (CachingMetadataReaderFactory) this.metadataReaderFactory;
+			// Record the metadata read during configuration class processing, if persistent.
+			cachingFactory.savePersistentCache();
 			// Clear cache in externally provided MetadataReaderFactory; this is a no-op
 			// for a shared cache since it'll be cleared by the ApplicationContext.
-			((CachingMetadataReaderFactory) this.metadataReaderFactory).clearCache();
+			cachingFactory.clearCache();
 		}
 	}
 
@@ -16,8 +16,12 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,12 +38,14 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of the {@link ApplicationEventMulticaster} interface,
@@ -55,6 +61,13 @@ import org.springframework.util.ObjectUtils;
  * all events to all registered listeners, invoking them in the calling thread.
  * Alternative implementations could be more sophisticated in those respects.
  *
+ * <p>Programmatically registered listeners are indexed by their declared event
+ * type (and payload type, in case of {@link PayloadApplicationEvent} listeners),
+ * so that only listeners for the given event type hierarchy need to be evaluated
+ * when the listeners for a new event type get retrieved. Adding or removing such
+ * a listener updates the cached listener retrievers in place rather than
+ * invalidating all of them.
+ *
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @since 1.2.3
@@ -68,6 +81,10 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, CachedListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	private final ListenerTypeIndex listenerIndex = new ListenerTypeIndex();
+
+	private final boolean listenerIndexApplicable = isDefaultEventMatching(getClass());
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -106,11 +123,15 @@ public abstract class AbstractApplicationEventMulticaster
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
-			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+			if (singletonTarget instanceof ApplicationListener &&
+					this.defaultRetriever.applicationListeners.remove(singletonTarget)) {
+				this.listenerIndex.remove((ApplicationListener<?>) singletonTarget);
+				this.retrieverCache.clear();
+			}
+			if (this.defaultRetriever.applicationListeners.add(listener)) {
+				this.listenerIndex.add(listener);
+				updateRetrieverCache(listener, true);
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
 		}
 	}
 
@@ -125,8 +146,10 @@ public abstract class AbstractApplicationEventMulticaster
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			if (this.defaultRetriever.applicationListeners.remove(listener)) {
+				this.listenerIndex.remove(listener);
+				updateRetrieverCache(listener, false);
+			}
 		}
 	}
 
@@ -141,7 +164,13 @@ public abstract class AbstractApplicationEventMulticaster
 	@Override
 	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
 		synchronized (this.defaultRetriever) {
-			this.defaultRetriever.applicationListeners.removeIf(predicate);
+			this.defaultRetriever.applicationListeners.removeIf(listener -> {
+				if (predicate.test(listener)) {
+					this.listenerIndex.remove(listener);
+					return true;
+				}
+				return false;
+			});
 			this.retrieverCache.clear();
 		}
 	}
@@ -159,8 +188,79 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
+			this.listenerIndex.clear();
+			this.retrieverCache.clear();
+		}
+	}
+
+	/**
+	 * Add the given listener to, or remove it from, all cached retrievers
+	 * which it applies to, instead of clearing the entire retriever cache.
+	 * <p>Must be called within the {@code defaultRetriever} lock.
+	 * @param listener the listener that got added or removed
+	 * @param added whether the listener got added ({@code true})
+	 * or removed ({@code false})
+	 */
+	private void updateRetrieverCache(ApplicationListener<?> listener, boolean added) {
+		if (this.retrieverCache.isEmpty()) {
+			return;
+		}
+		if (isListenerBeanInstance(listener)) {
+			// Bean-defined listeners are subject to further bean definition checks
 			this.retrieverCache.clear();
+			return;
+		}
+		for (Iterator<Map.Entry<ListenerCacheKey, CachedListenerRetriever>> it =
+				this.retrieverCache.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<ListenerCacheKey, CachedListenerRetriever> entry = it.next();
+			CachedListenerRetriever retriever = entry.getValue();
+			Set<String> listenerBeans = retriever.applicationListenerBeans;
+			Set<ApplicationListener<?>> listeners = retriever.applicationListeners;
+			if (listenerBeans == null || listeners == null) {
+				// Not fully populated yet -> might have missed the change
+				it.remove();
+			}
+			else if (added) {
+				ListenerCacheKey cacheKey = entry.getKey();
+				if (supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType)) {
+					List<ApplicationListener<?>> updatedListeners = new ArrayList<>(listeners.size() + 1);
+					updatedListeners.addAll(listeners);
+					updatedListeners.add(listener);
+					AnnotationAwareOrderComparator.sort(updatedListeners);
+					retriever.applicationListeners = new LinkedHashSet<>(updatedListeners);
+				}
+			}
+			else if (listeners.contains(listener)) {
+				Set<ApplicationListener<?>> updatedListeners = new LinkedHashSet<>(listeners);
+				updatedListeners.remove(listener);
+				retriever.applicationListeners = updatedListeners;
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given listener may be an instance of a listener bean
+	 * registered by name, checking the types of all such listener beans.
+	 */
+	private boolean isListenerBeanInstance(ApplicationListener<?> listener) {
+		if (this.defaultRetriever.applicationListenerBeans.isEmpty()) {
+			return false;
+		}
+		if (this.beanFactory == null) {
+			return true;
 		}
+		for (String listenerBeanName : this.defaultRetriever.applicationListenerBeans) {
+			try {
+				Class<?> listenerType = this.beanFactory.getType(listenerBeanName, false);
+				if (listenerType == null || listenerType.isInstance(listener)) {
+					return true;
+				}
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+				// Listener bean disappeared - probably in the middle of the destruction phase
+			}
+		}
+		return false;
 	}
 
 
@@ -238,7 +338,9 @@ public abstract class AbstractApplicationEventMulticaster
 		Set<ApplicationListener<?>> listeners;
 		Set<String> listenerBeans;
 		synchronized (this.defaultRetriever) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
+			listeners = (this.listenerIndexApplicable ?
+					this.listenerIndex.getCandidates(eventType, this.defaultRetriever.applicationListeners) :
+					new LinkedHashSet<>(this.defaultRetriever.applicationListeners));
 			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
 		}
 
@@ -364,6 +466,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * and {@link GenericApplicationListener} interfaces. In case of a standard
 	 * {@link ApplicationListener}, a {@link GenericApplicationListenerAdapter}
 	 * will be used to introspect the generically declared type of the target listener.
+	 * <p>Programmatically registered listeners are pre-filtered by their declared
+	 * event type before getting evaluated here, unless this method is overridden.
 	 * @param listener the target listener to check
 	 * @param eventType the event type to check against
 	 * @param sourceType the source type to check against
@@ -378,6 +482,16 @@ public abstract class AbstractApplicationEventMulticaster
 		return (smartListener.supportsEventType(eventType) && smartListener.supportsSourceType(sourceType));
 	}
 
+	/**
+	 * Determine whether the given multicaster class uses the default listener
+	 * matching algorithm, i.e. whether the listener type index is applicable.
+	 */
+	private static boolean isDefaultEventMatching(Class<?> multicasterClass) {
+		Method supportsEvent = ReflectionUtils.findMethod(multicasterClass, "supportsEvent",
+				ApplicationListener.class, ResolvableType.class, Class.class);
+		return (supportsEvent == null || supportsEvent.getDeclaringClass() == AbstractApplicationEventMulticaster.class);
+	}
+
 
 	/**
 	 * Cache key for ListenerRetrievers, based on event type and source type.
@@ -514,4 +628,160 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 	}
 
+
+	/**
+	 * Index of programmatically registered listeners by declared event type
+	 * and declared payload type, for pre-filtering listener candidates.
+	 * <p>Must be accessed within the {@code defaultRetriever} lock.
+	 */
+	private static class ListenerTypeIndex {
+
+		private final Map<Class<?>, Set<ApplicationListener<?>>> eventTypeIndex = new HashMap<>();
+
+		private final Map<Class<?>, Set<ApplicationListener<?>>> payloadTypeIndex = new HashMap<>();
+
+		private final Set<ApplicationListener<?>> unindexedListeners = new HashSet<>();
+
+		public void add(ApplicationListener<?> listener) {
+			register(listener, true);
+		}
+
+		public void remove(ApplicationListener<?> listener) {
+			register(listener, false);
+		}
+
+		public void clear() {
+			this.eventTypeIndex.clear();
+			this.payloadTypeIndex.clear();
+			this.unindexedListeners.clear();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void register(ApplicationListener<?> listener, boolean add) {
+			if (listener instanceof ApplicationListenerMethodAdapter && isDefaultEventTypeMatching(listener)) {
+				// @EventListener method: matching declared event types or payload types
+				for (ResolvableType declaredType : ((ApplicationListenerMethodAdapter) listener).getDeclaredEventTypes()) {
+					Class<?> declaredClass = ClassUtils.resolvePrimitiveIfNecessary(declaredType.toClass());
+					register(this.eventTypeIndex, declaredClass, listener, add);
+					register(this.payloadTypeIndex, declaredClass, listener, add);
+				}
+				return;
+			}
+			ResolvableType declaredType = null;
+			if (!(listener instanceof GenericApplicationListener || listener instanceof SmartApplicationListener)) {
+				declaredType = GenericApplicationListenerAdapter.resolveDeclaredEventType(
+						(ApplicationListener<ApplicationEvent>) listener);
+			}
+			if (declaredType == null) {
+				// Custom matching algorithm or no declared event type
+				if (add) {
+					this.unindexedListeners.add(listener);
+				}
+				else {
+					this.unindexedListeners.remove(listener);
+				}
+				return;
+			}
+			Class<?> declaredClass = declaredType.toClass();
+			Class<?> payloadClass = (declaredClass == PayloadApplicationEvent.class ?
+					declaredType.getGeneric().resolve() : null);
+			if (payloadClass != null) {
+				register(this.payloadTypeIndex, payloadClass, listener, add);
+			}
+			else {
+				register(this.eventTypeIndex, declaredClass, listener, add);
+			}
+		}
+
+		private void register(Map<Class<?>, Set<ApplicationListener<?>>> index, Class<?> type,
+				ApplicationListener<?> listener, boolean add) {
+
+			if (add) {
+				index.computeIfAbsent(type, key -> new HashSet<>()).add(listener);
+			}
+			else {
+				Set<ApplicationListener<?>> listeners = index.get(type);
+				if (listeners != null) {
+					listeners.remove(listener);
+					if (listeners.isEmpty()) {
+						index.remove(type);
+					}
+				}
+			}
+		}
+
+		private boolean isDefaultEventTypeMatching(ApplicationListener<?> listener) {
+			Method supportsEventType = ReflectionUtils.findMethod(
+					listener.getClass(), "supportsEventType", ResolvableType.class);
+			return (supportsEventType != null &&
+					supportsEventType.getDeclaringClass() == ApplicationListenerMethodAdapter.class);
+		}
+
+		/**
+		 * Determine the candidate listeners for the given event type.
+		 * @param eventType the event type
+		 * @param allListeners all registered listeners, in registration order
+		 * @return the candidate listeners in registration order
+		 */
+		public Set<ApplicationListener<?>> getCandidates(
+				ResolvableType eventType, Set<ApplicationListener<?>> allListeners) {
+
+			Set<ApplicationListener<?>> candidates = findCandidates(eventType);
+			if (candidates == null || candidates.size() == allListeners.size()) {
+				return new LinkedHashSet<>(allListeners);
+			}
+			Set<ApplicationListener<?>> result = new LinkedHashSet<>(candidates.size());
+			for (ApplicationListener<?> listener : allListeners) {
+				if (candidates.contains(listener)) {
+					result.add(listener);
+				}
+			}
+			return result;
+		}
+
+		@Nullable
+		private Set<ApplicationListener<?>> findCandidates(ResolvableType eventType) {
+			Class<?> eventClass = eventType.resolve();
+			if (eventClass == null || eventType.hasUnresolvableGenerics()) {
+				return null;
+			}
+			Set<ApplicationListener<?>> candidates = new HashSet<>(this.unindexedListeners);
+			addCandidates(this.eventTypeIndex, eventClass, candidates);
+			if (PayloadApplicationEvent.class.isAssignableFrom(eventClass)) {
+				Class<?> payloadClass = eventType.as(PayloadApplicationEvent.class).getGeneric().resolve();
+				if (payloadClass == null || payloadClass.isArray()) {
+					return null;
+				}
+				addCandidates(this.payloadTypeIndex, payloadClass, candidates);
+			}
+			return candidates;
+		}
+
+		private void addCandidates(Map<Class<?>, Set<ApplicationListener<?>>> index, Class<?> type,
+				Set<ApplicationListener<?>> candidates) {
+
+			if (index.isEmpty()) {
+				return;
+			}
+			Set<Class<?>> typeHierarchy = new HashSet<>();
+			collectTypeHierarchy(type, typeHierarchy);
+			typeHierarchy.add(Object.class);
+			for (Class<?> candidateType : typeHierarchy) {
+				Set<ApplicationListener<?>> listeners = index.get(candidateType);
+				if (listeners != null) {
+					candidates.addAll(listeners);
+				}
+			}
+		}
+
+		private void collectTypeHierarchy(@Nullable Class<?> type, Set<Class<?>> typeHierarchy) {
+			if (type != null && typeHierarchy.add(type)) {
+				collectTypeHierarchy(type.getSuperclass(), typeHierarchy);
+				for (Class<?> ifc : type.getInterfaces()) {
+					collectTypeHierarchy(ifc, typeHierarchy);
+				}
+			}
+		}
+	}
+
 }
@@ -166,6 +166,14 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		processEvent(event);
 	}
 
+	/**
+	 * Return the event types declared for the target method,
+	 * as a basis for matching in {@link #supportsEventType}.
+	 */
+	List<ResolvableType> getDeclaredEventTypes() {
+		return this.declaredEventTypes;
+	}
+
 	@Override
 	public boolean supportsEventType(ResolvableType eventType) {
 		for (ResolvableType declaredEventType : this.declaredEventTypes) {
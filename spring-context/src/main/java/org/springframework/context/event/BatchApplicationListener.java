@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * declaring that the listener is able to process several events at once.
+ *
+ * <p>With {@link SimpleApplicationEventMulticaster#setListenerQueueCapacity
+ * per-listener queues} enabled, events which have accumulated in the queue
+ * of such a listener are handed to {@link #onApplicationEvents} as a batch,
+ * in publication order. Otherwise, each event is passed individually through
+ * {@link #onApplicationEvent}, by default delegating to {@link #onApplicationEvents}
+ * with a single-element list.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @param <E> the specific {@code ApplicationEvent} subclass to listen to
+ * @see SimpleApplicationEventMulticaster#setListenerQueueCapacity
+ */
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle the given batch of application events.
+	 * @param events the events to respond to, in publication order
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Handle a single application event.
+	 * <p>The default implementation delegates to {@link #onApplicationEvents}.
+	 * @param event the event to respond to
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+	/**
+	 * Return the maximum number of events to pass into a single
+	 * {@link #onApplicationEvents} call.
+	 * <p>The default implementation returns {@link Integer#MAX_VALUE},
+	 * i.e. a batch may contain all events queued for this listener.
+	 */
+	default int getMaxBatchSize() {
+		return Integer.MAX_VALUE;
+	}
+
+}
@@ -16,7 +16,16 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,6 +50,12 @@ import org.springframework.util.ErrorHandler;
  * This allows the danger of a rogue listener blocking the entire application,
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
+ * In combination with a task executor, a {@linkplain #setListenerQueueCapacity
+ * listener queue capacity} may be specified for ordered per-listener dispatch:
+ * independent listeners process events concurrently, each listener receives
+ * its events in publication order (as a batch in case of a
+ * {@link BatchApplicationListener}), and publishers block when a listener
+ * falls behind by more than the given number of events.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -56,6 +71,11 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private int listenerQueueCapacity;
+
+	/** Per-listener event queues, removed once drained or once the listener is removed. */
+	final Map<ApplicationListener<?>, ListenerQueue> listenerQueues = new ConcurrentHashMap<>(16);
+
 	@Nullable
 	private volatile Log lazyLogger;
 
@@ -126,6 +146,58 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Specify the capacity of the per-listener event queues, enabling ordered
+	 * dispatch through the {@linkplain #setTaskExecutor task executor}.
+	 * <p>Default is 0, submitting each listener invocation to the task executor
+	 * individually, without any ordering guarantees. With a positive capacity,
+	 * events for each listener get queued and processed by at most one task at
+	 * a time, in publication order, while different listeners get processed
+	 * concurrently. A {@link BatchApplicationListener} receives all events
+	 * accumulated in its queue at once, up to its maximum batch size.
+	 * <p>Once a listener queue is full, publishers block until the listener
+	 * catches up. Events published by a listener to itself are queued beyond
+	 * the capacity in order to avoid a deadlock; however, publishing chains
+	 * between listeners with full queues may still block each other.
+	 * <p>Only applies in combination with a task executor, not to synchronous
+	 * listener invocation in the calling thread.
+	 * @since 5.3.9
+	 * @see #setTaskExecutor
+	 * @see BatchApplicationListener
+	 */
+	public void setListenerQueueCapacity(int listenerQueueCapacity) {
+		this.listenerQueueCapacity = listenerQueueCapacity;
+	}
+
+	/**
+	 * Return the capacity of the per-listener event queues, if any.
+	 * @since 5.3.9
+	 */
+	public int getListenerQueueCapacity() {
+		return this.listenerQueueCapacity;
+	}
+
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		// Events still queued for the listener get processed by the queue's current task
+		this.listenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+		super.removeApplicationListeners(predicate);
+		this.listenerQueues.keySet().removeIf(predicate);
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerQueues.clear();
+	}
+
+
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
 		multicastEvent(event, resolveDefaultEventType(event));
@@ -135,8 +207,17 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		Executor executor = getTaskExecutor();
+		int queueCapacity = getListenerQueueCapacity();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			if (executor != null) {
+			if (executor != null && queueCapacity > 0) {
+				ListenerQueue queue;
+				do {
+					queue = this.listenerQueues.computeIfAbsent(listener,
+							key -> new ListenerQueue(key, executor, queueCapacity));
+				}
+				while (!queue.enqueue(event));
+			}
+			else if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
 			else {
@@ -170,6 +251,28 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Invoke the given batch listener with the given events.
+	 * @param listener the BatchApplicationListener to invoke
+	 * @param events the events to propagate, in publication order
+	 * @since 5.3.9
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeBatchListener(BatchApplicationListener<?> listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				((BatchApplicationListener) listener).onApplicationEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			((BatchApplicationListener) listener).onApplicationEvents(events);
+		}
+	}
+
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void doInvokeListener(ApplicationListener listener, ApplicationEvent event) {
 		try {
@@ -215,4 +318,158 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+	/**
+	 * Ordered event queue for a specific listener, processed by at most one
+	 * task at a time. A queue retires once its task finds it drained, removing
+	 * itself from the listener queues, with subsequent events going to a new queue.
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private final ApplicationListener<?> listener;
+
+		private final Executor executor;
+
+		private final Queue<QueuedEvent> events = new ConcurrentLinkedQueue<>();
+
+		private final Semaphore capacity;
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		@Nullable
+		private volatile Thread worker;
+
+		private boolean retired;
+
+		ListenerQueue(ApplicationListener<?> listener, Executor executor, int capacity) {
+			this.listener = listener;
+			this.executor = executor;
+			this.capacity = new Semaphore(capacity);
+		}
+
+		/**
+		 * Add the given event to this queue, blocking while the queue is full.
+		 * @return {@code true} if the event has been queued, or {@code false}
+		 * if this queue has been retired in the meantime
+		 */
+		boolean enqueue(ApplicationEvent event) {
+			boolean permitted;
+			if (Thread.currentThread() == this.worker) {
+				// Published from within the listener itself -> must not block
+				permitted = this.capacity.tryAcquire();
+			}
+			else {
+				try {
+					this.capacity.acquire();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for listener queue capacity", ex);
+				}
+				permitted = true;
+			}
+			synchronized (this) {
+				if (this.retired) {
+					if (permitted) {
+						this.capacity.release();
+					}
+					return false;
+				}
+				this.events.add(new QueuedEvent(event, permitted));
+			}
+			schedule();
+			return true;
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					this.executor.execute(this);
+				}
+				catch (RuntimeException | Error ex) {
+					this.scheduled.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			this.worker = Thread.currentThread();
+			try {
+				QueuedEvent next;
+				while ((next = this.events.poll()) != null) {
+					if (this.listener instanceof BatchApplicationListener) {
+						processBatch((BatchApplicationListener<?>) this.listener, next);
+					}
+					else {
+						try {
+							invokeListener(this.listener, next.event);
+						}
+						finally {
+							release(next);
+						}
+					}
+				}
+			}
+			finally {
+				this.worker = null;
+				boolean pending;
+				synchronized (this) {
+					// Events added concurrently or left over after a listener exception?
+					pending = !this.events.isEmpty();
+					if (!pending) {
+						this.retired = true;
+						listenerQueues.remove(this.listener, this);
+					}
+				}
+				this.scheduled.set(false);
+				if (pending) {
+					schedule();
+				}
+			}
+		}
+
+		private void processBatch(BatchApplicationListener<?> listener, QueuedEvent first) {
+			int maxBatchSize = Math.max(listener.getMaxBatchSize(), 1);
+			List<QueuedEvent> batch = new ArrayList<>();
+			batch.add(first);
+			QueuedEvent next;
+			while (batch.size() < maxBatchSize && (next = this.events.poll()) != null) {
+				batch.add(next);
+			}
+			List<ApplicationEvent> batchEvents = new ArrayList<>(batch.size());
+			for (QueuedEvent queuedEvent : batch) {
+				batchEvents.add(queuedEvent.event);
+			}
+			try {
+				invokeBatchListener(listener, batchEvents);
+			}
+			finally {
+				for (QueuedEvent queuedEvent : batch) {
+					release(queuedEvent);
+				}
+			}
+		}
+
+		private void release(QueuedEvent queuedEvent) {
+			if (queuedEvent.permitted) {
+				this.capacity.release();
+			}
+		}
+	}
+
+
+	private static class QueuedEvent {
+
+		final ApplicationEvent event;
+
+		final boolean permitted;
+
+		QueuedEvent(ApplicationEvent event, boolean permitted) {
+			this.event = event;
+			this.permitted = permitted;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,29 +16,46 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.Map;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
 /**
  * Shared utility class used to evaluate and cache SpEL expressions that
  * are defined on {@link java.lang.reflect.AnnotatedElement}.
  *
+ * <p>As of 5.3.9, parsed expressions are kept in a bounded cache per evaluator,
+ * and evaluation contexts may be initialized from a template holding the
+ * accessors and resolvers.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see AnnotatedElementKey
  */
 public abstract class CachedExpressionEvaluator {
 
+	private static final int EXPRESSION_CACHE_LIMIT = 1024;
+
+
 	private final SpelExpressionParser parser;
 
-	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+	private final ConcurrentLruCache<ExpressionKey, Expression> expressionCache;
+
+	private final ParameterNameDiscoverer parameterNameDiscoverer = new CachingParameterNameDiscoverer();
+
+	private final StandardEvaluationContext evaluationContextTemplate = new StandardEvaluationContext();
 
 
 	/**
@@ -47,6 +64,8 @@ public abstract class CachedExpressionEvaluator {
 	protected CachedExpressionEvaluator(SpelExpressionParser parser) {
 		Assert.notNull(parser, "SpelExpressionParser must not be null");
 		this.parser = parser;
+		this.expressionCache = new ConcurrentLruCache<>(EXPRESSION_CACHE_LIMIT,
+				key -> getParser().parseExpression(key.expression));
 	}
 
 	/**
@@ -92,10 +111,52 @@ public abstract class CachedExpressionEvaluator {
 		return expr;
 	}
 
+	/**
+	 * Return the {@link Expression} for the specified SpEL value
+	 * from the bounded expression cache of this evaluator.
+	 * <p>Parse the expression if it hasn't been already.
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @since 5.3.9
+	 */
+	protected Expression getExpression(AnnotatedElementKey elementKey, String expression) {
+		return this.expressionCache.get(createKey(elementKey, expression));
+	}
+
+	/**
+	 * Clear the bounded expression cache of this evaluator.
+	 * @since 5.3.9
+	 * @see #getExpression(AnnotatedElementKey, String)
+	 */
+	protected void clearExpressionCache() {
+		this.expressionCache.clear();
+	}
+
 	private ExpressionKey createKey(AnnotatedElementKey elementKey, String expression) {
 		return new ExpressionKey(elementKey, expression);
 	}
 
+	/**
+	 * Initialize the given, freshly created evaluation context with the
+	 * accessors and resolvers of an evaluation context template held by this
+	 * evaluator, instead of letting it create its own default delegates.
+	 * The given context then only needs to be populated with the variables
+	 * for the current invocation.
+	 * @param evaluationContext the evaluation context to initialize
+	 * @param beanFactory the bean factory to resolve bean references
+	 * against, if any
+	 * @since 5.3.9
+	 * @see StandardEvaluationContext#applyDelegatesTo
+	 */
+	protected void initEvaluationContext(StandardEvaluationContext evaluationContext,
+			@Nullable BeanFactory beanFactory) {
+
+		this.evaluationContextTemplate.applyDelegatesTo(evaluationContext);
+		if (beanFactory != null) {
+			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		}
+	}
+
 
 	/**
 	 * An expression key.
@@ -146,4 +207,35 @@ public abstract class CachedExpressionEvaluator {
 		}
 	}
 
+
+	/**
+	 * Parameter name discoverer which resolves the parameter names
+	 * of each method only once.
+	 */
+	private static class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		private static final String[] NO_PARAMETER_NAMES = new String[0];
+
+		private final ParameterNameDiscoverer delegate = new DefaultParameterNameDiscoverer();
+
+		private final Map<Method, String[]> parameterNamesCache = new ConcurrentReferenceHashMap<>(256);
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] parameterNames = this.parameterNamesCache.get(method);
+			if (parameterNames == null) {
+				parameterNames = this.delegate.getParameterNames(method);
+				this.parameterNamesCache.put(method, (parameterNames != null ? parameterNames : NO_PARAMETER_NAMES));
+			}
+			return (parameterNames != NO_PARAMETER_NAMES ? parameterNames : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return this.delegate.getParameterNames(ctor);
+		}
+	}
+
 }
@@ -258,6 +258,38 @@ public class GenericApplicationContext extends AbstractApplicationContext implem
 		return super.getClassLoader();
 	}
 
+	/**
+	 * Prepare this context up to the point of bean definition post-processing:
+	 * invoking all {@link org.springframework.beans.factory.config.BeanFactoryPostProcessor
+	 * BeanFactoryPostProcessors} but neither registering any BeanPostProcessors
+	 * nor instantiating any regular singletons.
+	 * <p>This is meant for capturing the fully processed bean definitions at build
+	 * time, e.g. in a {@link org.springframework.context.annotation.BeanDefinitionSnapshot}.
+	 * The context is not usable for regular bean retrieval afterwards; it should
+	 * simply be closed once its bean definitions have been inspected.
+	 * @throws BeansException if the bean definition post-processing failed
+	 * @throws IllegalStateException if this context has been refreshed already
+	 * @since 5.3.9
+	 * @see #refresh()
+	 */
+	public void refreshForBeanDefinitionProcessing() throws BeansException, IllegalStateException {
+		prepareRefresh();
+		ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
+		prepareBeanFactory(beanFactory);
+		try {
+			postProcessBeanFactory(beanFactory);
+			invokeBeanFactoryPostProcessors(beanFactory);
+		}
+		catch (BeansException ex) {
+			destroyBeans();
+			cancelRefresh(ex);
+			throw ex;
+		}
+		finally {
+			resetCommonCaches();
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementations of AbstractApplicationContext's template methods
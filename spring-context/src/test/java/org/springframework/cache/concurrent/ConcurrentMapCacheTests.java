@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,10 @@ package org.springframework.cache.concurrent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -115,6 +117,58 @@ public class ConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<Con
 			.withMessageContaining("Some garbage");
 	}
 
+	@Test
+	public void testRetrieveSharesInFlightLoad() throws Exception {
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<Object> load = new CompletableFuture<>();
+
+		String key = createRandomKey();
+		CompletableFuture<Object> first = this.cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return load;
+		});
+		CompletableFuture<Object> second = this.cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+
+		// Completing one caller's future must not affect the other callers
+		second.complete("other");
+		assertThat(first.isDone()).isFalse();
+		CompletableFuture<Object> third = this.cache.retrieve(key, CompletableFuture::new);
+		assertThat(third.isDone()).isFalse();
+
+		load.complete("value");
+		assertThat(first.get()).isEqualTo("value");
+		assertThat(third.get()).isEqualTo("value");
+		assertThat(counter.get()).isEqualTo(1);
+		assertThat(this.cache.get(key).get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testRetrieveWithFailedLoad() throws Exception {
+		String key = createRandomKey();
+		CompletableFuture<Object> failedLoad = new CompletableFuture<>();
+		failedLoad.completeExceptionally(new IllegalStateException("Expected exception"));
+
+		assertThat(this.cache.retrieve(key, () -> failedLoad).isCompletedExceptionally()).isTrue();
+		assertThat(this.cache.get(key)).isNull();
+		assertThat(this.cache.retrieve(key, () -> CompletableFuture.completedFuture("value")).get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testRetrieveWithNullValue() throws Exception {
+		String key = createRandomKey();
+		assertThat(this.cache.retrieve(key, () -> CompletableFuture.completedFuture(null)).get()).isNull();
+		assertThat(this.cache.retrieve(key).get().get()).isNull();
+
+		CompletableFuture<Object> result = this.cacheNoNull.retrieve(key, () -> CompletableFuture.completedFuture(null));
+		assertThat(result.isCompletedExceptionally()).isTrue();
+		assertThat(this.cacheNoNull.retrieve(key)).isNull();
+	}
+
 
 	private ConcurrentMapCache createCacheWithStoreByValue() {
 		return new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true,
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for caching methods with asynchronous return values,
+ * i.e. {@link CompletableFuture} as well as Reactor's {@link Mono} and {@link Flux}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class AsyncCachingTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("testCache");
+
+	private final DefaultAsyncService target = new DefaultAsyncService();
+
+	private AsyncService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setup() {
+		CacheInterceptor interceptor = new CacheInterceptor();
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.addInterface(AsyncService.class);
+		proxyFactory.addAdvice(interceptor);
+		this.service = (AsyncService) proxyFactory.getProxy();
+		this.cache = this.cacheManager.getCache("testCache");
+	}
+
+
+	@Test
+	public void completableFuture() throws Exception {
+		assertThat(this.service.findFuture("key").get()).isEqualTo(0L);
+		assertThat(this.service.findFuture("key").get()).isEqualTo(0L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(0L);
+	}
+
+	@Test
+	public void completableFutureWithFailure() {
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() ->
+				this.service.findFailingFuture("key").get())
+			.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void completableFutureSync() throws Exception {
+		CompletableFuture<Long> first = this.service.findPendingFutureSync("key");
+		CompletableFuture<Long> second = this.service.findPendingFutureSync("key");
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+
+		this.target.pending.complete(42L);
+		assertThat(first.get()).isEqualTo(42L);
+		assertThat(second.get()).isEqualTo(42L);
+		assertThat(this.service.findPendingFutureSync("key").get()).isEqualTo(42L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+	}
+
+	@Test
+	public void mono() {
+		assertThat(this.service.findMono("key").block()).isEqualTo(0L);
+		assertThat(this.service.findMono("key").block()).isEqualTo(0L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(0L);
+	}
+
+	@Test
+	public void monoSync() {
+		assertThat(this.service.findMonoSync("key").block()).isEqualTo(0L);
+		assertThat(this.service.findMonoSync("key").block()).isEqualTo(0L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(0L);
+	}
+
+	@Test
+	public void flux() {
+		assertThat(this.service.findFlux("key").collectList().block()).containsExactly(0L, 1L);
+		assertThat(this.service.findFlux("key").collectList().block()).containsExactly(0L, 1L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(Arrays.asList(0L, 1L));
+	}
+
+	@Test
+	public void fluxSync() {
+		assertThat(this.service.findFluxSync("key").collectList().block()).containsExactly(0L, 1L);
+		assertThat(this.service.findFluxSync("key").collectList().block()).containsExactly(0L, 1L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(Arrays.asList(0L, 1L));
+	}
+
+
+	@Test
+	public void completableFutureCachePutWithResult() throws Exception {
+		assertThat(this.service.putFuture("key").get()).isEqualTo(0L);
+		assertThat(this.service.putFuture("key").get()).isEqualTo(1L);
+		assertThat(this.cache.get("value-0")).isNull();
+		assertThat(this.cache.get("value-1").get()).isEqualTo(1L);
+	}
+
+	@Test
+	public void completableFutureCacheEvictWithResult() throws Exception {
+		this.cache.put("key", 42L);
+		CompletableFuture<Long> result = new CompletableFuture<>();
+		CompletableFuture<Long> returnValue = this.service.evictFuture("key", result);
+		assertThat(this.cache.get("key")).isNotNull();
+		result.complete(0L);
+		assertThat(returnValue.get()).isEqualTo(0L);
+		assertThat(this.cache.get("key")).isNotNull();
+
+		CompletableFuture<Long> failed = new CompletableFuture<>();
+		returnValue = this.service.evictFuture("key", failed);
+		failed.completeExceptionally(new IllegalStateException("Expected exception"));
+		assertThat(returnValue.isCompletedExceptionally()).isTrue();
+		assertThat(this.cache.get("key")).isNotNull();
+
+		result = new CompletableFuture<>();
+		returnValue = this.service.evictFuture("key", result);
+		assertThat(this.cache.get("key")).isNotNull();
+		result.complete(1L);
+		assertThat(returnValue.get()).isEqualTo(1L);
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void monoCachePutWithResult() {
+		assertThat(this.service.putMono("key").block()).isEqualTo(0L);
+		assertThat(this.service.putMono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("value-0")).isNull();
+		assertThat(this.cache.get("value-1").get()).isEqualTo(1L);
+	}
+
+	@Test
+	public void monoCacheEvictWithResult() {
+		this.cache.put("key", 42L);
+		Mono<Long> returnValue = this.service.evictMono("key", Mono.just(1L));
+		assertThat(this.cache.get("key")).isNotNull();
+		assertThat(this.service.evictMono("key", Mono.just(0L)).block()).isEqualTo(0L);
+		assertThat(this.cache.get("key")).isNotNull();
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+				this.service.evictMono("key", Mono.error(new IllegalStateException("Expected exception"))).block());
+		assertThat(this.cache.get("key")).isNotNull();
+		assertThat(returnValue.block()).isEqualTo(1L);
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+
+	public interface AsyncService {
+
+		CompletableFuture<Long> findFuture(Object key);
+
+		CompletableFuture<Long> findFailingFuture(Object key);
+
+		CompletableFuture<Long> findPendingFutureSync(Object key);
+
+		Mono<Long> findMono(Object key);
+
+		Mono<Long> findMonoSync(Object key);
+
+		Flux<Long> findFlux(Object key);
+
+		Flux<Long> findFluxSync(Object key);
+
+		CompletableFuture<Long> putFuture(Object key);
+
+		CompletableFuture<Long> evictFuture(Object key, CompletableFuture<Long> result);
+
+		Mono<Long> putMono(Object key);
+
+		Mono<Long> evictMono(Object key, Mono<Long> result);
+	}
+
+
+	static class DefaultAsyncService implements AsyncService {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		private final AtomicLong counter = new AtomicLong();
+
+		private final CompletableFuture<Long> pending = new CompletableFuture<>();
+
+		@Override
+		@Cacheable("testCache")
+		public CompletableFuture<Long> findFuture(Object key) {
+			this.invocations.incrementAndGet();
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
+		@Override
+		@Cacheable("testCache")
+		public CompletableFuture<Long> findFailingFuture(Object key) {
+			this.invocations.incrementAndGet();
+			CompletableFuture<Long> result = new CompletableFuture<>();
+			result.completeExceptionally(new IllegalStateException("Expected exception"));
+			return result;
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<Long> findPendingFutureSync(Object key) {
+			this.invocations.incrementAndGet();
+			return this.pending;
+		}
+
+		@Override
+		@Cacheable("testCache")
+		public Mono<Long> findMono(Object key) {
+			this.invocations.incrementAndGet();
+			return Mono.fromSupplier(this.counter::getAndIncrement);
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public Mono<Long> findMonoSync(Object key) {
+			this.invocations.incrementAndGet();
+			return Mono.fromSupplier(this.counter::getAndIncrement);
+		}
+
+		@Override
+		@Cacheable("testCache")
+		public Flux<Long> findFlux(Object key) {
+			this.invocations.incrementAndGet();
+			return Flux.defer(() -> Flux.just(this.counter.getAndIncrement(), this.counter.getAndIncrement()));
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public Flux<Long> findFluxSync(Object key) {
+			this.invocations.incrementAndGet();
+			return Flux.defer(() -> Flux.just(this.counter.getAndIncrement(), this.counter.getAndIncrement()));
+		}
+
+		@Override
+		@CachePut(cacheNames = "testCache", key = "'value-' + #result", condition = "#result > 0")
+		public CompletableFuture<Long> putFuture(Object key) {
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
+		@Override
+		@CacheEvict(cacheNames = "testCache", key = "#key", condition = "#result > 0")
+		public CompletableFuture<Long> evictFuture(Object key, CompletableFuture<Long> result) {
+			return result;
+		}
+
+		@Override
+		@CachePut(cacheNames = "testCache", key = "'value-' + #result", condition = "#result > 0")
+		public Mono<Long> putMono(Object key) {
+			return Mono.fromSupplier(this.counter::getAndIncrement);
+		}
+
+		@Override
+		@CacheEvict(cacheNames = "testCache", key = "#key", condition = "#result > 0")
+		public Mono<Long> evictMono(Object key, Mono<Long> result) {
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@code @Cacheable(batch=true)} methods which are served
+ * partly from the cache for a collection of keys.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class BatchCachingTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("testCache");
+
+	private final DefaultBatchService target = new DefaultBatchService();
+
+	private BatchService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setup() {
+		CacheInterceptor interceptor = new CacheInterceptor();
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.addInterface(BatchService.class);
+		proxyFactory.addAdvice(interceptor);
+		this.service = (BatchService) proxyFactory.getProxy();
+		this.cache = this.cacheManager.getCache("testCache");
+	}
+
+
+	@Test
+	public void loadMissingKeysOnly() {
+		this.cache.put(2L, "cached2");
+
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertThat(result).containsExactly(entry(1L, "value1"), entry(2L, "cached2"), entry(3L, "value3"));
+		assertThat(this.target.invocations).containsExactly(Arrays.asList(1L, 3L));
+		assertThat(this.cache.get(1L).get()).isEqualTo("value1");
+		assertThat(this.cache.get(3L).get()).isEqualTo("value3");
+	}
+
+	@Test
+	public void noInvocationWithAllKeysCached() {
+		this.service.findAll(Arrays.asList(1L, 2L));
+		this.target.invocations.clear();
+
+		Map<Long, String> result = this.service.findAll(Arrays.asList(2L, 1L));
+		assertThat(result).containsExactly(entry(2L, "value2"), entry(1L, "value1"));
+		assertThat(this.target.invocations).isEmpty();
+	}
+
+	@Test
+	public void sharedKeysWithSingleKeyMethod() {
+		assertThat(this.service.find(1L)).isEqualTo("value1");
+		this.target.invocations.clear();
+
+		assertThat(this.service.findAll(Arrays.asList(1L, 2L))).containsOnlyKeys(1L, 2L);
+		assertThat(this.target.invocations).containsExactly(Arrays.asList(2L));
+		assertThat(this.service.find(2L)).isEqualTo("value2");
+		assertThat(this.target.invocations).hasSize(1);
+	}
+
+	@Test
+	public void missingValuesNotCached() {
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, -1L));
+		assertThat(result).containsOnlyKeys(1L);
+		assertThat(this.cache.get(-1L)).isNull();
+
+		this.service.findAll(Arrays.asList(1L, -1L));
+		assertThat(this.target.invocations).containsExactly(Arrays.asList(1L, -1L), Arrays.asList(-1L));
+	}
+
+	@Test
+	public void setParameterWithAdditionalArgument() {
+		this.cache.put(1L, "cached1");
+
+		Map<Long, String> result = this.service.findAllByIds(new LinkedHashSet<>(Arrays.asList(1L, 2L)), "x");
+		assertThat(result).containsExactly(entry(1L, "cached1"), entry(2L, "x2"));
+		assertThat(this.target.invocations).containsExactly(Arrays.asList(2L));
+	}
+
+	@Test
+	public void conditionNotPassing() {
+		this.cache.put(1L, "cached1");
+
+		Map<Long, String> result = this.service.findAllConditional(Arrays.asList(1L, 2L));
+		assertThat(result).containsExactly(entry(1L, "value1"), entry(2L, "value2"));
+		assertThat(this.cache.get(2L)).isNull();
+	}
+
+	@Test
+	public void invalidReturnType() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllAsList(Arrays.asList(1L, 2L)))
+				.withMessageContaining("Map return type");
+	}
+
+	@Test
+	public void invalidKeyAttribute() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllWithKey(Arrays.asList(1L, 2L)))
+				.withMessageContaining("key attribute");
+	}
+
+
+	public interface BatchService {
+
+		String find(Long id);
+
+		Map<Long, String> findAll(Collection<Long> ids);
+
+		Map<Long, String> findAllByIds(Set<Long> ids, String prefix);
+
+		Map<Long, String> findAllConditional(List<Long> ids);
+
+		List<String> findAllAsList(Collection<Long> ids);
+
+		Map<Long, String> findAllWithKey(Collection<Long> ids);
+	}
+
+
+	static class DefaultBatchService implements BatchService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		@Override
+		@Cacheable("testCache")
+		public String find(Long id) {
+			this.invocations.add(Arrays.asList(id));
+			return "value" + id;
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAll(Collection<Long> ids) {
+			return load(ids, "value");
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAllByIds(Set<Long> ids, String prefix) {
+			return load(ids, prefix);
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true, condition = "#ids.size() > 2")
+		public Map<Long, String> findAllConditional(List<Long> ids) {
+			return load(ids, "value");
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public List<String> findAllAsList(Collection<Long> ids) {
+			return new ArrayList<>(load(ids, "value").values());
+		}
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true, key = "#ids")
+		public Map<Long, String> findAllWithKey(Collection<Long> ids) {
+			return load(ids, "value");
+		}
+
+		private Map<Long, String> load(Collection<Long> ids, String prefix) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id > 0) {
+					result.put(id, prefix + id);
+				}
+			}
+			return result;
+		}
+	}
+
+}
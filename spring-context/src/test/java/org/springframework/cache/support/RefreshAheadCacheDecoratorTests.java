@@ -0,0 +1,279 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RefreshAheadCacheDecorator}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class RefreshAheadCacheDecoratorTests {
+
+	private final List<Runnable> refreshTasks = new ArrayList<>();
+
+	private final AtomicInteger loadCount = new AtomicInteger();
+
+	private final ConcurrentMapCache targetCache = new ConcurrentMapCache("testCache", false);
+
+	private Instant now = Instant.parse("2021-06-01T00:00:00Z");
+
+	private RefreshAheadCacheDecorator cache;
+
+
+	@BeforeEach
+	public void setup() {
+		this.cache = createDecorator(this.targetCache);
+	}
+
+
+	@Test
+	public void loadAndServeFreshValue() {
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key").get()).isEqualTo("value1");
+		assertThat(this.loadCount.get()).isEqualTo(1);
+		assertThat(this.refreshTasks).isEmpty();
+	}
+
+	@Test
+	public void serveStaleValueWhileRefreshing() {
+		this.cache.get("key", this::load);
+		advanceClock(Duration.ofSeconds(6));
+
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.refreshTasks).hasSize(1);
+		assertThat(this.loadCount.get()).isEqualTo(1);
+
+		runRefreshTasks();
+		assertThat(this.loadCount.get()).isEqualTo(2);
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value2");
+		assertThat(this.refreshTasks).isEmpty();
+	}
+
+	@Test
+	public void loadExpiredValueSynchronously() {
+		this.cache.get("key", this::load);
+		advanceClock(Duration.ofSeconds(10));
+
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value2");
+		assertThat(this.refreshTasks).isEmpty();
+	}
+
+	@Test
+	public void refreshTimeWithJitter() {
+		this.cache.setJitterFactor(0.5);
+		this.cache.get("key", this::load);
+
+		advanceClock(Duration.ofMillis(2499));
+		this.cache.get("key", this::load);
+		assertThat(this.refreshTasks).isEmpty();
+
+		advanceClock(Duration.ofMillis(2501));
+		this.cache.get("key", this::load);
+		assertThat(this.refreshTasks).hasSize(1);
+	}
+
+	@Test
+	public void refreshConcurrencyLimit() {
+		this.cache.setRefreshConcurrencyLimit(1);
+		this.cache.get("key1", this::load);
+		this.cache.get("key2", this::load);
+		advanceClock(Duration.ofSeconds(6));
+
+		this.cache.get("key1", this::load);
+		this.cache.get("key2", this::load);
+		assertThat(this.refreshTasks).hasSize(1);
+
+		runRefreshTasks();
+		this.cache.get("key2", this::load);
+		assertThat(this.refreshTasks).hasSize(1);
+	}
+
+	@Test
+	public void rejectedRefresh() {
+		RefreshAheadCacheDecorator rejectingCache = new RefreshAheadCacheDecorator(
+				this.targetCache, Duration.ofSeconds(10), task -> {
+					throw new RejectedExecutionException("Expected");
+				});
+		rejectingCache.setJitterFactor(0);
+		rejectingCache.setClock(clock());
+		rejectingCache.get("key", this::load);
+		advanceClock(Duration.ofSeconds(8));
+		rejectingCache.setClock(clock());
+
+		assertThat(rejectingCache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.loadCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void rejectedRefreshWithWaitingCallerForExpiredEntry() throws Exception {
+		AtomicReference<Object> waitingResult = new AtomicReference<>();
+		RefreshAheadCacheDecorator expiredCache = createDecorator(this.targetCache);
+		RefreshAheadCacheDecorator rejectingCache = new RefreshAheadCacheDecorator(
+				this.targetCache, Duration.ofSeconds(10), task -> {
+					// Expired entry for this caller -> waits for the refresh about to be rejected
+					Thread waiting = new Thread(() -> waitingResult.set(expiredCache.get("key", this::load)));
+					waiting.start();
+					awaitWaitingState(waiting);
+					throw new RejectedExecutionException("Expected");
+				});
+		rejectingCache.setRefreshAfter(Duration.ofSeconds(5));
+		rejectingCache.setJitterFactor(0);
+		rejectingCache.setClock(clock());
+		rejectingCache.setCoalescingGroup("group");
+		expiredCache.setCoalescingGroup("group");
+		rejectingCache.get("key", this::load);
+		advanceClock(Duration.ofSeconds(8));
+		rejectingCache.setClock(clock());
+		advanceClock(Duration.ofSeconds(4));
+		expiredCache.setClock(clock());
+
+		assertThat(rejectingCache.get("key", this::load)).isEqualTo("value1");
+		long deadline = System.currentTimeMillis() + 10000;
+		while (waitingResult.get() == null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(waitingResult.get()).isEqualTo("value2");
+		assertThat(this.loadCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void retrieveWithRefresh() throws Exception {
+		assertThat(this.cache.retrieve("key", this::loadAsync).get()).isEqualTo("value1");
+		assertThat(this.cache.retrieve("key").get().get()).isEqualTo("value1");
+		advanceClock(Duration.ofSeconds(6));
+
+		assertThat(this.cache.retrieve("key", this::loadAsync).get()).isEqualTo("value1");
+		runRefreshTasks();
+		assertThat(this.cache.retrieve("key", this::loadAsync).get()).isEqualTo("value2");
+
+		advanceClock(Duration.ofSeconds(20));
+		assertThat(this.cache.retrieve("key").get()).isNull();
+	}
+
+	@Test
+	public void coalesceLoadsAcrossCacheNames() throws Exception {
+		ConcurrentMapCache otherTargetCache = new ConcurrentMapCache("otherCache");
+		RefreshAheadCacheDecorator otherCache = createDecorator(otherTargetCache);
+		this.cache.setCoalescingGroup("group");
+		otherCache.setCoalescingGroup("group");
+
+		CompletableFuture<String> pendingLoad = new CompletableFuture<>();
+		CompletableFuture<String> first = this.cache.retrieve("key", () -> pendingLoad);
+		CompletableFuture<String> second = otherCache.retrieve("key", this::loadAsync);
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+
+		pendingLoad.complete("value");
+		assertThat(first.get()).isEqualTo("value");
+		assertThat(second.get()).isEqualTo("value");
+		assertThat(this.loadCount.get()).isEqualTo(0);
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(otherCache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void getAllAndPutAllWithExpiration() {
+		this.cache.put("key1", "value1");
+		advanceClock(Duration.ofSeconds(6));
+		this.cache.putAll(Collections.singletonMap("key2", "value2"));
+		assertThat(this.cache.getAll(Arrays.asList("key1", "key2", "key3"))).containsOnlyKeys("key1", "key2");
+
+		advanceClock(Duration.ofSeconds(6));
+		assertThat(this.cache.getAll(Arrays.asList("key1", "key2", "key3"))).containsOnlyKeys("key2");
+		this.cache.evictAll(Arrays.asList("key1", "key2"));
+		assertThat(this.targetCache.getNativeCache()).isEmpty();
+	}
+
+	@Test
+	public void nullValueWithNullRejectingTarget() {
+		this.cache.put("key", null);
+		Cache.ValueWrapper wrapper = this.cache.get("key");
+		assertThat(wrapper).isNotNull();
+		assertThat(wrapper.get()).isNull();
+	}
+
+
+	private RefreshAheadCacheDecorator createDecorator(Cache targetCache) {
+		RefreshAheadCacheDecorator decorator =
+				new RefreshAheadCacheDecorator(targetCache, Duration.ofSeconds(10), this.refreshTasks::add);
+		decorator.setRefreshAfter(Duration.ofSeconds(5));
+		decorator.setJitterFactor(0);
+		decorator.setClock(clock());
+		return decorator;
+	}
+
+	private Clock clock() {
+		return Clock.fixed(this.now, ZoneId.of("UTC"));
+	}
+
+	private void advanceClock(Duration duration) {
+		this.now = this.now.plus(duration);
+		this.cache.setClock(clock());
+	}
+
+	private void awaitWaitingState(Thread thread) {
+		long deadline = System.currentTimeMillis() + 10000;
+		try {
+			while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+	}
+
+	private void runRefreshTasks() {
+		List<Runnable> tasks = new ArrayList<>(this.refreshTasks);
+		this.refreshTasks.clear();
+		tasks.forEach(Runnable::run);
+	}
+
+	private String load() {
+		return "value" + this.loadCount.incrementAndGet();
+	}
+
+	private CompletableFuture<String> loadAsync() {
+		return CompletableFuture.completedFuture(load());
+	}
+
+}
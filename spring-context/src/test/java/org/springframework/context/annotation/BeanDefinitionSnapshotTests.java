@@ -0,0 +1,223 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class BeanDefinitionSnapshotTests {
+
+	@BeforeEach
+	void resetConditionCount() {
+		CountingCondition.count.set(0);
+	}
+
+
+	@Test
+	void restoredContextMatchesCapturedContext() throws IOException {
+		AnnotationConfigApplicationContext buildContext = new AnnotationConfigApplicationContext();
+		buildContext.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(buildContext);
+		buildContext.close();
+		assertThat(CountingCondition.count.get()).isGreaterThan(0);
+		CountingCondition.count.set(0);
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		copy(snapshot).registerBeanDefinitions(context);
+		context.refresh();
+
+		assertThat(CountingCondition.count.get()).isEqualTo(0);
+		assertThat(context.containsBean("conditionalBean")).isFalse();
+		TestBean spouse = context.getBean("spouse", TestBean.class);
+		TestBean testBean = context.getBean("testBean", TestBean.class);
+		assertThat(testBean.getSpouse()).isSameAs(spouse);
+		assertThat(context.getBean(SnapshotConfig.class).qualifiedBean).isSameAs(spouse);
+		assertThat(context.getBean(ImportedConfig.class).importMetadata.getClassName())
+				.isEqualTo(SnapshotConfig.class.getName());
+		assertThat(context.getAliases("spouse")).containsExactly("partner");
+		context.close();
+	}
+
+	@Test
+	void restoredContextWithManagedValues() throws IOException {
+		GenericApplicationContext buildContext = new GenericApplicationContext();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		ManagedList<Object> friends = new ManagedList<>();
+		friends.add(new RootBeanDefinition(TestBean.class));
+		friends.add("nobody");
+		bd.getPropertyValues().add("friends", friends);
+		bd.setLazyInit(true);
+		buildContext.registerBeanDefinition("testBean", bd);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(buildContext);
+		buildContext.close();
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		copy(snapshot).registerBeanDefinitions(context);
+		assertThat(context.getBeanDefinition("testBean").isLazyInit()).isTrue();
+		context.refresh();
+
+		TestBean testBean = context.getBean("testBean", TestBean.class);
+		assertThat(testBean.getName()).isEqualTo("juergen");
+		assertThat(testBean.getAge()).isEqualTo(42);
+		assertThat(testBean.getFriends()).hasSize(2);
+		assertThat(testBean.getFriends()).element(0).isInstanceOf(TestBean.class);
+		context.close();
+	}
+
+	@Test
+	void restoreWithDifferentProfiles() throws IOException {
+		AnnotationConfigApplicationContext buildContext = new AnnotationConfigApplicationContext();
+		buildContext.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(buildContext);
+		buildContext.close();
+		assertThat(snapshot.getProfiles()).containsExactly("default");
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.getEnvironment().setActiveProfiles("other");
+		assertThatIllegalStateException().isThrownBy(() -> copy(snapshot).registerBeanDefinitions(context))
+				.withMessageContaining("other");
+	}
+
+	@Test
+	void restoredContextWithPropertySource() throws IOException {
+		AnnotationConfigApplicationContext buildContext = new AnnotationConfigApplicationContext();
+		buildContext.register(PropertySourceConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(buildContext);
+		buildContext.close();
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		copy(snapshot).registerBeanDefinitions(context);
+		assertThat(context.getEnvironment().getProperty("testbean.name")).isEqualTo("p1TestBean");
+		context.refresh();
+
+		assertThat(context.getBean(PropertySourceConfig.class).name).isEqualTo("p1TestBean");
+		context.close();
+	}
+
+	@Test
+	void captureWithInstanceSupplier() {
+		GenericApplicationContext buildContext = new GenericApplicationContext();
+		buildContext.registerBean("testBean", TestBean.class, () -> new TestBean());
+		assertThatIllegalStateException().isThrownBy(() -> BeanDefinitionSnapshot.capture(buildContext))
+				.withMessageContaining("testBean");
+		buildContext.close();
+	}
+
+	@Test
+	void readInvalidContent() {
+		ByteArrayInputStream in = new ByteArrayInputStream("not a snapshot".getBytes());
+		assertThatIOException().isThrownBy(() -> BeanDefinitionSnapshot.readFrom(in));
+	}
+
+
+	private static BeanDefinitionSnapshot copy(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		BeanDefinitionSnapshot copy = BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(copy.getBeanDefinitionNames()).isEqualTo(snapshot.getBeanDefinitionNames());
+		return copy;
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Import(ImportedConfig.class)
+	static class SnapshotConfig {
+
+		@Autowired
+		@Qualifier("special")
+		TestBean qualifiedBean;
+
+		@Bean
+		public TestBean testBean(@Qualifier("special") TestBean spouse) {
+			TestBean testBean = new TestBean("testBean");
+			testBean.setSpouse(spouse);
+			return testBean;
+		}
+
+		@Bean({"spouse", "partner"})
+		@Qualifier("special")
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		public TestBean conditionalBean() {
+			return new TestBean("conditional");
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+
+		@Value("${testbean.name}")
+		String name;
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			count.incrementAndGet();
+			return false;
+		}
+	}
+
+}
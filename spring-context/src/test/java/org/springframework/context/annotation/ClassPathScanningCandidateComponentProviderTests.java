@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,11 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.gh24375.AnnotatedComponent;
 import example.profilescan.DevComponent;
@@ -102,6 +105,40 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertBeanDefinitionType(candidates);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+			provider.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			provider.setParallelScanningPool(pool);
+			testDefault(provider);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void parallelScanRetainsCandidateOrder() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider sequential = new ClassPathScanningCandidateComponentProvider(true);
+			sequential.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			ClassPathScanningCandidateComponentProvider parallel = new ClassPathScanningCandidateComponentProvider(true);
+			parallel.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			parallel.setParallelScanningPool(pool);
+			assertThat(beanClassNames(parallel.findCandidateComponents(TEST_BASE_PACKAGE)))
+					.containsExactlyElementsOf(beanClassNames(sequential.findCandidateComponents(TEST_BASE_PACKAGE)));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
 	@Test
 	public void antStylePackageWithScan() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -512,6 +549,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		return false;
 	}
 
+	private List<String> beanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private void assertBeanDefinitionType(Set<BeanDefinition> candidates) {
 		candidates.forEach(c ->
 			assertThat(c).isInstanceOf(ScannedGenericBeanDefinition.class)
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
@@ -184,6 +190,179 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		smc.multicastEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueues() throws InterruptedException {
+		int eventCount = 200;
+		CountDownLatch latch = new CountDownLatch(2 * eventCount);
+		MyCollectingListener listener1 = new MyCollectingListener(latch);
+		MyCollectingListener listener2 = new MyCollectingListener(latch);
+		List<MyEvent> events = new ArrayList<>();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+			smc.setTaskExecutor(executor);
+			smc.setListenerQueueCapacity(10);
+			smc.addApplicationListener(listener1);
+			smc.addApplicationListener(listener2);
+			for (int i = 0; i < eventCount; i++) {
+				MyEvent event = new MyEvent(this);
+				events.add(event);
+				smc.multicastEvent(event);
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(listener1.seenEvents).containsExactlyElementsOf(events);
+		assertThat(listener2.seenEvents).containsExactlyElementsOf(events);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithBatchListener() {
+		List<Runnable> tasks = new CopyOnWriteArrayList<>();
+		MyBatchListener listener = new MyBatchListener(2);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener);
+		for (int i = 0; i < 5; i++) {
+			smc.multicastEvent(new MyEvent(this));
+		}
+		smc.multicastEvent(new MyOtherEvent(this));
+
+		assertThat(tasks).hasSize(1);
+		tasks.remove(0).run();
+		assertThat(listener.batches.stream().map(List::size).collect(Collectors.toList())).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithFullListenerQueue() throws InterruptedException {
+		List<Runnable> tasks = new CopyOnWriteArrayList<>();
+		MyCollectingListener listener = new MyCollectingListener(new CountDownLatch(3));
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(2);
+		smc.addApplicationListener(listener);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+
+		Thread publisher = new Thread(() -> smc.multicastEvent(new MyEvent(this)));
+		publisher.start();
+		long deadline = System.currentTimeMillis() + 10000;
+		while (publisher.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(publisher.getState()).isEqualTo(Thread.State.WAITING);
+		assertThat(listener.seenEvents).isEmpty();
+
+		tasks.remove(0).run();
+		publisher.join(10000);
+		assertThat(publisher.isAlive()).isFalse();
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+		assertThat(listener.seenEvents).hasSize(3);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterDiscardsListenerQueues() {
+		List<Runnable> tasks = new CopyOnWriteArrayList<>();
+		MyCollectingListener listener1 = new MyCollectingListener(new CountDownLatch(2));
+		MyCollectingListener listener2 = new MyCollectingListener(new CountDownLatch(1));
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener1);
+		smc.addApplicationListener(listener2);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(smc.listenerQueues).hasSize(2);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.listenerQueues).hasSize(1);
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+		assertThat(listener1.seenEvents).hasSize(1);
+		assertThat(listener2.seenEvents).hasSize(1);
+		assertThat(smc.listenerQueues).isEmpty();
+
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(smc.listenerQueues).hasSize(1);
+		smc.removeAllListeners();
+		assertThat(smc.listenerQueues).isEmpty();
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+		assertThat(listener1.seenEvents).hasSize(2);
+	}
+
+	@Test
+	public void listenerAddedAndRemovedWithCachedRetrievers() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyCollectingListener listener2 = new MyCollectingListener(new CountDownLatch(0));
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.addApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		MyEvent event = new MyEvent(this);
+		smc.multicastEvent(event);
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(listener1.seenEvents).hasSize(4);
+		assertThat(listener2.seenEvents).containsExactly(event);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents).hasSize(5);
+		assertThat(listener2.seenEvents).containsExactly(event);
+	}
+
+	@Test
+	public void listenerAddedWithCachedRetrieversInOrder() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		MyEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forClass(MyEvent.class);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener2);
+		smc.addApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1, listener2);
+	}
+
+	@Test
+	public void listenersIndexedByPayloadType() {
+		MyPayloadListener rawPayloadListener = new MyPayloadListener();
+		MyIntegerPayloadListener integerPayloadListener = new MyIntegerPayloadListener();
+		MyOrderedListener1 eventListener = new MyOrderedListener1();
+		MyCollectingListener myEventListener = new MyCollectingListener(new CountDownLatch(0));
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(rawPayloadListener);
+		smc.addApplicationListener(integerPayloadListener);
+		smc.addApplicationListener(eventListener);
+		smc.addApplicationListener(myEventListener);
+
+		smc.multicastEvent(new PayloadApplicationEvent<>(this, "text"));
+		smc.multicastEvent(new PayloadApplicationEvent<>(this, 42));
+		assertThat(rawPayloadListener.seenPayloads).containsExactlyInAnyOrder("text", 42);
+		assertThat(integerPayloadListener.seenPayloads).containsExactly(42);
+		assertThat(eventListener.seenEvents).hasSize(2);
+		assertThat(myEventListener.seenEvents).isEmpty();
+	}
+
 	@Test
 	public void orderedListeners() {
 		MyOrderedListener1 listener1 = new MyOrderedListener1();
@@ -581,6 +760,46 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class MyCollectingListener implements ApplicationListener<MyEvent> {
+
+		public final List<ApplicationEvent> seenEvents = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch latch;
+
+		public MyCollectingListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void onApplicationEvent(MyEvent event) {
+			this.seenEvents.add(event);
+			this.latch.countDown();
+		}
+	}
+
+
+	public static class MyBatchListener implements BatchApplicationListener<MyEvent> {
+
+		public final List<List<MyEvent>> batches = new ArrayList<>();
+
+		private final int maxBatchSize;
+
+		public MyBatchListener(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		@Override
+		public void onApplicationEvents(List<MyEvent> events) {
+			this.batches.add(new ArrayList<>(events));
+		}
+
+		@Override
+		public int getMaxBatchSize() {
+			return this.maxBatchSize;
+		}
+	}
+
+
 	public static class MyOrderedListener1 implements ApplicationListener<ApplicationEvent>, Ordered {
 
 		public final List<ApplicationEvent> seenEvents = new ArrayList<>();
@@ -637,6 +856,17 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class MyIntegerPayloadListener implements ApplicationListener<PayloadApplicationEvent<Integer>> {
+
+		public final List<Integer> seenPayloads = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+			this.seenPayloads.add(event.getPayload());
+		}
+	}
+
+
 	public static class MyNonSingletonListener implements ApplicationListener<ApplicationEvent> {
 
 		public static final Set<ApplicationEvent> seenEvents = new HashSet<>();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -325,6 +325,28 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.context, times(2)).getBean("testBean");
 	}
 
+	@Test
+	public void multicasterWithIndexedListeners() {
+		ApplicationListenerMethodAdapter rawListener = createTestInstance(
+				ReflectionUtils.findMethod(SampleEvents.class, "handleRaw", ApplicationEvent.class));
+		ApplicationListenerMethodAdapter stringListener = createTestInstance(
+				ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class));
+		ApplicationListenerMethodAdapter stringOrIntegerListener = createTestInstance(
+				ReflectionUtils.findMethod(SampleEvents.class, "handleStringOrInteger"));
+
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		multicaster.addApplicationListener(rawListener);
+		multicaster.addApplicationListener(stringListener);
+		multicaster.addApplicationListener(stringOrIntegerListener);
+
+		assertThat(multicaster.getApplicationListeners(new PayloadApplicationEvent<>(this, 123),
+				createGenericEventType(Integer.class))).containsExactlyInAnyOrder(rawListener, stringOrIntegerListener);
+		assertThat(multicaster.getApplicationListeners(new PayloadApplicationEvent<>(this, "test"),
+				createGenericEventType(String.class))).containsExactlyInAnyOrder(
+						rawListener, stringListener, stringOrIntegerListener);
+		assertThat(multicaster.getApplicationListeners(new PayloadApplicationEvent<>(this, 23.2),
+				createGenericEventType(Double.class))).containsExactly(rawListener);
+	}
 
 	private void supportsEventType(boolean match, Method method, ResolvableType eventType) {
 		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
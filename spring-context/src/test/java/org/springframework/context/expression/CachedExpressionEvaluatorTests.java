@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,8 +22,10 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -66,6 +68,50 @@ public class CachedExpressionEvaluatorTests {
 		assertThat(expressionEvaluator.testCache.size()).as("Cached expression should be based on type").isEqualTo(2);
 	}
 
+	@Test
+	public void cacheExpressionInBoundedCache() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		AnnotatedElementKey elementKey = new AnnotatedElementKey(method, getClass());
+
+		Expression expression = expressionEvaluator.getExpression(elementKey, "true");
+		assertThat(expressionEvaluator.getExpression(elementKey, "true")).isSameAs(expression);
+		assertThat(expressionEvaluator.getExpression(elementKey, "false")).isNotSameAs(expression);
+		hasParsedExpression("true");
+
+		expressionEvaluator.clearExpressionCache();
+		assertThat(expressionEvaluator.getExpression(elementKey, "true")).isNotSameAs(expression);
+	}
+
+	@Test
+	public void expressionCachePerEvaluator() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		AnnotatedElementKey elementKey = new AnnotatedElementKey(method, getClass());
+		CachedExpressionEvaluator evaluator1 = new CachedExpressionEvaluator() {};
+		CachedExpressionEvaluator evaluator2 = new CachedExpressionEvaluator() {};
+
+		Expression expression = evaluator1.getExpression(elementKey, "'local'");
+		assertThat(evaluator1.getExpression(elementKey, "'local'")).isSameAs(expression);
+		assertThat(evaluator2.getExpression(elementKey, "'local'")).isNotSameAs(expression);
+
+		evaluator2.clearExpressionCache();
+		assertThat(evaluator1.getExpression(elementKey, "'local'")).isSameAs(expression);
+	}
+
+	@Test
+	public void initEvaluationContextFromTemplate() {
+		StandardEvaluationContext context1 = new StandardEvaluationContext();
+		StandardEvaluationContext context2 = new StandardEvaluationContext();
+		expressionEvaluator.initEvaluationContext(context1, null);
+		expressionEvaluator.initEvaluationContext(context2, new StaticListableBeanFactory());
+
+		assertThat(context1.getPropertyAccessors()).isNotSameAs(context2.getPropertyAccessors());
+		assertThat(context1.getPropertyAccessors()).containsExactlyElementsOf(context2.getPropertyAccessors());
+		assertThat(context1.getMethodResolvers()).containsExactlyElementsOf(context2.getMethodResolvers());
+		assertThat(context1.getTypeLocator()).isSameAs(context2.getTypeLocator());
+		assertThat(context1.getBeanResolver()).isNull();
+		assertThat(context2.getBeanResolver()).isInstanceOf(BeanFactoryResolver.class);
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
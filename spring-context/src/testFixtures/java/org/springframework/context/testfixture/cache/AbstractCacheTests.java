@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,12 @@
 
 package org.springframework.context.testfixture.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -208,6 +212,77 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		results.forEach(r -> assertThat(r).isEqualTo(1)); // Only one method got invoked
 	}
 
+	@Test
+	public void testCacheRetrieve() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		assertThat(cache.retrieve(key)).isNull();
+
+		cache.put(key, "value");
+		CompletableFuture<Cache.ValueWrapper> result = cache.retrieve(key);
+		assertThat(result).isNotNull();
+		assertThat(result.get().get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testCacheRetrieveWithLoader() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		assertThat(cache.retrieve(key, () -> CompletableFuture.completedFuture("value")).get()).isEqualTo("value");
+		assertThat(cache.retrieve(key, () -> CompletableFuture.completedFuture("other")).get()).isEqualTo("value");
+		assertThat(cache.get(key).get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testCacheGetAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		cache.put(key1, "value1");
+		cache.put(key3, "value3");
+
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key1, key2, key3));
+		assertThat(result).containsOnlyKeys(key1, key3);
+		assertThat(result.get(key1).get()).isEqualTo("value1");
+		assertThat(result.get(key3).get()).isEqualTo("value3");
+	}
+
+	@Test
+	public void testCachePutAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "value1");
+		entries.put(key2, "value2");
+		cache.putAll(entries);
+
+		assertThat(cache.get(key1).get()).isEqualTo("value1");
+		assertThat(cache.get(key2).get()).isEqualTo("value2");
+	}
+
+	@Test
+	public void testCacheEvictAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		cache.put(key1, "value1");
+		cache.put(key2, "value2");
+		cache.put(key3, "value3");
+		cache.evictAll(Arrays.asList(key1, key3));
+
+		assertThat(cache.get(key1)).isNull();
+		assertThat(cache.get(key2).get()).isEqualTo("value2");
+		assertThat(cache.get(key3)).isNull();
+	}
+
 	protected String createRandomKey() {
 		return UUID.randomUUID().toString();
 	}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+/**
+ * Benchmarks for typical {@link AnnotatedElementUtils} lookups at request time,
+ * e.g. for transaction attributes declared on an interface method or for
+ * composed annotations with attribute overrides.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotatedElementUtilsBenchmark {
+
+	@Benchmark
+	public void findMergedAnnotationOnInterfaceMethod(BenchmarkState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(state.implMethod, Tx.class));
+	}
+
+	@Benchmark
+	public void findMergedAnnotationWithAttributeOverride(BenchmarkState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(state.implClass, Tx.class));
+	}
+
+	@Benchmark
+	public void findMergedAnnotationNotPresent(BenchmarkState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(state.plainMethod, Tx.class));
+	}
+
+	@Benchmark
+	public void hasAnnotationOnInterfaceMethod(BenchmarkState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.hasAnnotation(state.implMethod, Tx.class));
+	}
+
+	@Benchmark
+	public void getMergedAnnotationInherited(BenchmarkState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.getMergedAnnotation(state.implClass, Tx.class));
+	}
+
+	/**
+	 * Same lookup as {@link #findMergedAnnotationOnInterfaceMethod}, through a
+	 * custom annotation filter which bypasses the shared lookup results.
+	 */
+	@Benchmark
+	public void findMergedAnnotationOnInterfaceMethodUncached(BenchmarkState state, Blackhole bh) {
+		bh.consume(MergedAnnotations.from(state.implMethod, SearchStrategy.TYPE_HIERARCHY,
+				RepeatableContainers.none(), AnnotationFilter.JAVA)
+				.get(Tx.class, null, MergedAnnotationSelectors.firstDirectlyDeclared())
+				.synthesize(MergedAnnotation::isPresent).orElse(null));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		Class<?> implClass = ServiceImpl.class;
+
+		Method implMethod;
+
+		Method plainMethod;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.implMethod = ServiceImpl.class.getMethod("find", String.class);
+			this.plainMethod = ServiceImpl.class.getMethod("toString");
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Inherited
+	@interface Tx {
+
+		String value() default "";
+
+		boolean readOnly() default false;
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Inherited
+	@Tx(readOnly = true)
+	@interface ReadOnlyTx {
+
+		@AliasFor(annotation = Tx.class)
+		String value() default "";
+	}
+
+
+	interface Service {
+
+		@ReadOnlyTx("txManager")
+		Object find(String id);
+	}
+
+
+	@ReadOnlyTx("txManager")
+	static class BaseService {
+	}
+
+
+	static class ServiceImpl extends BaseService implements Service {
+
+		@Override
+		public Object find(String id) {
+			return id;
+		}
+	}
+
+}
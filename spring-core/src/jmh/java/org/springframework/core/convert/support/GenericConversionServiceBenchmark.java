@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,12 +44,51 @@ import org.springframework.util.CollectionUtils;
 @BenchmarkMode(Mode.Throughput)
 public class GenericConversionServiceBenchmark {
 
+	@Benchmark
+	public void convertStringToIntegerWithConversionService(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.source, Integer.class));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerWithTypeDescriptors(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.source, state.sourceTypeDesc, state.targetTypeDesc));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerWithConverterHandle(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.converterHandle.convert(state.source));
+	}
+
+	@State(Scope.Benchmark)
+	public static class SimpleBenchmarkState {
+
+		DefaultConversionService conversionService = new DefaultConversionService();
+
+		String source = "42";
+
+		TypeDescriptor sourceTypeDesc = TypeDescriptor.valueOf(String.class);
+
+		TypeDescriptor targetTypeDesc = TypeDescriptor.valueOf(Integer.class);
+
+		GenericConversionService.ConverterHandle converterHandle;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.converterHandle = this.conversionService.getConverterHandle(this.sourceTypeDesc, this.targetTypeDesc);
+		}
+	}
+
 	@Benchmark
 	public void convertListOfStringToListOfIntegerWithConversionService(ListBenchmarkState state, Blackhole bh) {
 		TypeDescriptor sourceTypeDesc = TypeDescriptor.forObject(state.source);
 		bh.consume(state.conversionService.convert(state.source, sourceTypeDesc, state.targetTypeDesc));
 	}
 
+	@Benchmark
+	public void convertListOfStringToListOfIntegerWithConverterHandle(ListBenchmarkState state, Blackhole bh) {
+		bh.consume(state.converterHandle.convert(state.source));
+	}
+
 	@Benchmark
 	public void convertListOfStringToListOfIntegerBaseline(ListBenchmarkState state, Blackhole bh) {
 		List<Integer> target = new ArrayList<>(state.source.size());
@@ -69,6 +108,8 @@ public class GenericConversionServiceBenchmark {
 			this.source = IntStream.rangeClosed(1, collectionSize).mapToObj(String::valueOf).collect(Collectors.toList());
 			List<Integer> target = new ArrayList<>();
 			this.targetTypeDesc = TypeDescriptor.forObject(target);
+			this.converterHandle = this.conversionService.getConverterHandle(
+					TypeDescriptor.forObject(this.source), this.targetTypeDesc);
 		}
 	}
 
@@ -111,6 +152,8 @@ public class GenericConversionServiceBenchmark {
 		int collectionSize;
 
 		TypeDescriptor targetTypeDesc;
+
+		GenericConversionService.ConverterHandle converterHandle;
 	}
 
 }
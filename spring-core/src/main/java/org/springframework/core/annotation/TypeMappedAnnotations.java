@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,19 +22,26 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link MergedAnnotations} implementation that searches for and adapts
  * annotations and meta-annotations using {@link AnnotationTypeMappings}.
  *
+ * <p>Instances for an {@link AnnotatedElement} with standard settings are
+ * shared, with their lookup results (including synthesized annotations)
+ * being computed once per annotation type and selector.
+ *
  * @author Phillip Webb
  * @since 5.2
  */
@@ -46,6 +53,12 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	static final MergedAnnotations NONE = new TypeMappedAnnotations(
 			null, new Annotation[0], RepeatableContainers.none(), AnnotationFilter.ALL);
 
+	/**
+	 * Shared instances per element, search strategy and repeatable containers,
+	 * for the default annotation filter.
+	 */
+	private static final Map<CacheKey, TypeMappedAnnotations> cache = new ConcurrentReferenceHashMap<>(256);
+
 
 	@Nullable
 	private final Object source;
@@ -66,9 +79,12 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	@Nullable
 	private volatile List<Aggregate> aggregates;
 
+	@Nullable
+	private final Map<ResultKey, MergedAnnotation<?>> resultCache;
+
 
 	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
-			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter, boolean shared) {
 
 		this.source = element;
 		this.element = element;
@@ -76,6 +92,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = null;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.resultCache = (shared ? new ConcurrentHashMap<>(8) : null);
 	}
 
 	private TypeMappedAnnotations(@Nullable Object source, Annotation[] annotations,
@@ -87,6 +104,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = annotations;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.resultCache = null;
 	}
 
 
@@ -146,9 +164,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
-		MergedAnnotation<A> result = scan(annotationType,
-				new MergedAnnotationFinder<>(annotationType, predicate, selector));
-		return (result != null ? result : MergedAnnotation.missing());
+		return find(annotationType, predicate, selector);
 	}
 
 	@Override
@@ -171,6 +187,30 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
+		return find(annotationType, predicate, selector);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends Annotation> MergedAnnotation<A> find(Object annotationType,
+			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
+			@Nullable MergedAnnotationSelector<A> selector) {
+
+		Map<ResultKey, MergedAnnotation<?>> resultCache = this.resultCache;
+		if (resultCache != null && predicate == null && (selector == null ||
+				selector == MergedAnnotationSelectors.nearest() ||
+				selector == MergedAnnotationSelectors.firstDirectlyDeclared())) {
+			ResultKey resultKey = new ResultKey(annotationType,
+					(selector != null ? selector : MergedAnnotationSelectors.nearest()));
+			MergedAnnotation<A> result = (MergedAnnotation<A>) resultCache.get(resultKey);
+			if (result == null) {
+				result = scan(annotationType, new MergedAnnotationFinder<>(annotationType, null, selector));
+				if (result == null) {
+					result = MergedAnnotation.missing();
+				}
+				resultCache.put(resultKey, result);
+			}
+			return result;
+		}
 		MergedAnnotation<A> result = scan(annotationType,
 				new MergedAnnotationFinder<>(annotationType, predicate, selector));
 		return (result != null ? result : MergedAnnotation.missing());
@@ -251,7 +291,13 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (AnnotationsScanner.isKnownEmpty(element, searchStrategy)) {
 			return NONE;
 		}
-		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
+		if (annotationFilter == AnnotationFilter.PLAIN &&
+				(repeatableContainers == RepeatableContainers.standardRepeatables() ||
+						repeatableContainers == RepeatableContainers.none())) {
+			return cache.computeIfAbsent(new CacheKey(element, searchStrategy, repeatableContainers), key ->
+					new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter, true));
+		}
+		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter, false);
 	}
 
 	static MergedAnnotations from(@Nullable Object source, Annotation[] annotations,
@@ -263,6 +309,10 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	static void clearCache() {
+		cache.clear();
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 			AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
@@ -649,4 +699,74 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		}
 	}
 
+
+	/**
+	 * Cache key for shared {@link TypeMappedAnnotations} instances.
+	 */
+	private static final class CacheKey {
+
+		private final AnnotatedElement element;
+
+		private final SearchStrategy searchStrategy;
+
+		private final RepeatableContainers repeatableContainers;
+
+		CacheKey(AnnotatedElement element, SearchStrategy searchStrategy, RepeatableContainers repeatableContainers) {
+			this.element = element;
+			this.searchStrategy = searchStrategy;
+			this.repeatableContainers = repeatableContainers;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.element.equals(otherKey.element) && this.searchStrategy == otherKey.searchStrategy &&
+					this.repeatableContainers == otherKey.repeatableContainers);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.element.hashCode() * 31 + this.searchStrategy.hashCode());
+		}
+	}
+
+
+	/**
+	 * Cache key for lookup results within a shared instance.
+	 */
+	private static final class ResultKey {
+
+		private final Object annotationType;
+
+		private final MergedAnnotationSelector<?> selector;
+
+		ResultKey(Object annotationType, MergedAnnotationSelector<?> selector) {
+			this.annotationType = annotationType;
+			this.selector = selector;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ResultKey)) {
+				return false;
+			}
+			ResultKey otherKey = (ResultKey) other;
+			return (this.annotationType.equals(otherKey.annotationType) && this.selector == otherKey.selector);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.annotationType.hashCode() * 31 + this.selector.hashCode());
+		}
+	}
+
 }
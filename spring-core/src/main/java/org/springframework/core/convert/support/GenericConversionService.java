@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -28,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -80,6 +82,21 @@ public class GenericConversionService implements ConfigurableConversionService {
 	// GenericConverter 缓存,由sourceType、targetType处理获得，value为对应的GenericConverter
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/** Cache of ConverterHandles per source/target Class pair, looked up without key allocation. */
+	private final Map<Class<?>, Map<Class<?>, ConverterHandle>> converterHandleCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	/** Generation of the converter cache, incremented on every invalidation. */
+	private final AtomicInteger cacheGeneration = new AtomicInteger();
+
+	/** Whether canConvert(Class, Class) may use the class pair cache: if the TypeDescriptor variant is not overridden. */
+	private final boolean canConvertViaHandles =
+			isNotOverridden("canConvert", TypeDescriptor.class, TypeDescriptor.class);
+
+	/** Whether convert(Object, Class) may use the class pair cache: if the TypeDescriptor variant is not overridden. */
+	private final boolean convertViaHandles =
+			isNotOverridden("convert", Object.class, TypeDescriptor.class, TypeDescriptor.class);
+
 
 	// ConverterRegistry implementation
 
@@ -138,6 +155,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (sourceType != null && this.canConvertViaHandles) {
+			return getConverterHandle(sourceType, targetType).canConvert();
+		}
 		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
 				TypeDescriptor.valueOf(targetType));
 	}
@@ -177,6 +197,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.convertViaHandles) {
+			return (T) getConverterHandle(source.getClass(), targetType).convert(source);
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -196,15 +219,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 		// <3> 获得对应的 GenericConverter 对象
 		GenericConverter converter = getConverter(sourceType, targetType);
-		// <4> 如果 converter 非空，则进行转换，然后再处理结果
-		if (converter != null) {
-			// <4.1> 执行转换
-			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
-			// <4.2> 处理器结果
-			return handleResult(sourceType, targetType, result);
-		}
-		// <5> 处理 converter 为空的情况
-		return handleConverterNotFound(source, sourceType, targetType);
+		return convert(source, sourceType, targetType, converter);
 	}
 
 	/**
@@ -225,6 +240,51 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Obtain a reusable handle for conversions from the given source type to
+	 * the given target type, resolving the converter once instead of looking
+	 * it up on every {@code convert} call.
+	 * <p>The handle remains valid when converters are added or removed later on:
+	 * it re-resolves its converter on its next use in such a case.
+	 * @param sourceType context about the source type to convert from
+	 * @param targetType context about the target type to convert to
+	 * @return the converter handle for the given type pair
+	 * @since 5.3.9
+	 * @see ConverterHandle#convert(Object)
+	 */
+	public ConverterHandle getConverterHandle(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		Assert.notNull(sourceType, "Source type to convert from cannot be null");
+		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		return new ConverterHandle(sourceType, targetType);
+	}
+
+	/**
+	 * Obtain a reusable handle for conversions from the given source class to
+	 * the given target class. Handles for plain class pairs are cached within
+	 * this ConversionService, keyed by class identity.
+	 * @param sourceType the source type to convert from
+	 * @param targetType the target type to convert to
+	 * @return the (potentially shared) converter handle for the given class pair
+	 * @since 5.3.9
+	 * @see #getConverterHandle(TypeDescriptor, TypeDescriptor)
+	 */
+	public ConverterHandle getConverterHandle(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, ConverterHandle> handles = this.converterHandleCache.get(sourceType);
+		if (handles == null) {
+			handles = new ConcurrentReferenceHashMap<>(16);
+			Map<Class<?>, ConverterHandle> existing = this.converterHandleCache.putIfAbsent(sourceType, handles);
+			if (existing != null) {
+				handles = existing;
+			}
+		}
+		ConverterHandle handle = handles.get(targetType);
+		if (handle == null) {
+			handle = getConverterHandle(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
+			handles.put(targetType, handle);
+		}
+		return handle;
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -322,8 +382,34 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Determine whether the given public method is declared by this class itself,
+	 * i.e. not overridden in a subclass which may customize its behavior.
+	 */
+	private boolean isNotOverridden(String methodName, Class<?>... parameterTypes) {
+		Method method = ClassUtils.getMethodIfAvailable(getClass(), methodName, parameterTypes);
+		return (method != null && method.getDeclaringClass() == GenericConversionService.class);
+	}
+
 	private void invalidateCache() {
+		this.cacheGeneration.incrementAndGet();
 		this.converterCache.clear();
+		this.converterHandleCache.clear();
+	}
+
+	@Nullable
+	private Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType,
+			@Nullable GenericConverter converter) {
+
+		// <4> 如果 converter 非空，则进行转换，然后再处理结果
+		if (converter != null) {
+			// <4.1> 执行转换
+			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
+			// <4.2> 处理器结果
+			return handleResult(sourceType, targetType, result);
+		}
+		// <5> 处理 converter 为空的情况
+		return handleConverterNotFound(source, sourceType, targetType);
 	}
 
 	@Nullable
@@ -360,6 +446,101 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Reusable handle for conversions between a specific source type and target
+	 * type, obtained through {@link #getConverterHandle}. The underlying converter
+	 * is resolved on first use and re-resolved after registry changes only.
+	 * @since 5.3.9
+	 */
+	public final class ConverterHandle {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		@Nullable
+		private volatile ResolvedConverter resolvedConverter;
+
+		private ConverterHandle(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+		}
+
+		/**
+		 * Return the source type that this handle converts from.
+		 */
+		public TypeDescriptor getSourceType() {
+			return this.sourceType;
+		}
+
+		/**
+		 * Return the target type that this handle converts to.
+		 */
+		public TypeDescriptor getTargetType() {
+			return this.targetType;
+		}
+
+		/**
+		 * Return whether a converter is available for this handle's type pair.
+		 * @see GenericConversionService#canConvert(TypeDescriptor, TypeDescriptor)
+		 */
+		public boolean canConvert() {
+			return (getConverter() != null);
+		}
+
+		/**
+		 * Convert the given source object to this handle's target type,
+		 * with the same semantics as {@link GenericConversionService#convert(Object, TypeDescriptor, TypeDescriptor)}.
+		 * @param source the source object to convert (may be {@code null})
+		 * @return the converted object
+		 * @throws ConversionException if a conversion exception occurred
+		 * @throws IllegalArgumentException if the source object is not an instance of the source type
+		 */
+		@Nullable
+		public Object convert(@Nullable Object source) {
+			if (source != null && !this.sourceType.getObjectType().isInstance(source)) {
+				throw new IllegalArgumentException("Source to convert from must be an instance of [" +
+						this.sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
+			}
+			return GenericConversionService.this.convert(source, this.sourceType, this.targetType, getConverter());
+		}
+
+		@Nullable
+		private GenericConverter getConverter() {
+			ResolvedConverter resolved = this.resolvedConverter;
+			int generation = cacheGeneration.get();
+			if (resolved == null || resolved.generation != generation) {
+				resolved = new ResolvedConverter(
+						GenericConversionService.this.getConverter(this.sourceType, this.targetType), generation);
+				this.resolvedConverter = resolved;
+			}
+			return resolved.converter;
+		}
+
+		@Override
+		public String toString() {
+			return "ConverterHandle [" + this.sourceType + " -> " + this.targetType + "]";
+		}
+	}
+
+
+	/**
+	 * A converter resolved for a specific cache generation.
+	 */
+	private static final class ResolvedConverter {
+
+		@Nullable
+		final GenericConverter converter;
+
+		final int generation;
+
+		ResolvedConverter(@Nullable GenericConverter converter, int generation) {
+			this.converter = converter;
+			this.generation = generation;
+		}
+	}
+
+
 	/**
 	 * Adapts a {@link Converter} to a {@link GenericConverter}.
 	 */
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.timeline;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Immutable snapshot of the steps recorded by a {@link TimelineApplicationStartup},
+ * with analysis of the critical path and of the self time per step and per bean.
+ *
+ * <p>Can be exported as JSON through {@link #writeJson} or in the Chrome trace
+ * event format through {@link #writeChromeTrace}, the latter for visualization
+ * in {@code chrome://tracing} or compatible trace viewers.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see TimelineApplicationStartup#getTimeline()
+ */
+public final class StartupTimeline {
+
+	/**
+	 * The tag which identifies the bean that a step applies to.
+	 */
+	private static final String BEAN_NAME_TAG = "beanName";
+
+
+	private final List<Step> steps;
+
+	private final long droppedStepCount;
+
+	private final Map<Long, Step> stepsById = new HashMap<>();
+
+	private final Map<Long, List<Step>> childrenById = new HashMap<>();
+
+	private final Map<Long, Long> selfTimeById = new HashMap<>();
+
+
+	StartupTimeline(List<Step> steps, long droppedStepCount) {
+		this.steps = Collections.unmodifiableList(steps);
+		this.droppedStepCount = droppedStepCount;
+		for (Step step : steps) {
+			this.stepsById.put(step.getId(), step);
+		}
+		for (Step step : steps) {
+			Long parentId = step.getParentId();
+			if (parentId != null && this.stepsById.containsKey(parentId)) {
+				this.childrenById.computeIfAbsent(parentId, id -> new ArrayList<>()).add(step);
+			}
+		}
+		for (Step step : steps) {
+			long childTime = 0;
+			for (Step child : getChildren(step)) {
+				childTime += child.durationNanos;
+			}
+			this.selfTimeById.put(step.getId(), Math.max(step.durationNanos - childTime, 0));
+		}
+	}
+
+
+	/**
+	 * Return all recorded steps which ended, in the order of their start.
+	 */
+	public List<Step> getSteps() {
+		return this.steps;
+	}
+
+	/**
+	 * Return the number of steps which were not recorded because the
+	 * capacity of the {@link TimelineApplicationStartup} was exceeded.
+	 */
+	public long getDroppedStepCount() {
+		return this.droppedStepCount;
+	}
+
+	/**
+	 * Return the direct child steps of the given step.
+	 * <p>Child steps are always recorded on the same thread as their parent.
+	 * @param step the parent step
+	 * @return the child steps, in the order of their start
+	 */
+	public List<Step> getChildren(Step step) {
+		List<Step> children = this.childrenById.get(step.getId());
+		return (children != null ? Collections.unmodifiableList(children) : Collections.emptyList());
+	}
+
+	/**
+	 * Return the time spent in the given step itself, excluding the time
+	 * spent in its child steps.
+	 * @param step the step to check
+	 * @return the self time of the step
+	 */
+	public Duration getSelfTime(Step step) {
+		Long selfTime = this.selfTimeById.get(step.getId());
+		return Duration.ofNanos(selfTime != null ? selfTime : step.durationNanos);
+	}
+
+	/**
+	 * Compute the critical path through the timeline: starting from the
+	 * top-level step which ended last, following the child step which ended
+	 * last at each level, since that is the step holding up its parent.
+	 * @return the steps on the critical path, from the top-level step down
+	 */
+	public List<Step> getCriticalPath() {
+		List<Step> path = new ArrayList<>();
+		Step current = latestEnding(getRootSteps());
+		while (current != null) {
+			path.add(current);
+			current = latestEnding(getChildren(current));
+		}
+		return path;
+	}
+
+	/**
+	 * Return the accumulated self time per bean, across all steps tagged with
+	 * a bean name (e.g. "spring.beans.instantiate"), in descending order.
+	 * <p>The self time of a bean excludes the time spent in creating any
+	 * of its dependencies, so this points at the beans which are expensive
+	 * to initialize by themselves.
+	 * @return a Map from bean name to accumulated self time
+	 */
+	public Map<String, Duration> getBeanSelfTimes() {
+		Map<String, Long> selfTimes = new HashMap<>();
+		for (Step step : this.steps) {
+			String beanName = step.getTags().get(BEAN_NAME_TAG);
+			if (beanName != null) {
+				selfTimes.merge(beanName, this.selfTimeById.get(step.getId()), Long::sum);
+			}
+		}
+		List<Map.Entry<String, Long>> entries = new ArrayList<>(selfTimes.entrySet());
+		entries.sort((entry1, entry2) -> Long.compare(entry2.getValue(), entry1.getValue()));
+		Map<String, Duration> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Long> entry : entries) {
+			result.put(entry.getKey(), Duration.ofNanos(entry.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 * Write this timeline as a JSON document, containing all steps with their
+	 * times in nanoseconds, the critical path as a list of step ids and the
+	 * accumulated self time per bean.
+	 * @param writer the writer to write to (not closed)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeJson(Writer writer) throws IOException {
+		writer.write("{\"droppedStepCount\":");
+		writer.write(Long.toString(this.droppedStepCount));
+		writer.write(",\"steps\":[");
+		for (int i = 0; i < this.steps.size(); i++) {
+			Step step = this.steps.get(i);
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write("{\"id\":");
+			writer.write(Long.toString(step.getId()));
+			if (step.getParentId() != null) {
+				writer.write(",\"parentId\":");
+				writer.write(step.getParentId().toString());
+			}
+			writer.write(",\"name\":");
+			writeJsonString(writer, step.getName());
+			writer.write(",\"thread\":");
+			writeJsonString(writer, step.getThreadName());
+			writer.write(",\"startNanos\":");
+			writer.write(Long.toString(step.startNanos));
+			writer.write(",\"durationNanos\":");
+			writer.write(Long.toString(step.durationNanos));
+			writer.write(",\"selfNanos\":");
+			writer.write(Long.toString(getSelfTime(step).toNanos()));
+			writer.write(",\"tags\":");
+			writeJsonObject(writer, step.getTags());
+			writer.write('}');
+		}
+		writer.write("],\"criticalPath\":[");
+		List<Step> criticalPath = getCriticalPath();
+		for (int i = 0; i < criticalPath.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(Long.toString(criticalPath.get(i).getId()));
+		}
+		writer.write("],\"beanSelfNanos\":{");
+		boolean first = true;
+		for (Map.Entry<String, Duration> entry : getBeanSelfTimes().entrySet()) {
+			if (!first) {
+				writer.write(',');
+			}
+			writeJsonString(writer, entry.getKey());
+			writer.write(':');
+			writer.write(Long.toString(entry.getValue().toNanos()));
+			first = false;
+		}
+		writer.write("}}");
+		writer.flush();
+	}
+
+	/**
+	 * Write this timeline in the Chrome trace event format, with each step
+	 * as a complete event on its recording thread, tags as event arguments
+	 * and the critical path flagged through a "criticalPath" argument.
+	 * @param writer the writer to write to (not closed)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeChromeTrace(Writer writer) throws IOException {
+		Map<Long, String> threadNames = new LinkedHashMap<>();
+		Set<Step> criticalPath = new HashSet<>(getCriticalPath());
+		writer.write("{\"traceEvents\":[");
+		boolean first = true;
+		for (Step step : this.steps) {
+			if (!first) {
+				writer.write(',');
+			}
+			writer.write("{\"name\":");
+			writeJsonString(writer, step.getName());
+			writer.write(",\"cat\":\"spring\",\"ph\":\"X\",\"ts\":");
+			writeMicros(writer, step.startNanos);
+			writer.write(",\"dur\":");
+			writeMicros(writer, step.durationNanos);
+			writer.write(",\"pid\":1,\"tid\":");
+			writer.write(Long.toString(step.getThreadId()));
+			Map<String, String> args = new LinkedHashMap<>(step.getTags());
+			args.put("id", Long.toString(step.getId()));
+			if (criticalPath.contains(step)) {
+				args.put("criticalPath", "true");
+			}
+			writer.write(",\"args\":");
+			writeJsonObject(writer, args);
+			writer.write('}');
+			threadNames.putIfAbsent(step.getThreadId(), step.getThreadName());
+			first = false;
+		}
+		for (Map.Entry<Long, String> entry : threadNames.entrySet()) {
+			if (!first) {
+				writer.write(',');
+			}
+			writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":");
+			writer.write(entry.getKey().toString());
+			writer.write(",\"args\":{\"name\":");
+			writeJsonString(writer, entry.getValue());
+			writer.write("}}");
+			first = false;
+		}
+		writer.write("],\"displayTimeUnit\":\"ms\"}");
+		writer.flush();
+	}
+
+	@Override
+	public String toString() {
+		return "StartupTimeline with " + this.steps.size() + " steps (" + this.droppedStepCount + " dropped)";
+	}
+
+
+	private List<Step> getRootSteps() {
+		List<Step> roots = new ArrayList<>();
+		for (Step step : this.steps) {
+			Long parentId = step.getParentId();
+			if (parentId == null || !this.stepsById.containsKey(parentId)) {
+				roots.add(step);
+			}
+		}
+		return roots;
+	}
+
+	@Nullable
+	private static Step latestEnding(List<Step> steps) {
+		Step latest = null;
+		for (Step step : steps) {
+			if (latest == null || step.getEndNanos() > latest.getEndNanos()) {
+				latest = step;
+			}
+		}
+		return latest;
+	}
+
+	private static void writeMicros(Writer writer, long nanos) throws IOException {
+		writer.write(Long.toString(nanos / 1000));
+		writer.write('.');
+		String fraction = Long.toString(nanos % 1000);
+		for (int i = fraction.length(); i < 3; i++) {
+			writer.write('0');
+		}
+		writer.write(fraction);
+	}
+
+	private static void writeJsonObject(Writer writer, Map<String, String> map) throws IOException {
+		writer.write('{');
+		boolean first = true;
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			if (!first) {
+				writer.write(',');
+			}
+			writeJsonString(writer, entry.getKey());
+			writer.write(':');
+			writeJsonString(writer, entry.getValue());
+			first = false;
+		}
+		writer.write('}');
+	}
+
+	private static void writeJsonString(Writer writer, String value) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					writer.write("\\\"");
+					break;
+				case '\\':
+					writer.write("\\\\");
+					break;
+				case '\n':
+					writer.write("\\n");
+					break;
+				case '\r':
+					writer.write("\\r");
+					break;
+				case '\t':
+					writer.write("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						writer.write(String.format("\\u%04x", (int) c));
+					}
+					else {
+						writer.write(c);
+					}
+			}
+		}
+		writer.write('"');
+	}
+
+
+	/**
+	 * A single step in the timeline.
+	 */
+	public static final class Step {
+
+		private final long id;
+
+		@Nullable
+		private final Long parentId;
+
+		private final String name;
+
+		private final long threadId;
+
+		private final String threadName;
+
+		private final long startNanos;
+
+		private final long durationNanos;
+
+		private final Map<String, String> tags;
+
+		Step(long id, @Nullable Long parentId, String name, long threadId, String threadName,
+				long startNanos, long durationNanos, Map<String, String> tags) {
+
+			this.id = id;
+			this.parentId = parentId;
+			this.name = name;
+			this.threadId = threadId;
+			this.threadName = threadName;
+			this.startNanos = startNanos;
+			this.durationNanos = durationNanos;
+			this.tags = Collections.unmodifiableMap(tags);
+		}
+
+		/**
+		 * Return the unique id of the step.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the parent step, if any.
+		 */
+		@Nullable
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the name of the step.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the id of the thread which recorded the step.
+		 */
+		public long getThreadId() {
+			return this.threadId;
+		}
+
+		/**
+		 * Return the name of the thread which recorded the step.
+		 */
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		/**
+		 * Return the start time of the step, relative to the start of the timeline.
+		 */
+		public Duration getStartTime() {
+			return Duration.ofNanos(this.startNanos);
+		}
+
+		/**
+		 * Return the duration of the step, including its child steps.
+		 */
+		public Duration getDuration() {
+			return Duration.ofNanos(this.durationNanos);
+		}
+
+		/**
+		 * Return the tags attached to the step.
+		 */
+		public Map<String, String> getTags() {
+			return this.tags;
+		}
+
+		long getEndNanos() {
+			return this.startNanos + this.durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " #" + this.id + " " + this.tags + " (" + this.durationNanos / 1000 + "us)";
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation which records a bounded timeline
+ * of {@link StartupStep steps} in memory, for analysis through a
+ * {@link StartupTimeline} snapshot.
+ * <p>Parent steps are tracked per thread, so that steps recorded by parallel
+ * initialization threads do not get attributed to unrelated parents. Once
+ * the configured capacity is reached, further steps are not recorded anymore
+ * but just counted as dropped.
+ * <p>A completion callback may be registered for receiving the timeline once
+ * the top-level completion step ends, by default the context refresh step:
+ * <pre class="code">
+ * TimelineApplicationStartup startup = new TimelineApplicationStartup(10000);
+ * startup.setCompletionCallback(timeline -&gt; timeline.writeChromeTrace(writer));
+ * context.setApplicationStartup(startup);
+ * </pre>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see StartupTimeline
+ */
+public class TimelineApplicationStartup implements ApplicationStartup {
+
+	/**
+	 * The default name of the completion step: {@code "spring.context.refresh"}.
+	 * @see #setCompletionStepName
+	 */
+	public static final String DEFAULT_COMPLETION_STEP_NAME = "spring.context.refresh";
+
+
+	private final AtomicReferenceArray<TimelineStartupStep> steps;
+
+	private final AtomicInteger stepCount = new AtomicInteger();
+
+	private final AtomicLong currentSequenceId = new AtomicLong();
+
+	private final ThreadLocal<TimelineStartupStep> currentStep = new ThreadLocal<>();
+
+	private final long startTime = System.nanoTime();
+
+	private String completionStepName = DEFAULT_COMPLETION_STEP_NAME;
+
+	@Nullable
+	private CompletionCallback completionCallback;
+
+
+	/**
+	 * Create a new {@code TimelineApplicationStartup} with the given capacity.
+	 * @param capacity the maximum number of steps to record
+	 */
+	public TimelineApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.steps = new AtomicReferenceArray<>(capacity);
+	}
+
+
+	/**
+	 * Specify the name of the top-level step which completes the timeline
+	 * for the purposes of the {@link #setCompletionCallback completion callback}.
+	 * <p>Default is {@link #DEFAULT_COMPLETION_STEP_NAME}.
+	 */
+	public void setCompletionStepName(String completionStepName) {
+		Assert.hasText(completionStepName, "Completion step name must not be empty");
+		this.completionStepName = completionStepName;
+	}
+
+	/**
+	 * Specify a callback to receive the timeline whenever a top-level step
+	 * with the {@link #setCompletionStepName completion step name} ends,
+	 * e.g. for writing it to a file at the end of a context refresh.
+	 * <p>Any exception thrown from the callback propagates to the caller
+	 * which ended the step, wrapped in an {@link IllegalStateException}
+	 * if it is a checked exception.
+	 */
+	public void setCompletionCallback(@Nullable CompletionCallback completionCallback) {
+		this.completionCallback = completionCallback;
+	}
+
+	/**
+	 * Return the maximum number of steps to record.
+	 */
+	public int getCapacity() {
+		return this.steps.length();
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		long id = this.currentSequenceId.incrementAndGet();
+		TimelineStartupStep parent = this.currentStep.get();
+		TimelineStartupStep step = new TimelineStartupStep(
+				id, name, parent, System.nanoTime() - this.startTime, this::stepEnded);
+		this.currentStep.set(step);
+		int index = this.stepCount.getAndIncrement();
+		if (index < this.steps.length()) {
+			this.steps.set(index, step);
+		}
+		return step;
+	}
+
+	private void stepEnded(TimelineStartupStep step) {
+		step.setEndTime(System.nanoTime() - this.startTime);
+		if (this.currentStep.get() == step) {
+			TimelineStartupStep parent = step.getParent();
+			if (parent != null) {
+				this.currentStep.set(parent);
+			}
+			else {
+				this.currentStep.remove();
+			}
+		}
+		CompletionCallback callback = this.completionCallback;
+		if (callback != null && step.getParent() == null && this.completionStepName.equals(step.getName())) {
+			try {
+				callback.timelineCompleted(getTimeline());
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("Startup timeline completion callback failed", ex);
+			}
+		}
+	}
+
+	/**
+	 * Obtain a snapshot of the timeline recorded so far, containing all
+	 * recorded steps which have ended already.
+	 */
+	public StartupTimeline getTimeline() {
+		int count = this.stepCount.get();
+		int recorded = Math.min(count, this.steps.length());
+		List<StartupTimeline.Step> endedSteps = new ArrayList<>(recorded);
+		for (int i = 0; i < recorded; i++) {
+			TimelineStartupStep step = this.steps.get(i);
+			if (step != null && step.isEnded()) {
+				endedSteps.add(step.toTimelineStep());
+			}
+		}
+		return new StartupTimeline(endedSteps, Math.max(count - this.steps.length(), 0));
+	}
+
+
+	/**
+	 * Callback interface for receiving a completed {@link StartupTimeline}.
+	 * @see #setCompletionCallback
+	 */
+	@FunctionalInterface
+	public interface CompletionCallback {
+
+		/**
+		 * Process the given timeline, e.g. writing it to a file.
+		 * @param timeline the timeline recorded up until the end of the completion step
+		 * @throws Exception in case of processing errors
+		 */
+		void timelineCompleted(StartupTimeline timeline) throws Exception;
+	}
+
+}
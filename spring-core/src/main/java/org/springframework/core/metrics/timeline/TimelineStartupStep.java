@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.timeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link StartupStep} implementation for the {@link TimelineApplicationStartup}.
+ * <p>Records the start and end time relative to the start of the timeline,
+ * the recording thread and the tags attached to the step.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ */
+class TimelineStartupStep implements StartupStep {
+
+	private final long id;
+
+	private final String name;
+
+	@Nullable
+	private final TimelineStartupStep parent;
+
+	private final long startTime;
+
+	private final Thread thread;
+
+	private final Consumer<TimelineStartupStep> endCallback;
+
+	private final TimelineTags tags = new TimelineTags();
+
+	private volatile long endTime = -1;
+
+
+	TimelineStartupStep(long id, String name, @Nullable TimelineStartupStep parent, long startTime,
+			Consumer<TimelineStartupStep> endCallback) {
+
+		this.id = id;
+		this.name = name;
+		this.parent = parent;
+		this.startTime = startTime;
+		this.thread = Thread.currentThread();
+		this.endCallback = endCallback;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public long getId() {
+		return this.id;
+	}
+
+	@Override
+	@Nullable
+	public Long getParentId() {
+		return (this.parent != null ? this.parent.id : null);
+	}
+
+	@Nullable
+	TimelineStartupStep getParent() {
+		return this.parent;
+	}
+
+	@Override
+	public StartupStep tag(String key, String value) {
+		this.tags.add(key, value);
+		return this;
+	}
+
+	@Override
+	public StartupStep tag(String key, Supplier<String> value) {
+		this.tags.add(key, value.get());
+		return this;
+	}
+
+	@Override
+	public Tags getTags() {
+		return this.tags;
+	}
+
+	@Override
+	public void end() {
+		if (this.endTime < 0) {
+			this.endCallback.accept(this);
+		}
+	}
+
+	void setEndTime(long endTime) {
+		this.endTime = endTime;
+	}
+
+	boolean isEnded() {
+		return (this.endTime >= 0);
+	}
+
+	StartupTimeline.Step toTimelineStep() {
+		Map<String, String> tagMap = new LinkedHashMap<>();
+		for (Tag tag : this.tags) {
+			tagMap.put(tag.getKey(), tag.getValue());
+		}
+		return new StartupTimeline.Step(this.id, getParentId(), this.name, this.thread.getId(),
+				this.thread.getName(), this.startTime, this.endTime - this.startTime, tagMap);
+	}
+
+
+	static class TimelineTags implements Tags {
+
+		private final List<Tag> tags = new ArrayList<>(2);
+
+		void add(String key, String value) {
+			this.tags.add(new TimelineTag(key, value));
+		}
+
+		@Override
+		public Iterator<Tag> iterator() {
+			return Collections.unmodifiableList(this.tags).iterator();
+		}
+	}
+
+
+	static class TimelineTag implements Tag {
+
+		private final String key;
+
+		private final String value;
+
+		TimelineTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+	}
+
+}
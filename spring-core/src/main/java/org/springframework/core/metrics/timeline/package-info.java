@@ -0,0 +1,10 @@
+/**
+ * Support package for recording a startup timeline, with critical path
+ * analysis and export to JSON or Chrome trace format.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.metrics.timeline;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
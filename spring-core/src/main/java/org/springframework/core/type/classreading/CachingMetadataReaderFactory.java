@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -44,6 +46,10 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** Persistent cache for metadata across JVM restarts, if any. */
+	@Nullable
+	private PersistentMetadataReaderCache persistentCache = PersistentMetadataReaderCache.getSharedInstance();
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -113,6 +119,27 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	/**
+	 * Specify a {@link PersistentMetadataReaderCache} to consult before parsing a
+	 * class file, and to record freshly parsed metadata in.
+	 * <p>Default is the shared instance as configured through the
+	 * {@value PersistentMetadataReaderCache#CACHE_FILE_PROPERTY_NAME} property, if any.
+	 * @since 5.3.9
+	 * @see PersistentMetadataReaderCache#getSharedInstance()
+	 */
+	public void setPersistentCache(@Nullable PersistentMetadataReaderCache persistentCache) {
+		this.persistentCache = persistentCache;
+	}
+
+	/**
+	 * Return the {@link PersistentMetadataReaderCache} used by this factory, if any.
+	 * @since 5.3.9
+	 */
+	@Nullable
+	public PersistentMetadataReaderCache getPersistentCache() {
+		return this.persistentCache;
+	}
+
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
@@ -120,28 +147,70 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = readMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
+			MetadataReader metadataReader;
 			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+				metadataReader = this.metadataReaderCache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Parse outside of the lock, allowing for concurrent reads of different
+				// class files (e.g. parallel classpath scanning); a concurrently parsed
+				// duplicate for the same resource is harmless.
+				metadataReader = readMetadataReader(resource);
+				synchronized (this.metadataReaderCache) {
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
+			return readMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader readMetadataReader(Resource resource) throws IOException {
+		PersistentMetadataReaderCache persistentCache = this.persistentCache;
+		if (persistentCache == null) {
 			return super.getMetadataReader(resource);
 		}
+		MetadataReader metadataReader =
+				persistentCache.getMetadataReader(resource, getResourceLoader().getClassLoader());
+		if (metadataReader == null) {
+			metadataReader = super.getMetadataReader(resource);
+			persistentCache.put(resource, metadataReader);
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Save the {@link #setPersistentCache persistent cache}, if any, recording
+	 * the metadata read so far. To be called at a well-defined point in the
+	 * lifecycle of the caller, e.g. at the end of configuration class processing.
+	 * <p>Failures are logged rather than propagated since the persistent cache
+	 * is an optimization only.
+	 * @since 5.3.9
+	 * @see PersistentMetadataReaderCache#save()
+	 */
+	public void savePersistentCache() {
+		PersistentMetadataReaderCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			try {
+				persistentCache.save();
+			}
+			catch (IOException ex) {
+				LogFactory.getLog(getClass()).debug("Failed to save persistent metadata cache", ex);
+			}
+		}
 	}
 
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * <p>A {@link #setPersistentCache persistent cache} is not affected.
 	 */
 	public void clearCache() {
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
@@ -0,0 +1,775 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Persistent cache for the class metadata read by a {@link CachingMetadataReaderFactory},
+ * avoiding repeated ASM parsing of unchanged class files across JVM restarts.
+ *
+ * <p>Each entry is keyed by the URL of the class file and stamped with the size and
+ * last-modified timestamp of the file that contains it: the jar file for classes read
+ * from an archive, or the class file itself for classes in a directory. An existing
+ * cache file is read into memory on creation; entries are decoded and validated lazily
+ * on first access, with stale entries being discarded. Freshly read metadata is added
+ * incrementally and written out on an explicit {@link #save()} call only, replacing
+ * the cache file through a temporary file.
+ *
+ * <p>Annotations are stored with their non-default attribute values only; default
+ * values are resolved against the annotation type when an entry is decoded.
+ *
+ * <p>Only class files with a {@code file:} based location (directly or as the
+ * archive of a {@code jar:} URL) are cached. Annotation and enum types are resolved
+ * against the current ClassLoader when an entry is decoded; if that fails, the entry
+ * is treated as a cache miss and the class file is parsed again.
+ *
+ * <p>A JVM-wide shared instance can be activated through the
+ * {@value #CACHE_FILE_PROPERTY_NAME} system property (or Spring property),
+ * pointing to the cache file to use.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @see CachingMetadataReaderFactory#setPersistentCache
+ */
+public class PersistentMetadataReaderCache {
+
+	/**
+	 * System property that instructs Spring to use a shared persistent metadata
+	 * cache at the given file location: e.g. "-Dspring.metadata-cache.file=...".
+	 * @see #getSharedInstance()
+	 */
+	public static final String CACHE_FILE_PROPERTY_NAME = "spring.metadata-cache.file";
+
+	private static final int MAGIC = 0x53504D43;
+
+	private static final int VERSION = 2;
+
+	private static final byte TAG_STRING = 1;
+
+	private static final byte TAG_BOOLEAN = 2;
+
+	private static final byte TAG_BYTE = 3;
+
+	private static final byte TAG_CHAR = 4;
+
+	private static final byte TAG_SHORT = 5;
+
+	private static final byte TAG_INT = 6;
+
+	private static final byte TAG_LONG = 7;
+
+	private static final byte TAG_FLOAT = 8;
+
+	private static final byte TAG_DOUBLE = 9;
+
+	private static final byte TAG_ENUM = 10;
+
+	private static final byte TAG_ANNOTATION = 11;
+
+	private static final byte TAG_ARRAY = 12;
+
+	private static final byte TAG_PRIMITIVE_ARRAY = 13;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataReaderCache.class);
+
+	@Nullable
+	private static volatile PersistentMetadataReaderCache sharedInstance;
+
+
+	private final File cacheFile;
+
+	@Nullable
+	private final ByteBuffer loadedContent;
+
+	private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>(256);
+
+	private final Map<String, long[]> archiveStamps = new ConcurrentHashMap<>(64);
+
+	private volatile boolean dirty;
+
+
+	/**
+	 * Create a new PersistentMetadataReaderCache for the given file,
+	 * loading its index if the file exists already.
+	 * @param cacheFile the file to load the cache from and to save it to
+	 */
+	public PersistentMetadataReaderCache(File cacheFile) {
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile;
+		this.loadedContent = load(cacheFile, this.entries);
+	}
+
+
+	/**
+	 * Return the cache file that this cache has been created for.
+	 */
+	public final File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	/**
+	 * Return the number of entries currently known to this cache,
+	 * including loaded entries that have not been validated yet.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return whether this cache has changes that have not been saved yet.
+	 */
+	public boolean isDirty() {
+		return this.dirty;
+	}
+
+	/**
+	 * Obtain a MetadataReader for the given class file resource from this cache.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation and enum types against
+	 * @return the cached MetadataReader, or {@code null} if none is cached or
+	 * if the cached entry is out of date
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) {
+		String key = getKey(resource);
+		if (key == null) {
+			return null;
+		}
+		CacheEntry entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		long[] stamp = getStamp(resource);
+		if (stamp == null || stamp[0] != entry.length || stamp[1] != entry.lastModified) {
+			if (this.entries.remove(key, entry)) {
+				this.dirty = true;
+			}
+			return null;
+		}
+		try {
+			AnnotationMetadata metadata = readClass(
+					new DataInputStream(new ByteArrayInputStream(getPayload(entry))), classLoader);
+			return new SimpleMetadataReader(resource, metadata);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring persistent metadata cache entry for " + resource + ": " + ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Add the given MetadataReader to this cache, to be written on {@link #save()}.
+	 * <p>MetadataReaders that have not been created by a {@link SimpleMetadataReaderFactory}
+	 * or that are not stored at a cacheable location are silently ignored.
+	 * @param resource the class file resource
+	 * @param metadataReader the MetadataReader for the given resource
+	 */
+	public void put(Resource resource, MetadataReader metadataReader) {
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		if (!(metadata instanceof SimpleAnnotationMetadata)) {
+			return;
+		}
+		String key = getKey(resource);
+		long[] stamp = (key != null ? getStamp(resource) : null);
+		if (key == null || stamp == null) {
+			return;
+		}
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+			writeClass(new DataOutputStream(bos), (SimpleAnnotationMetadata) metadata);
+			this.entries.put(key, new CacheEntry(stamp[0], stamp[1], bos.toByteArray()));
+			this.dirty = true;
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Not caching metadata for " + resource + ": " + ex);
+			}
+		}
+	}
+
+	/**
+	 * Write all valid entries of this cache to the cache file, if there are changes.
+	 * <p>The entries are written to a temporary file in the same directory first,
+	 * which then replaces the cache file (atomically where supported by the file
+	 * system). The cache file is not held open in between, so it may be replaced
+	 * while this cache is in use.
+	 * @throws IOException if the cache file could not be written
+	 */
+	public synchronized void save() throws IOException {
+		if (!this.dirty) {
+			return;
+		}
+		this.dirty = false;
+		Map<String, CacheEntry> entriesToWrite = new TreeMap<>(this.entries);
+		File parent = this.cacheFile.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		Path target = this.cacheFile.toPath();
+		Path tempFile = Files.createTempFile(
+				(parent != null ? parent.toPath() : target.toAbsolutePath().getParent()), "metadata", ".tmp");
+		try {
+			try (DataOutputStream dos = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				dos.writeInt(MAGIC);
+				dos.writeInt(VERSION);
+				dos.writeInt(entriesToWrite.size());
+				for (Map.Entry<String, CacheEntry> entry : entriesToWrite.entrySet()) {
+					CacheEntry cacheEntry = entry.getValue();
+					byte[] payload = getPayload(cacheEntry);
+					dos.writeUTF(entry.getKey());
+					dos.writeLong(cacheEntry.length);
+					dos.writeLong(cacheEntry.lastModified);
+					dos.writeInt(payload.length);
+					dos.write(payload);
+				}
+			}
+			try {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException ex) {
+			this.dirty = true;
+			Files.deleteIfExists(tempFile);
+			throw ex;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Saved " + entriesToWrite.size() + " metadata cache entries to " + this.cacheFile);
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache. The cache file itself is only
+	 * affected on the next {@link #save()}.
+	 */
+	public void clear() {
+		this.entries.clear();
+		this.archiveStamps.clear();
+		this.dirty = true;
+	}
+
+
+	private byte[] getPayload(CacheEntry entry) {
+		if (entry.payload != null) {
+			return entry.payload;
+		}
+		Assert.state(this.loadedContent != null, "No loaded cache content");
+		ByteBuffer buffer = this.loadedContent.duplicate();
+		buffer.position(entry.offset);
+		byte[] payload = new byte[entry.size];
+		buffer.get(payload);
+		return payload;
+	}
+
+	@Nullable
+	private String getKey(Resource resource) {
+		try {
+			return resource.getURL().toExternalForm();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private long[] getStamp(Resource resource) {
+		try {
+			URL url = resource.getURL();
+			if (ResourceUtils.isJarURL(url)) {
+				URL archiveUrl = ResourceUtils.extractArchiveURL(url);
+				if (!ResourceUtils.isFileURL(archiveUrl)) {
+					return null;
+				}
+				String archiveKey = archiveUrl.toExternalForm();
+				long[] stamp = this.archiveStamps.get(archiveKey);
+				if (stamp == null) {
+					stamp = getFileStamp(ResourceUtils.getFile(archiveUrl));
+					if (stamp != null) {
+						this.archiveStamps.put(archiveKey, stamp);
+					}
+				}
+				return stamp;
+			}
+			else if (ResourceUtils.isFileURL(url)) {
+				return getFileStamp(ResourceUtils.getFile(url));
+			}
+			return null;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private static long[] getFileStamp(File file) {
+		long lastModified = file.lastModified();
+		return (lastModified != 0 ? new long[] {file.length(), lastModified} : null);
+	}
+
+
+	@Nullable
+	private static ByteBuffer load(File cacheFile, Map<String, CacheEntry> entries) {
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+			DataInputStream dis = new DataInputStream(new ByteBufferInputStream(buffer));
+			if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring incompatible metadata cache file " + cacheFile);
+				}
+				return null;
+			}
+			int count = dis.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = dis.readUTF();
+				long length = dis.readLong();
+				long lastModified = dis.readLong();
+				int size = dis.readInt();
+				entries.put(key, new CacheEntry(length, lastModified, buffer.position(), size));
+				dis.skipBytes(size);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " metadata cache entries from " + cacheFile);
+			}
+			return buffer;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable metadata cache file " + cacheFile + ": " + ex);
+			}
+			entries.clear();
+			return null;
+		}
+	}
+
+
+	private static void writeClass(DataOutput out, SimpleAnnotationMetadata metadata) throws IOException {
+		out.writeUTF(metadata.getClassName());
+		out.writeInt(metadata.getAccess());
+		writeNullableString(out, metadata.getEnclosingClassName());
+		writeNullableString(out, metadata.getSuperClassName());
+		out.writeBoolean(metadata.isIndependentInnerClass());
+		writeStrings(out, metadata.getInterfaceNames());
+		writeStrings(out, metadata.getMemberClassNames());
+		writeAnnotations(out, metadata.getAnnotations());
+		MethodMetadata[] annotatedMethods = metadata.getAllAnnotatedMethods();
+		out.writeInt(annotatedMethods.length);
+		for (MethodMetadata annotatedMethod : annotatedMethods) {
+			SimpleMethodMetadata methodMetadata = (SimpleMethodMetadata) annotatedMethod;
+			SimpleMethodMetadataReadingVisitor.Source source =
+					(SimpleMethodMetadataReadingVisitor.Source) methodMetadata.getSource();
+			out.writeUTF(methodMetadata.getMethodName());
+			out.writeInt(methodMetadata.getAccess());
+			out.writeUTF(methodMetadata.getDeclaringClassName());
+			out.writeUTF(methodMetadata.getReturnTypeName());
+			out.writeUTF(source.getDescriptor());
+			writeAnnotations(out, methodMetadata.getAnnotations());
+		}
+	}
+
+	private static AnnotationMetadata readClass(DataInput in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStrings(in);
+		String[] memberClassNames = readStrings(in);
+		MergedAnnotations annotations = readAnnotations(
+				in, classLoader, new SimpleAnnotationMetadataReadingVisitor.Source(className));
+		int methodCount = in.readInt();
+		MethodMetadata[] annotatedMethods = new MethodMetadata[methodCount];
+		for (int i = 0; i < methodCount; i++) {
+			String methodName = in.readUTF();
+			int methodAccess = in.readInt();
+			String declaringClassName = in.readUTF();
+			String returnTypeName = in.readUTF();
+			String descriptor = in.readUTF();
+			Object source = new SimpleMethodMetadataReadingVisitor.Source(declaringClassName, methodName, descriptor);
+			annotatedMethods[i] = new SimpleMethodMetadata(methodName, methodAccess, declaringClassName,
+					returnTypeName, source, readAnnotations(in, classLoader, source));
+		}
+		return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+	}
+
+	private static void writeAnnotations(DataOutput out, MergedAnnotations annotations) throws IOException {
+		List<MergedAnnotation<Annotation>> directAnnotations = new ArrayList<>();
+		annotations.stream().filter(MergedAnnotation::isDirectlyPresent).forEach(directAnnotations::add);
+		out.writeInt(directAnnotations.size());
+		for (MergedAnnotation<Annotation> annotation : directAnnotations) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private static MergedAnnotations readAnnotations(DataInput in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		int count = in.readInt();
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation(in, classLoader, source));
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	private static void writeAnnotation(DataOutput out, MergedAnnotation<?> annotation) throws IOException {
+		// Only attributes with non-default values, as declared in the class file
+		AnnotationAttributes attributes = annotation.filterDefaultValues().asAnnotationAttributes(
+				Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP);
+		out.writeUTF(annotation.getType().getName());
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			String name = entry.getKey();
+			Object value = entry.getValue();
+			out.writeUTF(name);
+			if (value instanceof AnnotationAttributes) {
+				out.writeByte(TAG_ANNOTATION);
+				writeAnnotation(out, annotation.getAnnotation(name, getAnnotationType((AnnotationAttributes) value)));
+			}
+			else if (value instanceof AnnotationAttributes[]) {
+				AnnotationAttributes[] array = (AnnotationAttributes[]) value;
+				MergedAnnotation<?>[] nestedAnnotations = (array.length > 0 ?
+						annotation.getAnnotationArray(name, getAnnotationType(array[0])) : new MergedAnnotation<?>[0]);
+				out.writeByte(TAG_ARRAY);
+				out.writeInt(nestedAnnotations.length);
+				for (MergedAnnotation<?> nestedAnnotation : nestedAnnotations) {
+					out.writeByte(TAG_ANNOTATION);
+					writeAnnotation(out, nestedAnnotation);
+				}
+			}
+			else {
+				writeValue(out, value);
+			}
+		}
+	}
+
+	private static Class<? extends Annotation> getAnnotationType(AnnotationAttributes attributes) {
+		Class<? extends Annotation> annotationType = attributes.annotationType();
+		Assert.state(annotationType != null, "No annotation type");
+		return annotationType;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MergedAnnotation<?> readAnnotation(DataInput in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		Class<Annotation> annotationType = (Class<Annotation>) ClassUtils.forName(in.readUTF(), classLoader);
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			attributes.put(name, readValue(in, classLoader, source));
+		}
+		return MergedAnnotation.of(classLoader, source, annotationType, attributes);
+	}
+
+	private static void writeValue(DataOutput out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(TAG_BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte(TAG_CHAR);
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(TAG_SHORT);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(TAG_INT);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Enum) {
+			out.writeByte(TAG_ENUM);
+			out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+			out.writeUTF(((Enum<?>) value).name());
+		}
+		else if (value instanceof Object[]) {
+			Object[] array = (Object[]) value;
+			out.writeByte(TAG_ARRAY);
+			out.writeInt(array.length);
+			for (Object element : array) {
+				writeValue(out, element);
+			}
+		}
+		else if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			out.writeByte(TAG_PRIMITIVE_ARRAY);
+			out.writeUTF(value.getClass().getComponentType().getName());
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, Array.get(value, i));
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation attribute value: " + value);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readValue(DataInput in, @Nullable ClassLoader classLoader, Object source)
+			throws IOException, ClassNotFoundException {
+
+		byte tag = in.readByte();
+		switch (tag) {
+			case TAG_STRING:
+				return in.readUTF();
+			case TAG_BOOLEAN:
+				return in.readBoolean();
+			case TAG_BYTE:
+				return in.readByte();
+			case TAG_CHAR:
+				return in.readChar();
+			case TAG_SHORT:
+				return in.readShort();
+			case TAG_INT:
+				return in.readInt();
+			case TAG_LONG:
+				return in.readLong();
+			case TAG_FLOAT:
+				return in.readFloat();
+			case TAG_DOUBLE:
+				return in.readDouble();
+			case TAG_ENUM:
+				Class<? extends Enum> enumType = (Class<? extends Enum>) ClassUtils.forName(in.readUTF(), classLoader);
+				return Enum.valueOf(enumType, in.readUTF());
+			case TAG_ANNOTATION:
+				return readAnnotation(in, classLoader, source);
+			case TAG_ARRAY:
+				// Same array types as produced by MergedAnnotationReadingVisitor.ArrayVisitor
+				int length = in.readInt();
+				List<Object> elements = new ArrayList<>(length);
+				for (int i = 0; i < length; i++) {
+					elements.add(readValue(in, classLoader, source));
+				}
+				Class<?> componentType = Object.class;
+				if (!elements.isEmpty()) {
+					Object firstElement = elements.get(0);
+					componentType = (firstElement instanceof Enum ?
+							((Enum<?>) firstElement).getDeclaringClass() : firstElement.getClass());
+				}
+				return elements.toArray((Object[]) Array.newInstance(componentType, length));
+			case TAG_PRIMITIVE_ARRAY:
+				Class<?> primitiveType = ClassUtils.resolvePrimitiveClassName(in.readUTF());
+				Assert.state(primitiveType != null, "Invalid primitive array type");
+				int primitiveLength = in.readInt();
+				Object array = Array.newInstance(primitiveType, primitiveLength);
+				for (int i = 0; i < primitiveLength; i++) {
+					Array.set(array, i, readValue(in, classLoader, source));
+				}
+				return array;
+			default:
+				throw new IOException("Invalid attribute value tag: " + tag);
+		}
+	}
+
+	private static void writeNullableString(DataOutput out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInput in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStrings(DataOutput out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInput in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	/**
+	 * Return the shared cache instance for the file specified through the
+	 * {@value #CACHE_FILE_PROPERTY_NAME} property, if any. Like any other
+	 * instance, the shared cache is only written on explicit {@link #save()}
+	 * calls, e.g. through {@link CachingMetadataReaderFactory#savePersistentCache()}.
+	 * @return the shared cache, or {@code null} if not configured
+	 */
+	@Nullable
+	public static PersistentMetadataReaderCache getSharedInstance() {
+		PersistentMetadataReaderCache cache = sharedInstance;
+		if (cache == null) {
+			String location = SpringProperties.getProperty(CACHE_FILE_PROPERTY_NAME);
+			if (location == null || location.isEmpty()) {
+				return null;
+			}
+			synchronized (PersistentMetadataReaderCache.class) {
+				cache = sharedInstance;
+				if (cache == null) {
+					cache = new PersistentMetadataReaderCache(new File(location));
+					sharedInstance = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+
+	/**
+	 * Cache entry, either pointing into the loaded cache file content or
+	 * holding a freshly encoded payload.
+	 */
+	private static final class CacheEntry {
+
+		final long length;
+
+		final long lastModified;
+
+		final int offset;
+
+		final int size;
+
+		@Nullable
+		final byte[] payload;
+
+		CacheEntry(long length, long lastModified, int offset, int size) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.offset = offset;
+			this.size = size;
+			this.payload = null;
+		}
+
+		CacheEntry(long length, long lastModified, byte[] payload) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.offset = -1;
+			this.size = payload.length;
+			this.payload = payload;
+		}
+	}
+
+
+	/**
+	 * {@link InputStream} reading from the current position of a {@link ByteBuffer}.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, this.buffer.remaining());
+			this.buffer.get(bytes, off, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) {
+			int count = (int) Math.min(n, this.buffer.remaining());
+			this.buffer.position(this.buffer.position() + count);
+			return count;
+		}
+	}
+
+}
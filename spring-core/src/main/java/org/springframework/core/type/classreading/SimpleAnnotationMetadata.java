@@ -152,6 +152,18 @@ final class SimpleAnnotationMetadata implements AnnotationMetadata {
 		return annotatedMethods != null ? annotatedMethods : Collections.emptySet();
 	}
 
+	int getAccess() {
+		return this.access;
+	}
+
+	boolean isIndependentInnerClass() {
+		return this.independentInnerClass;
+	}
+
+	MethodMetadata[] getAllAnnotatedMethods() {
+		return this.annotatedMethods;
+	}
+
 	@Override
 	public MergedAnnotations getAnnotations() {
 		return this.annotations;
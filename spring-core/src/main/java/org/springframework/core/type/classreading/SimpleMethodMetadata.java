@@ -95,6 +95,14 @@ final class SimpleMethodMetadata implements MethodMetadata {
 		return (this.access & Opcodes.ACC_PRIVATE) != 0;
 	}
 
+	int getAccess() {
+		return this.access;
+	}
+
+	Object getSource() {
+		return this.source;
+	}
+
 	@Override
 	public MergedAnnotations getAnnotations() {
 		return this.annotations;
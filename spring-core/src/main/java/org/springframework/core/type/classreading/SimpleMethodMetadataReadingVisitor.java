@@ -117,6 +117,10 @@ final class SimpleMethodMetadataReadingVisitor extends MethodVisitor {
 			this.descriptor = descriptor;
 		}
 
+		String getDescriptor() {
+			return this.descriptor;
+		}
+
 		@Override
 		public int hashCode() {
 			int result = 1;
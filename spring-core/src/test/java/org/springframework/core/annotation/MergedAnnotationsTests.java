@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,33 @@ class MergedAnnotationsTests {
 			.withMessage("AnnotationFilter must not be null");
 	}
 
+	@Test
+	void fromElementWithDefaultSettingsReturnsSharedInstance() {
+		MergedAnnotations annotations = MergedAnnotations.from(
+				SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY))
+				.isSameAs(annotations);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.DIRECT))
+				.isNotSameAs(annotations);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY,
+				RepeatableContainers.standardRepeatables(), AnnotationFilter.NONE)).isNotSameAs(annotations);
+	}
+
+	@Test
+	void getFromSharedInstanceReusesResult() {
+		MergedAnnotations annotations = MergedAnnotations.from(
+				SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY);
+		MergedAnnotation<Transactional> annotation = annotations.get(Transactional.class);
+		assertThat(annotation.isPresent()).isTrue();
+		assertThat(annotations.get(Transactional.class)).isSameAs(annotation);
+		assertThat(annotations.get(Transactional.class.getName())).isSameAs(annotations.get(Transactional.class.getName()));
+		assertThat(annotations.get(Transactional.class).synthesize()).isSameAs(annotation.synthesize());
+		assertThat(annotations.get(Transactional.class, null, MergedAnnotationSelectors.firstDirectlyDeclared()))
+				.isNotSameAs(annotation);
+		assertThat(annotations.get(Transactional.class, MergedAnnotation::isDirectlyPresent).isPresent()).isFalse();
+		assertThat(annotations.get(Order.class).isPresent()).isFalse();
+	}
+
 	@Test
 	void streamWhenFromNonAnnotatedClass() {
 		assertThat(MergedAnnotations.from(NonAnnotatedClass.class).
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -576,6 +576,75 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void converterHandle() throws Exception {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+		assertThat(handle.canConvert()).isTrue();
+		assertThat(handle.convert("3")).isEqualTo(3);
+		assertThat(handle.convert(null)).isNull();
+		assertThatIllegalArgumentException().isThrownBy(() -> handle.convert(3));
+	}
+
+	@Test
+	void converterHandleWithoutConverter() {
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+		assertThat(handle.canConvert()).isFalse();
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() -> handle.convert("3"));
+	}
+
+	@Test
+	void converterHandleReresolvedAfterRegistryChange() {
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+		assertThat(handle.canConvert()).isFalse();
+
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertThat(handle.convert("3")).isEqualTo(3);
+
+		conversionService.removeConvertible(String.class, Number.class);
+		assertThat(handle.canConvert()).isFalse();
+	}
+
+	@Test
+	void converterHandleForClassPairIsShared() {
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(String.class, Integer.class);
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isSameAs(handle);
+		assertThat(conversionService.getConverterHandle(String.class, Long.class)).isNotSameAs(handle);
+
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isNotSameAs(handle);
+		assertThat(handle.convert("3")).isEqualTo(3);
+	}
+
+	@Test
+	void convertPrimitiveTargetThroughClassPair() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertThat(conversionService.convert("3", int.class)).isEqualTo(3);
+		assertThat(conversionService.convert("3", int.class)).isEqualTo(3);
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				conversionService.convert(null, int.class));
+	}
+
+	@Test
+	void convertThroughClassPairWithOverriddenTypeDescriptorVariants() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return true;
+			}
+			@Override
+			@Nullable
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return "custom";
+			}
+		};
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isTrue();
+		assertThat(conversionService.convert("3", String.class)).isEqualTo("custom");
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.timeline;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.StartupStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link TimelineApplicationStartup} and {@link StartupTimeline}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class TimelineApplicationStartupTests {
+
+	private final TimelineApplicationStartup startup = new TimelineApplicationStartup(100);
+
+
+	@Test
+	void stepsWithParents() {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		StartupStep bean1 = this.startup.start("spring.beans.instantiate").tag("beanName", "bean1");
+		StartupStep bean2 = this.startup.start("spring.beans.instantiate").tag("beanName", () -> "bean2");
+		bean2.end();
+		bean1.end();
+		StartupStep bean3 = this.startup.start("spring.beans.instantiate").tag("beanName", "bean3");
+		bean3.end();
+		refresh.end();
+
+		assertThat(refresh.getParentId()).isNull();
+		assertThat(bean1.getParentId()).isEqualTo(refresh.getId());
+		assertThat(bean2.getParentId()).isEqualTo(bean1.getId());
+		assertThat(bean3.getParentId()).isEqualTo(refresh.getId());
+
+		StartupTimeline timeline = this.startup.getTimeline();
+		assertThat(timeline.getSteps()).hasSize(4);
+		assertThat(timeline.getDroppedStepCount()).isEqualTo(0);
+		StartupTimeline.Step refreshStep = timeline.getSteps().get(0);
+		assertThat(timeline.getChildren(refreshStep)).extracting(StartupTimeline.Step::getId)
+				.containsExactly(bean1.getId(), bean3.getId());
+		assertThat(timeline.getSelfTime(refreshStep)).isLessThanOrEqualTo(refreshStep.getDuration());
+		assertThat(timeline.getBeanSelfTimes()).containsOnlyKeys("bean1", "bean2", "bean3");
+	}
+
+	@Test
+	void unendedStepsNotInTimeline() {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		this.startup.start("spring.beans.instantiate").end();
+
+		assertThat(this.startup.getTimeline().getSteps()).extracting(StartupTimeline.Step::getName)
+				.containsExactly("spring.beans.instantiate");
+		refresh.end();
+		assertThat(this.startup.getTimeline().getSteps()).hasSize(2);
+	}
+
+	@Test
+	void criticalPathFollowsLatestEndingChildren() throws InterruptedException {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		StartupStep fast = this.startup.start("fast");
+		fast.end();
+		StartupStep slow = this.startup.start("slow");
+		StartupStep slowChild = this.startup.start("slowChild");
+		Thread.sleep(5);
+		slowChild.end();
+		slow.end();
+		refresh.end();
+
+		List<Long> criticalPath = this.startup.getTimeline().getCriticalPath().stream()
+				.map(StartupTimeline.Step::getId).collect(Collectors.toList());
+		assertThat(criticalPath).containsExactly(refresh.getId(), slow.getId(), slowChild.getId());
+	}
+
+	@Test
+	void stepsOnOtherThreadsHaveNoParent() throws InterruptedException {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		AtomicReference<StartupStep> workerStep = new AtomicReference<>();
+		Thread worker = new Thread(() -> {
+			StartupStep step = this.startup.start("spring.beans.instantiate");
+			step.end();
+			workerStep.set(step);
+		});
+		worker.start();
+		worker.join();
+		refresh.end();
+
+		assertThat(workerStep.get().getParentId()).isNull();
+		assertThat(this.startup.getTimeline().getSteps()).extracting(StartupTimeline.Step::getThreadName)
+				.contains(worker.getName());
+	}
+
+	@Test
+	void boundedCapacity() {
+		TimelineApplicationStartup startup = new TimelineApplicationStartup(2);
+		for (int i = 0; i < 5; i++) {
+			startup.start("step" + i).end();
+		}
+		StartupTimeline timeline = startup.getTimeline();
+		assertThat(timeline.getSteps()).extracting(StartupTimeline.Step::getName).containsExactly("step0", "step1");
+		assertThat(timeline.getDroppedStepCount()).isEqualTo(3);
+	}
+
+	@Test
+	void completionCallback() {
+		AtomicReference<StartupTimeline> completed = new AtomicReference<>();
+		this.startup.setCompletionCallback(completed::set);
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		this.startup.start("spring.context.refresh").end();
+		assertThat(completed.get()).isNull();
+		refresh.end();
+		assertThat(completed.get().getSteps()).hasSize(2);
+	}
+
+	@Test
+	void completionCallbackWithCheckedException() {
+		this.startup.setCompletionCallback(timeline -> {
+			throw new IOException("no space");
+		});
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		assertThatIllegalStateException().isThrownBy(refresh::end).withCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	void writeJson() throws Exception {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		this.startup.start("spring.beans.instantiate").tag("beanName", "my\"bean").end();
+		refresh.end();
+
+		StringWriter writer = new StringWriter();
+		this.startup.getTimeline().writeJson(writer);
+		String json = writer.toString();
+		assertThat(json).startsWith("{\"droppedStepCount\":0,\"steps\":[{\"id\":");
+		assertThat(json).contains("\"name\":\"spring.beans.instantiate\"");
+		assertThat(json).contains("\"tags\":{\"beanName\":\"my\\\"bean\"}");
+		assertThat(json).contains("\"criticalPath\":[" + refresh.getId() + "," + (refresh.getId() + 1) + "]");
+		assertThat(json).contains("\"beanSelfNanos\":{\"my\\\"bean\":");
+		assertThat(json).endsWith("}}");
+	}
+
+	@Test
+	void writeChromeTrace() throws Exception {
+		StartupStep refresh = this.startup.start("spring.context.refresh");
+		this.startup.start("spring.beans.instantiate").tag("beanName", "myBean").end();
+		refresh.end();
+
+		StringWriter writer = new StringWriter();
+		this.startup.getTimeline().writeChromeTrace(writer);
+		String trace = writer.toString();
+		assertThat(trace).startsWith("{\"traceEvents\":[{\"name\":\"spring.context.refresh\",\"cat\":\"spring\",\"ph\":\"X\"");
+		assertThat(trace).contains("\"args\":{\"beanName\":\"myBean\",\"id\":\"" + (refresh.getId() + 1) + "\",\"criticalPath\":\"true\"}");
+		assertThat(trace).contains("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + Thread.currentThread().getId());
+		assertThat(trace).endsWith("],\"displayTimeUnit\":\"ms\"}");
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ResourceUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataReaderCache}, running the common
+ * {@link AnnotationMetadata} tests against metadata restored from a cache file.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class PersistentMetadataReaderCacheTests extends AbstractAnnotationMetadataTests {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+			Resource resource = classFile(source);
+			MetadataReader parsedReader =
+					new SimpleMetadataReaderFactory(source.getClassLoader()).getMetadataReader(resource);
+			if (!ResourceUtils.isFileURL(resource.getURL())) {
+				// JDK class from a "jrt:" location: not cacheable
+				return parsedReader.getAnnotationMetadata();
+			}
+			PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+			cache.put(resource, parsedReader);
+			cache.save();
+			MetadataReader metadataReader = new PersistentMetadataReaderCache(cacheFile)
+					.getMetadataReader(resource, source.getClassLoader());
+			assertThat(metadataReader).isNotNull();
+			return metadataReader.getAnnotationMetadata();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	void staleEntryIsDiscarded() throws Exception {
+		File classFile = this.tempDir.resolve("TestClass.class").toFile();
+		FileCopyUtils.copy(classFile(getClass()).getInputStream(), Files.newOutputStream(classFile.toPath()));
+		Resource resource = new FileSystemResource(classFile);
+		PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(
+				this.tempDir.resolve("metadata.cache").toFile());
+		cache.put(resource, new SimpleMetadataReaderFactory().getMetadataReader(resource));
+		assertThat(cache.getMetadataReader(resource, null)).isNotNull();
+
+		assertThat(classFile.setLastModified(classFile.lastModified() - 10000)).isTrue();
+		assertThat(cache.getMetadataReader(resource, null)).isNull();
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	void incompatibleCacheFileIsIgnored() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Files.write(cacheFile, "not a cache".getBytes(StandardCharsets.UTF_8));
+		PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile.toFile());
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.getMetadataReader(classFile(getClass()), null)).isNull();
+	}
+
+	@Test
+	void cachingMetadataReaderFactoryPopulatesAndSavesPersistentCache() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(getClass().getClassLoader());
+		factory.setPersistentCache(cache);
+		MetadataReader metadataReader = factory.getMetadataReader(getClass().getName());
+		assertThat(cache.isDirty()).isTrue();
+		factory.clearCache();
+		assertThat(cache.isDirty()).isTrue();
+		assertThat(cacheFile).doesNotExist();
+		factory.savePersistentCache();
+		assertThat(cache.isDirty()).isFalse();
+		assertThat(cacheFile).exists();
+
+		CachingMetadataReaderFactory restoredFactory = new CachingMetadataReaderFactory(getClass().getClassLoader());
+		PersistentMetadataReaderCache restoredCache = new PersistentMetadataReaderCache(cacheFile);
+		restoredFactory.setPersistentCache(restoredCache);
+		MetadataReader restoredReader = restoredFactory.getMetadataReader(getClass().getName());
+		assertThat(restoredCache.isDirty()).isFalse();
+		assertThat(restoredReader.getClassMetadata().getClassName())
+				.isEqualTo(metadataReader.getClassMetadata().getClassName());
+		assertThat(restoredReader.getAnnotationMetadata().getAnnotationTypes())
+				.isEqualTo(metadataReader.getAnnotationMetadata().getAnnotationTypes());
+	}
+
+
+	@Test
+	void onlyDeclaredAttributesArePersisted() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		Resource resource = classFile(DeclaredAttributesClass.class);
+		PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+		cache.put(resource, new SimpleMetadataReaderFactory(getClass().getClassLoader()).getMetadataReader(resource));
+		cache.save();
+
+		String content = new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.ISO_8859_1);
+		assertThat(content).contains("explicitValue", "nestedValue");
+		assertThat(content).doesNotContain("defaultedValue");
+
+		MetadataReader metadataReader = new PersistentMetadataReaderCache(cacheFile)
+				.getMetadataReader(resource, getClass().getClassLoader());
+		assertThat(metadataReader).isNotNull();
+		MergedAnnotation<OuterAnnotation> annotation =
+				metadataReader.getAnnotationMetadata().getAnnotations().get(OuterAnnotation.class);
+		assertThat(annotation.getString("explicitValue")).isEqualTo("explicit");
+		assertThat(annotation.getString("defaultedValue")).isEqualTo("default");
+		assertThat(annotation.hasDefaultValue("defaultedValue")).isTrue();
+		MergedAnnotation<InnerAnnotation> nested = annotation.getAnnotation("nestedValue", InnerAnnotation.class);
+		assertThat(nested.getString("explicitValue")).isEqualTo("nested");
+		assertThat(nested.getString("defaultedValue")).isEqualTo("default");
+	}
+
+	@Test
+	void cacheFileCanBeReplacedWhileInUse() throws Exception {
+		File cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		Resource resource = classFile(getClass());
+		PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+		cache.put(resource, new SimpleMetadataReaderFactory().getMetadataReader(resource));
+		cache.save();
+
+		PersistentMetadataReaderCache loadedCache = new PersistentMetadataReaderCache(cacheFile);
+		Resource otherResource = classFile(DeclaredAttributesClass.class);
+		loadedCache.put(otherResource, new SimpleMetadataReaderFactory().getMetadataReader(otherResource));
+		loadedCache.save();
+		assertThat(loadedCache.getMetadataReader(resource, null)).isNotNull();
+		assertThat(new PersistentMetadataReaderCache(cacheFile).size()).isEqualTo(2);
+	}
+
+
+	private static Resource classFile(Class<?> clazz) {
+		return new ClassPathResource(ClassUtils.convertClassNameToResourcePath(clazz.getName()) +
+				ClassUtils.CLASS_FILE_SUFFIX, clazz.getClassLoader());
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface OuterAnnotation {
+
+		String explicitValue() default "";
+
+		String defaultedValue() default "default";
+
+		InnerAnnotation nestedValue() default @InnerAnnotation;
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface InnerAnnotation {
+
+		String explicitValue() default "";
+
+		String defaultedValue() default "default";
+	}
+
+
+	@OuterAnnotation(explicitValue = "explicit", nestedValue = @InnerAnnotation(explicitValue = "nested"))
+	static class DeclaredAttributesClass {
+	}
+
+}
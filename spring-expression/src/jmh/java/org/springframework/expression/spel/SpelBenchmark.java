@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,17 @@
 
 package org.springframework.expression.spel;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 
 import org.springframework.expression.EvaluationContext;
@@ -30,6 +34,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.testresources.PlaceOfBirth;
 
 /**
  * Benchmarks for parsing and executing SpEL expressions.
@@ -103,4 +108,69 @@ public class SpelBenchmark {
 		return data.expression.getValue(data.context);
 	}
 
+	/**
+	 * Collection and map operators, interpreted versus compiled.
+	 */
+	@State(Scope.Benchmark)
+	public static class CompilerBenchmarkData {
+
+		@Param({"OFF", "MIXED"})
+		public SpelCompilerMode compilerMode;
+
+		public List<PlaceOfBirth> places = new ArrayList<>();
+
+		public EvaluationContext context;
+
+		public Expression projectionExpression;
+
+		public Expression selectionExpression;
+
+		public Expression firstSelectionExpression;
+
+		public Expression inlineMapExpression;
+
+		public Expression safeNavigationExpression;
+
+		@Setup
+		public void setup() {
+			for (int i = 0; i < 20; i++) {
+				this.places.add(new PlaceOfBirth("City" + i));
+			}
+			this.context = new StandardEvaluationContext();
+			this.context.setVariable("places", this.places);
+			ExpressionParser parser = new SpelExpressionParser(
+					new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader()));
+			this.projectionExpression = parser.parseExpression("#places.![city]");
+			this.selectionExpression = parser.parseExpression("#places.?[city.length() > 5]");
+			this.firstSelectionExpression = parser.parseExpression("#places.^[#this.getCity().endsWith('9')]");
+			this.inlineMapExpression = parser.parseExpression("{a:'x',b:'y',c:'z'}['b']");
+			this.safeNavigationExpression = parser.parseExpression("#places?.![city?.length()]");
+		}
+	}
+
+	@Benchmark
+	public Object projection(CompilerBenchmarkData data) {
+		return data.projectionExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object selection(CompilerBenchmarkData data) {
+		return data.selectionExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object firstSelection(CompilerBenchmarkData data) {
+		return data.firstSelectionExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object inlineMap(CompilerBenchmarkData data) {
+		return data.inlineMapExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object safeNavigation(CompilerBenchmarkData data) {
+		return data.safeNavigationExpression.getValue(data.context);
+	}
+
 }
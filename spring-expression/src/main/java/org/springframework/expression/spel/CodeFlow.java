@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the active context object while generating code
+	 * for nested expressions such as projection or selection criteria, with the
+	 * innermost one on top. If empty, the active context object is the target.
+	 */
+	private final Deque<Integer> activeContextObjectVariables = new ArrayDeque<>();
 
 
 	/**
@@ -105,11 +113,34 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the active context object
+	 * within a nested expression scope
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer activeContextObjectVariable = this.activeContextObjectVariables.peek();
+		mv.visitVarInsn(ALOAD, (activeContextObjectVariable != null ? activeContextObjectVariable : 1));
+	}
+
+	/**
+	 * Make the given local variable the active context object, i.e. what
+	 * {@link #loadTarget} loads, until the corresponding {@link #popActiveContextObject}.
+	 * Typically used for the elements a projection or selection iterates over.
+	 * @param variableId the local variable holding the active context object
+	 * (as obtained from {@link #nextFreeVariableId()})
+	 * @since 5.3.9
+	 */
+	public void pushActiveContextObject(int variableId) {
+		this.activeContextObjectVariables.push(variableId);
+	}
+
+	/**
+	 * Restore the previous active context object.
+	 * @since 5.3.9
+	 * @see #pushActiveContextObject
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjectVariables.pop();
 	}
 
 	/**
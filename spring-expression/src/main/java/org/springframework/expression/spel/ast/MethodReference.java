@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +28,7 @@ import java.util.StringJoiner;
 
 import org.springframework.asm.Label;
 import org.springframework.asm.MethodVisitor;
+import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
@@ -93,7 +95,7 @@ public class MethodReference extends SpelNodeImpl {
 		TypeDescriptor targetType = state.getActiveContextObject().getTypeDescriptor();
 		Object[] arguments = getArguments(state);
 		TypedValue result = getValueInternal(evaluationContext, value, targetType, arguments);
-		updateExitTypeDescriptor();
+		updateExitTypeDescriptor(value);
 		return result;
 	}
 
@@ -243,11 +245,11 @@ public class MethodReference extends SpelNodeImpl {
 		}
 	}
 
-	private void updateExitTypeDescriptor() {
+	private void updateExitTypeDescriptor(@Nullable Object value) {
 		CachedMethodExecutor executorToCheck = this.cachedExecutor;
 		if (executorToCheck != null && executorToCheck.get() instanceof ReflectiveMethodExecutor) {
 			Method method = ((ReflectiveMethodExecutor) executorToCheck.get()).getMethod();
-			String descriptor = CodeFlow.toDescriptor(method.getReturnType());
+			String descriptor = CodeFlow.toDescriptor(resolveReturnType(method, value));
 			if (this.nullSafe && CodeFlow.isPrimitive(descriptor)) {
 				this.originalPrimitiveExitTypeDescriptor = descriptor;
 				this.exitTypeDescriptor = CodeFlow.toBoxedDescriptor(descriptor);
@@ -258,6 +260,23 @@ public class MethodReference extends SpelNodeImpl {
 		}
 	}
 
+	/**
+	 * Determine the return type of the given method, resolving a type variable
+	 * (e.g. {@code T get()}) against the class of the target, so that compiled
+	 * code can continue with the actual type instead of the erased one.
+	 */
+	private static Class<?> resolveReturnType(Method method, @Nullable Object value) {
+		Class<?> returnType = method.getReturnType();
+		if (value != null && method.getGenericReturnType() instanceof TypeVariable) {
+			Class<?> resolvedType = ResolvableType.forMethodReturnType(method, value.getClass()).resolve();
+			if (resolvedType != null && resolvedType != returnType && returnType.isAssignableFrom(resolvedType) &&
+					Modifier.isPublic(resolvedType.getModifiers())) {
+				return resolvedType;
+			}
+		}
+		return returnType;
+	}
+
 	@Override
 	public String toStringAST() {
 		StringJoiner sj = new StringJoiner(",", "(", ")");
@@ -350,6 +369,11 @@ public class MethodReference extends SpelNodeImpl {
 		mv.visitMethodInsn((isStaticMethod ? INVOKESTATIC : (method.isDefault() ? INVOKEINTERFACE : INVOKEVIRTUAL)),
 				classDesc, method.getName(), CodeFlow.createSignatureDescriptor(method),
 				method.getDeclaringClass().isInterface());
+		if (this.originalPrimitiveExitTypeDescriptor == null &&
+				!CodeFlow.toDescriptor(method.getReturnType()).equals(this.exitTypeDescriptor)) {
+			// Generic return type resolved against the target class
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		}
 		cf.pushDescriptor(this.exitTypeDescriptor);
 
 		if (this.originalPrimitiveExitTypeDescriptor != null) {
@@ -386,7 +410,7 @@ public class MethodReference extends SpelNodeImpl {
 		public TypedValue getValue() {
 			TypedValue result = MethodReference.this.getValueInternal(
 					this.evaluationContext, this.value, this.targetType, this.arguments);
-			updateExitTypeDescriptor();
+			updateExitTypeDescriptor(this.value);
 			return result;
 		}
 
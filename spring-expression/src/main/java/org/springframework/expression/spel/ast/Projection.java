@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -84,6 +87,7 @@ public class Projection extends SpelNodeImpl {
 					state.exitScope();
 				}
 			}
+			this.exitTypeDescriptor = "Ljava/util/List";
 			return new ValueRef.TypedValueHolderValueRef(new TypedValue(result), this);  // TODO unable to build correct type descriptor
 		}
 
@@ -110,6 +114,9 @@ public class Projection extends SpelNodeImpl {
 			}
 
 			if (operandIsArray) {
+				// Projected arrays are not compilable: the type of the result array
+				// depends on the values produced for the given elements
+				this.exitTypeDescriptor = null;
 				if (arrayElementType == null) {
 					arrayElementType = Object.class;
 				}
@@ -118,6 +125,7 @@ public class Projection extends SpelNodeImpl {
 				return new ValueRef.TypedValueHolderValueRef(new TypedValue(resultArray),this);
 			}
 
+			this.exitTypeDescriptor = "Ljava/util/List";
 			return new ValueRef.TypedValueHolderValueRef(new TypedValue(result),this);
 		}
 
@@ -137,6 +145,79 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null && this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			// Nothing on the stack: project the active context object
+			cf.loadTarget(mv);
+		}
+
+		Label endOfProjection = new Label();
+		if (this.nullSafe) {
+			Label notNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, notNull);
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(notNull);
+		}
+
+		// The entries of a map are projected like the elements of any other Iterable
+		Label iterable = new Label();
+		mv.visitInsn(DUP);
+		mv.visitTypeInsn(INSTANCEOF, "java/util/Map");
+		mv.visitJumpInsn(IFEQ, iterable);
+		mv.visitTypeInsn(CHECKCAST, "java/util/Map");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "entrySet", "()Ljava/util/Set;", true);
+		mv.visitLabel(iterable);
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		int iteratorVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfElements = new Label();
+		int elementVariable = cf.nextFreeVariableId();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		cf.enterCompilationScope();
+		cf.pushActiveContextObject(elementVariable);
+		this.children[0].generateCode(mv, cf);
+		String lastDesc = cf.lastDescriptor();
+		if (CodeFlow.isPrimitive(lastDesc)) {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
+		}
+		cf.popActiveContextObject();
+		cf.exitCompilationScope();
+
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, nextElement);
+		mv.visitLabel(endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+
+		mv.visitLabel(endOfProjection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	private Class<?> determineCommonType(@Nullable Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -65,15 +65,13 @@ public class VariableReference extends SpelNodeImpl {
 
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
-		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
-		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
 			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(result.getValue());
 			return result;
 		}
-		TypedValue result = state.lookupVariable(this.name);
+		TypedValue result = (this.name.equals(THIS) ?
+				state.getActiveContextObject() : state.lookupVariable(this.name));
 		Object value = result.getValue();
 		if (value == null || !Modifier.isPublic(value.getClass().getModifiers())) {
 			// If the type is not public then when generateCode produces a checkcast to it
@@ -114,6 +112,17 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			// The active context object is either on the stack already (e.g. 'foo.#this')
+			// or held by the code flow (e.g. within a projection or selection)
+			String descriptor = cf.lastDescriptor();
+			if (descriptor == null) {
+				cf.loadTarget(mv);
+			}
+			else if (CodeFlow.isPrimitive(descriptor)) {
+				CodeFlow.insertBoxIfNecessary(mv, descriptor.charAt(0));
+			}
+		}
 		else {
 			mv.visitVarInsn(ALOAD, 2);
 			mv.visitLdcInsn(this.name);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -276,6 +276,34 @@ public class StandardEvaluationContext implements EvaluationContext {
 		resolver.registerMethodFilter(type, filter);
 	}
 
+	/**
+	 * Apply the internal delegates of this instance to the specified
+	 * {@code evaluationContext}. Typically invoked right after the new context
+	 * instance has been created to reuse the delegates. Does not modify the
+	 * {@linkplain #setRootObject(Object) root object} or any registered
+	 * {@linkplain #setVariable variables}.
+	 * <p>The lists of accessors and resolvers are copied, so that the target
+	 * context may register further delegates without affecting this instance.
+	 * The delegates themselves are shared, including the default
+	 * {@link ReflectiveMethodResolver} which any
+	 * {@link #registerMethodFilter method filters} are registered with.
+	 * @param evaluationContext the evaluation context to update
+	 * @since 5.3.9
+	 */
+	public void applyDelegatesTo(StandardEvaluationContext evaluationContext) {
+		// Triggers initialization for default delegates
+		evaluationContext.setConstructorResolvers(new ArrayList<>(getConstructorResolvers()));
+		evaluationContext.setMethodResolvers(new ArrayList<>(getMethodResolvers()));
+		evaluationContext.setPropertyAccessors(new ArrayList<>(getPropertyAccessors()));
+		evaluationContext.setTypeLocator(getTypeLocator());
+		evaluationContext.setTypeConverter(getTypeConverter());
+
+		evaluationContext.beanResolver = this.beanResolver;
+		evaluationContext.operatorOverloader = this.operatorOverloader;
+		evaluationContext.reflectiveMethodResolver = this.reflectiveMethodResolver;
+		evaluationContext.typeComparator = this.typeComparator;
+	}
+
 
 	private List<PropertyAccessor> initPropertyAccessors() {
 		List<PropertyAccessor> accessors = this.propertyAccessors;
@@ -105,7 +105,10 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * ConstructorReference
 	 * FunctionReference
 	 * InlineList
+	 * InlineMap
 	 * OpModulus
+	 * Projection
+	 * Selection
 	 *
 	 * Not yet compiled (some may never need to be):
 	 * Assign
@@ -116,9 +119,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * OpMatches
 	 * OpPower
 	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 
@@ -445,6 +446,140 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertThat(o).isEqualTo("op");
 	}
 
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:'abc',b:{c:1,d:{2,3}},'e':null}");
+		Map<?, ?> m = (Map) expression.getValue();
+		assertThat(m.toString()).isEqualTo("{a=abc, b={c=1, d=[2, 3]}, e=null}");
+		assertCanCompile(expression);
+		m = (Map) expression.getValue();
+		assertThat(m.toString()).isEqualTo("{a=abc, b={c=1, d=[2, 3]}, e=null}");
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
+				((Map) expression.getValue()).clear());
+
+		expression = parser.parseExpression("'abcde'.substring({a:1,b:3}['b'])");
+		assertThat(expression.getValue()).isEqualTo("de");
+		assertCanCompile(expression);
+		assertThat(expression.getValue()).isEqualTo("de");
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("x", "abc");
+		expression = parser.parseExpression("{a:#x}");
+		assertThat(expression.getValue(context).toString()).isEqualTo("{a=abc}");
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		List<String> list = new ArrayList<>();
+		list.add("a");
+		list.add("abc");
+		list.add("abcde");
+
+		expression = parser.parseExpression("![length()]");
+		assertThat(expression.getValue(list)).asList().containsExactly(1, 3, 5);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).asList().containsExactly(1, 3, 5);
+
+		expression = parser.parseExpression("![#this.concat('!')]");
+		assertThat(expression.getValue(list)).asList().containsExactly("a!", "abc!", "abcde!");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).asList().containsExactly("a!", "abc!", "abcde!");
+
+		expression = parser.parseExpression("![length()].size()");
+		assertThat(expression.getValue(list)).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).isEqualTo(3);
+
+		expression = parser.parseExpression("{{'a','bc'},{'def'}}.![#this.![length()]]");
+		assertThat(expression.getValue().toString()).isEqualTo("[[1, 2], [3]]");
+		assertCanCompile(expression);
+		assertThat(expression.getValue().toString()).isEqualTo("[[1, 2], [3]]");
+
+		expression = parser.parseExpression("{a:1,b:2}.![#this]");
+		assertThat(expression.getValue().toString()).isEqualTo("[a=1, b=2]");
+		assertCanCompile(expression);
+		assertThat(expression.getValue().toString()).isEqualTo("[a=1, b=2]");
+
+		// Array projections produce an array of a common element type: not compiled
+		expression = parser.parseExpression("![length()]");
+		assertThat(expression.getValue(new String[] {"a", "abc"})).isEqualTo(new Integer[] {1, 3});
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projectionNullSafe() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("list", Collections.singletonList("abc"));
+		expression = parser.parseExpression("#list?.![length()]");
+		assertThat(expression.getValue(context)).asList().containsExactly(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).asList().containsExactly(3);
+		context.setVariable("list", null);
+		assertThat(expression.getValue(context)).isNull();
+	}
+
+	@Test
+	public void selection() throws Exception {
+		List<String> list = new ArrayList<>();
+		list.add("a");
+		list.add("abc");
+		list.add("abcde");
+
+		expression = parser.parseExpression("?[length() > 1]");
+		assertThat(expression.getValue(list)).asList().containsExactly("abc", "abcde");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).asList().containsExactly("abc", "abcde");
+
+		expression = parser.parseExpression("^[#this.startsWith('ab')]");
+		assertThat(expression.getValue(list)).isEqualTo("abc");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).isEqualTo("abc");
+
+		expression = parser.parseExpression("$[#this.startsWith('ab')].length()");
+		assertThat(expression.getValue(list)).isEqualTo(5);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).isEqualTo(5);
+
+		expression = parser.parseExpression("^[length() > 5]");
+		assertThat(expression.getValue(list)).isNull();
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).isNull();
+
+		expression = parser.parseExpression("?[length() > 1].![length()]");
+		assertThat(expression.getValue(list)).asList().containsExactly(3, 5);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(list)).asList().containsExactly(3, 5);
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("list", list);
+		expression = parser.parseExpression("#list?.$[length() < 5]");
+		assertThat(expression.getValue(context)).isEqualTo("abc");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo("abc");
+		context.setVariable("list", null);
+		assertThat(expression.getValue(context)).isNull();
+
+		// Selections on maps produce a map: not compiled
+		expression = parser.parseExpression("{a:1,b:2}.?[value > 1]");
+		assertThat(expression.getValue().toString()).isEqualTo("{b=2}");
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void methodReferenceWithGenericReturnType() throws Exception {
+		expression = parser.parseExpression("get() + 1");
+		assertThat(expression.getValue(new IntegerHolder(41))).isEqualTo(42);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(new IntegerHolder(41))).isEqualTo(42);
+
+		expression = parser.parseExpression("get().length()");
+		assertThat(expression.getValue(new GenericHolder<>("abc"))).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(new GenericHolder<>("abc"))).isEqualTo(3);
+	}
+
 	@Test
 	public void intLiteral() throws Exception {
 		expression = parser.parseExpression("42");
@@ -5384,6 +5519,28 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	}
 
 
+	public static class GenericHolder<T> {
+
+		private final T value;
+
+		public GenericHolder(T value) {
+			this.value = value;
+		}
+
+		public T get() {
+			return this.value;
+		}
+	}
+
+
+	public static class IntegerHolder extends GenericHolder<Integer> {
+
+		public IntegerHolder(Integer value) {
+			super(value);
+		}
+	}
+
+
 	public static class Greeter {
 
 		public String getWorld() {
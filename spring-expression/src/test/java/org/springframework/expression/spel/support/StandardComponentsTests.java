@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,29 @@ public class StandardComponentsTests {
 		assertThat(context.getTypeLocator()).isEqualTo(tl);
 	}
 
+	@Test
+	public void testApplyDelegatesTo() {
+		StandardEvaluationContext template = new StandardEvaluationContext();
+		template.addPropertyAccessor(DataBindingPropertyAccessor.forReadOnlyAccess());
+		StandardEvaluationContext context = new StandardEvaluationContext("root");
+		context.setVariable("var", "value");
+		template.applyDelegatesTo(context);
+
+		assertThat(context.getPropertyAccessors()).containsExactlyElementsOf(template.getPropertyAccessors());
+		assertThat(context.getMethodResolvers()).containsExactlyElementsOf(template.getMethodResolvers());
+		assertThat(context.getConstructorResolvers()).containsExactlyElementsOf(template.getConstructorResolvers());
+		assertThat(context.getTypeLocator()).isSameAs(template.getTypeLocator());
+		assertThat(context.getTypeConverter()).isSameAs(template.getTypeConverter());
+		assertThat(context.getTypeComparator()).isSameAs(template.getTypeComparator());
+		assertThat(context.getOperatorOverloader()).isSameAs(template.getOperatorOverloader());
+		assertThat(context.getRootObject().getValue()).isEqualTo("root");
+		assertThat(context.lookupVariable("var")).isEqualTo("value");
+
+		context.addPropertyAccessor(DataBindingPropertyAccessor.forReadOnlyAccess());
+		assertThat(context.getPropertyAccessors()).hasSize(3);
+		assertThat(template.getPropertyAccessors()).hasSize(2);
+	}
+
 	@Test
 	public void testStandardOperatorOverloader() throws EvaluationException {
 		OperatorOverloader oo = new StandardOperatorOverloader();
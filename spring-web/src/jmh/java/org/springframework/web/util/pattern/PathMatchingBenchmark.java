@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -74,6 +74,61 @@ public class PathMatchingBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void lookupAllRoutesWithPathPatternIndex(AllRoutesPatternIndex data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			bh.consume(data.lookup(path));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class AllRoutesPatternIndex extends PatternIndexData {
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			parseRoutes(RouteGenerator.allRoutes());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class ManyRoutesPatternParser extends PatternParserData {
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			parseRoutes(RouteGenerator.manyCaptureRoutes());
+		}
+	}
+
+	@Benchmark
+	public void matchAndSortManyRoutesWithPathPatternParser(ManyRoutesPatternParser data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			List<PathPattern> matches = new ArrayList<>();
+			for (PathPattern pattern : data.patterns) {
+				if (pattern.matches(path)) {
+					matches.add(pattern);
+				}
+			}
+			Collections.sort(matches);
+			bh.consume(matches);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class ManyRoutesPatternIndex extends PatternIndexData {
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			parseRoutes(RouteGenerator.manyCaptureRoutes());
+		}
+	}
+
+	@Benchmark
+	public void lookupManyRoutesWithPathPatternIndex(ManyRoutesPatternIndex data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			bh.consume(data.lookup(path));
+		}
+	}
+
 	@State(Scope.Benchmark)
 	public static class StaticRoutesPatternParser extends PatternParserData {
 
@@ -159,6 +214,35 @@ public class PathMatchingBenchmark {
 
 	}
 
+	/**
+	 * Full lookup as performed by handler mappings: narrowing down candidates
+	 * through a {@link PathPatternIndex}, then matching and sorting them.
+	 */
+	static class PatternIndexData extends PatternParserData {
+
+		PathPatternIndex<PathPattern> index = new PathPatternIndex<>();
+
+		@Override
+		void parseRoutes(List<Route> routes) {
+			super.parseRoutes(routes);
+			this.patterns.forEach(pattern -> this.index.add(pattern, pattern));
+		}
+
+		List<PathPattern> lookup(PathContainer path) {
+			List<PathPattern> candidates = new ArrayList<>();
+			this.index.collectCandidates(path, candidates);
+			List<PathPattern> matches = new ArrayList<>();
+			for (PathPattern pattern : candidates) {
+				if (pattern.matches(path)) {
+					matches.add(pattern);
+				}
+			}
+			Collections.sort(matches);
+			return matches;
+		}
+
+	}
+
 	static class AntPathMatcherData {
 
 		AntPathMatcher matcher = new AntPathMatcher();
@@ -264,6 +348,18 @@ public class PathMatchingBenchmark {
 			);
 		}
 
+		static List<Route> manyCaptureRoutes() {
+			List<Route> routes = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				routes.add(new Route("/api/service" + i + "/items/{id}", "/api/service" + i + "/items/42"));
+				routes.add(new Route("/api/service" + i + "/items/{id}/details", "/api/service" + i + "/items/42/details"));
+				routes.add(new Route("/api/service" + i + "/users/{user}/items/{id}",
+						"/api/service" + i + "/users/jhoeller/items/42"));
+			}
+			routes.add(new Route("/**", "/notfound"));
+			return routes;
+		}
+
 		static List<Route> allRoutes() {
 			List<Route> routes = new ArrayList<>();
 			routes.addAll(staticRoutes());
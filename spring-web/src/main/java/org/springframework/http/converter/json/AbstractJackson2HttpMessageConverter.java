@@ -25,6 +25,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -44,9 +45,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.http.HttpInputMessage;
@@ -60,6 +63,8 @@ import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.TypeUtils;
 
@@ -109,6 +114,12 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	private int streamingBatchSize = 0;
+
+	private boolean cacheObjectWriters = false;
+
+	private final Map<ObjectWriterKey, ObjectWriter> objectWriterCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.defaultObjectMapper = objectMapper;
@@ -144,6 +155,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.defaultObjectMapper = objectMapper;
 		configurePrettyPrint();
+		this.objectWriterCache.clear();
 	}
 
 	/**
@@ -176,6 +188,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		Map<MediaType, ObjectMapper> registrations =
 				this.objectMapperRegistrations.computeIfAbsent(clazz, c -> new LinkedHashMap<>());
 		registrar.accept(registrations);
+		this.objectWriterCache.clear();
 	}
 
 	/**
@@ -228,9 +241,72 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	private void configurePrettyPrint() {
 		if (this.prettyPrint != null) {
 			this.defaultObjectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+			this.objectWriterCache.clear();
 		}
 	}
 
+	/**
+	 * Set the number of elements after which to flush the output when writing
+	 * a top-level {@link Collection}, with the elements of the collection
+	 * serialized one at a time into the JSON array.
+	 * <p>The default is 0, writing the collection as a single value and leaving
+	 * it up to the underlying response to decide when to flush its buffer.
+	 * A positive value streams large collections to the client in chunks
+	 * instead, e.g. with HTTP chunked transfer encoding on a Servlet response.
+	 * Note that an output stream which buffers the entire content (e.g. with
+	 * {@link org.springframework.web.filter.ShallowEtagHeaderFilter}) still
+	 * holds a copy of the full body, unless content caching is disabled for
+	 * the request.
+	 * <p>Each flush commits the response, i.e. the status and headers are sent
+	 * along with the first batch. A serialization error for a later element
+	 * can therefore not be turned into an error response anymore: the client
+	 * receives a truncated JSON array with a 200 status instead. Only enable
+	 * streaming for collections whose elements reliably serialize.
+	 * <p>Not applied when {@link SerializationFeature#WRAP_ROOT_VALUE} is
+	 * enabled since that wraps the collection as a whole.
+	 * @param streamingBatchSize the number of elements to write between flushes
+	 * @throws IllegalStateException if a positive batch size is given while this
+	 * converter does not {@link #supportsStreaming() support streaming}
+	 * @since 5.3.9
+	 * @see SequenceWriter
+	 */
+	public void setStreamingBatchSize(int streamingBatchSize) {
+		Assert.isTrue(streamingBatchSize >= 0, "Streaming batch size must not be negative");
+		Assert.state(streamingBatchSize == 0 || supportsStreaming(),
+				() -> "Streaming of collections not supported by " + getClass().getSimpleName());
+		this.streamingBatchSize = streamingBatchSize;
+	}
+
+	/**
+	 * Whether this converter is able to {@link #setStreamingBatchSize stream}
+	 * a top-level collection element by element.
+	 * <p>The default implementation returns {@code true}. To be overridden by
+	 * converters for formats that require a collection to be written as a single
+	 * value, rejecting a streaming batch size at configuration time.
+	 * @since 5.3.9
+	 */
+	protected boolean supportsStreaming() {
+		return true;
+	}
+
+	/**
+	 * Whether to cache the {@link ObjectWriter} instances derived from the
+	 * {@code ObjectMapper} per combination of target type, serialization view
+	 * and kind of media type, rather than creating a fresh {@code ObjectWriter}
+	 * (and resolving its root serializer) for every value written.
+	 * <p>The default is "false". Switch this to "true" when the configuration
+	 * of the {@code ObjectMapper} instances in use does not change after
+	 * initialization: An {@code ObjectWriter} captures the configuration of its
+	 * {@code ObjectMapper} when created, so later changes to the configuration
+	 * would not be visible for cached writers. Values with
+	 * {@link MappingJacksonValue#setFilters filters} are never cached.
+	 * @since 5.3.9
+	 */
+	public void setCacheObjectWriters(boolean cacheObjectWriters) {
+		this.cacheObjectWriters = cacheObjectWriters;
+		this.objectWriterCache.clear();
+	}
+
 
 	@Override
 	public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
@@ -438,20 +514,33 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					objectMapper.writerWithView(serializationView) : objectMapper.writer());
-			if (filters != null) {
-				objectWriter = objectWriter.with(filters);
+			if (javaType != null && !javaType.isContainerType()) {
+				javaType = null;
+			}
+			boolean sse = (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+
+			ObjectWriter objectWriter;
+			if (this.cacheObjectWriters && filters == null) {
+				ObjectWriterKey key = new ObjectWriterKey(objectMapper, javaType, serializationView, sse);
+				objectWriter = this.objectWriterCache.get(key);
+				if (objectWriter == null) {
+					objectWriter = createObjectWriter(objectMapper, javaType, serializationView, null, sse);
+					this.objectWriterCache.put(key, objectWriter);
+				}
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
+			else {
+				objectWriter = createObjectWriter(objectMapper, javaType, serializationView, filters, sse);
 			}
-			SerializationConfig config = objectWriter.getConfig();
-			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
-					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
-				objectWriter = objectWriter.with(this.ssePrettyPrinter);
+
+			ObjectWriter elementWriter = (this.streamingBatchSize > 0 && value instanceof Collection &&
+					!objectWriter.isEnabled(SerializationFeature.WRAP_ROOT_VALUE) ?
+					createElementWriter(objectMapper, objectWriter, javaType, value) : null);
+			if (elementWriter != null) {
+				writeCollection(elementWriter, generator, (Collection<?>) value);
+			}
+			else {
+				objectWriter.writeValue(generator, value);
 			}
-			objectWriter.writeValue(generator, value);
 
 			writeSuffix(generator, object);
 			generator.flush();
@@ -464,6 +553,82 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		}
 	}
 
+	private ObjectWriter createObjectWriter(ObjectMapper objectMapper, @Nullable JavaType javaType,
+			@Nullable Class<?> serializationView, @Nullable FilterProvider filters, boolean sse) {
+
+		ObjectWriter objectWriter = (serializationView != null ?
+				objectMapper.writerWithView(serializationView) : objectMapper.writer());
+		if (filters != null) {
+			objectWriter = objectWriter.with(filters);
+		}
+		if (javaType != null) {
+			objectWriter = objectWriter.forType(javaType);
+		}
+		SerializationConfig config = objectWriter.getConfig();
+		if (sse && config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			objectWriter = objectWriter.with(this.ssePrettyPrinter);
+		}
+		return objectWriter;
+	}
+
+	/**
+	 * Create an ObjectWriter for writing the elements of the given collection one
+	 * at a time, producing the same output as for writing the collection as a whole:
+	 * for the runtime type of each element, with type information for the declared
+	 * element type (if any).
+	 * @return the element writer, or {@code null} if the collection needs to be
+	 * written as a whole, i.e. with type information for the collection itself
+	 * or with a generic element type that is not handled polymorphically
+	 */
+	@Nullable
+	private ObjectWriter createElementWriter(ObjectMapper objectMapper, ObjectWriter objectWriter,
+			@Nullable JavaType javaType, Object collection) {
+
+		SerializationConfig config = objectWriter.getConfig();
+		SerializerFactory serializerFactory = objectMapper.getSerializerFactory();
+		JavaType collectionType = (javaType != null ? javaType : objectMapper.constructType(collection.getClass()));
+		JavaType elementType = collectionType.getContentType();
+		try {
+			if (serializerFactory.createTypeSerializer(config, collectionType) != null) {
+				return null;
+			}
+			if (elementType != null && !elementType.isJavaLangObject()) {
+				if (serializerFactory.createTypeSerializer(config, elementType) != null) {
+					// A polymorphic root type is written for the runtime type, with its type information
+					return (objectWriter.isEnabled(SerializationFeature.EAGER_SERIALIZER_FETCH) ?
+							objectWriter.forType(elementType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) :
+							null);
+				}
+				if (elementType.hasGenericTypes()) {
+					return null;
+				}
+			}
+		}
+		catch (JsonMappingException ex) {
+			return null;
+		}
+		return objectWriter.forType((JavaType) null).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Write the elements of the given collection one at a time,
+	 * flushing the output after every {@link #setStreamingBatchSize batch}.
+	 * @see #createElementWriter
+	 */
+	private void writeCollection(ObjectWriter elementWriter, JsonGenerator generator, Collection<?> collection)
+			throws IOException {
+
+		try (SequenceWriter sequenceWriter = elementWriter.writeValuesAsArray(generator)) {
+			int count = 0;
+			for (Object element : collection) {
+				sequenceWriter.write(element);
+				if (++count % this.streamingBatchSize == 0) {
+					sequenceWriter.flush();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Write a prefix before the main content.
 	 * @param generator the generator to use for writing content.
@@ -524,4 +689,50 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		return super.getContentLength(object, contentType);
 	}
 
+
+	/**
+	 * Cache key for {@link ObjectWriter} instances.
+	 */
+	private static final class ObjectWriterKey {
+
+		private final ObjectMapper objectMapper;
+
+		@Nullable
+		private final JavaType javaType;
+
+		@Nullable
+		private final Class<?> serializationView;
+
+		private final boolean sse;
+
+		ObjectWriterKey(ObjectMapper objectMapper, @Nullable JavaType javaType,
+				@Nullable Class<?> serializationView, boolean sse) {
+
+			this.objectMapper = objectMapper;
+			this.javaType = javaType;
+			this.serializationView = serializationView;
+			this.sse = sse;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ObjectWriterKey)) {
+				return false;
+			}
+			ObjectWriterKey otherKey = (ObjectWriterKey) other;
+			return (this.objectMapper == otherKey.objectMapper &&
+					ObjectUtils.nullSafeEquals(this.javaType, otherKey.javaType) &&
+					this.serializationView == otherKey.serializationView && this.sse == otherKey.sse);
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(this.objectMapper) * 31 + ObjectUtils.nullSafeHashCode(this.javaType)) * 31 +
+					ObjectUtils.nullSafeHashCode(this.serializationView) + (this.sse ? 1 : 0);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -76,4 +76,14 @@ public class MappingJackson2XmlHttpMessageConverter extends AbstractJackson2Http
 		super.setObjectMapper(objectMapper);
 	}
 
+	/**
+	 * Streaming is not supported for XML since a collection needs to be
+	 * written as a single XML document.
+	 * @see #setStreamingBatchSize
+	 */
+	@Override
+	protected boolean supportsStreaming() {
+		return false;
+	}
+
 }
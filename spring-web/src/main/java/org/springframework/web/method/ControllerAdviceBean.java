@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -219,6 +219,15 @@ public class ControllerAdviceBean implements Ordered {
 		return this.beanType;
 	}
 
+	/**
+	 * Return whether the bean for this {@code ControllerAdviceBean} is a singleton,
+	 * i.e. whether {@link #resolveBean()} returns the same instance on every call.
+	 * @since 5.3.9
+	 */
+	public boolean isSingleton() {
+		return this.isSingleton;
+	}
+
 	/**
 	 * Get the bean instance for this {@code ControllerAdviceBean}, if necessary
 	 * resolving the bean name through the {@link BeanFactory}.
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Invoker for a handler method through a function generated by the
+ * {@link LambdaMetafactory}, as an alternative to {@link Method#invoke}.
+ * The generated function calls the target method directly, avoiding the
+ * accessibility handling and argument checks of reflective invocation.
+ *
+ * <p>Follows the contract of {@link Method#invoke}: an exception thrown by the
+ * target method is wrapped in an {@link InvocationTargetException}, whereas an
+ * incompatible target instance or argument results in an
+ * {@link IllegalArgumentException}.
+ *
+ * <p>Only available for public instance methods of public types with up to
+ * {@value #MAX_PARAMETER_COUNT} parameters, with all signature types being public
+ * and visible to the ClassLoader of this class. {@link #forMethod} returns
+ * {@code null} for any other method, with callers expected to fall back to
+ * reflective invocation.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ */
+public final class HandlerMethodInvoker {
+
+	/**
+	 * The maximum number of parameters of a method to generate an invoker for.
+	 */
+	public static final int MAX_PARAMETER_COUNT = 8;
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	private static final Class<?>[] invokerTypes = {
+			Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class, Invoker4.class,
+			Invoker5.class, Invoker6.class, Invoker7.class, Invoker8.class};
+
+	private static final Class<?>[] voidInvokerTypes = {
+			VoidInvoker0.class, VoidInvoker1.class, VoidInvoker2.class, VoidInvoker3.class, VoidInvoker4.class,
+			VoidInvoker5.class, VoidInvoker6.class, VoidInvoker7.class, VoidInvoker8.class};
+
+
+	private final Method method;
+
+	private final Class<?>[] parameterTypes;
+
+	private final Invocation invocation;
+
+
+	private HandlerMethodInvoker(Method method, Invocation invocation) {
+		this.method = method;
+		this.parameterTypes = method.getParameterTypes();
+		this.invocation = invocation;
+	}
+
+
+	/**
+	 * Return the method that this invoker calls.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Invoke the method on the given target instance with the given arguments.
+	 * @param target the target instance to invoke the method on
+	 * @param args the argument values, matching the method parameters
+	 * @return the value returned by the method, or {@code null} for a
+	 * {@code void} method
+	 * @throws IllegalArgumentException if the target instance is not an instance
+	 * of the declaring class, or if the arguments do not match the parameters
+	 * @throws InvocationTargetException if the method threw an exception
+	 * @see Method#invoke
+	 */
+	@Nullable
+	public Object invoke(Object target, Object... args) throws InvocationTargetException {
+		if (!this.method.getDeclaringClass().isInstance(target)) {
+			throw new IllegalArgumentException("object is not an instance of declaring class");
+		}
+		if (args.length != this.parameterTypes.length) {
+			throw new IllegalArgumentException("wrong number of arguments");
+		}
+		try {
+			return this.invocation.invoke(target, args);
+		}
+		catch (Throwable ex) {
+			if ((ex instanceof ClassCastException || ex instanceof NullPointerException) && !isApplicable(args)) {
+				throw new IllegalArgumentException("argument type mismatch");
+			}
+			throw new InvocationTargetException(ex);
+		}
+	}
+
+	private boolean isApplicable(Object[] args) {
+		for (int i = 0; i < args.length; i++) {
+			Class<?> parameterType = this.parameterTypes[i];
+			if (args[i] == null ? parameterType.isPrimitive() : !ClassUtils.isAssignableValue(parameterType, args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "HandlerMethodInvoker for " + this.method.toGenericString();
+	}
+
+
+	/**
+	 * Generate an invoker for the given method, if possible.
+	 * @param method the method to generate an invoker for
+	 * @return the invoker, or {@code null} if the method is not supported
+	 * (see {@link HandlerMethodInvoker class-level docs}) or if the function
+	 * could not be generated on the current JVM
+	 */
+	@Nullable
+	public static HandlerMethodInvoker forMethod(Method method) {
+		if (!isSupported(method)) {
+			return null;
+		}
+		try {
+			int parameterCount = method.getParameterCount();
+			boolean isVoid = (method.getReturnType() == void.class);
+			MethodHandle target = lookup.unreflect(method);
+			MethodType samType = MethodType.genericMethodType(parameterCount + 1);
+			MethodType instantiatedType = target.type().wrap();
+			if (isVoid) {
+				samType = samType.changeReturnType(void.class);
+				instantiatedType = instantiatedType.changeReturnType(void.class);
+			}
+			else {
+				instantiatedType = instantiatedType.changeReturnType(Object.class);
+			}
+			Class<?> invokerType = (isVoid ? voidInvokerTypes : invokerTypes)[parameterCount];
+			CallSite callSite = LambdaMetafactory.metafactory(
+					lookup, "invoke", MethodType.methodType(invokerType), samType, target, instantiatedType);
+			return new HandlerMethodInvoker(method, adapt(callSite.getTarget().invoke()));
+		}
+		catch (Throwable ex) {
+			// Function generation not possible: fall back to reflective invocation
+			return null;
+		}
+	}
+
+	private static boolean isSupported(Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers()) ||
+				method.getParameterCount() > MAX_PARAMETER_COUNT || KotlinDetector.isSuspendingFunction(method)) {
+			return false;
+		}
+		if (!isAccessible(method.getDeclaringClass()) || !isAccessible(method.getReturnType())) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!isAccessible(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return (type.isPrimitive() || (Modifier.isPublic(type.getModifiers()) &&
+				ClassUtils.isVisible(type, HandlerMethodInvoker.class.getClassLoader())));
+	}
+
+	private static Invocation adapt(Object invoker) {
+		if (invoker instanceof Invoker0) {
+			return (target, args) -> ((Invoker0) invoker).invoke(target);
+		}
+		if (invoker instanceof Invoker1) {
+			return (target, args) -> ((Invoker1) invoker).invoke(target, args[0]);
+		}
+		if (invoker instanceof Invoker2) {
+			return (target, args) -> ((Invoker2) invoker).invoke(target, args[0], args[1]);
+		}
+		if (invoker instanceof Invoker3) {
+			return (target, args) -> ((Invoker3) invoker).invoke(target, args[0], args[1], args[2]);
+		}
+		if (invoker instanceof Invoker4) {
+			return (target, args) -> ((Invoker4) invoker).invoke(target, args[0], args[1], args[2], args[3]);
+		}
+		if (invoker instanceof Invoker5) {
+			return (target, args) -> ((Invoker5) invoker).invoke(target, args[0], args[1], args[2], args[3], args[4]);
+		}
+		if (invoker instanceof Invoker6) {
+			return (target, args) -> ((Invoker6) invoker).invoke(
+					target, args[0], args[1], args[2], args[3], args[4], args[5]);
+		}
+		if (invoker instanceof Invoker7) {
+			return (target, args) -> ((Invoker7) invoker).invoke(
+					target, args[0], args[1], args[2], args[3], args[4], args[5], args[6]);
+		}
+		if (invoker instanceof Invoker8) {
+			return (target, args) -> ((Invoker8) invoker).invoke(
+					target, args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7]);
+		}
+		return adaptVoid(invoker);
+	}
+
+	private static Invocation adaptVoid(Object invoker) {
+		if (invoker instanceof VoidInvoker0) {
+			return (target, args) -> {
+				((VoidInvoker0) invoker).invoke(target);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker1) {
+			return (target, args) -> {
+				((VoidInvoker1) invoker).invoke(target, args[0]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker2) {
+			return (target, args) -> {
+				((VoidInvoker2) invoker).invoke(target, args[0], args[1]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker3) {
+			return (target, args) -> {
+				((VoidInvoker3) invoker).invoke(target, args[0], args[1], args[2]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker4) {
+			return (target, args) -> {
+				((VoidInvoker4) invoker).invoke(target, args[0], args[1], args[2], args[3]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker5) {
+			return (target, args) -> {
+				((VoidInvoker5) invoker).invoke(target, args[0], args[1], args[2], args[3], args[4]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker6) {
+			return (target, args) -> {
+				((VoidInvoker6) invoker).invoke(target, args[0], args[1], args[2], args[3], args[4], args[5]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker7) {
+			return (target, args) -> {
+				((VoidInvoker7) invoker).invoke(target, args[0], args[1], args[2], args[3], args[4], args[5], args[6]);
+				return null;
+			};
+		}
+		if (invoker instanceof VoidInvoker8) {
+			return (target, args) -> {
+				((VoidInvoker8) invoker).invoke(
+						target, args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7]);
+				return null;
+			};
+		}
+		throw new IllegalStateException("Unexpected invoker: " + invoker);
+	}
+
+
+	/**
+	 * Common invocation contract for the arity-specific generated functions.
+	 */
+	@FunctionalInterface
+	private interface Invocation {
+
+		@Nullable
+		Object invoke(Object target, Object[] args);
+	}
+
+
+	// Functional interfaces implemented by the generated functions, one per arity,
+	// returning the method's return value or (for void methods) returning nothing
+
+	interface Invoker0 {
+		@Nullable
+		Object invoke(Object target);
+	}
+
+	interface Invoker1 {
+		@Nullable
+		Object invoke(Object target, Object a0);
+	}
+
+	interface Invoker2 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1);
+	}
+
+	interface Invoker3 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2);
+	}
+
+	interface Invoker4 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3);
+	}
+
+	interface Invoker5 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4);
+	}
+
+	interface Invoker6 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+	}
+
+	interface Invoker7 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+	}
+
+	interface Invoker8 {
+		@Nullable
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6,
+				Object a7);
+	}
+
+	interface VoidInvoker0 {
+		void invoke(Object target);
+	}
+
+	interface VoidInvoker1 {
+		void invoke(Object target, Object a0);
+	}
+
+	interface VoidInvoker2 {
+		void invoke(Object target, Object a0, Object a1);
+	}
+
+	interface VoidInvoker3 {
+		void invoke(Object target, Object a0, Object a1, Object a2);
+	}
+
+	interface VoidInvoker4 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3);
+	}
+
+	interface VoidInvoker5 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4);
+	}
+
+	interface VoidInvoker6 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+	}
+
+	interface VoidInvoker7 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+	}
+
+	interface VoidInvoker8 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6,
+				Object a7);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,6 +129,23 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Determine the {@link HandlerMethodArgumentResolver} for each of the given
+	 * method parameters upfront, e.g. once per handler method.
+	 * @param parameters the method parameters to find resolvers for
+	 * @return an array with the resolver for each parameter at the same index,
+	 * containing {@code null} for parameters that no registered resolver supports
+	 * @since 5.3.9
+	 * @see InvocableHandlerMethod#setParameterResolvers
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter... parameters) {
+		HandlerMethodArgumentResolver[] result = new HandlerMethodArgumentResolver[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			result[i] = getArgumentResolver(parameters[i]);
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
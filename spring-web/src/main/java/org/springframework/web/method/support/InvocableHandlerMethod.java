@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.WebDataBinder;
@@ -33,6 +34,7 @@ import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 
 /**
  * Extension of {@link HandlerMethod} that invokes the underlying method with
@@ -51,6 +53,12 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
+	@Nullable
+	private HandlerMethodArgumentResolver[] parameterResolvers;
+
+	@Nullable
+	private HandlerMethodInvoker methodInvoker;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
 	@Nullable
@@ -93,6 +101,49 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.resolvers = argumentResolvers;
 	}
 
+	/**
+	 * Set the {@link HandlerMethodArgumentResolver} to use for each method parameter,
+	 * as determined once per handler method through
+	 * {@link HandlerMethodArgumentResolverComposite#getArgumentResolvers}.
+	 * <p>This avoids a resolver lookup per parameter on each invocation. A
+	 * {@code null} entry indicates a parameter that no resolver supports, i.e.
+	 * a parameter that is expected to be provided as argument value.
+	 * <p>By default, the resolver for each parameter is looked up through the
+	 * {@link #setHandlerMethodArgumentResolvers argument resolvers} on each invocation.
+	 * @param parameterResolvers an array with the resolver for each method parameter
+	 * at the same index, or {@code null} to look up resolvers on each invocation
+	 * @since 5.3.9
+	 */
+	public void setParameterResolvers(@Nullable HandlerMethodArgumentResolver[] parameterResolvers) {
+		Assert.isTrue(parameterResolvers == null || parameterResolvers.length == getMethodParameters().length,
+				"Number of parameter resolvers does not match number of method parameters");
+		this.parameterResolvers = parameterResolvers;
+	}
+
+	/**
+	 * Return the {@link HandlerMethodArgumentResolver} to use for each method
+	 * parameter, if {@link #setParameterResolvers determined upfront}.
+	 * @since 5.3.9
+	 */
+	@Nullable
+	public HandlerMethodArgumentResolver[] getParameterResolvers() {
+		return this.parameterResolvers;
+	}
+
+	/**
+	 * Set a {@link HandlerMethodInvoker} to call the handler method through,
+	 * instead of invoking the method reflectively.
+	 * @param methodInvoker the invoker for the {@link #getBridgedMethod() bridged method},
+	 * or {@code null} for reflective invocation
+	 * @since 5.3.9
+	 * @see HandlerMethodInvoker#forMethod
+	 */
+	public void setMethodInvoker(@Nullable HandlerMethodInvoker methodInvoker) {
+		Assert.isTrue(methodInvoker == null || methodInvoker.getMethod().equals(getBridgedMethod()),
+				"HandlerMethodInvoker does not match handler method");
+		this.methodInvoker = methodInvoker;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -173,13 +224,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 				continue;
 			}
 
-			// <2> 判断 argumentResolvers 是否支持当前的参数解析
-			if (!this.resolvers.supportsParameter(parameter)) {
+			// <2> 判断 argumentResolvers 是否支持当前的参数解析（优先使用预先确定的解析器）
+			HandlerMethodArgumentResolver resolver = getArgumentResolver(i, parameter);
+			if (resolver == null) {
 				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
 			}
 			try {
 				// 执行解析
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
@@ -196,14 +248,26 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return args;
 	}
 
+	@Nullable
+	private HandlerMethodArgumentResolver getArgumentResolver(int index, MethodParameter parameter) {
+		if (this.parameterResolvers != null) {
+			return this.parameterResolvers[index];
+		}
+		return (this.resolvers.supportsParameter(parameter) ? this.resolvers : null);
+	}
+
 	/**
 	 * Invoke the handler method with the given argument values.
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) throws Exception {
 		Method method = getBridgedMethod();
-		ReflectionUtils.makeAccessible(method);
 		try {
+			if (this.methodInvoker != null) {
+				// 通过生成的调用器直接调用，无需反射
+				return this.methodInvoker.invoke(getBean(), args);
+			}
+			ReflectionUtils.makeAccessible(method);
 			if (KotlinDetector.isSuspendingFunction(method)) {
 				return CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
 			}
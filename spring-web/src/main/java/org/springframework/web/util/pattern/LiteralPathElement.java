@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -117,6 +117,10 @@ class LiteralPathElement extends PathElement {
 		return this.text;
 	}
 
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
 
 	@Override
 	public String toString() {
@@ -25,8 +25,10 @@ import java.util.StringJoiner;
 
 import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
 import org.springframework.http.server.PathContainer.Separator;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -149,6 +151,26 @@ public class PathPattern implements Comparable<PathPattern> {
 	/** Does the pattern end with {*...}. */
 	private boolean catchAll = false;
 
+	/** Minimum number of path elements that a candidate must have to match. */
+	private int minPathLength;
+
+	/** Maximum number of path elements that a candidate may have to match. */
+	private int maxPathLength = Integer.MAX_VALUE;
+
+	/** Positions of case-sensitive literal segments within a candidate, last segment first. */
+	private final int[] literalPositions;
+
+	/** The literal segments expected at the corresponding {@link #literalPositions}. */
+	private final String[] literalValues;
+
+	/** Positions of captured segments within a candidate, if all variables capture an entire segment. */
+	@Nullable
+	private final int[] capturePositions;
+
+	/** The variable names for the corresponding {@link #capturePositions}. */
+	@Nullable
+	private final String[] captureNames;
+
 
 	PathPattern(String patternText, PathPatternParser parser, @Nullable PathElement head) {
 		this.patternString = patternText;
@@ -172,6 +194,52 @@ public class PathPattern implements Comparable<PathPattern> {
 			}
 			elem = elem.next;
 		}
+
+		// Compile positional checks: each path element except for a trailing
+		// catch-all element consumes exactly one element of a candidate path
+		int elementCount = 0;
+		int literalCount = 0;
+		boolean segmentCapturesOnly = true;
+		for (elem = head; elem != null; elem = elem.next) {
+			elementCount++;
+			if (isCaseSensitiveLiteral(elem)) {
+				literalCount++;
+			}
+			if (elem.getCaptureCount() > 0 && !(elem instanceof CaptureVariablePathElement)) {
+				segmentCapturesOnly = false;
+			}
+		}
+		this.literalPositions = new int[literalCount];
+		this.literalValues = new String[literalCount];
+		this.capturePositions = (segmentCapturesOnly ? new int[this.capturedVariableCount] : null);
+		this.captureNames = (segmentCapturesOnly ? new String[this.capturedVariableCount] : null);
+		int position = 0;
+		int captureIndex = 0;
+		PathElement last = null;
+		for (elem = head; elem != null; elem = elem.next) {
+			if (isCaseSensitiveLiteral(elem)) {
+				literalCount--;
+				this.literalPositions[literalCount] = position;
+				this.literalValues[literalCount] = String.valueOf(elem.getChars());
+			}
+			else if (elem instanceof CaptureVariablePathElement && this.capturePositions != null) {
+				this.capturePositions[captureIndex] = position;
+				this.captureNames[captureIndex] = ((CaptureVariablePathElement) elem).getVariableName();
+				captureIndex++;
+			}
+			position++;
+			last = elem;
+		}
+		if (last != null && !this.catchAll) {
+			// A trailing wildcard may match a missing last segment
+			this.minPathLength = (last instanceof WildcardPathElement || last instanceof RegexPathElement ?
+					elementCount - 1 : elementCount);
+			this.maxPathLength = (this.matchOptionalTrailingSeparator ? elementCount + 1 : elementCount);
+		}
+	}
+
+	private static boolean isCaseSensitiveLiteral(PathElement elem) {
+		return (elem instanceof LiteralPathElement && ((LiteralPathElement) elem).isCaseSensitive());
 	}
 
 
@@ -210,6 +278,9 @@ public class PathPattern implements Comparable<PathPattern> {
 				return false;
 			}
 		}
+		if (!isCandidate(pathContainer)) {
+			return false;
+		}
 		MatchingContext matchingContext = new MatchingContext(pathContainer, false);
 		return this.head.matches(0, matchingContext);
 	}
@@ -235,6 +306,18 @@ public class PathPattern implements Comparable<PathPattern> {
 				return null;
 			}
 		}
+		if (!isCandidate(pathContainer)) {
+			return null;
+		}
+		if (this.capturePositions != null && this.captureNames != null) {
+			// Match without extracting: variables are resolved lazily from their segment positions
+			MatchingContext matchingContext = new MatchingContext(pathContainer, false);
+			if (!this.head.matches(0, matchingContext)) {
+				return null;
+			}
+			return (this.capturePositions.length > 0 ?
+					new PathMatchInfo(pathContainer, this.captureNames, this.capturePositions) : PathMatchInfo.EMPTY);
+		}
 		MatchingContext matchingContext = new MatchingContext(pathContainer, true);
 		return this.head.matches(0, matchingContext) ? matchingContext.getPathMatchResult() : null;
 	}
@@ -540,6 +623,31 @@ public class PathPattern implements Comparable<PathPattern> {
 		return -pattern.getNormalizedLength();
 	}
 
+	/**
+	 * Quick check whether the given path may match, based on its number of
+	 * elements and on the literal segments expected at fixed positions,
+	 * before walking the chain of path elements.
+	 */
+	private boolean isCandidate(PathContainer pathContainer) {
+		List<Element> elements = pathContainer.elements();
+		int size = elements.size();
+		if (size < this.minPathLength || size > this.maxPathLength) {
+			return false;
+		}
+		for (int i = 0; i < this.literalPositions.length; i++) {
+			int position = this.literalPositions[i];
+			if (position >= size) {
+				return false;
+			}
+			Element element = elements.get(position);
+			if (!(element instanceof PathSegment) ||
+					!this.literalValues[i].equals(((PathSegment) element).valueToMatch())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private boolean pathContainerIsJustSeparator(PathContainer pathContainer) {
 		return pathContainer.value().length() == 1 &&
 				pathContainer.value().charAt(0) == getSeparator();
@@ -554,21 +662,49 @@ public class PathPattern implements Comparable<PathPattern> {
 
 		private static final PathMatchInfo EMPTY = new PathMatchInfo(Collections.emptyMap(), Collections.emptyMap());
 
-		private final Map<String, String> uriVariables;
+		@Nullable
+		private final PathContainer path;
+
+		@Nullable
+		private final String[] captureNames;
 
-		private final Map<String, MultiValueMap<String, String>> matrixVariables;
+		@Nullable
+		private final int[] capturePositions;
+
+		@Nullable
+		private volatile Map<String, String> uriVariables;
+
+		@Nullable
+		private volatile Map<String, MultiValueMap<String, String>> matrixVariables;
 
 		PathMatchInfo(Map<String, String> uriVars, @Nullable Map<String, MultiValueMap<String, String>> matrixVars) {
+			this.path = null;
+			this.captureNames = null;
+			this.capturePositions = null;
 			this.uriVariables = Collections.unmodifiableMap(uriVars);
 			this.matrixVariables = (matrixVars != null ?
 					Collections.unmodifiableMap(matrixVars) : Collections.emptyMap());
 		}
 
+		/**
+		 * Create a match result that extracts its variables on demand,
+		 * from the segments at the given positions of the matched path.
+		 */
+		PathMatchInfo(PathContainer path, String[] captureNames, int[] capturePositions) {
+			this.path = path;
+			this.captureNames = captureNames;
+			this.capturePositions = capturePositions;
+		}
+
 		/**
 		 * Return the extracted URI variables.
 		 */
 		public Map<String, String> getUriVariables() {
-			return this.uriVariables;
+			Map<String, String> uriVariables = this.uriVariables;
+			if (uriVariables == null) {
+				uriVariables = extractVariables();
+			}
+			return uriVariables;
 		}
 
 		/**
@@ -576,13 +712,42 @@ public class PathPattern implements Comparable<PathPattern> {
 		 * variable name.
 		 */
 		public Map<String, MultiValueMap<String, String>> getMatrixVariables() {
-			return this.matrixVariables;
+			Map<String, MultiValueMap<String, String>> matrixVariables = this.matrixVariables;
+			if (matrixVariables == null) {
+				extractVariables();
+				matrixVariables = this.matrixVariables;
+				Assert.state(matrixVariables != null, "No matrix variables extracted");
+			}
+			return matrixVariables;
+		}
+
+		private Map<String, String> extractVariables() {
+			Assert.state(this.path != null && this.captureNames != null && this.capturePositions != null,
+					"No captured segments");
+			List<Element> elements = this.path.elements();
+			Map<String, String> uriVars = new HashMap<>();
+			Map<String, MultiValueMap<String, String>> matrixVars = null;
+			for (int i = 0; i < this.captureNames.length; i++) {
+				PathSegment segment = (PathSegment) elements.get(this.capturePositions[i]);
+				uriVars.put(this.captureNames[i], segment.valueToMatch());
+				if (!segment.parameters().isEmpty()) {
+					if (matrixVars == null) {
+						matrixVars = new HashMap<>();
+					}
+					matrixVars.put(this.captureNames[i], CollectionUtils.unmodifiableMultiValueMap(segment.parameters()));
+				}
+			}
+			this.matrixVariables = (matrixVars != null ?
+					Collections.unmodifiableMap(matrixVars) : Collections.emptyMap());
+			Map<String, String> uriVariables = Collections.unmodifiableMap(uriVars);
+			this.uriVariables = uriVariables;
+			return uriVariables;
 		}
 
 		@Override
 		public String toString() {
-			return "PathMatchInfo[uriVariables=" + this.uriVariables + ", " +
-					"matrixVariables=" + this.matrixVariables + "]";
+			return "PathMatchInfo[uriVariables=" + getUriVariables() + ", " +
+					"matrixVariables=" + getMatrixVariables() + "]";
 		}
 	}
 
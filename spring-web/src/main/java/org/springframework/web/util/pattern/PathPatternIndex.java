@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of values registered against {@link PathPattern PathPatterns},
+ * organized as a segment trie over the leading literal segments of each
+ * pattern. Narrows a large number of patterns down to the few candidates
+ * that may possibly match a given path, before performing the actual match.
+ *
+ * <p>Each value is stored at the trie node reached through the leading
+ * separators and (case-sensitive) literal segments of its pattern. Patterns
+ * starting with a capture, wildcard or regex segment are stored at the root
+ * and therefore remain candidates for any path. The candidates for a path are
+ * the values of all nodes along the trie path that the path's leading
+ * elements lead to.
+ *
+ * <p>Modifications are not thread-safe: concurrent registrations need to be
+ * guarded by the caller, e.g. through a read-write lock.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3.9
+ * @param <T> the type of values registered against patterns
+ */
+public class PathPatternIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private int size;
+
+
+	/**
+	 * Register the given value for the given pattern.
+	 * @param pattern the pattern to index the value by
+	 * @param value the value to register
+	 */
+	public void add(PathPattern pattern, T value) {
+		Node<T> node = this.root;
+		PathElement element = pattern.getHeadSection();
+		while (element != null && isIndexable(element)) {
+			node = node.getOrCreateChild(element);
+			element = element.next;
+		}
+		node.values.add(value);
+		this.size++;
+	}
+
+	/**
+	 * Remove the given value as registered for the given pattern.
+	 * @param pattern the pattern that the value has been registered for
+	 * @param value the value to remove
+	 * @return {@code true} if the value was found and removed,
+	 * {@code false} otherwise
+	 */
+	public boolean remove(PathPattern pattern, T value) {
+		if (remove(this.root, pattern.getHeadSection(), value)) {
+			this.size--;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean remove(Node<T> node, @Nullable PathElement element, T value) {
+		if (element == null || !isIndexable(element)) {
+			return node.values.remove(value);
+		}
+		Node<T> child = node.getChild(element);
+		if (child == null || !remove(child, element.next, value)) {
+			return false;
+		}
+		if (child.isEmpty()) {
+			node.removeChild(element);
+		}
+		return true;
+	}
+
+	/**
+	 * Add all values whose patterns may match the given path to the given
+	 * collection, i.e. all values whose leading literal segments match the
+	 * path. The actual pattern match needs to be performed by the caller.
+	 * @param path the path to find candidates for
+	 * @param candidates the collection to add candidate values to
+	 */
+	public void collectCandidates(PathContainer path, Collection<? super T> candidates) {
+		Node<T> node = this.root;
+		List<PathContainer.Element> elements = path.elements();
+		int index = 0;
+		while (node != null) {
+			candidates.addAll(node.values);
+			if (index >= elements.size()) {
+				break;
+			}
+			PathContainer.Element element = elements.get(index++);
+			if (element instanceof PathContainer.PathSegment) {
+				node = (node.literalChildren != null ?
+						node.literalChildren.get(((PathContainer.PathSegment) element).valueToMatch()) : null);
+			}
+			else {
+				node = node.separatorChild;
+			}
+		}
+	}
+
+	/**
+	 * Return the number of registered values.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Whether this index has no registered values.
+	 */
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+
+	private static boolean isIndexable(PathElement element) {
+		return (element instanceof SeparatorPathElement ||
+				(element instanceof LiteralPathElement && ((LiteralPathElement) element).isCaseSensitive()));
+	}
+
+
+	/**
+	 * A node in the trie, with a child per literal segment
+	 * and a single child for a separator.
+	 */
+	private static class Node<T> {
+
+		final List<T> values = new ArrayList<>(1);
+
+		@Nullable
+		Map<String, Node<T>> literalChildren;
+
+		@Nullable
+		Node<T> separatorChild;
+
+		@Nullable
+		Node<T> getChild(PathElement element) {
+			if (element instanceof SeparatorPathElement) {
+				return this.separatorChild;
+			}
+			return (this.literalChildren != null ? this.literalChildren.get(String.valueOf(element.getChars())) : null);
+		}
+
+		Node<T> getOrCreateChild(PathElement element) {
+			if (element instanceof SeparatorPathElement) {
+				if (this.separatorChild == null) {
+					this.separatorChild = new Node<>();
+				}
+				return this.separatorChild;
+			}
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<>();
+			}
+			return this.literalChildren.computeIfAbsent(String.valueOf(element.getChars()), key -> new Node<>());
+		}
+
+		void removeChild(PathElement element) {
+			if (element instanceof SeparatorPathElement) {
+				this.separatorChild = null;
+			}
+			else if (this.literalChildren != null) {
+				this.literalChildren.remove(String.valueOf(element.getChars()));
+				if (this.literalChildren.isEmpty()) {
+					this.literalChildren = null;
+				}
+			}
+		}
+
+		boolean isEmpty() {
+			return (this.values.isEmpty() && this.literalChildren == null && this.separatorChild == null);
+		}
+	}
+
+}
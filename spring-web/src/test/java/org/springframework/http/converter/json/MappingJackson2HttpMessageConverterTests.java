@@ -29,6 +29,7 @@ import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
@@ -48,6 +49,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.within;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -529,6 +531,125 @@ public class MappingJackson2HttpMessageConverterTests {
 		assertThat(outputMessage.getHeaders().getContentType()).as("Invalid content-type").isEqualTo(contentType);
 	}
 
+	@Test
+	public void writeCollectionStreaming() throws Exception {
+		List<MyBean> beans = createBeans(5);
+		MockHttpOutputMessage expected = new MockHttpOutputMessage();
+		this.converter.writeInternal(beans, null, expected);
+
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.setStreamingBatchSize(2);
+		this.converter.writeInternal(beans, null, outputMessage);
+
+		assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8))
+				.isEqualTo(expected.getBodyAsString(StandardCharsets.UTF_8));
+		verify(outputMessage.getBody(), times(3)).flush();
+	}
+
+	@Test
+	public void writeCollectionStreamingWithPrettyPrint() throws Exception {
+		List<MyBean> beans = createBeans(3);
+		this.converter.setPrettyPrint(true);
+		MockHttpOutputMessage expected = new MockHttpOutputMessage();
+		this.converter.writeInternal(beans, null, expected);
+
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.setStreamingBatchSize(2);
+		this.converter.writeInternal(beans, null, outputMessage);
+
+		assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8))
+				.isEqualTo(expected.getBodyAsString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeSubTypeListStreaming() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		ParameterizedTypeReference<List<MyInterface>> typeReference =
+				new ParameterizedTypeReference<List<MyInterface>>() {};
+
+		this.converter.setStreamingBatchSize(1);
+		this.converter.writeInternal(createBeans(2), typeReference.getType(), outputMessage);
+
+		String result = outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+		assertThat(result).startsWith("[").endsWith("]");
+		assertThat(result).contains("\"string\":\"Foo0\"").contains("\"number\":1");
+	}
+
+	@Test
+	public void writeGenericPolymorphicListStreaming() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
+				ObjectMapper.DefaultTyping.OBJECT_AND_NON_CONCRETE);
+		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+		Type type = new ParameterizedTypeReference<ArrayList<MyInterface>>() {}.getType();
+		MockHttpOutputMessage expected = new MockHttpOutputMessage();
+		converter.writeInternal(createBeans(3), type, expected);
+
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		converter.setStreamingBatchSize(2);
+		converter.writeInternal(createBeans(3), type, outputMessage);
+
+		String result = outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+		assertThat(result).isEqualTo(expected.getBodyAsString(StandardCharsets.UTF_8));
+		assertThat(result).contains("[\"" + MyBean.class.getName() + "\",{");
+		verify(outputMessage.getBody(), times(2)).flush();
+
+		// Type information for the collection itself -> written as a whole
+		type = new ParameterizedTypeReference<List<MyInterface>>() {}.getType();
+		converter.setStreamingBatchSize(0);
+		expected = new MockHttpOutputMessage();
+		converter.writeInternal(createBeans(3), type, expected);
+
+		outputMessage = new MockHttpOutputMessage();
+		converter.setStreamingBatchSize(2);
+		converter.writeInternal(createBeans(3), type, outputMessage);
+
+		result = outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+		assertThat(result).isEqualTo(expected.getBodyAsString(StandardCharsets.UTF_8));
+		assertThat(result).startsWith("[\"" + ArrayList.class.getName() + "\",");
+	}
+
+	@Test
+	public void cacheObjectWriters() throws Exception {
+		this.converter.setCacheObjectWriters(true);
+		JacksonViewBean bean = new JacksonViewBean();
+		bean.setWithView1("with");
+		bean.setWithView2("with");
+		bean.setWithoutView("without");
+		MappingJacksonValue jacksonValue = new MappingJacksonValue(bean);
+		jacksonValue.setSerializationView(MyJacksonView1.class);
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+			this.converter.writeInternal(jacksonValue, null, outputMessage);
+			assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo("{\"withView1\":\"with\"}");
+		}
+
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.writeInternal(bean, null, outputMessage);
+		assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).contains("\"withoutView\":\"without\"");
+
+		PrettyPrintBean prettyPrintBean = new PrettyPrintBean();
+		prettyPrintBean.setName("Jason");
+		this.converter.setPrettyPrint(true);
+		outputMessage = new MockHttpOutputMessage();
+		this.converter.writeInternal(prettyPrintBean, null, outputMessage);
+		assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo(("{" + NEWLINE_SYSTEM_PROPERTY +
+				"  \"name\" : \"Jason\"" + NEWLINE_SYSTEM_PROPERTY + "}"));
+	}
+
+
+	private static List<MyBean> createBeans(int count) {
+		List<MyBean> beans = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			MyBean bean = new MyBean();
+			bean.setString("Foo" + i);
+			bean.setNumber(i);
+			beans.add(bean);
+		}
+		return beans;
+	}
+
 
 	interface MyInterface {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import org.springframework.http.converter.json.MappingJacksonValue;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.within;
 
 /**
@@ -204,6 +205,12 @@ public class MappingJackson2XmlHttpMessageConverterTests {
 		assertThat(result.getString()).isEqualTo("føø bår");
 	}
 
+	@Test
+	public void streamingNotSupported() {
+		this.converter.setStreamingBatchSize(0);
+		assertThatIllegalStateException().isThrownBy(() -> this.converter.setStreamingBatchSize(1));
+	}
+
 
 
 	public static class MyBean {
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HandlerMethodInvoker}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class HandlerMethodInvokerTests {
+
+	private final Handler handler = new Handler();
+
+
+	@Test
+	public void invokeWithReturnValue() throws Exception {
+		HandlerMethodInvoker invoker = invoker("handle", Integer.class, String.class);
+		assertThat(invoker.getMethod()).isEqualTo(method("handle", Integer.class, String.class));
+		assertThat(invoker.invoke(this.handler, 99, "value")).isEqualTo("99-value");
+		assertThat(invoker.invoke(this.handler, null, null)).isEqualTo("null-null");
+	}
+
+	@Test
+	public void invokeWithPrimitives() throws Exception {
+		HandlerMethodInvoker invoker = invoker("add", int.class, long.class);
+		assertThat(invoker.invoke(this.handler, 1, 2L)).isEqualTo(3L);
+	}
+
+	@Test
+	public void invokeVoidMethod() throws Exception {
+		HandlerMethodInvoker invoker = invoker("record", String.class);
+		assertThat(invoker.invoke(this.handler, "value")).isNull();
+		assertThat(this.handler.recorded).isEqualTo("value");
+
+		assertThat(invoker("noArgs").invoke(this.handler)).isNull();
+		assertThat(this.handler.recorded).isEqualTo("noArgs");
+	}
+
+	@Test
+	public void invokeWithMaxParameterCount() throws Exception {
+		HandlerMethodInvoker invoker = invoker("concat", String.class, String.class, String.class,
+				String.class, String.class, String.class, String.class, String.class);
+		assertThat(invoker.invoke(this.handler, "a", "b", "c", "d", "e", "f", "g", "h")).isEqualTo("abcdefgh");
+	}
+
+	@Test
+	public void invokeOnSubclassInstance() throws Exception {
+		HandlerMethodInvoker invoker = invoker("handle", Integer.class, String.class);
+		assertThat(invoker.invoke(new SubHandler(), 1, "value")).isEqualTo("sub:1-value");
+	}
+
+	@Test
+	public void invocationTargetException() throws Exception {
+		HandlerMethodInvoker invoker = invoker("fail", Throwable.class);
+
+		IOException checkedException = new IOException("error");
+		assertThatExceptionOfType(InvocationTargetException.class)
+				.isThrownBy(() -> invoker.invoke(this.handler, checkedException))
+				.withCause(checkedException);
+
+		ClassCastException classCastException = new ClassCastException("error");
+		assertThatExceptionOfType(InvocationTargetException.class)
+				.isThrownBy(() -> invoker.invoke(this.handler, classCastException))
+				.withCause(classCastException);
+	}
+
+	@Test
+	public void illegalArguments() throws Exception {
+		HandlerMethodInvoker invoker = invoker("add", int.class, long.class);
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.handler, "1", 2L))
+				.withMessage("argument type mismatch");
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.handler, null, 2L))
+				.withMessage("argument type mismatch");
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.handler, 1))
+				.withMessage("wrong number of arguments");
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(new Object(), 1, 2L))
+				.withMessage("object is not an instance of declaring class");
+	}
+
+	@Test
+	public void unsupportedMethods() throws Exception {
+		assertThat(HandlerMethodInvoker.forMethod(Handler.class.getDeclaredMethod("hidden"))).isNull();
+		assertThat(HandlerMethodInvoker.forMethod(Handler.class.getMethod("create"))).isNull();
+		assertThat(HandlerMethodInvoker.forMethod(Handler.class.getMethod("internal", InternalType.class))).isNull();
+		assertThat(HandlerMethodInvoker.forMethod(InternalType.class.getMethod("handle"))).isNull();
+		assertThat(HandlerMethodInvoker.forMethod(Handler.class.getMethod("concat", String.class, String.class,
+				String.class, String.class, String.class, String.class, String.class, String.class, String.class)))
+				.isNull();
+	}
+
+
+	private HandlerMethodInvoker invoker(String methodName, Class<?>... parameterTypes) throws Exception {
+		HandlerMethodInvoker invoker = HandlerMethodInvoker.forMethod(method(methodName, parameterTypes));
+		assertThat(invoker).isNotNull();
+		return invoker;
+	}
+
+	private static Method method(String methodName, Class<?>... parameterTypes) throws Exception {
+		return Handler.class.getMethod(methodName, parameterTypes);
+	}
+
+
+	@SuppressWarnings("unused")
+	public static class Handler {
+
+		String recorded;
+
+		public String handle(Integer intArg, String stringArg) {
+			return intArg + "-" + stringArg;
+		}
+
+		public long add(int a, long b) {
+			return a + b;
+		}
+
+		public void record(String value) {
+			this.recorded = value;
+		}
+
+		public void noArgs() {
+			this.recorded = "noArgs";
+		}
+
+		public String concat(String a, String b, String c, String d, String e, String f, String g, String h) {
+			return a + b + c + d + e + f + g + h;
+		}
+
+		public String concat(String a, String b, String c, String d, String e, String f, String g, String h,
+				String i) {
+			return a + b + c + d + e + f + g + h + i;
+		}
+
+		public void fail(Throwable ex) throws Throwable {
+			throw ex;
+		}
+
+		public void internal(InternalType internal) {
+		}
+
+		public static Handler create() {
+			return new Handler();
+		}
+
+		private void hidden() {
+		}
+	}
+
+
+	public static class SubHandler extends Handler {
+
+		@Override
+		public String handle(Integer intArg, String stringArg) {
+			return "sub:" + super.handle(intArg, stringArg);
+		}
+	}
+
+
+	static class InternalType {
+
+		public void handle() {
+		}
+	}
+
+}
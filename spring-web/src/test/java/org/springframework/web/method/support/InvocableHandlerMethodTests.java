@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,40 @@ public class InvocableHandlerMethodTests {
 		assertThat(returnValue).isEqualTo("null-null");
 	}
 
+	@Test
+	public void resolveArgWithParameterResolvers() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		HandlerMethodArgumentResolver[] parameterResolvers =
+				this.composite.getArgumentResolvers(handlerMethod.getMethodParameters());
+		assertThat(parameterResolvers).containsExactly(getStubResolver(0), getStubResolver(1));
+
+		handlerMethod.setParameterResolvers(parameterResolvers);
+		this.composite.clear();
+		Object value = handlerMethod.invokeForRequest(request, null);
+
+		assertThat(value).isEqualTo("99-value");
+		assertThat(((StubArgumentResolver) parameterResolvers[0]).getResolvedParameters()).hasSize(1);
+		assertThat(((StubArgumentResolver) parameterResolvers[1]).getResolvedParameters()).hasSize(1);
+	}
+
+	@Test
+	public void cannotResolveArgWithParameterResolvers() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		HandlerMethodArgumentResolver[] parameterResolvers =
+				this.composite.getArgumentResolvers(handlerMethod.getMethodParameters());
+		assertThat(parameterResolvers[1]).isNull();
+
+		handlerMethod.setParameterResolvers(parameterResolvers);
+		assertThat(handlerMethod.invokeForRequest(request, null, "value")).isEqualTo("99-value");
+		assertThatIllegalStateException().isThrownBy(() -> handlerMethod.invokeForRequest(request, null))
+			.withMessageContaining("Could not resolve parameter [1]");
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				handlerMethod.setParameterResolvers(new HandlerMethodArgumentResolver[1]));
+	}
+
 	@Test
 	public void cannotResolveArg() throws Exception {
 		assertThatIllegalStateException().isThrownBy(() ->
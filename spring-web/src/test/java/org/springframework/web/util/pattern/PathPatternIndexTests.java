@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PathPatternIndex}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class PathPatternIndexTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	private final PathPatternIndex<String> index = new PathPatternIndex<>();
+
+
+	@Test
+	public void candidatesByLiteralPrefix() {
+		add("/projects/{name}", "/projects/{name}/releases/{version}", "/team/{username}",
+				"/blog/category/{category}.atom", "/static/**");
+
+		assertThat(candidates("/projects/spring-boot"))
+				.containsExactly("/projects/{name}", "/projects/{name}/releases/{version}");
+		assertThat(candidates("/team/jhoeller")).containsExactly("/team/{username}");
+		assertThat(candidates("/blog/category/news.atom")).containsExactly("/blog/category/{category}.atom");
+		assertThat(candidates("/static/css/style.css")).containsExactly("/static/**");
+		assertThat(candidates("/unknown/path")).isEmpty();
+		assertThat(candidates("")).isEmpty();
+	}
+
+	@Test
+	public void nonLiteralLeadingSegmentIsCandidateForAnyPath() {
+		add("/**", "/{*path}", "/{id}/details", "/proj*/{name}", "", "/team/{username}");
+
+		assertThat(candidates("/team/jhoeller"))
+				.containsExactlyInAnyOrder("/**", "/{*path}", "/{id}/details", "/proj*/{name}", "", "/team/{username}");
+		assertThat(candidates("/projects/spring-boot"))
+				.containsExactlyInAnyOrder("/**", "/{*path}", "/{id}/details", "/proj*/{name}", "");
+	}
+
+	@Test
+	public void candidatesIncludeAllMatchingPatterns() {
+		List<String> patterns = Arrays.asList("/projects", "/projects/", "/projects/{name}", "/projects/{name}/**",
+				"/projects/spring-{name}", "/projects/{name:[a-z-]+}", "/{*rest}", "/team", "/projects/spring");
+		add(patterns.toArray(new String[0]));
+
+		for (String path : Arrays.asList("/projects", "/projects/", "/projects/spring-boot",
+				"/projects/spring-boot/releases", "/projects/spring", "/team/", "/projects//x")) {
+			PathContainer container = PathContainer.parsePath(path);
+			Set<String> candidates = candidates(path);
+			for (String pattern : patterns) {
+				if (this.parser.parse(pattern).matches(container)) {
+					assertThat(candidates).as("Candidates for " + path).contains(pattern);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void caseInsensitiveLiteralsAreNotIndexed() {
+		PathPatternParser caseInsensitiveParser = new PathPatternParser();
+		caseInsensitiveParser.setCaseSensitive(false);
+		this.index.add(caseInsensitiveParser.parse("/Projects/{name}"), "/Projects/{name}");
+
+		assertThat(candidates("/PROJECTS/spring-boot")).containsExactly("/Projects/{name}");
+	}
+
+	@Test
+	public void remove() {
+		add("/projects/{name}", "/projects/{name}/releases/{version}", "/{*path}");
+		assertThat(this.index.size()).isEqualTo(3);
+
+		assertThat(this.index.remove(this.parser.parse("/projects/{name}/releases/{version}"),
+				"/projects/{name}/releases/{version}")).isTrue();
+		assertThat(this.index.remove(this.parser.parse("/projects/{name}"), "other")).isFalse();
+		assertThat(this.index.remove(this.parser.parse("/team/{name}"), "/team/{name}")).isFalse();
+		assertThat(candidates("/projects/spring-boot/releases/2.5.0"))
+				.containsExactly("/{*path}", "/projects/{name}");
+
+		assertThat(this.index.remove(this.parser.parse("/projects/{name}"), "/projects/{name}")).isTrue();
+		assertThat(this.index.remove(this.parser.parse("/{*path}"), "/{*path}")).isTrue();
+		assertThat(this.index.isEmpty()).isTrue();
+		assertThat(candidates("/projects/spring-boot")).isEmpty();
+	}
+
+
+	private void add(String... patterns) {
+		for (String pattern : patterns) {
+			this.index.add(this.parser.parse(pattern), pattern);
+		}
+	}
+
+	private Set<String> candidates(String path) {
+		Set<String> candidates = new LinkedHashSet<>();
+		this.index.collectCandidates(PathContainer.parsePath(path), candidates);
+		return candidates;
+	}
+
+}
@@ -1141,6 +1141,45 @@ public class PathPatternTests {
 		assertThat(result).isNotNull();
 	}
 
+	@Test
+	public void literalSegmentsAndPathLength() {
+		PathPattern p = parse("/api/{service}/items/{id}/details");
+		assertMatches(p, "/api/orders/items/42/details");
+		assertMatches(p, "/api/orders/items/42/details/");
+		assertNoMatch(p, "/api/orders/items/42/summary");
+		assertNoMatch(p, "/api/orders/items/42");
+		assertNoMatch(p, "/api/orders/items/42/details/more");
+		assertNoMatch(p, "/api/orders/items/42/details//");
+
+		p = parse("/api/*");
+		assertMatches(p, "/api/");
+		assertMatches(p, "/api/orders");
+		assertMatches(p, "/api/orders/");
+		assertNoMatch(p, "/api");
+		assertNoMatch(p, "/api/orders/items");
+
+		p = parse("/api/**");
+		assertMatches(p, "/api");
+		assertMatches(p, "/api/orders/items/42/details");
+		assertNoMatch(p, "/apis/orders");
+	}
+
+	@Test
+	public void lazilyExtractedVariables() {
+		PathPattern.PathMatchInfo result = matchAndExtract("/api/{service}/items/{id}", "/api/orders/items/42;v=1");
+		assertThat(result.getUriVariables()).hasSize(2).containsEntry("service", "orders").containsEntry("id", "42");
+		assertThat(result.getMatrixVariables()).containsOnlyKeys("id");
+		assertThat(result.getMatrixVariables().get("id").getFirst("v")).isEqualTo("1");
+		assertThat(result.getUriVariables()).isSameAs(result.getUriVariables());
+
+		result = matchAndExtract("/api/{service}/items/{id:[0-9]+}", "/api/orders/items/42");
+		assertThat(result.getMatrixVariables()).isEmpty();
+		assertThat(result.getUriVariables()).containsEntry("id", "42");
+		assertThat(matchAndExtract("/api/{service}/items/{id:[0-9]+}", "/api/orders/items/abc")).isNull();
+
+		assertThat(matchAndExtract("/api/orders", "/api/orders").getUriVariables()).isEmpty();
+	}
+
 	private PathPattern.PathMatchInfo matchAndExtract(String pattern, String path) {
 		return parse(pattern).matchAndExtract(PathPatternTests.toPathContainer(path));
 	}
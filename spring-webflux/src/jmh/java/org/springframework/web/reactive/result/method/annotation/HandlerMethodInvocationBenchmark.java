@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.result.method.InvocableHandlerMethod;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+/**
+ * Benchmarks for the invocation of WebFlux controller methods, comparing
+ * reflective invocation with {@link HandlerMethodInvoker generated invokers}:
+ * for the bare invocation of a handler method with given arguments as well as
+ * for a full {@link RequestMappingHandlerAdapter} request handling cycle.
+ * Run with the JMH GC profiler ({@code -prof gc}) for allocations per call.
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+public class HandlerMethodInvocationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class InvocationData {
+
+		@Param({"reflective", "generated"})
+		public String invocation;
+
+		public InvocableHandlerMethod invocableMethod;
+
+		public HandlerMethod handlerMethod;
+
+		public RequestMappingHandlerAdapter handlerAdapter;
+
+		public MockServerWebExchange exchange;
+
+		public Object[] providedArgs = {"spring", 42};
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			boolean generated = "generated".equals(this.invocation);
+			TestController controller = new TestController();
+
+			Method invokeMethod = TestController.class.getMethod("greet", String.class, Integer.class);
+			this.invocableMethod = new InvocableHandlerMethod(controller, invokeMethod);
+			if (generated) {
+				this.invocableMethod.setMethodInvoker(HandlerMethodInvoker.forMethod(invokeMethod));
+			}
+
+			Method handleMethod = TestController.class.getMethod("handle", String.class, int.class);
+			this.handlerMethod = new HandlerMethod(controller, handleMethod);
+			StaticApplicationContext context = new StaticApplicationContext();
+			context.refresh();
+			this.handlerAdapter = new RequestMappingHandlerAdapter();
+			this.handlerAdapter.setApplicationContext(context);
+			this.handlerAdapter.setUseGeneratedInvokers(generated);
+			this.handlerAdapter.afterPropertiesSet();
+
+			this.exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/greeting?name=spring&count=42"));
+		}
+	}
+
+	@Benchmark
+	public HandlerResult invoke(InvocationData data) {
+		return data.invocableMethod.invoke(data.exchange, new BindingContext(), data.providedArgs).block();
+	}
+
+	@Benchmark
+	public HandlerResult handleRequest(InvocationData data) {
+		return data.handlerAdapter.handle(data.exchange, data.handlerMethod).block();
+	}
+
+
+	public static class TestController {
+
+		public String greet(String name, Integer count) {
+			return name;
+		}
+
+		public String handle(@RequestParam("name") String name, @RequestParam("count") int count) {
+			return name + count;
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +41,7 @@ import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.cors.CorsConfiguration;
@@ -48,6 +50,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -322,7 +326,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, exchange);
 		}
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, exchange);
+			addMatchingMappings(this.mappingRegistry.getMappingCandidates(exchange), matches, exchange);
 		}
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -439,6 +443,22 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the parsed path patterns of the given mapping, if any, for indexing
+	 * the mapping by the leading literal segments of its patterns. Mappings
+	 * without parsed patterns remain candidates for every request that does
+	 * not match a {@link #getDirectPaths(Object) direct path}.
+	 * <p>The default implementation returns {@code null}.
+	 * @param mapping the mapping to introspect
+	 * @return the path patterns, or {@code null} if not applicable
+	 * @since 5.3.9
+	 * @see PathPatternIndex
+	 */
+	@Nullable
+	protected Set<PathPattern> getPathPatterns(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -470,6 +490,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternIndex<T> patternIndex = new PathPatternIndex<>();
+
+		private final List<T> unindexedMappings = new ArrayList<>();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -493,6 +517,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(path);
 		}
 
+		/**
+		 * Return the mappings that may match the given exchange's path, as
+		 * narrowed down through the index of their path patterns. Not thread-safe.
+		 * @since 5.3.9
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingCandidates(ServerWebExchange exchange) {
+			if (this.patternIndex.isEmpty()) {
+				return this.unindexedMappings;
+			}
+			Set<T> candidates = new LinkedHashSet<>(this.unindexedMappings);
+			this.patternIndex.collectCandidates(exchange.getRequest().getPath().pathWithinApplication(), candidates);
+			return candidates;
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -526,6 +565,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String path : directPaths) {
 					this.pathLookup.add(path, mapping);
 				}
+				if (!this.registry.containsKey(mapping)) {
+					addToPatternIndex(mapping);
+				}
 
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -570,12 +612,36 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				removeFromPatternIndex(registration.getMapping());
+
 				this.corsLookup.remove(registration.getHandlerMethod());
 			}
 			finally {
 				this.readWriteLock.writeLock().unlock();
 			}
 		}
+
+		private void addToPatternIndex(T mapping) {
+			Set<PathPattern> patterns = getPathPatterns(mapping);
+			if (CollectionUtils.isEmpty(patterns)) {
+				this.unindexedMappings.add(mapping);
+				return;
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternIndex.add(pattern, mapping);
+			}
+		}
+
+		private void removeFromPatternIndex(T mapping) {
+			Set<PathPattern> patterns = getPathPatterns(mapping);
+			if (CollectionUtils.isEmpty(patterns)) {
+				this.unindexedMappings.remove(mapping);
+				return;
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternIndex.remove(pattern, mapping);
+			}
+		}
 	}
 
 
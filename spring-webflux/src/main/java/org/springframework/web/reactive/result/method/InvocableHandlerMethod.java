@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,9 +36,11 @@ import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
 import org.springframework.web.server.ServerWebExchange;
@@ -62,6 +64,12 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private final HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
+	@Nullable
+	private volatile HandlerMethodArgumentResolver[] parameterResolvers;
+
+	@Nullable
+	private HandlerMethodInvoker methodInvoker;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
 	private ReactiveAdapterRegistry reactiveAdapterRegistry = ReactiveAdapterRegistry.getSharedInstance();
@@ -88,6 +96,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public void setArgumentResolvers(List<? extends HandlerMethodArgumentResolver> resolvers) {
 		this.resolvers.addResolvers(resolvers);
+		this.parameterResolvers = null;
 	}
 
 	/**
@@ -97,6 +106,51 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return this.resolvers.getResolvers();
 	}
 
+	/**
+	 * Set the {@link HandlerMethodArgumentResolver} to use for each method parameter,
+	 * e.g. as {@link #getParameterResolvers() determined} by another instance for
+	 * the same handler method.
+	 * <p>By default, the resolver for each parameter is determined on the first
+	 * invocation through the {@link #setArgumentResolvers argument resolvers}.
+	 * @param parameterResolvers an array with the resolver for each method parameter
+	 * at the same index, or {@code null} to determine resolvers on first invocation
+	 * @since 5.3.9
+	 */
+	public void setParameterResolvers(@Nullable HandlerMethodArgumentResolver[] parameterResolvers) {
+		Assert.isTrue(parameterResolvers == null || parameterResolvers.length == getMethodParameters().length,
+				"Number of parameter resolvers does not match number of method parameters");
+		this.parameterResolvers = parameterResolvers;
+	}
+
+	/**
+	 * Return the {@link HandlerMethodArgumentResolver} to use for each method
+	 * parameter, with {@code null} entries for parameters that no configured
+	 * resolver supports. Determined once and then reused across invocations.
+	 * @since 5.3.9
+	 */
+	public HandlerMethodArgumentResolver[] getParameterResolvers() {
+		HandlerMethodArgumentResolver[] parameterResolvers = this.parameterResolvers;
+		if (parameterResolvers == null) {
+			parameterResolvers = this.resolvers.getArgumentResolvers(getMethodParameters());
+			this.parameterResolvers = parameterResolvers;
+		}
+		return parameterResolvers;
+	}
+
+	/**
+	 * Set a {@link HandlerMethodInvoker} to call the handler method through,
+	 * instead of invoking the method reflectively.
+	 * @param methodInvoker the invoker for the {@link #getBridgedMethod() bridged method},
+	 * or {@code null} for reflective invocation
+	 * @since 5.3.9
+	 * @see HandlerMethodInvoker#forMethod
+	 */
+	public void setMethodInvoker(@Nullable HandlerMethodInvoker methodInvoker) {
+		Assert.isTrue(methodInvoker == null || methodInvoker.getMethod().equals(getBridgedMethod()),
+				"HandlerMethodInvoker does not match handler method");
+		this.methodInvoker = methodInvoker;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -137,13 +191,18 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return getMethodArgumentValues(exchange, bindingContext, providedArgs).flatMap(args -> {
 			Object value;
 			try {
-				ReflectionUtils.makeAccessible(getBridgedMethod());
 				Method method = getBridgedMethod();
-				if (KotlinDetector.isSuspendingFunction(method)) {
-					value = CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
+				if (this.methodInvoker != null) {
+					value = this.methodInvoker.invoke(getBean(), args);
 				}
 				else {
-					value = method.invoke(getBean(), args);
+					ReflectionUtils.makeAccessible(method);
+					if (KotlinDetector.isSuspendingFunction(method)) {
+						value = CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
+					}
+					else {
+						value = method.invoke(getBean(), args);
+					}
 				}
 			}
 			catch (IllegalArgumentException ex) {
@@ -184,20 +243,23 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		HandlerMethodArgumentResolver[] parameterResolvers = getParameterResolvers();
 		List<Mono<Object>> argMonos = new ArrayList<>(parameters.length);
-		for (MethodParameter parameter : parameters) {
+		for (int i = 0; i < parameters.length; i++) {
+			MethodParameter parameter = parameters[i];
 			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
 			Object providedArg = findProvidedArgument(parameter, providedArgs);
 			if (providedArg != null) {
 				argMonos.add(Mono.just(providedArg));
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = parameterResolvers[i];
+			if (resolver == null) {
 				return Mono.error(new IllegalStateException(
 						formatArgumentError(parameter, "No suitable resolver")));
 			}
 			try {
-				argMonos.add(this.resolvers.resolveArgument(parameter, bindingContext, exchange)
+				argMonos.add(resolver.resolveArgument(parameter, bindingContext, exchange)
 						.defaultIfEmpty(NO_ARG_VALUE)
 						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex)));
 			}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,15 +23,18 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -45,6 +48,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
 import org.springframework.web.reactive.result.method.InvocableHandlerMethod;
@@ -95,6 +99,8 @@ class ControllerMethodResolver {
 
 	private final ReactiveAdapterRegistry reactiveAdapterRegistry;
 
+	private final BeanFactory beanFactory;
+
 	private final Map<Class<?>, Set<Method>> initBinderMethodCache = new ConcurrentHashMap<>(64);
 
 	private final Map<Class<?>, Set<Method>> modelAttributeMethodCache = new ConcurrentHashMap<>(64);
@@ -110,6 +116,11 @@ class ControllerMethodResolver {
 
 	private final Map<Class<?>, SessionAttributesHandler> sessionAttributesHandlerCache = new ConcurrentHashMap<>(64);
 
+	private final Map<HandlerMethod, InvocationPlan> invocationPlanCache =
+			Collections.synchronizedMap(new WeakHashMap<>(256));
+
+	private boolean useGeneratedInvokers = false;
+
 
 	ControllerMethodResolver(ArgumentResolverConfigurer customResolvers, ReactiveAdapterRegistry adapterRegistry,
 			ConfigurableApplicationContext context, List<HttpMessageReader<?>> readers) {
@@ -124,6 +135,7 @@ class ControllerMethodResolver {
 		this.requestMappingResolvers = requestMappingResolvers(customResolvers, adapterRegistry, context, readers);
 		this.exceptionHandlerResolvers = exceptionHandlerResolvers(customResolvers, adapterRegistry, context);
 		this.reactiveAdapterRegistry = adapterRegistry;
+		this.beanFactory = context;
 
 		initControllerAdviceCaches(context);
 	}
@@ -253,14 +265,37 @@ class ControllerMethodResolver {
 	}
 
 
+	/**
+	 * Whether to call {@code @RequestMapping} methods through a generated
+	 * {@link HandlerMethodInvoker} rather than through reflection.
+	 * @since 5.3.9
+	 */
+	void setUseGeneratedInvokers(boolean useGeneratedInvokers) {
+		this.useGeneratedInvokers = useGeneratedInvokers;
+		this.invocationPlanCache.clear();
+	}
+
+
 	/**
 	 * Return an {@link InvocableHandlerMethod} for the given
 	 * {@code @RequestMapping} method initialized with argument resolvers.
+	 * <p>The returned instance reuses the resolver for each parameter as
+	 * determined on the first invocation of the same handler method.
 	 */
 	public InvocableHandlerMethod getRequestMappingMethod(HandlerMethod handlerMethod) {
+		InvocationPlan plan = getInvocationPlan(handlerMethod);
+		InvocableHandlerMethod invocable = createRequestMappingMethod(handlerMethod, plan.methodInvoker);
+		invocable.setParameterResolvers(plan.parameterResolvers);
+		return invocable;
+	}
+
+	private InvocableHandlerMethod createRequestMappingMethod(
+			HandlerMethod handlerMethod, @Nullable HandlerMethodInvoker methodInvoker) {
+
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
 		invocable.setArgumentResolvers(this.requestMappingResolvers);
 		invocable.setReactiveAdapterRegistry(this.reactiveAdapterRegistry);
+		invocable.setMethodInvoker(methodInvoker);
 		return invocable;
 	}
 
@@ -269,25 +304,14 @@ class ControllerMethodResolver {
 	 * or in the controller of the given {@code @RequestMapping} method.
 	 */
 	public List<SyncInvocableHandlerMethod> getInitBinderMethods(HandlerMethod handlerMethod) {
-		List<SyncInvocableHandlerMethod> result = new ArrayList<>();
-		Class<?> handlerType = handlerMethod.getBeanType();
-
-		// Global methods first
-		this.initBinderAdviceCache.forEach((adviceBean, methods) -> {
-			if (adviceBean.isApplicableToBeanType(handlerType)) {
-				Object bean = adviceBean.resolveBean();
-				methods.forEach(method -> result.add(getInitBinderMethod(bean, method)));
-			}
-		});
-
-		this.initBinderMethodCache
-				.computeIfAbsent(handlerType,
-						clazz -> MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS))
-				.forEach(method -> {
-					Object bean = handlerMethod.getBean();
-					result.add(getInitBinderMethod(bean, method));
-				});
-
+		List<PlannedMethod<SyncInvocableHandlerMethod>> plannedMethods =
+				getInvocationPlan(handlerMethod).initBinderMethods;
+		List<SyncInvocableHandlerMethod> result = new ArrayList<>(plannedMethods.size());
+		for (PlannedMethod<SyncInvocableHandlerMethod> plannedMethod : plannedMethods) {
+			Object bean = plannedMethod.resolveBean(handlerMethod);
+			SyncInvocableHandlerMethod invocable = plannedMethod.getTemplate(bean);
+			result.add(invocable != null ? invocable : getInitBinderMethod(bean, plannedMethod.method));
+		}
 		return result;
 	}
 
@@ -302,32 +326,98 @@ class ControllerMethodResolver {
 	 * components or in the controller of the given {@code @RequestMapping} method.
 	 */
 	public List<InvocableHandlerMethod> getModelAttributeMethods(HandlerMethod handlerMethod) {
-		List<InvocableHandlerMethod> result = new ArrayList<>();
+		List<PlannedMethod<InvocableHandlerMethod>> plannedMethods =
+				getInvocationPlan(handlerMethod).modelAttributeMethods;
+		List<InvocableHandlerMethod> result = new ArrayList<>(plannedMethods.size());
+		for (PlannedMethod<InvocableHandlerMethod> plannedMethod : plannedMethods) {
+			Object bean = plannedMethod.resolveBean(handlerMethod);
+			InvocableHandlerMethod invocable = plannedMethod.getTemplate(bean);
+			result.add(invocable != null ? invocable : createAttributeMethod(bean, plannedMethod.method));
+		}
+		return result;
+	}
+
+	private InvocableHandlerMethod createAttributeMethod(Object bean, Method method) {
+		InvocableHandlerMethod invocable = new InvocableHandlerMethod(bean, method);
+		invocable.setArgumentResolvers(this.modelAttributeResolvers);
+		return invocable;
+	}
+
+	/**
+	 * Return the {@link InvocationPlan} for the given handler method, determining
+	 * the applicable {@code @InitBinder} and {@code @ModelAttribute} methods
+	 * once per handler method rather than per request.
+	 * <p>Plans are held per registered handler method, i.e. the handler method that
+	 * a request-specific one has been {@link HandlerMethod#createWithResolvedBean()
+	 * resolved from}, and are released along with it once it has been unregistered.
+	 */
+	private InvocationPlan getInvocationPlan(HandlerMethod handlerMethod) {
+		HandlerMethod key = handlerMethod.getResolvedFromHandlerMethod();
+		if (key == null) {
+			key = handlerMethod;
+		}
+		InvocationPlan plan = this.invocationPlanCache.get(key);
+		if (plan == null) {
+			plan = createInvocationPlan(handlerMethod);
+			this.invocationPlanCache.put(key, plan);
+		}
+		return plan;
+	}
+
+	private InvocationPlan createInvocationPlan(HandlerMethod handlerMethod) {
 		Class<?> handlerType = handlerMethod.getBeanType();
+		boolean singletonHandler = isSingletonHandler(handlerMethod);
 
+		List<PlannedMethod<SyncInvocableHandlerMethod>> initBinderMethods = new ArrayList<>();
 		// Global methods first
-		this.modelAttributeAdviceCache.forEach((adviceBean, methods) -> {
+		this.initBinderAdviceCache.forEach((adviceBean, methods) -> {
 			if (adviceBean.isApplicableToBeanType(handlerType)) {
 				Object bean = adviceBean.resolveBean();
-				methods.forEach(method -> result.add(createAttributeMethod(bean, method)));
+				methods.forEach(method ->
+						initBinderMethods.add(new PlannedMethod<>(
+								adviceBean, getInitBinderMethod(bean, method), adviceBean.isSingleton())));
 			}
 		});
+		this.initBinderMethodCache
+				.computeIfAbsent(handlerType,
+						clazz -> MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS))
+				.forEach(method -> initBinderMethods.add(
+						new PlannedMethod<>(null, getInitBinderMethod(handlerMethod.getBean(), method), singletonHandler)));
 
+		List<PlannedMethod<InvocableHandlerMethod>> modelAttributeMethods = new ArrayList<>();
+		// Global methods first
+		this.modelAttributeAdviceCache.forEach((adviceBean, methods) -> {
+			if (adviceBean.isApplicableToBeanType(handlerType)) {
+				Object bean = adviceBean.resolveBean();
+				methods.forEach(method ->
+						modelAttributeMethods.add(new PlannedMethod<>(
+								adviceBean, createAttributeMethod(bean, method), adviceBean.isSingleton())));
+			}
+		});
 		this.modelAttributeMethodCache
 				.computeIfAbsent(handlerType,
 						clazz -> MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS))
-				.forEach(method -> {
-					Object bean = handlerMethod.getBean();
-					result.add(createAttributeMethod(bean, method));
-				});
-
-		return result;
+				.forEach(method -> modelAttributeMethods.add(
+						new PlannedMethod<>(null, createAttributeMethod(handlerMethod.getBean(), method), singletonHandler)));
+
+		HandlerMethodInvoker methodInvoker = (this.useGeneratedInvokers ?
+				HandlerMethodInvoker.forMethod(BridgeMethodResolver.findBridgedMethod(handlerMethod.getMethod())) : null);
+		HandlerMethodArgumentResolver[] parameterResolvers =
+				createRequestMappingMethod(handlerMethod, methodInvoker).getParameterResolvers();
+		return new InvocationPlan(parameterResolvers, methodInvoker, initBinderMethods, modelAttributeMethods);
 	}
 
-	private InvocableHandlerMethod createAttributeMethod(Object bean, Method method) {
-		InvocableHandlerMethod invocable = new InvocableHandlerMethod(bean, method);
-		invocable.setArgumentResolvers(this.modelAttributeResolvers);
-		return invocable;
+	/**
+	 * Whether the bean behind the given handler method is the same instance on
+	 * every request, i.e. a directly registered handler instance or a singleton
+	 * bean, and may therefore be retained in its {@link InvocationPlan}.
+	 */
+	private boolean isSingletonHandler(HandlerMethod handlerMethod) {
+		HandlerMethod registeredMethod = handlerMethod.getResolvedFromHandlerMethod();
+		if (registeredMethod == null || !(registeredMethod.getBean() instanceof String)) {
+			return true;
+		}
+		return this.beanFactory.isSingleton((String) registeredMethod.getBean());
 	}
 
 	/**
@@ -386,4 +476,67 @@ class ControllerMethodResolver {
 		return result;
 	}
 
+
+	/**
+	 * Invocation plan for a {@code @RequestMapping} method, determined on its first
+	 * invocation: the argument resolver for each parameter, the generated invoker
+	 * (if any), and the applicable {@code @InitBinder} and {@code @ModelAttribute}
+	 * methods. Holds no reference to the handler method it has been created for.
+	 */
+	private static class InvocationPlan {
+
+		final HandlerMethodArgumentResolver[] parameterResolvers;
+
+		@Nullable
+		final HandlerMethodInvoker methodInvoker;
+
+		final List<PlannedMethod<SyncInvocableHandlerMethod>> initBinderMethods;
+
+		final List<PlannedMethod<InvocableHandlerMethod>> modelAttributeMethods;
+
+		InvocationPlan(HandlerMethodArgumentResolver[] parameterResolvers,
+				@Nullable HandlerMethodInvoker methodInvoker,
+				List<PlannedMethod<SyncInvocableHandlerMethod>> initBinderMethods,
+				List<PlannedMethod<InvocableHandlerMethod>> modelAttributeMethods) {
+
+			this.parameterResolvers = parameterResolvers;
+			this.methodInvoker = methodInvoker;
+			this.initBinderMethods = initBinderMethods;
+			this.modelAttributeMethods = modelAttributeMethods;
+		}
+	}
+
+
+	/**
+	 * An {@code @InitBinder} or {@code @ModelAttribute} method within an
+	 * {@link InvocationPlan}. For a singleton bean, the invocable pre-resolved
+	 * against the bean instance is shared; other bean instances are never retained.
+	 */
+	private static class PlannedMethod<T extends HandlerMethod> {
+
+		@Nullable
+		final ControllerAdviceBean adviceBean;
+
+		final Method method;
+
+		@Nullable
+		private final T template;
+
+		PlannedMethod(@Nullable ControllerAdviceBean adviceBean, T invocable, boolean singleton) {
+			this.adviceBean = adviceBean;
+			this.method = invocable.getMethod();
+			this.template = (singleton ? invocable : null);
+		}
+
+		Object resolveBean(HandlerMethod handlerMethod) {
+			return (this.adviceBean != null ? this.adviceBean.resolveBean() : handlerMethod.getBean());
+		}
+
+		@Nullable
+		T getTemplate(Object bean) {
+			T template = this.template;
+			return (template != null && template.getBean() == bean ? template : null);
+		}
+	}
+
 }
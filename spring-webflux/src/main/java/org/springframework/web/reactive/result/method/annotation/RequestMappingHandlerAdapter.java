@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,8 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 	@Nullable
 	private ReactiveAdapterRegistry reactiveAdapterRegistry;
 
+	private boolean useGeneratedInvokers = false;
+
 	@Nullable
 	private ConfigurableApplicationContext applicationContext;
 
@@ -141,6 +143,20 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 		return this.reactiveAdapterRegistry;
 	}
 
+	/**
+	 * Whether to call {@code @RequestMapping} methods through a generated
+	 * {@link org.springframework.web.method.HandlerMethodInvoker} rather than
+	 * through reflection.
+	 * <p>The invoker is generated once per handler method, avoiding the
+	 * reflective invocation overhead on every request. Handler methods that
+	 * no invoker can be generated for are still invoked reflectively.
+	 * <p>Default is {@code false}.
+	 * @since 5.3.9
+	 */
+	public void setUseGeneratedInvokers(boolean useGeneratedInvokers) {
+		this.useGeneratedInvokers = useGeneratedInvokers;
+	}
+
 	/**
 	 * A {@link ConfigurableApplicationContext} is expected for resolving
 	 * expressions in method argument default values as well as for
@@ -171,6 +187,7 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 
 		this.methodResolver = new ControllerMethodResolver(this.argumentResolverConfigurer,
 				this.reactiveAdapterRegistry, this.applicationContext, this.messageReaders);
+		this.methodResolver.setUseGeneratedInvokers(this.useGeneratedInvokers);
 
 		this.modelInitializer = new ModelInitializer(this.methodResolver, this.reactiveAdapterRegistry);
 	}
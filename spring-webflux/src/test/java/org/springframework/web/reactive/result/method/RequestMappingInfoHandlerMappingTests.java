@@ -135,6 +135,21 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertThat(hm.getMethod()).isEqualTo(expected);
 	}
 
+	@Test
+	public void getHandlerPatternMatchAfterRegisterAndUnregister() {
+		Method expected = on(TestController.class).annot(getMapping("/foo").params()).resolveMethod();
+		RequestMappingInfo info = paths("/projects/{name}/releases/{version}").build();
+		this.handlerMapping.registerMapping(info, new TestController(), expected);
+
+		ServerWebExchange exchange = MockServerWebExchange.from(get("/projects/spring/releases/5.3.9"));
+		HandlerMethod hm = (HandlerMethod) this.handlerMapping.getHandler(exchange).block();
+		assertThat(hm.getMethod()).isEqualTo(expected);
+
+		this.handlerMapping.unregisterMapping(info);
+		exchange = MockServerWebExchange.from(get("/projects/spring/releases/5.3.9"));
+		assertThat(this.handlerMapping.getHandler(exchange).block()).isNull();
+	}
+
 	@Test
 	public void getHandlerRequestMethodNotAllowed() {
 		ServerWebExchange exchange = MockServerWebExchange.from(post("/bar"));
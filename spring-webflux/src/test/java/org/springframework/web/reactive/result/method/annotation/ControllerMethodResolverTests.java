@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,12 +18,15 @@ package org.springframework.web.reactive.result.method.annotation;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -121,6 +124,60 @@ public class ControllerMethodResolverTests {
 		assertThat(next(resolvers, index).getClass()).isEqualTo(ModelAttributeMethodArgumentResolver.class);
 	}
 
+	@Test
+	public void invocableMethodsSharedPerHandlerMethod() {
+		InvocableHandlerMethod invocable = this.methodResolver.getRequestMappingMethod(this.handlerMethod);
+		assertThat(this.methodResolver.getRequestMappingMethod(this.handlerMethod).getParameterResolvers())
+				.isSameAs(invocable.getParameterResolvers());
+		assertThat(this.methodResolver.getModelAttributeMethods(this.handlerMethod).get(0))
+				.isSameAs(this.methodResolver.getModelAttributeMethods(this.handlerMethod).get(0));
+		assertThat(this.methodResolver.getInitBinderMethods(this.handlerMethod).get(1))
+				.isSameAs(this.methodResolver.getInitBinderMethods(this.handlerMethod).get(1));
+
+		HandlerMethod otherHandlerMethod = new HandlerMethod(new TestController(), this.handlerMethod.getMethod());
+		InvocableHandlerMethod otherInvocable = this.methodResolver.getRequestMappingMethod(otherHandlerMethod);
+		assertThat(otherInvocable).isNotSameAs(invocable);
+		assertThat(otherInvocable.getBean()).isSameAs(otherHandlerMethod.getBean());
+		assertThat(this.methodResolver.getModelAttributeMethods(otherHandlerMethod).get(1).getBean())
+				.isSameAs(otherHandlerMethod.getBean());
+	}
+
+	@Test
+	public void prototypeControllerNotRetainedPerHandlerMethod() {
+		AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+		applicationContext.registerBean(TestControllerAdvice.class);
+		applicationContext.registerBean("controller", TestController.class,
+				bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+		applicationContext.refresh();
+		ControllerMethodResolver methodResolver = new ControllerMethodResolver(new ArgumentResolverConfigurer(),
+				ReactiveAdapterRegistry.getSharedInstance(), applicationContext,
+				ServerCodecConfigurer.create().getReaders());
+
+		HandlerMethod handlerMethod =
+				new HandlerMethod("controller", applicationContext, this.handlerMethod.getMethod());
+		HandlerMethod resolved1 = handlerMethod.createWithResolvedBean();
+		HandlerMethod resolved2 = handlerMethod.createWithResolvedBean();
+		assertThat(resolved1.getBean()).isNotSameAs(resolved2.getBean());
+
+		assertThat(methodResolver.getRequestMappingMethod(resolved1).getBean()).isSameAs(resolved1.getBean());
+		assertThat(methodResolver.getRequestMappingMethod(resolved2).getBean()).isSameAs(resolved2.getBean());
+		assertThat(methodResolver.getModelAttributeMethods(resolved1).get(1).getBean()).isSameAs(resolved1.getBean());
+		assertThat(methodResolver.getModelAttributeMethods(resolved2).get(1).getBean()).isSameAs(resolved2.getBean());
+		assertThat(methodResolver.getInitBinderMethods(resolved2).get(1).getBean()).isSameAs(resolved2.getBean());
+		assertThat(methodResolver.getModelAttributeMethods(resolved2).get(0))
+				.isSameAs(methodResolver.getModelAttributeMethods(resolved1).get(0));
+
+		// Planned per registered handler method, retaining the singleton advice only
+		@SuppressWarnings("unchecked")
+		Map<HandlerMethod, ?> invocationPlanCache = (Map<HandlerMethod, ?>)
+				new DirectFieldAccessor(methodResolver).getPropertyValue("invocationPlanCache");
+		assertThat(invocationPlanCache).containsOnlyKeys(handlerMethod);
+		List<?> modelAttributeMethods = (List<?>)
+				new DirectFieldAccessor(invocationPlanCache.get(handlerMethod)).getPropertyValue("modelAttributeMethods");
+		assertThat(new DirectFieldAccessor(modelAttributeMethods.get(0)).getPropertyValue("template")).isNotNull();
+		assertThat(new DirectFieldAccessor(modelAttributeMethods.get(1)).getPropertyValue("template")).isNull();
+	}
+
 	@Test
 	public void modelAttributeArgumentResolvers() {
 		List<InvocableHandlerMethod> methods = this.methodResolver.getModelAttributeMethods(this.handlerMethod);
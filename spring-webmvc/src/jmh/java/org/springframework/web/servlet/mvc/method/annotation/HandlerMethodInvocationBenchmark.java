@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+/**
+ * Benchmarks for the invocation of Spring MVC controller methods, comparing
+ * reflective invocation with {@link HandlerMethodInvoker generated invokers}:
+ * for the bare invocation of a handler method with given arguments as well as
+ * for a full {@link RequestMappingHandlerAdapter} request handling cycle.
+ * Run with the JMH GC profiler ({@code -prof gc}) for allocations per call.
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+public class HandlerMethodInvocationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class InvocationData {
+
+		@Param({"reflective", "generated"})
+		public String invocation;
+
+		public InvocableHandlerMethod invocableMethod;
+
+		public HandlerMethod handlerMethod;
+
+		public RequestMappingHandlerAdapter handlerAdapter;
+
+		public ServletWebRequest webRequest;
+
+		public MockHttpServletRequest request;
+
+		public MockHttpServletResponse response;
+
+		public Object[] providedArgs = {"spring", 42};
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			boolean generated = "generated".equals(this.invocation);
+			TestController controller = new TestController();
+
+			Method invokeMethod = TestController.class.getMethod("greet", String.class, Integer.class);
+			this.invocableMethod = new InvocableHandlerMethod(controller, invokeMethod);
+			if (generated) {
+				this.invocableMethod.setMethodInvoker(HandlerMethodInvoker.forMethod(invokeMethod));
+			}
+
+			Method handleMethod = TestController.class.getMethod("handle", String.class, int.class, Model.class);
+			this.handlerMethod = new HandlerMethod(controller, handleMethod);
+			StaticWebApplicationContext context = new StaticWebApplicationContext();
+			context.refresh();
+			this.handlerAdapter = new RequestMappingHandlerAdapter();
+			this.handlerAdapter.setApplicationContext(context);
+			this.handlerAdapter.setUseGeneratedInvokers(generated);
+			this.handlerAdapter.afterPropertiesSet();
+
+			this.request = new MockHttpServletRequest("GET", "/greeting");
+			this.request.setParameter("name", "spring");
+			this.request.setParameter("count", "42");
+			this.response = new MockHttpServletResponse();
+			this.webRequest = new ServletWebRequest(this.request, this.response);
+		}
+	}
+
+	@Benchmark
+	public Object invokeForRequest(InvocationData data) throws Exception {
+		return data.invocableMethod.invokeForRequest(data.webRequest, null, data.providedArgs);
+	}
+
+	@Benchmark
+	public ModelAndView handleRequest(InvocationData data) throws Exception {
+		return data.handlerAdapter.handle(data.request, data.response, data.handlerMethod);
+	}
+
+
+	public static class TestController {
+
+		public String greet(String name, Integer count) {
+			return name;
+		}
+
+		public String handle(@RequestParam("name") String name, @RequestParam("count") int count, Model model) {
+			model.addAttribute("count", count);
+			return "greeting";
+		}
+	}
+
+}
@@ -20,15 +20,20 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import javax.servlet.ServletException;
@@ -415,8 +420,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 
 		if (matches.isEmpty()) {
-			// <1.2> 直接基于路径查询不到结果，扫描注册表的 Mapping 们，进行模式匹配，当前路径是否满足模式
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, request);
+			// <1.2> 直接基于路径查询不到结果，通过模式索引缩小候选 Mapping 的范围，再进行模式匹配
+			PathContainer path = (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+					ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication() : null);
+			addMatchingMappings(this.mappingRegistry.getMappingCandidates(path), matches, request);
 		}
 
 		// <2> 如果匹配到，则获取最佳匹配的 Match 对象的 handlerMethod 属性
@@ -570,6 +577,22 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return urls;
 	}
 
+	/**
+	 * Return the parsed path patterns of the given mapping, if any, for indexing
+	 * the mapping by the leading literal segments of its patterns. Mappings
+	 * without parsed patterns remain candidates for every request that does
+	 * not match a {@link #getDirectPaths(Object) direct path}.
+	 * <p>The default implementation returns {@code null}.
+	 * @param mapping the mapping to introspect
+	 * @return the path patterns, or {@code null} if not applicable
+	 * @since 5.3.9
+	 * @see PathPatternIndex
+	 */
+	@Nullable
+	protected Set<PathPattern> getPathPatterns(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -606,6 +629,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		 */
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		/**
+		 * 基于 PathPattern 字面量前缀的索引，以及无法建立索引的 Mapping 们
+		 */
+		private final PathPatternIndex<T> patternIndex = new PathPatternIndex<>();
+
+		private final List<T> unindexedMappings = new ArrayList<>();
+
 		/**
 		 * Mapping 的名字与 HandlerMethod 的映射
 		 */
@@ -632,6 +662,26 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that may match the given path, as narrowed down
+		 * through the index of their path patterns. Not thread-safe.
+		 * @param path the parsed request path, or {@code null} if not available
+		 * in which case all registered mappings are returned
+		 * @since 5.3.9
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingCandidates(@Nullable PathContainer path) {
+			if (path == null) {
+				return this.registry.keySet();
+			}
+			if (this.patternIndex.isEmpty()) {
+				return this.unindexedMappings;
+			}
+			Set<T> candidates = new LinkedHashSet<>(this.unindexedMappings);
+			this.patternIndex.collectCandidates(path, candidates);
+			return candidates;
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -678,6 +728,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				// <3.2> 基于 PathPattern 建立模式索引
+				if (!this.registry.containsKey(mapping)) {
+					addToPatternIndex(mapping);
+				}
+
 				// <4> 初始化 nameLookup
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -756,6 +811,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				removeFromPatternIndex(mapping);
+
 				// nameLookup缓存移除
 				removeMappingName(registration);
 
@@ -766,6 +823,28 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			}
 		}
 
+		private void addToPatternIndex(T mapping) {
+			Set<PathPattern> patterns = getPathPatterns(mapping);
+			if (CollectionUtils.isEmpty(patterns)) {
+				this.unindexedMappings.add(mapping);
+				return;
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternIndex.add(pattern, mapping);
+			}
+		}
+
+		private void removeFromPatternIndex(T mapping) {
+			Set<PathPattern> patterns = getPathPatterns(mapping);
+			if (CollectionUtils.isEmpty(patterns)) {
+				this.unindexedMappings.remove(mapping);
+				return;
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternIndex.remove(pattern, mapping);
+			}
+		}
+
 		/**
 		 * nameLookup 缓存中，name和HandlerMethod能对应上的数据移除掉
 		 */
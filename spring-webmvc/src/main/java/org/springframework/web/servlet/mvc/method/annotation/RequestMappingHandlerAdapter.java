@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.context.request.async.*;
 import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 import org.springframework.web.method.annotation.*;
 import org.springframework.web.method.support.*;
 import org.springframework.web.servlet.ModelAndView;
@@ -156,6 +157,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private boolean useGeneratedInvokers = false;
+
 	@Nullable
 	private ConfigurableBeanFactory beanFactory;
 
@@ -176,6 +179,13 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	 */
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	/**
+	 * 已注册的 HandlerMethod -> 预先确定的调用计划（参数解析器、@InitBinder 及 @ModelAttribute 方法）
+	 * 弱引用 key：HandlerMethod 被注销（unregisterMapping）后，其调用计划随之被回收
+	 */
+	private final Map<HandlerMethod, InvocationPlan> invocationPlanCache =
+			Collections.synchronizedMap(new WeakHashMap<>(256));
+
 
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
@@ -520,6 +530,20 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Whether to call {@code @RequestMapping} methods through a generated
+	 * {@link HandlerMethodInvoker} rather than through reflection.
+	 * <p>The invoker is generated once per handler method, avoiding the
+	 * reflective invocation overhead on every request. Handler methods that
+	 * no invoker can be generated for are still invoked reflectively.
+	 * <p>Default is {@code false}.
+	 * @since 5.3.9
+	 * @see HandlerMethodInvoker#forMethod
+	 */
+	public void setUseGeneratedInvokers(boolean useGeneratedInvokers) {
+		this.useGeneratedInvokers = useGeneratedInvokers;
+	}
+
 	/**
 	 * A {@link ConfigurableBeanFactory} is expected for resolving expressions
 	 * in method argument default values.
@@ -545,6 +569,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		// Do this first, it may add ResponseBody advice beans
 		// <1> 初始化 ControllerAdvice 相关
 		initControllerAdviceCache();
+		this.invocationPlanCache.clear();
 
 		// <2> 初始化 argumentResolvers 属性
 		if (this.argumentResolvers == null) {
@@ -844,10 +869,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		// <1> 创建 ServletWebRequest 对象
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 		try {
+			// 获取该 HandlerMethod 预先确定的调用计划
+			InvocationPlan plan = getInvocationPlan(handlerMethod);
 			// <2> 创建 WebDataBinderFactory 对象
-			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
+			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod, plan);
 			// <3> 创建 ModelFactory 对象
-			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
+			ModelFactory modelFactory = getModelFactory(handlerMethod, plan, binderFactory);
 
 			// <4> 创建 ServletInvocableHandlerMethod 对象，并设置其相关属性(相对handlerMethod增加了一些解析器处理)
 			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
@@ -859,6 +886,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				// 出参解析器
 				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
 			}
+			if (plan.parameterResolvers != null) {
+				invocableMethod.setParameterResolvers(plan.parameterResolvers);
+			}
+			if (plan.methodInvoker != null) {
+				invocableMethod.setMethodInvoker(plan.methodInvoker);
+			}
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
 
@@ -918,69 +951,157 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
+	/**
+	 * Return the {@link InvocationPlan} for the given handler method, determining
+	 * the argument resolver for each parameter as well as the applicable
+	 * {@code @InitBinder} and {@code @ModelAttribute} methods once per handler method.
+	 * <p>Plans are held per registered handler method, i.e. the handler method that
+	 * a request-specific one has been {@link HandlerMethod#createWithResolvedBean()
+	 * resolved from}, and are released along with it once it has been unregistered.
+	 */
+	private InvocationPlan getInvocationPlan(HandlerMethod handlerMethod) {
+		HandlerMethod key = handlerMethod.getResolvedFromHandlerMethod();
+		if (key == null) {
+			key = handlerMethod;
+		}
+		InvocationPlan plan = this.invocationPlanCache.get(key);
+		if (plan == null) {
+			plan = createInvocationPlan(handlerMethod);
+			this.invocationPlanCache.put(key, plan);
+		}
+		return plan;
+	}
+
+	private InvocationPlan createInvocationPlan(HandlerMethod handlerMethod) {
 		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.modelAttributeCache.get(handlerType);
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
-			this.modelAttributeCache.put(handlerType, methods);
+		boolean singletonHandler = isSingletonHandler(handlerMethod);
+		HandlerMethodArgumentResolver[] parameterResolvers = (this.argumentResolvers != null ?
+				this.argumentResolvers.getArgumentResolvers(handlerMethod.getMethodParameters()) : null);
+		HandlerMethodInvoker methodInvoker = (this.useGeneratedInvokers ?
+				HandlerMethodInvoker.forMethod(BridgeMethodResolver.findBridgedMethod(handlerMethod.getMethod())) : null);
+
+		Set<Method> binderMethods = this.initBinderCache.get(handlerType);
+		if (binderMethods == null) {
+			binderMethods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
+			this.initBinderCache.put(handlerType, binderMethods);
 		}
-		List<InvocableHandlerMethod> attrMethods = new ArrayList<>();
+		List<PlannedMethod> initBinderMethods = new ArrayList<>();
+		// Global methods first
+		this.initBinderAdviceCache.forEach((controllerAdviceBean, methodSet) -> {
+			if (controllerAdviceBean.isApplicableToBeanType(handlerType)) {
+				Object bean = controllerAdviceBean.resolveBean();
+				for (Method method : methodSet) {
+					initBinderMethods.add(new PlannedMethod(controllerAdviceBean,
+							createInitBinderMethod(bean, method, null), controllerAdviceBean.isSingleton()));
+				}
+			}
+		});
+		for (Method method : binderMethods) {
+			initBinderMethods.add(new PlannedMethod(null,
+					createInitBinderMethod(handlerMethod.getBean(), method, null), singletonHandler));
+		}
+
+		Set<Method> attrMethods = this.modelAttributeCache.get(handlerType);
+		if (attrMethods == null) {
+			attrMethods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
+			this.modelAttributeCache.put(handlerType, attrMethods);
+		}
+		List<PlannedMethod> modelAttributeMethods = new ArrayList<>();
 		// Global methods first
 		this.modelAttributeAdviceCache.forEach((controllerAdviceBean, methodSet) -> {
 			if (controllerAdviceBean.isApplicableToBeanType(handlerType)) {
 				Object bean = controllerAdviceBean.resolveBean();
 				for (Method method : methodSet) {
-					attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
+					modelAttributeMethods.add(new PlannedMethod(controllerAdviceBean,
+							createModelAttributeMethod(bean, method, null), controllerAdviceBean.isSingleton()));
 				}
 			}
 		});
-		for (Method method : methods) {
-			Object bean = handlerMethod.getBean();
-			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
+		for (Method method : attrMethods) {
+			modelAttributeMethods.add(new PlannedMethod(null,
+					createModelAttributeMethod(handlerMethod.getBean(), method, null), singletonHandler));
+		}
+
+		return new InvocationPlan(parameterResolvers, methodInvoker, initBinderMethods, modelAttributeMethods,
+				getSessionAttributesHandler(handlerMethod));
+	}
+
+	/**
+	 * Whether the bean behind the given handler method is the same instance on
+	 * every request, i.e. a directly registered handler instance or a singleton
+	 * bean, and may therefore be retained in its {@link InvocationPlan}.
+	 */
+	private boolean isSingletonHandler(HandlerMethod handlerMethod) {
+		HandlerMethod registeredMethod = handlerMethod.getResolvedFromHandlerMethod();
+		if (registeredMethod == null || !(registeredMethod.getBean() instanceof String)) {
+			return true;
 		}
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		return (this.beanFactory != null && this.beanFactory.isSingleton((String) registeredMethod.getBean()));
 	}
 
-	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean, Method method) {
+	private ModelFactory getModelFactory(
+			HandlerMethod handlerMethod, InvocationPlan plan, WebDataBinderFactory binderFactory) {
+
+		List<InvocableHandlerMethod> attrMethods = new ArrayList<>(plan.modelAttributeMethods.size());
+		for (PlannedMethod plannedMethod : plan.modelAttributeMethods) {
+			Object bean = plannedMethod.resolveBean(handlerMethod);
+			InvocableHandlerMethod template = plannedMethod.getTemplate(bean);
+			InvocableHandlerMethod attrMethod;
+			if (template != null) {
+				// Same bean instance as in the plan: copy the pre-resolved template
+				attrMethod = new InvocableHandlerMethod(template);
+				configureModelAttributeMethod(attrMethod, plannedMethod.parameterResolvers);
+			}
+			else {
+				attrMethod = createModelAttributeMethod(bean, plannedMethod.method, plannedMethod.parameterResolvers);
+			}
+			attrMethod.setDataBinderFactory(binderFactory);
+			attrMethods.add(attrMethod);
+		}
+		return new ModelFactory(attrMethods, binderFactory, plan.sessionAttributesHandler);
+	}
+
+	private InvocableHandlerMethod createModelAttributeMethod(
+			Object bean, Method method, @Nullable HandlerMethodArgumentResolver[] parameterResolvers) {
+
 		InvocableHandlerMethod attrMethod = new InvocableHandlerMethod(bean, method);
+		configureModelAttributeMethod(attrMethod, parameterResolvers);
+		return attrMethod;
+	}
+
+	private void configureModelAttributeMethod(
+			InvocableHandlerMethod attrMethod, @Nullable HandlerMethodArgumentResolver[] parameterResolvers) {
+
 		if (this.argumentResolvers != null) {
 			attrMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+			attrMethod.setParameterResolvers(parameterResolvers != null ? parameterResolvers :
+					this.argumentResolvers.getArgumentResolvers(attrMethod.getMethodParameters()));
 		}
 		attrMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
-		attrMethod.setDataBinderFactory(factory);
-		return attrMethod;
 	}
 
-	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
-		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.initBinderCache.get(handlerType);
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
-			this.initBinderCache.put(handlerType, methods);
-		}
-		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<>();
-		// Global methods first
-		this.initBinderAdviceCache.forEach((controllerAdviceBean, methodSet) -> {
-			if (controllerAdviceBean.isApplicableToBeanType(handlerType)) {
-				Object bean = controllerAdviceBean.resolveBean();
-				for (Method method : methodSet) {
-					initBinderMethods.add(createInitBinderMethod(bean, method));
-				}
-			}
-		});
-		for (Method method : methods) {
-			Object bean = handlerMethod.getBean();
-			initBinderMethods.add(createInitBinderMethod(bean, method));
+	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod, InvocationPlan plan)
+			throws Exception {
+
+		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<>(plan.initBinderMethods.size());
+		for (PlannedMethod plannedMethod : plan.initBinderMethods) {
+			Object bean = plannedMethod.resolveBean(handlerMethod);
+			InvocableHandlerMethod template = plannedMethod.getTemplate(bean);
+			// @InitBinder methods hold no request-specific state: share the template for the same bean
+			initBinderMethods.add(template != null ? template :
+					createInitBinderMethod(bean, plannedMethod.method, plannedMethod.parameterResolvers));
 		}
 		return createDataBinderFactory(initBinderMethods);
 	}
 
-	private InvocableHandlerMethod createInitBinderMethod(Object bean, Method method) {
+	private InvocableHandlerMethod createInitBinderMethod(
+			Object bean, Method method, @Nullable HandlerMethodArgumentResolver[] parameterResolvers) {
+
 		InvocableHandlerMethod binderMethod = new InvocableHandlerMethod(bean, method);
 		if (this.initBinderArgumentResolvers != null) {
 			binderMethod.setHandlerMethodArgumentResolvers(this.initBinderArgumentResolvers);
+			binderMethod.setParameterResolvers(parameterResolvers != null ? parameterResolvers :
+					this.initBinderArgumentResolvers.getArgumentResolvers(binderMethod.getMethodParameters()));
 		}
 		binderMethod.setDataBinderFactory(new DefaultDataBinderFactory(this.webBindingInitializer));
 		binderMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
@@ -1028,4 +1149,77 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return mav;
 	}
 
+
+	/**
+	 * Invocation plan for a handler method, determined on its first invocation:
+	 * the argument resolver for each parameter, the generated invoker (if any),
+	 * the applicable {@code @InitBinder} and {@code @ModelAttribute} methods,
+	 * and the {@link SessionAttributesHandler}.
+	 * The return value handler is still selected per invocation since it may
+	 * depend on the actual return value.
+	 */
+	private static class InvocationPlan {
+
+		@Nullable
+		final HandlerMethodArgumentResolver[] parameterResolvers;
+
+		@Nullable
+		final HandlerMethodInvoker methodInvoker;
+
+		final List<PlannedMethod> initBinderMethods;
+
+		final List<PlannedMethod> modelAttributeMethods;
+
+		final SessionAttributesHandler sessionAttributesHandler;
+
+		InvocationPlan(@Nullable HandlerMethodArgumentResolver[] parameterResolvers,
+				@Nullable HandlerMethodInvoker methodInvoker, List<PlannedMethod> initBinderMethods,
+				List<PlannedMethod> modelAttributeMethods, SessionAttributesHandler sessionAttributesHandler) {
+
+			this.parameterResolvers = parameterResolvers;
+			this.methodInvoker = methodInvoker;
+			this.initBinderMethods = initBinderMethods;
+			this.modelAttributeMethods = modelAttributeMethods;
+			this.sessionAttributesHandler = sessionAttributesHandler;
+		}
+	}
+
+
+	/**
+	 * An {@code @InitBinder} or {@code @ModelAttribute} method within an
+	 * {@link InvocationPlan}, with the argument resolver for each parameter.
+	 * For a singleton bean, the invocable pre-resolved against the bean instance
+	 * is kept as a template; other bean instances are never retained.
+	 */
+	private static class PlannedMethod {
+
+		@Nullable
+		final ControllerAdviceBean adviceBean;
+
+		final Method method;
+
+		@Nullable
+		final HandlerMethodArgumentResolver[] parameterResolvers;
+
+		@Nullable
+		private final InvocableHandlerMethod template;
+
+		PlannedMethod(@Nullable ControllerAdviceBean adviceBean, InvocableHandlerMethod invocable, boolean singleton) {
+			this.adviceBean = adviceBean;
+			this.method = invocable.getMethod();
+			this.parameterResolvers = invocable.getParameterResolvers();
+			this.template = (singleton ? invocable : null);
+		}
+
+		Object resolveBean(HandlerMethod handlerMethod) {
+			return (this.adviceBean != null ? this.adviceBean.resolveBean() : handlerMethod.getBean());
+		}
+
+		@Nullable
+		InvocableHandlerMethod getTemplate(Object bean) {
+			InvocableHandlerMethod template = this.template;
+			return (template != null && template.getBean() == bean ? template : null);
+		}
+	}
+
 }
@@ -154,6 +154,20 @@ class RequestMappingInfoHandlerMappingTests {
 		assertThat(handlerMethod.getMethod()).isEqualTo(this.fooParamMethod.getMethod());
 	}
 
+	@PathPatternsParameterizedTest
+	void getHandlerPatternMatchAfterRegisterAndUnregister(TestRequestMappingInfoHandlerMapping mapping) throws Exception {
+		RequestMappingInfo info = mapping.createInfo("/projects/{name}/releases/{version}");
+		mapping.registerMapping(info, new TestController(), this.fooMethod.getMethod());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects/spring/releases/5.3.9");
+		HandlerMethod handlerMethod = getHandler(mapping, request);
+		assertThat(handlerMethod.getMethod()).isEqualTo(this.fooMethod.getMethod());
+
+		mapping.unregisterMapping(info);
+		request = new MockHttpServletRequest("GET", "/projects/spring/releases/5.3.9");
+		assertThat(mapping.getHandler(request)).isNull();
+	}
+
 	@PathPatternsParameterizedTest
 	void getHandlerRequestMethodNotAllowed(TestRequestMappingInfoHandlerMapping mapping) {
 		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bar");
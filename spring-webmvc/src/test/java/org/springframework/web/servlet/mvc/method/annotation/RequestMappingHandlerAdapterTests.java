@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpStatus;
@@ -48,6 +49,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 import org.springframework.web.method.annotation.ModelMethodProcessor;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
@@ -219,6 +221,37 @@ public class RequestMappingHandlerAdapterTests {
 		assertThat(model1.get("instance")).isNotSameAs(model2.get("instance"));
 	}
 
+	@Test
+	public void prototypeController() throws Exception {
+		this.webAppContext.registerSingleton("maa", ModelAttributeAdvice.class);
+		this.webAppContext.registerPrototype("controller", PrototypeController.class);
+		this.webAppContext.refresh();
+
+		Method method = PrototypeController.class.getDeclaredMethod("handle");
+		HandlerMethod handlerMethod = new HandlerMethod("controller", this.webAppContext.getBeanFactory(), method);
+		this.handlerAdapter.afterPropertiesSet();
+
+		HandlerMethod resolved1 = handlerMethod.createWithResolvedBean();
+		HandlerMethod resolved2 = handlerMethod.createWithResolvedBean();
+		Map<String, Object> model1 = this.handlerAdapter.handle(this.request, this.response, resolved1).getModel();
+		Map<String, Object> model2 = this.handlerAdapter.handle(this.request, this.response, resolved2).getModel();
+
+		assertThat(model1.get("controller")).isSameAs(resolved1.getBean());
+		assertThat(model2.get("controller")).isSameAs(resolved2.getBean());
+		assertThat(model2.get("attr2")).isEqualTo("gAttr2");
+
+		// Planned per registered handler method, retaining the singleton advice only
+		@SuppressWarnings("unchecked")
+		Map<HandlerMethod, ?> invocationPlanCache = (Map<HandlerMethod, ?>)
+				new DirectFieldAccessor(this.handlerAdapter).getPropertyValue("invocationPlanCache");
+		assertThat(invocationPlanCache).containsOnlyKeys(handlerMethod);
+		List<?> modelAttributeMethods = (List<?>)
+				new DirectFieldAccessor(invocationPlanCache.get(handlerMethod)).getPropertyValue("modelAttributeMethods");
+		assertThat(modelAttributeMethods).hasSize(2);
+		assertThat(new DirectFieldAccessor(modelAttributeMethods.get(0)).getPropertyValue("template")).isNotNull();
+		assertThat(new DirectFieldAccessor(modelAttributeMethods.get(1)).getPropertyValue("template")).isNull();
+	}
+
 	@Test
 	public void modelAttributeAdviceInParentContext() throws Exception {
 		StaticWebApplicationContext parent = new StaticWebApplicationContext();
@@ -250,6 +283,21 @@ public class RequestMappingHandlerAdapterTests {
 		assertThat(mav.getModel().get("attr3")).isEqualTo(null);
 	}
 
+	@Test
+	public void generatedInvokers() throws Exception {
+		HandlerMethod handlerMethod = handlerMethod(new InvokerController(), "handle", Model.class);
+		this.handlerAdapter.afterPropertiesSet();
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+		assertThat(mav.getViewName()).isEqualTo("view");
+		assertThat(mav.getModel().get("caller")).isNotEqualTo(HandlerMethodInvoker.class.getName());
+
+		this.handlerAdapter.setUseGeneratedInvokers(true);
+		this.handlerAdapter.afterPropertiesSet();
+		mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+		assertThat(mav.getViewName()).isEqualTo("view");
+		assertThat(mav.getModel().get("caller")).isEqualTo(HandlerMethodInvoker.class.getName());
+	}
+
 	// SPR-10859
 
 	@Test
@@ -308,6 +356,29 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class PrototypeController {
+
+		@ModelAttribute
+		public void addAttributes(Model model) {
+			model.addAttribute("controller", this);
+		}
+
+		public String handle() {
+			return null;
+		}
+	}
+
+
+	public static class InvokerController {
+
+		public String handle(Model model) {
+			model.addAttribute("caller", new Throwable().getStackTrace()[1].getClassName());
+			return "view";
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 